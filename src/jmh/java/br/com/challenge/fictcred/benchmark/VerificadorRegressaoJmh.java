@@ -0,0 +1,88 @@
+package br.com.challenge.fictcred.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Compara o resultado JSON do JMH com uma linha de base e falha (código de saída 1) quando algum
+// benchmark piora mais que o limite percentual informado.
+// Uso: VerificadorRegressaoJmh <resultado.json> <linha-de-base.json> <limite-percentual>
+public final class VerificadorRegressaoJmh {
+
+    private VerificadorRegressaoJmh() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path resultado = Path.of(args[0]);
+        Path linhaDeBase = Path.of(args[1]);
+        double limite = Double.parseDouble(args[2]);
+
+        // Sem linha de base não há como detectar regressão: falha em vez de aprovar em silêncio
+        if (!Files.exists(linhaDeBase)) {
+            System.out.printf("Linha de base %s não encontrada. "
+                    + "Para criá-la, copie %s para esse caminho.%n", linhaDeBase, resultado);
+            System.exit(1);
+        }
+
+        Map<String, Medicao> atuais = ler(resultado);
+        Map<String, Medicao> base = ler(linhaDeBase);
+        int regressoes = 0;
+
+        System.out.printf("%n%-90s %14s %14s %9s%n", "benchmark", "base", "atual", "variação");
+        for (Map.Entry<String, Medicao> entrada : new TreeMap<>(atuais).entrySet()) {
+            Medicao atual = entrada.getValue();
+            Medicao anterior = base.get(entrada.getKey());
+            if (anterior == null) {
+                System.out.printf("%-90s %14s %14.3f %9s%n", entrada.getKey(), "-", atual.score, "novo");
+                continue;
+            }
+            double piora = atual.piora(anterior);
+            boolean regrediu = piora > limite;
+            if (regrediu) {
+                regressoes++;
+            }
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%%%s%n", entrada.getKey(), anterior.score, atual.score,
+                    piora, regrediu ? "  << REGRESSÃO" : "");
+        }
+
+        if (regressoes > 0) {
+            System.out.printf("%n%d benchmark(s) pioraram mais que %.1f%% em relação à linha de base.%n", regressoes, limite);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Medicao> ler(Path arquivo) throws IOException {
+        Map<String, Medicao> medicoes = new LinkedHashMap<>();
+        for (JsonNode execucao : new ObjectMapper().readTree(arquivo.toFile())) {
+            StringBuilder chave = new StringBuilder(execucao.get("benchmark").asText());
+            JsonNode parametros = execucao.get("params");
+            if (parametros != null) {
+                for (Map.Entry<String, JsonNode> campo : parametros.properties()) {
+                    chave.append(' ').append(campo.getKey()).append('=').append(campo.getValue().asText());
+                }
+            }
+            String modo = execucao.get("mode").asText();
+            double score = execucao.get("primaryMetric").get("score").asDouble();
+            medicoes.put(chave.toString(), new Medicao(modo, score));
+        }
+        return medicoes;
+    }
+
+    private record Medicao(String modo, double score) {
+
+        // Percentual de piora: em vazão (thrpt) menor é pior; nos demais modos (tempo) maior é pior
+        double piora(Medicao base) {
+            if (base.score == 0) {
+                return 0;
+            }
+            double variacao = (score - base.score) / base.score * 100;
+            return "thrpt".equals(modo) ? -variacao : variacao;
+        }
+    }
+}
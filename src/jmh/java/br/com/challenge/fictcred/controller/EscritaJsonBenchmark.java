@@ -0,0 +1,67 @@
+package br.com.challenge.fictcred.controller;
+
+import br.com.challenge.fictcred.dto.ClienteListDTO;
+import br.com.challenge.fictcred.dto.PaginaDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Listagem montada em memória e serializada de uma vez (como antes) contra escrita direta no gerador.
+// Rodar com -prof gc para comparar a alocação por operação
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EscritaJsonBenchmark {
+
+    @Param({"100", "10000"})
+    private int tamanho;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Date agora;
+
+    @Setup
+    public void setUp() {
+        agora = new Date();
+    }
+
+    @Benchmark
+    public byte[] listaMaterializada() throws Exception {
+        List<ClienteListDTO> itens = new ArrayList<>(tamanho);
+        linhas(itens::add);
+        return objectMapper.writeValueAsBytes(new PaginaDTO<>(itens, (long) tamanho));
+    }
+
+    @Benchmark
+    public void escritaDireta() throws Exception {
+        EscritaJson.<ClienteListDTO>pagina(objectMapper, consumidor -> {
+            linhas(consumidor);
+            return (long) tamanho;
+        }).writeTo(OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void ndjson() throws Exception {
+        EscritaJson.<ClienteListDTO>ndjson(objectMapper, this::linhas).writeTo(OutputStream.nullOutputStream());
+    }
+
+    // Simula as linhas saindo do cursor do banco, uma de cada vez
+    private void linhas(Consumer<ClienteListDTO> consumidor) {
+        for (long i = 0; i < tamanho; i++) {
+            consumidor.accept(new ClienteListDTO(i, "Cliente " + i, "30446563030", new BigDecimal("5000.00"), agora));
+        }
+    }
+}
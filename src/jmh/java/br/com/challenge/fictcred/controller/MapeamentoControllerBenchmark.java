@@ -0,0 +1,81 @@
+package br.com.challenge.fictcred.controller;
+
+import br.com.challenge.fictcred.dto.ClienteInsertDTO;
+import br.com.challenge.fictcred.dto.ClienteListDTO;
+import br.com.challenge.fictcred.dto.PropostaCreditoInsertDTO;
+import br.com.challenge.fictcred.dto.PropostaCreditoListDTO;
+import br.com.challenge.fictcred.enums.StatusParcela;
+import br.com.challenge.fictcred.model.Cliente;
+import br.com.challenge.fictcred.model.PropostaCredito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MapeamentoControllerBenchmark {
+
+    private final ClienteController clienteController = new ClienteController();
+    private final PropostaCreditoController propostaCreditoController = new PropostaCreditoController();
+
+    private ClienteInsertDTO clienteInsertDTO;
+    private PropostaCreditoInsertDTO propostaInsertDTO;
+    private Cliente cliente;
+    private PropostaCredito proposta;
+
+    @Setup
+    public void setUp() {
+        clienteInsertDTO = new ClienteInsertDTO();
+        clienteInsertDTO.setNome("João Silva");
+        clienteInsertDTO.setCpf("30446563030");
+        clienteInsertDTO.setRendaMensal(new BigDecimal("5000.00"));
+
+        propostaInsertDTO = new PropostaCreditoInsertDTO();
+        propostaInsertDTO.setValorSolicitado(new BigDecimal("10000.00"));
+        propostaInsertDTO.setNumeroParcelas(12);
+
+        cliente = new Cliente();
+        cliente.setId(1L);
+        cliente.setNome("João Silva");
+        cliente.setCpf("30446563030");
+        cliente.setRendaMensal(new BigDecimal("5000.00"));
+        cliente.setDataCadastro(new Date());
+
+        proposta = new PropostaCredito();
+        proposta.setId(1L);
+        proposta.setValorSolicitado(new BigDecimal("10000.00"));
+        proposta.setNumeroParcelas(12);
+        proposta.setStatus(StatusParcela.APROVADA);
+        proposta.setDataCriacao(new Date());
+        proposta.setCliente(cliente);
+    }
+
+    @Benchmark
+    public Cliente clienteConvertToEntity() {
+        return clienteController.convertToEntity(clienteInsertDTO);
+    }
+
+    @Benchmark
+    public ClienteListDTO clienteConvertToListDTO() {
+        return clienteController.convertToListDTO(cliente);
+    }
+
+    @Benchmark
+    public PropostaCredito propostaConvertToEntity() {
+        return propostaCreditoController.convertToEntity(propostaInsertDTO);
+    }
+
+    @Benchmark
+    public PropostaCreditoListDTO propostaConvertToListDTO() {
+        return propostaCreditoController.convertToListDTO(proposta);
+    }
+}
@@ -0,0 +1,55 @@
+package br.com.challenge.fictcred.dto;
+
+import br.com.challenge.fictcred.enums.StatusParcela;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializacaoJsonBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    private int tamanho;
+
+    private ObjectWriter writer;
+    private List<ClienteListDTO> clientes;
+    private List<PropostaCreditoListDTO> propostas;
+
+    @Setup
+    public void setUp() {
+        writer = new ObjectMapper().writer();
+        clientes = new ArrayList<>(tamanho);
+        propostas = new ArrayList<>(tamanho);
+        Date agora = new Date();
+        for (long i = 0; i < tamanho; i++) {
+            clientes.add(new ClienteListDTO(i, "Cliente " + i, "30446563030", new BigDecimal("5000.00"), agora));
+            propostas.add(new PropostaCreditoListDTO(i, new BigDecimal("10000.00"), 12, StatusParcela.APROVADA,
+                    agora, i, "Cliente " + i, null));
+        }
+    }
+
+    @Benchmark
+    public byte[] clientes() throws Exception {
+        return writer.writeValueAsBytes(clientes);
+    }
+
+    @Benchmark
+    public byte[] propostas() throws Exception {
+        return writer.writeValueAsBytes(propostas);
+    }
+}
@@ -0,0 +1,25 @@
+package br.com.challenge.fictcred.enums;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StatusParcelaBenchmark {
+
+    @Param({"1", "2", "99"})
+    private int valor;
+
+    @Benchmark
+    public StatusParcela getStatusByInt() {
+        return StatusParcela.getStatusByInt(valor);
+    }
+}
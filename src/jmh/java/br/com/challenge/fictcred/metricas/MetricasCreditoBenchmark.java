@@ -0,0 +1,55 @@
+package br.com.challenge.fictcred.metricas;
+
+import br.com.challenge.fictcred.regra.AvaliadorCredito;
+import br.com.challenge.fictcred.regra.ResultadoAvaliacao;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+// Custo da instrumentação sobre a avaliação: compara a avaliação pura com a avaliação medida
+// num registry Prometheus (o mesmo usado em produção), para aprovadas e reprovadas.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MetricasCreditoBenchmark {
+
+    private final AvaliadorCredito avaliador = AvaliadorCredito.padrao();
+    private final MetricasCredito metricas = new MetricasCredito(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT));
+    private final BigDecimal renda = new BigDecimal("5000.00");
+    private final BigDecimal valorAprovado = new BigDecimal("3000.00");
+    private final BigDecimal valorReprovado = new BigDecimal("30000.00");
+
+    @Benchmark
+    public ResultadoAvaliacao aprovadaSemMetricas() {
+        return avaliador.avaliar(valorAprovado, 12, renda);
+    }
+
+    @Benchmark
+    public ResultadoAvaliacao aprovadaComMetricas() {
+        long inicio = System.nanoTime();
+        ResultadoAvaliacao resultado = avaliador.avaliar(valorAprovado, 12, renda);
+        metricas.registrarAvaliacao(System.nanoTime() - inicio, resultado);
+        return resultado;
+    }
+
+    @Benchmark
+    public ResultadoAvaliacao reprovadaSemMetricas() {
+        return avaliador.avaliar(valorReprovado, 12, renda);
+    }
+
+    @Benchmark
+    public ResultadoAvaliacao reprovadaComMetricas() {
+        long inicio = System.nanoTime();
+        ResultadoAvaliacao resultado = avaliador.avaliar(valorReprovado, 12, renda);
+        metricas.registrarAvaliacao(System.nanoTime() - inicio, resultado);
+        return resultado;
+    }
+}
@@ -0,0 +1,43 @@
+package br.com.challenge.fictcred.regra;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AvaliacaoPropostaBenchmark {
+
+    private final AvaliadorCredito avaliador = AvaliadorCredito.padrao();
+    private final BigDecimal renda = new BigDecimal("5000.00");
+    private final BigDecimal valorAbaixoDaRenda = new BigDecimal("3000.00");
+    private final BigDecimal valorAcimaDaRenda = new BigDecimal("20000.00");
+    private final BigDecimal valorAcimaDoLimite = new BigDecimal("30000.00");
+
+    @Benchmark
+    public ResultadoAvaliacao aprovadaSemMultiplicacao() {
+        return avaliador.avaliar(valorAbaixoDaRenda, 12, renda);
+    }
+
+    @Benchmark
+    public ResultadoAvaliacao aprovadaComMultiplicacao() {
+        return avaliador.avaliar(valorAcimaDaRenda, 12, renda);
+    }
+
+    @Benchmark
+    public ResultadoAvaliacao reprovadaPorValor() {
+        return avaliador.avaliar(valorAcimaDoLimite, 12, renda);
+    }
+
+    @Benchmark
+    public ResultadoAvaliacao reprovadaPorParcelas() {
+        return avaliador.avaliar(valorAbaixoDaRenda, 36, renda);
+    }
+}
@@ -2,8 +2,10 @@ package br.com.challenge.fictcred;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class FictcredApplication {
 
 	public static void main(String[] args) {
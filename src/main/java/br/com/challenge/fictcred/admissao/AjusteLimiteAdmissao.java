@@ -0,0 +1,38 @@
+package br.com.challenge.fictcred.admissao;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.concurrent.TimeUnit;
+
+// Lê a espera por conexão que o HikariCP publica no Micrometer e ajusta o limite global a cada intervalo
+public class AjusteLimiteAdmissao {
+
+    static final String METRICA_AQUISICAO = "hikaricp.connections.acquire";
+
+    private final LimiteAdaptativo limite;
+    private final MeterRegistry registry;
+    private long contagemAnterior;
+    private double tempoTotalAnterior;
+
+    public AjusteLimiteAdmissao(LimiteAdaptativo limite, MeterRegistry registry) {
+        this.limite = limite;
+        this.registry = registry;
+    }
+
+    @Scheduled(fixedDelayString = "${fictcred.admissao.global.intervalo-ajuste:1000}")
+    public synchronized void ajustar() {
+        long contagem = 0;
+        double tempoTotal = 0;
+        for (Timer timer : registry.find(METRICA_AQUISICAO).timers()) {
+            contagem += timer.count();
+            tempoTotal += timer.totalTime(TimeUnit.NANOSECONDS);
+        }
+        long aquisicoes = contagem - contagemAnterior;
+        long esperaMedia = aquisicoes > 0 ? (long) ((tempoTotal - tempoTotalAnterior) / aquisicoes) : 0;
+        contagemAnterior = contagem;
+        tempoTotalAnterior = tempoTotal;
+        limite.ajustar(esperaMedia);
+    }
+}
@@ -0,0 +1,33 @@
+package br.com.challenge.fictcred.admissao;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Balde de tokens no formato GCRA: o estado é só o instante teórico da próxima chegada,
+// atualizado por CAS, então não há lock nem thread de reposição
+public class BaldeTokens {
+
+    private final long intervaloNanos;
+    private final long toleranciaNanos;
+    private final AtomicLong proximaChegada;
+
+    public BaldeTokens(double taxaPorSegundo, int rajada, long agoraNanos) {
+        this.intervaloNanos = (long) (1_000_000_000L / taxaPorSegundo);
+        this.toleranciaNanos = intervaloNanos * rajada;
+        this.proximaChegada = new AtomicLong(agoraNanos);
+    }
+
+    // Devolve 0 quando a requisição foi admitida; senão, quanto tempo falta para haver um token
+    public long tentarConsumir(long agoraNanos) {
+        while (true) {
+            long atual = proximaChegada.get();
+            long nova = Math.max(atual - agoraNanos, 0) + agoraNanos + intervaloNanos;
+            long adiantamento = nova - agoraNanos;
+            if (adiantamento > toleranciaNanos) {
+                return adiantamento - toleranciaNanos;
+            }
+            if (proximaChegada.compareAndSet(atual, nova)) {
+                return 0;
+            }
+        }
+    }
+}
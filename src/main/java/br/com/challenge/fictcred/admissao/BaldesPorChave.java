@@ -0,0 +1,29 @@
+package br.com.challenge.fictcred.admissao;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+// Um balde por chave (cliente ou API key). Baldes ociosos expiram, então a memória fica limitada
+// mesmo com chaves arbitrárias vindas do cliente
+public class BaldesPorChave {
+
+    private final double taxaPorSegundo;
+    private final int rajada;
+    private final Cache<String, BaldeTokens> baldes;
+
+    public BaldesPorChave(double taxaPorSegundo, int rajada, long chavesMaximo) {
+        this.taxaPorSegundo = taxaPorSegundo;
+        this.rajada = rajada;
+        // Depois de rajada/taxa segundos parado o balde estaria cheio de novo: pode ser descartado
+        this.baldes = Caffeine.newBuilder()
+                .maximumSize(chavesMaximo)
+                .expireAfterAccess(Duration.ofNanos((long) (rajada / taxaPorSegundo * 1_000_000_000L)).plusSeconds(1))
+                .build();
+    }
+
+    public long tentarConsumir(String chave, long agoraNanos) {
+        return baldes.get(chave, c -> new BaldeTokens(taxaPorSegundo, rajada, agoraNanos)).tentarConsumir(agoraNanos);
+    }
+}
@@ -0,0 +1,97 @@
+package br.com.challenge.fictcred.admissao;
+
+import br.com.challenge.fictcred.concorrencia.FimResposta;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Admissão antes dos controllers, sem espera: taxa por API key e por cliente (429) e concorrência
+// global adaptativa (503). Assim um parceiro insistindo num único cliente não ocupa as conexões de todos.
+public class ControleAdmissaoFilter extends OncePerRequestFilter {
+
+    public static final String CABECALHO_API_KEY = "X-Api-Key";
+    public static final String METRICA_REJEITADAS = "fictcred.admissao.rejeitadas";
+
+    private static final Pattern CRIACAO_PROPOSTA = Pattern.compile("^/fictcred/v1/api/proposta-cliente/(\\d+)(/assincrona)?$");
+
+    private final BaldesPorChave porApiKey;
+    private final BaldesPorChave porCliente;
+    private final LimiteAdaptativo limiteGlobal;
+    private final Counter rejeitadasApiKey;
+    private final Counter rejeitadasCliente;
+    private final Counter rejeitadasGlobal;
+
+    public ControleAdmissaoFilter(BaldesPorChave porApiKey, BaldesPorChave porCliente, LimiteAdaptativo limiteGlobal,
+                                  MeterRegistry registry) {
+        this.porApiKey = porApiKey;
+        this.porCliente = porCliente;
+        this.limiteGlobal = limiteGlobal;
+        this.rejeitadasApiKey = rejeitadas(registry, "api-key");
+        this.rejeitadasCliente = rejeitadas(registry, "cliente");
+        this.rejeitadasGlobal = rejeitadas(registry, "global");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long agora = System.nanoTime();
+
+        String apiKey = request.getHeader(CABECALHO_API_KEY);
+        if (apiKey != null && rejeitarPorTaxa(porApiKey.tentarConsumir(apiKey, agora), rejeitadasApiKey, response)) {
+            return;
+        }
+        String clienteId = clienteDaProposta(request);
+        if (clienteId != null && rejeitarPorTaxa(porCliente.tentarConsumir(clienteId, agora), rejeitadasCliente, response)) {
+            return;
+        }
+
+        if (!limiteGlobal.tentarAdquirir()) {
+            rejeitadasGlobal.increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            FimResposta.executar(request, limiteGlobal::liberar);
+        }
+    }
+
+    private boolean rejeitarPorTaxa(long esperaNanos, Counter rejeitadas, HttpServletResponse response) {
+        if (esperaNanos == 0) {
+            return false;
+        }
+        rejeitadas.increment();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(esperaNanos - 1) + 1)));
+        return true;
+    }
+
+    private String clienteDaProposta(HttpServletRequest request) {
+        if (!HttpMethod.POST.matches(request.getMethod())) {
+            return null;
+        }
+        Matcher matcher = CRIACAO_PROPOSTA.matcher(request.getRequestURI());
+        return matcher.matches() ? matcher.group(1) : null;
+    }
+
+    private static Counter rejeitadas(MeterRegistry registry, String motivo) {
+        return Counter.builder(METRICA_REJEITADAS)
+                .description("Requisições recusadas pelo controle de admissão")
+                .tag("motivo", motivo)
+                .register(registry);
+    }
+}
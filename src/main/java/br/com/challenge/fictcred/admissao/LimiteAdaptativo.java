@@ -0,0 +1,61 @@
+package br.com.challenge.fictcred.admissao;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Limite de requisições simultâneas ajustado por AIMD: cai 10% quando a espera por conexão do
+// HikariCP passa do alvo e sobe 1 quando o limite está quase todo em uso e o pool responde bem
+public class LimiteAdaptativo {
+
+    private static final double FATOR_REDUCAO = 0.9;
+    private static final double USO_PARA_AUMENTAR = 0.8;
+
+    private final int minimo;
+    private final int maximo;
+    private final long esperaAlvoNanos;
+    private final AtomicInteger emUso = new AtomicInteger();
+    private final AtomicInteger picoEmUso = new AtomicInteger();
+    private volatile int limite;
+
+    public LimiteAdaptativo(int inicial, int minimo, int maximo, long esperaAlvoNanos) {
+        this.limite = inicial;
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.esperaAlvoNanos = esperaAlvoNanos;
+    }
+
+    public boolean tentarAdquirir() {
+        while (true) {
+            int atual = emUso.get();
+            if (atual >= limite) {
+                return false;
+            }
+            if (emUso.compareAndSet(atual, atual + 1)) {
+                picoEmUso.accumulateAndGet(atual + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    public void liberar() {
+        emUso.decrementAndGet();
+    }
+
+    // Chamado periodicamente com a espera média por conexão desde o último ajuste
+    public void ajustar(long esperaMediaNanos) {
+        int atual = limite;
+        int pico = picoEmUso.getAndSet(emUso.get());
+        if (esperaMediaNanos > esperaAlvoNanos) {
+            limite = Math.max(minimo, Math.min(atual - 1, (int) (atual * FATOR_REDUCAO)));
+        } else if (pico >= atual * USO_PARA_AUMENTAR) {
+            limite = Math.min(maximo, atual + 1);
+        }
+    }
+
+    public int getLimite() {
+        return limite;
+    }
+
+    public int getEmUso() {
+        return emUso.get();
+    }
+}
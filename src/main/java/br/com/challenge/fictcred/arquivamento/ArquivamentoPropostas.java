@@ -0,0 +1,140 @@
+package br.com.challenge.fictcred.arquivamento;
+
+import br.com.challenge.fictcred.enums.StatusParcela;
+import br.com.challenge.fictcred.repository.PropostaCreditoArquivadaRepository;
+import br.com.challenge.fictcred.repository.PropostaCreditoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+// Move para proposta_credito_arquivo as propostas decididas há mais que a retenção, mantendo a tabela
+// principal (e seus índices) do tamanho do período recente. Com particionamento (PostgreSQL, ver
+// db/postgresql/010-particionamento-proposta.sql) também cria as partições dos próximos meses e arquiva
+// partições mensais inteiras; sem ele, move as linhas em lotes, cada lote na sua transação.
+public class ArquivamentoPropostas {
+
+    private static final Logger log = LoggerFactory.getLogger(ArquivamentoPropostas.class);
+    private static final ZoneId ZONA = ZoneId.systemDefault();
+
+    private final PropostaCreditoRepository propostaCreditoRepository;
+    private final PropostaCreditoArquivadaRepository arquivadaRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final Duration retencao;
+    private final int tamanhoLote;
+    private final boolean particionado;
+    private final int mesesAFrente;
+    private Counter arquivadas;
+
+    public ArquivamentoPropostas(PropostaCreditoRepository propostaCreditoRepository,
+                                 PropostaCreditoArquivadaRepository arquivadaRepository,
+                                 TransactionTemplate transactionTemplate, EntityManagerFactory entityManagerFactory,
+                                 Duration retencao, int tamanhoLote, boolean particionado, int mesesAFrente) {
+        this.propostaCreditoRepository = propostaCreditoRepository;
+        this.arquivadaRepository = arquivadaRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.retencao = retencao;
+        this.tamanhoLote = tamanhoLote;
+        this.particionado = particionado;
+        this.mesesAFrente = mesesAFrente;
+    }
+
+    public void registrarMetricas(MeterRegistry registry) {
+        arquivadas = Counter.builder("fictcred.arquivamento.propostas")
+                .description("Propostas movidas para o arquivo")
+                .register(registry);
+    }
+
+    // fictcred.arquivamento.cron=- desativa o agendamento
+    @Scheduled(cron = "${fictcred.arquivamento.cron:0 30 3 * * *}")
+    public void executar() {
+        try {
+            executar(Instant.now());
+        } catch (RuntimeException e) {
+            log.error("Falha no arquivamento de propostas; será tentado de novo no próximo agendamento", e);
+        }
+    }
+
+    public long executar(Instant agora) {
+        Instant limite = agora.minus(retencao);
+        long total;
+        if (particionado) {
+            int criadas = criarParticoes(LocalDate.ofInstant(agora, ZONA));
+            if (criadas > 0) {
+                log.info("Partições de proposta_credito criadas: {}", criadas);
+            }
+            total = arquivarParticoes(limite);
+        } else {
+            total = 0;
+            int movidas;
+            do {
+                movidas = arquivarLote(Date.from(limite));
+                total += movidas;
+            } while (movidas == tamanhoLote);
+        }
+        if (total > 0) {
+            log.info("Propostas arquivadas (criadas antes de {}): {}", limite, total);
+            if (arquivadas != null) {
+                arquivadas.increment(total);
+            }
+        }
+        return total;
+    }
+
+    // Do mês atual até mesesAFrente meses depois dele
+    private int criarParticoes(LocalDate hoje) {
+        LocalDate inicio = hoje.withDayOfMonth(1);
+        Integer criadas = transactionTemplate.execute(status -> ((Number) entityManager()
+                .createNativeQuery("select criar_particoes_proposta(:inicio, :fim)")
+                .setParameter("inicio", inicio)
+                .setParameter("fim", inicio.plusMonths(mesesAFrente + 1L))
+                .getSingleResult()).intValue());
+        return criadas == null ? 0 : criadas;
+    }
+
+    private long arquivarParticoes(Instant limite) {
+        Long total = transactionTemplate.execute(status -> ((Number) entityManager()
+                .createNativeQuery("select arquivar_particoes_proposta(:limite)")
+                .setParameter("limite", Timestamp.from(limite))
+                .getSingleResult()).longValue());
+        // A função altera as tabelas por fora do Hibernate: as listagens em cache deixam de valer
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        return total == null ? 0 : total;
+    }
+
+    // Copia e remove na mesma transação: a proposta está sempre em exatamente uma das tabelas
+    private int arquivarLote(Date limite) {
+        Integer movidas = transactionTemplate.execute(status -> {
+            List<Long> ids = propostaCreditoRepository.findIdsParaArquivar(limite, StatusParcela.PENDENTE,
+                    Limit.of(tamanhoLote));
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            arquivadaRepository.copiarParaArquivo(ids);
+            propostaCreditoRepository.deleteAllByIdInBatch(ids);
+            return ids.size();
+        });
+        return movidas == null ? 0 : movidas;
+    }
+
+    private EntityManager entityManager() {
+        return EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+    }
+}
@@ -0,0 +1,16 @@
+package br.com.challenge.fictcred.cache;
+
+import java.util.function.Consumer;
+
+// Propaga invalidações do cache de clientes entre as réplicas da aplicação
+public interface CanalInvalidacaoCliente {
+
+    void publicar(Long clienteId);
+
+    void assinar(Consumer<Long> ouvinte);
+
+    // Chamado quando invalidações podem ter se perdido (ex.: reconexão ao banco): os assinantes descartam
+    // tudo. Canais que não perdem mensagens nunca chamam.
+    default void assinarReinicio(Runnable ouvinte) {
+    }
+}
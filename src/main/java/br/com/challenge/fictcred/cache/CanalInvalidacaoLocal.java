@@ -0,0 +1,23 @@
+package br.com.challenge.fictcred.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// Canal em memória: atende uma única instância ou várias instâncias de cache no mesmo processo (testes)
+public class CanalInvalidacaoLocal implements CanalInvalidacaoCliente {
+
+    private final List<Consumer<Long>> ouvintes = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publicar(Long clienteId) {
+        for (Consumer<Long> ouvinte : ouvintes) {
+            ouvinte.accept(clienteId);
+        }
+    }
+
+    @Override
+    public void assinar(Consumer<Long> ouvinte) {
+        ouvintes.add(ouvinte);
+    }
+}
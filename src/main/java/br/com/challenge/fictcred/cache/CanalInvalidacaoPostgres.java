@@ -0,0 +1,136 @@
+package br.com.challenge.fictcred.cache;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// Canal entre instâncias pelo LISTEN/NOTIFY do PostgreSQL. Cada instância mantém uma conexão própria
+// escutando o canal; publicar avisa as assinaturas locais na hora e as demais instâncias pelo NOTIFY.
+// O NOTIFY não é guardado para quem não está escutando: depois de perder a conexão, as assinaturas
+// descartam tudo (assinarReinicio), já que invalidações podem ter passado nesse intervalo.
+public class CanalInvalidacaoPostgres implements CanalInvalidacaoCliente, AutoCloseable {
+
+    public static final String CANAL = "fictcred_cliente";
+
+    private static final Logger log = LoggerFactory.getLogger(CanalInvalidacaoPostgres.class);
+    private static final int ESPERA_NOTIFICACAO_MILLIS = 500;
+
+    private final DataSource dataSource;
+    private final Duration intervaloReconexao;
+    private final List<Consumer<Long>> ouvintes = new CopyOnWriteArrayList<>();
+    private final List<Runnable> ouvintesReinicio = new CopyOnWriteArrayList<>();
+    private volatile boolean ativo;
+    private Thread escuta;
+
+    public CanalInvalidacaoPostgres(DataSource dataSource, Duration intervaloReconexao) {
+        this.dataSource = dataSource;
+        this.intervaloReconexao = intervaloReconexao;
+    }
+
+    public void iniciar() {
+        ativo = true;
+        escuta = Thread.ofPlatform().name("canal-invalidacao-cliente").daemon().start(this::escutar);
+    }
+
+    // Conexão fora da transação corrente: quem invalida já gravou, e o aviso não pode esperar (nem
+    // depender) do commit de outra unidade de trabalho
+    @Override
+    public void publicar(Long clienteId) {
+        entregar(clienteId);
+        try (Connection conexao = dataSource.getConnection();
+             PreparedStatement notificar = conexao.prepareStatement("select pg_notify(?, ?)")) {
+            notificar.setString(1, CANAL);
+            notificar.setString(2, String.valueOf(clienteId));
+            notificar.execute();
+        } catch (SQLException e) {
+            // As demais instâncias ficam com a entrada até o TTL
+            log.warn("Falha ao publicar a invalidação do cliente {}", clienteId, e);
+        }
+    }
+
+    @Override
+    public void assinar(Consumer<Long> ouvinte) {
+        ouvintes.add(ouvinte);
+    }
+
+    @Override
+    public void assinarReinicio(Runnable ouvinte) {
+        ouvintesReinicio.add(ouvinte);
+    }
+
+    void escutar() {
+        boolean primeiraConexao = true;
+        while (ativo) {
+            try (Connection conexao = dataSource.getConnection()) {
+                conexao.setAutoCommit(true);
+                try (Statement listen = conexao.createStatement()) {
+                    listen.execute("LISTEN " + CANAL);
+                }
+                if (!primeiraConexao) {
+                    reiniciar();
+                }
+                primeiraConexao = false;
+                PGConnection pg = conexao.unwrap(PGConnection.class);
+                while (ativo) {
+                    PGNotification[] notificacoes = pg.getNotifications(ESPERA_NOTIFICACAO_MILLIS);
+                    if (notificacoes != null) {
+                        for (PGNotification notificacao : notificacoes) {
+                            receber(notificacao.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!ativo) {
+                    return;
+                }
+                primeiraConexao = false;
+                log.warn("Conexão do canal de invalidação perdida; nova tentativa em {}", intervaloReconexao, e);
+                try {
+                    Thread.sleep(intervaloReconexao);
+                } catch (InterruptedException interrompida) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    void receber(String carga) {
+        try {
+            entregar(Long.valueOf(carga));
+        } catch (NumberFormatException e) {
+            log.warn("Notificação inválida no canal {}: {}", CANAL, carga);
+        }
+    }
+
+    private void entregar(Long clienteId) {
+        for (Consumer<Long> ouvinte : ouvintes) {
+            ouvinte.accept(clienteId);
+        }
+    }
+
+    private void reiniciar() {
+        for (Runnable ouvinte : ouvintesReinicio) {
+            ouvinte.run();
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        ativo = false;
+        if (escuta != null) {
+            escuta.join(ESPERA_NOTIFICACAO_MILLIS * 2L);
+        }
+    }
+}
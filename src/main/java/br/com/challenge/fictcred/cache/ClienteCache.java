@@ -0,0 +1,66 @@
+package br.com.challenge.fictcred.cache;
+
+import br.com.challenge.fictcred.model.Cliente;
+import br.com.challenge.fictcred.replica.LeituraNoPrimario;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+// Os carregamentos vão ao primário: lido de uma réplica atrasada, o estado anterior a uma alteração ficaria
+// no cache por todo o TTL, já que a invalidação da alteração aconteceu antes
+public class ClienteCache {
+
+    public static final String NOME = "clientes";
+
+    private final Cache<Long, DadosCliente> cache;
+    private final CanalInvalidacaoCliente canal;
+
+    public ClienteCache(long tamanhoMaximo, Duration ttl, CanalInvalidacaoCliente canal) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.canal = canal;
+        canal.assinar(cache::invalidate);
+        canal.assinarReinicio(cache::invalidateAll);
+    }
+
+    public Optional<Cliente> buscar(Long id, Function<Long, Optional<Cliente>> carregador) {
+        // Clientes inexistentes não são armazenados: o carregador devolve null e o Caffeine não guarda a chave
+        DadosCliente dados = cache.get(id, chave -> LeituraNoPrimario.executar(() -> carregador.apply(chave))
+                .map(DadosCliente::de).orElse(null));
+        return Optional.ofNullable(dados).map(DadosCliente::paraCliente);
+    }
+
+    public Collection<Cliente> buscarTodos(Set<Long> ids, Function<Set<Long>, Map<Long, Cliente>> carregador) {
+        return cache.getAll(ids, faltantes -> {
+            Map<Long, DadosCliente> carregados = new LinkedHashMap<>();
+            LeituraNoPrimario.executar(() -> carregador.apply(Set.copyOf(faltantes))).forEach((id, cliente) -> carregados.put(id, DadosCliente.de(cliente)));
+            return carregados;
+        }).values().stream().map(DadosCliente::paraCliente).toList();
+    }
+
+    public void invalidar(Long id) {
+        cache.invalidate(id);
+        canal.publicar(id);
+    }
+
+    public CacheStats estatisticas() {
+        return cache.stats();
+    }
+
+    public void registrarMetricas(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, NOME);
+    }
+}
@@ -0,0 +1,31 @@
+package br.com.challenge.fictcred.cache;
+
+import br.com.challenge.fictcred.model.Cliente;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Date;
+
+// Cópia imutável do cadastro guardada no cache: a entidade carregada pelo Hibernate não sai da transação
+// que a leu, e cada leitura recebe um Cliente novo, que quem chama pode alterar sem afetar os demais
+public record DadosCliente(Long id, String nome, String cpf, BigDecimal rendaMensal, Instant dataCadastro,
+                           Long versao) {
+
+    public static DadosCliente de(Cliente cliente) {
+        return new DadosCliente(cliente.getId(), cliente.getNome(), cliente.getCpf(), cliente.getRendaMensal(),
+                cliente.getDataCadastro() != null ? Instant.ofEpochMilli(cliente.getDataCadastro().getTime()) : null,
+                cliente.getVersao());
+    }
+
+    public Cliente paraCliente() {
+        Cliente cliente = new Cliente();
+        cliente.setId(id);
+        cliente.setNome(nome);
+        cliente.setNomeBusca(Cliente.normalizarNome(nome));
+        cliente.setCpf(cpf);
+        cliente.setRendaMensal(rendaMensal);
+        cliente.setDataCadastro(dataCadastro != null ? Date.from(dataCadastro) : null);
+        cliente.setVersao(versao);
+        return cliente;
+    }
+}
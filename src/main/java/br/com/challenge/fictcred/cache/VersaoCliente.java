@@ -0,0 +1,18 @@
+package br.com.challenge.fictcred.cache;
+
+// Versões usadas nos ETags: a do cadastro do cliente e a da sua lista de propostas.
+// A listagem também traz o nome do cliente, então o ETag dela depende das duas.
+public record VersaoCliente(Long versaoCliente, Long versaoPropostas) {
+
+    public static String etagCliente(Long versaoCliente) {
+        return "\"" + versaoCliente + "\"";
+    }
+
+    public String etagCliente() {
+        return etagCliente(versaoCliente);
+    }
+
+    public String etagPropostas() {
+        return "\"" + versaoCliente + "." + versaoPropostas + "\"";
+    }
+}
@@ -0,0 +1,45 @@
+package br.com.challenge.fictcred.cache;
+
+import br.com.challenge.fictcred.replica.LeituraNoPrimario;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+// Versões por cliente para responder If-None-Match sem carregar nem serializar entidades.
+// Alterações do cadastro chegam pelo canal de invalidação; alterações nas propostas são invalidadas
+// localmente após o commit, e nas demais instâncias valem no máximo até o TTL. Como em ClienteCache,
+// os carregamentos vão ao primário, para que uma réplica atrasada não deixe um ETag antigo no cache.
+public class VersaoClienteCache {
+
+    public static final String NOME = "versoes-cliente";
+
+    private final Cache<Long, VersaoCliente> cache;
+
+    public VersaoClienteCache(long tamanhoMaximo, Duration ttl, CanalInvalidacaoCliente canal) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        canal.assinar(cache::invalidate);
+        canal.assinarReinicio(cache::invalidateAll);
+    }
+
+    public Optional<VersaoCliente> buscar(Long clienteId, Function<Long, Optional<VersaoCliente>> carregador) {
+        return Optional.ofNullable(cache.get(clienteId,
+                chave -> LeituraNoPrimario.executar(() -> carregador.apply(chave)).orElse(null)));
+    }
+
+    public void invalidar(Long clienteId) {
+        cache.invalidate(clienteId);
+    }
+
+    public void registrarMetricas(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, NOME);
+    }
+}
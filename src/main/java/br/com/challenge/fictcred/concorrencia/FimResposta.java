@@ -0,0 +1,61 @@
+package br.com.challenge.fictcred.concorrencia;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletRequest;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Libera o que um filtro reservou quando a resposta termina de fato. Com StreamingResponseBody a cadeia
+// volta assim que o controller retorna e o corpo (com as leituras do banco) é escrito depois, em outra
+// thread: liberar no retorno da cadeia soltaria a permissão com o trabalho ainda por fazer
+public final class FimResposta {
+
+    private FimResposta() {
+    }
+
+    public static void executar(ServletRequest request, Runnable liberar) {
+        if (!request.isAsyncStarted()) {
+            liberar.run();
+            return;
+        }
+        request.getAsyncContext().addListener(new Liberacao(liberar));
+    }
+
+    private static final class Liberacao implements AsyncListener {
+
+        private final Runnable liberar;
+        private final AtomicBoolean liberada = new AtomicBoolean();
+
+        private Liberacao(Runnable liberar) {
+            this.liberar = liberar;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            liberarUmaVez();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            liberarUmaVez();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            liberarUmaVez();
+        }
+
+        // Um novo ciclo assíncrono descarta os ouvintes registrados: continua acompanhando o novo
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void liberarUmaVez() {
+            if (liberada.compareAndSet(false, true)) {
+                liberar.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package br.com.challenge.fictcred.concorrencia;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Com threads virtuais o Tomcat não limita mais a concorrência: sem este filtro, milhares de
+// requisições ficariam enfileiradas no HikariCP até estourar o connectionTimeout
+public class LimitadorConcorrenciaFilter extends OncePerRequestFilter {
+
+    private final Semaphore permissoes;
+    private final int limite;
+    private final long esperaMaximaNanos;
+
+    public LimitadorConcorrenciaFilter(int limite, Duration esperaMaxima) {
+        this.permissoes = new Semaphore(limite, true);
+        this.limite = limite;
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean adquirida;
+        try {
+            adquirida = permissoes.tryAcquire(esperaMaximaNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            adquirida = false;
+        }
+        if (!adquirida) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            FimResposta.executar(request, permissoes::release);
+        }
+    }
+
+    public int getLimite() {
+        return limite;
+    }
+
+    public int getEmUso() {
+        return limite - permissoes.availablePermits();
+    }
+
+    public int getAguardando() {
+        return permissoes.getQueueLength();
+    }
+}
@@ -0,0 +1,75 @@
+package br.com.challenge.fictcred.concorrencia;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+
+// Acompanha via JFR os trechos em que uma thread virtual ficou presa à thread portadora
+// (synchronized ou código nativo durante uma operação bloqueante)
+public class MonitorPinning implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(MonitorPinning.class);
+    private static final String EVENTO = "jdk.VirtualThreadPinned";
+
+    private final RecordingStream stream;
+    private final Counter ocorrencias;
+    private final Timer duracao;
+
+    public MonitorPinning(Duration limiar, MeterRegistry registry) {
+        this.ocorrencias = Counter.builder("fictcred.threads.virtuais.pinning")
+                .description("Ocorrências de thread virtual presa à portadora acima do limiar")
+                .register(registry);
+        this.duracao = Timer.builder("fictcred.threads.virtuais.pinning.duracao")
+                .register(registry);
+        this.stream = new RecordingStream();
+        stream.enable(EVENTO).withThreshold(limiar).withStackTrace();
+        stream.onEvent(EVENTO, this::registrar);
+    }
+
+    public void iniciar() {
+        stream.startAsync();
+    }
+
+    public long getOcorrencias() {
+        return (long) ocorrencias.count();
+    }
+
+    private void registrar(RecordedEvent evento) {
+        ocorrencias.increment();
+        duracao.record(evento.getDuration());
+        log.warn("Thread virtual presa à portadora por {} ms em {}", evento.getDuration().toMillis(), origem(evento));
+    }
+
+    private String origem(RecordedEvent evento) {
+        RecordedStackTrace pilha = evento.getStackTrace();
+        if (pilha == null) {
+            return "origem desconhecida";
+        }
+        List<RecordedFrame> quadros = pilha.getFrames();
+        StringBuilder origem = new StringBuilder();
+        for (int i = 0; i < Math.min(quadros.size(), 5); i++) {
+            RecordedFrame quadro = quadros.get(i);
+            origem.append("\n\tat ")
+                    .append(quadro.getMethod().getType().getName())
+                    .append('.')
+                    .append(quadro.getMethod().getName())
+                    .append(':')
+                    .append(quadro.getLineNumber());
+        }
+        return origem.toString();
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+}
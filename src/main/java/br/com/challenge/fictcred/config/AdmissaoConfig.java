@@ -0,0 +1,66 @@
+package br.com.challenge.fictcred.config;
+
+import br.com.challenge.fictcred.admissao.AjusteLimiteAdmissao;
+import br.com.challenge.fictcred.admissao.BaldesPorChave;
+import br.com.challenge.fictcred.admissao.ControleAdmissaoFilter;
+import br.com.challenge.fictcred.admissao.LimiteAdaptativo;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "fictcred.admissao.habilitada", havingValue = "true", matchIfMissing = true)
+public class AdmissaoConfig {
+
+    @Bean
+    public LimiteAdaptativo limiteAdmissaoGlobal(
+            @Value("${fictcred.admissao.global.limite-inicial:40}") int inicial,
+            @Value("${fictcred.admissao.global.limite-minimo:4}") int minimo,
+            @Value("${fictcred.admissao.global.limite-maximo:200}") int maximo,
+            @Value("${fictcred.admissao.global.espera-alvo:PT0.005S}") Duration esperaAlvo,
+            MeterRegistry registry) {
+        LimiteAdaptativo limite = new LimiteAdaptativo(inicial, minimo, maximo, esperaAlvo.toNanos());
+        Gauge.builder("fictcred.admissao.limite", limite, LimiteAdaptativo::getLimite)
+                .description("Limite atual de requisições simultâneas")
+                .register(registry);
+        Gauge.builder("fictcred.admissao.em-uso", limite, LimiteAdaptativo::getEmUso)
+                .register(registry);
+        return limite;
+    }
+
+    @Bean
+    public AjusteLimiteAdmissao ajusteLimiteAdmissao(LimiteAdaptativo limiteAdmissaoGlobal, MeterRegistry registry) {
+        return new AjusteLimiteAdmissao(limiteAdmissaoGlobal, registry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ControleAdmissaoFilter> controleAdmissao(
+            LimiteAdaptativo limiteAdmissaoGlobal,
+            @Value("${fictcred.admissao.cliente.taxa:20}") double taxaCliente,
+            @Value("${fictcred.admissao.cliente.rajada:40}") int rajadaCliente,
+            @Value("${fictcred.admissao.api-key.taxa:200}") double taxaApiKey,
+            @Value("${fictcred.admissao.api-key.rajada:400}") int rajadaApiKey,
+            @Value("${fictcred.admissao.chaves-maximo:100000}") long chavesMaximo,
+            MeterRegistry registry) {
+        ControleAdmissaoFilter filtro = new ControleAdmissaoFilter(
+                new BaldesPorChave(taxaApiKey, rajadaApiKey, chavesMaximo),
+                new BaldesPorChave(taxaCliente, rajadaCliente, chavesMaximo),
+                limiteAdmissaoGlobal,
+                registry);
+        Gauge.builder("fictcred.admissao.taxa", () -> taxaCliente).tag("escopo", "cliente").register(registry);
+        Gauge.builder("fictcred.admissao.taxa", () -> taxaApiKey).tag("escopo", "api-key").register(registry);
+
+        FilterRegistrationBean<ControleAdmissaoFilter> registro = new FilterRegistrationBean<>(filtro);
+        registro.addUrlPatterns("/fictcred/*");
+        // Antes do limitador das threads virtuais e da idempotência: recusa sem esperar por nada
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registro;
+    }
+}
@@ -0,0 +1,36 @@
+package br.com.challenge.fictcred.config;
+
+import br.com.challenge.fictcred.arquivamento.ArquivamentoPropostas;
+import br.com.challenge.fictcred.repository.PropostaCreditoArquivadaRepository;
+import br.com.challenge.fictcred.repository.PropostaCreditoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+// fictcred.arquivamento.particionado=true quando proposta_credito é particionada (PostgreSQL com o script 010)
+@Configuration
+public class ArquivamentoConfig {
+
+    @Bean
+    public ArquivamentoPropostas arquivamentoPropostas(
+            PropostaCreditoRepository propostaCreditoRepository,
+            PropostaCreditoArquivadaRepository arquivadaRepository,
+            TransactionTemplate transactionTemplate,
+            EntityManagerFactory entityManagerFactory,
+            @Value("${fictcred.arquivamento.retencao:P365D}") Duration retencao,
+            @Value("${fictcred.arquivamento.tamanho-lote:1000}") int tamanhoLote,
+            @Value("${fictcred.arquivamento.particionado:false}") boolean particionado,
+            @Value("${fictcred.arquivamento.meses-a-frente:3}") int mesesAFrente,
+            ObjectProvider<MeterRegistry> registry) {
+        ArquivamentoPropostas arquivamento = new ArquivamentoPropostas(propostaCreditoRepository, arquivadaRepository,
+                transactionTemplate, entityManagerFactory, retencao, tamanhoLote, particionado, mesesAFrente);
+        registry.ifAvailable(arquivamento::registrarMetricas);
+        return arquivamento;
+    }
+}
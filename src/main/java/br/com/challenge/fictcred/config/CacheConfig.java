@@ -0,0 +1,87 @@
+package br.com.challenge.fictcred.config;
+
+import br.com.challenge.fictcred.cache.CanalInvalidacaoCliente;
+import br.com.challenge.fictcred.cache.CanalInvalidacaoLocal;
+import br.com.challenge.fictcred.cache.CanalInvalidacaoPostgres;
+import br.com.challenge.fictcred.cache.ClienteCache;
+import br.com.challenge.fictcred.cache.VersaoClienteCache;
+import br.com.challenge.fictcred.model.Cliente;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// fictcred.cache.canal escolhe como as invalidações de clientes chegam às demais instâncias: local (uma
+// única instância; nada é propagado) ou postgres (LISTEN/NOTIFY no banco principal)
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(CanalInvalidacaoCliente.class)
+    @ConditionalOnProperty(name = "fictcred.cache.canal", havingValue = "local", matchIfMissing = true)
+    public CanalInvalidacaoCliente canalInvalidacaoCliente() {
+        return new CanalInvalidacaoLocal();
+    }
+
+    @Bean(initMethod = "iniciar", destroyMethod = "close")
+    @ConditionalOnProperty(name = "fictcred.cache.canal", havingValue = "postgres")
+    public CanalInvalidacaoPostgres canalInvalidacaoPostgres(
+            DataSource dataSource,
+            @Value("${fictcred.cache.intervalo-reconexao:PT5S}") Duration intervaloReconexao) {
+        return new CanalInvalidacaoPostgres(dataSource, intervaloReconexao);
+    }
+
+    // O cache de segundo nível e o query cache só veem as escritas desta instância: propostas criadas em
+    // outra instância não descartam as listagens daqui, e uma leitura da réplica atrasada guardaria o
+    // estado anterior a uma escrita já invalidada. Com réplicas ou várias instâncias, os dois ficam desligados
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivel(
+            @Value("${fictcred.cache.canal:local}") String canal,
+            @Value("${fictcred.datasource.replicas.urls:}") String replicas) {
+        boolean desligar = !"local".equals(canal) || !replicas.isBlank();
+        return propriedades -> {
+            if (desligar) {
+                propriedades.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+                propriedades.put(AvailableSettings.USE_QUERY_CACHE, false);
+            }
+        };
+    }
+
+    @Bean
+    public ClienteCache clienteCache(
+            @Value("${fictcred.cache.cliente.tamanho-maximo:10000}") long tamanhoMaximo,
+            @Value("${fictcred.cache.cliente.ttl:PT5M}") Duration ttl,
+            CanalInvalidacaoCliente canal,
+            ObjectProvider<MeterRegistry> registry,
+            ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        ClienteCache cache = new ClienteCache(tamanhoMaximo, ttl, canal);
+        registry.ifAvailable(cache::registrarMetricas);
+        // O cache de segundo nível do Hibernate é local a cada instância: alterações feitas em outra
+        // instância chegam pelo canal e descartam a entrada daqui também
+        entityManagerFactory.ifAvailable(emf -> {
+            canal.assinar(id -> emf.getCache().evict(Cliente.class, id));
+            canal.assinarReinicio(() -> emf.getCache().evict(Cliente.class));
+        });
+        return cache;
+    }
+
+    @Bean
+    public VersaoClienteCache versaoClienteCache(
+            @Value("${fictcred.cache.versao.tamanho-maximo:10000}") long tamanhoMaximo,
+            @Value("${fictcred.cache.versao.ttl:PT5S}") Duration ttl,
+            CanalInvalidacaoCliente canal,
+            ObjectProvider<MeterRegistry> registry) {
+        VersaoClienteCache cache = new VersaoClienteCache(tamanhoMaximo, ttl, canal);
+        registry.ifAvailable(cache::registrarMetricas);
+        return cache;
+    }
+}
@@ -0,0 +1,35 @@
+package br.com.challenge.fictcred.config;
+
+import br.com.challenge.fictcred.exclusao.PurgaClientes;
+import br.com.challenge.fictcred.repository.ExclusaoClienteRepository;
+import br.com.challenge.fictcred.repository.PropostaCreditoArquivadaRepository;
+import br.com.challenge.fictcred.repository.PropostaCreditoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+@Configuration
+public class ExclusaoConfig {
+
+    @Bean
+    public PurgaClientes purgaClientes(
+            ExclusaoClienteRepository exclusaoClienteRepository,
+            PropostaCreditoRepository propostaCreditoRepository,
+            PropostaCreditoArquivadaRepository arquivadaRepository,
+            TransactionTemplate transactionTemplate,
+            EntityManagerFactory entityManagerFactory,
+            @Value("${fictcred.exclusao.tamanho-lote:500}") int tamanhoLote,
+            @Value("${fictcred.exclusao.duracao-maxima:PT0.2S}") Duration duracaoMaxima,
+            ObjectProvider<MeterRegistry> registry) {
+        PurgaClientes purga = new PurgaClientes(exclusaoClienteRepository, propostaCreditoRepository,
+                arquivadaRepository, transactionTemplate, entityManagerFactory, tamanhoLote, duracaoMaxima);
+        registry.ifAvailable(purga::registrarMetricas);
+        return purga;
+    }
+}
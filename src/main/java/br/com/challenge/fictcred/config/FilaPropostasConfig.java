@@ -0,0 +1,27 @@
+package br.com.challenge.fictcred.config;
+
+import br.com.challenge.fictcred.fila.FilaPropostas;
+import br.com.challenge.fictcred.service.PropostaCreditoService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class FilaPropostasConfig {
+
+    @Bean(initMethod = "iniciar", destroyMethod = "close")
+    public FilaPropostas filaPropostas(
+            @Value("${fictcred.fila.propostas.capacidade:10000}") int capacidade,
+            @Value("${fictcred.fila.propostas.trabalhadores:2}") int trabalhadores,
+            @Value("${fictcred.fila.propostas.tamanho-lote:100}") int tamanhoLote,
+            @Value("${fictcred.fila.propostas.tentativas:8}") int tentativas,
+            @Value("${fictcred.fila.propostas.espera-retentativa:PT1S}") Duration esperaRetentativa,
+            PropostaCreditoService propostaCreditoService,
+            MeterRegistry registry) {
+        return new FilaPropostas(capacidade, trabalhadores, tamanhoLote, tentativas, esperaRetentativa,
+                propostaCreditoService::avaliarPendentes, registry);
+    }
+}
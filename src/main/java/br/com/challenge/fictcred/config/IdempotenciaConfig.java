@@ -0,0 +1,56 @@
+package br.com.challenge.fictcred.config;
+
+import br.com.challenge.fictcred.idempotencia.ArmazemIdempotencia;
+import br.com.challenge.fictcred.idempotencia.ArmazemIdempotenciaBanco;
+import br.com.challenge.fictcred.idempotencia.ArmazemIdempotenciaMemoria;
+import br.com.challenge.fictcred.idempotencia.IdempotenciaFilter;
+import br.com.challenge.fictcred.repository.RespostaIdempotenteRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+// fictcred.idempotencia.armazem escolhe onde ficam as respostas: memoria (por instância) ou banco (compartilhado)
+@Configuration
+public class IdempotenciaConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "fictcred.idempotencia.armazem", havingValue = "memoria", matchIfMissing = true)
+    public ArmazemIdempotencia armazemIdempotenciaMemoria(
+            @Value("${fictcred.idempotencia.capacidade:100000}") long capacidade,
+            @Value("${fictcred.idempotencia.ttl:PT24H}") Duration ttl) {
+        return new ArmazemIdempotenciaMemoria(capacidade, ttl);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "fictcred.idempotencia.armazem", havingValue = "banco")
+    public ArmazemIdempotencia armazemIdempotenciaBanco(
+            RespostaIdempotenteRepository repository,
+            @Value("${fictcred.idempotencia.ttl:PT24H}") Duration ttl,
+            @Value("${fictcred.idempotencia.prazo-reserva:${fictcred.idempotencia.espera-maxima:PT30S}}") Duration prazoReserva) {
+        return new ArmazemIdempotenciaBanco(repository, ttl, prazoReserva);
+    }
+
+    @Bean
+    public FilterRegistrationBean<IdempotenciaFilter> idempotencia(
+            ArmazemIdempotencia armazem,
+            @Value("${fictcred.idempotencia.espera-maxima:PT30S}") Duration esperaMaxima,
+            MeterRegistry registry) {
+        IdempotenciaFilter filtro = new IdempotenciaFilter(armazem, esperaMaxima);
+
+        Gauge.builder("fictcred.idempotencia.em-andamento", filtro, IdempotenciaFilter::getEmAndamento)
+                .register(registry);
+
+        FilterRegistrationBean<IdempotenciaFilter> registro = new FilterRegistrationBean<>(filtro);
+        registro.addUrlPatterns("/fictcred/v1/api/cliente", "/fictcred/v1/api/proposta-cliente/*");
+        // Depois do limitador de concorrência, para que esperas por duplicatas também contem no limite
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registro;
+    }
+}
@@ -0,0 +1,32 @@
+package br.com.challenge.fictcred.config;
+
+import br.com.challenge.fictcred.outbox.PublicadorEventos;
+import br.com.challenge.fictcred.outbox.PublicadorEventosArquivo;
+import br.com.challenge.fictcred.outbox.PublicadorEventosMemoria;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+// fictcred.outbox.destino escolhe para onde o relay publica os eventos de decisão
+@Configuration
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "fictcred.outbox.destino", havingValue = "arquivo", matchIfMissing = true)
+    public PublicadorEventos publicadorEventosArquivo(
+            @Value("${fictcred.outbox.arquivo:eventos-decisao.ndjson}") Path arquivo,
+            ObjectMapper objectMapper) {
+        return new PublicadorEventosArquivo(arquivo, objectMapper);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "fictcred.outbox.destino", havingValue = "memoria")
+    public PublicadorEventos publicadorEventosMemoria(
+            @Value("${fictcred.outbox.capacidade-memoria:10000}") int capacidade) {
+        return new PublicadorEventosMemoria(capacidade);
+    }
+}
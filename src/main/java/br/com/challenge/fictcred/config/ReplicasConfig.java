@@ -0,0 +1,86 @@
+package br.com.challenge.fictcred.config;
+
+import br.com.challenge.fictcred.replica.LeituraPrimarioFilter;
+import br.com.challenge.fictcred.replica.ReplicasDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Ativada quando fictcred.datasource.replicas.urls está definida. Transações @Transactional(readOnly = true)
+// (e as leituras dos repositórios fora de transação) vão para as réplicas; as demais, para o primário.
+@Configuration
+@ConditionalOnProperty(name = "fictcred.datasource.replicas.urls")
+public class ReplicasConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primarioDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(initMethod = "iniciar", destroyMethod = "close")
+    public ReplicasDataSource replicasDataSource(
+            HikariDataSource primarioDataSource,
+            DataSourceProperties properties,
+            @Value("${fictcred.datasource.replicas.urls}") List<String> urls,
+            @Value("${fictcred.datasource.replicas.username:#{null}}") String username,
+            @Value("${fictcred.datasource.replicas.password:#{null}}") String password,
+            @Value("${fictcred.datasource.replicas.tamanho-pool:10}") int tamanhoPool,
+            @Value("${fictcred.datasource.replicas.intervalo-verificacao:PT5S}") Duration intervaloVerificacao,
+            MeterRegistry registry) {
+        List<DataSource> replicas = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(urls.get(i));
+            replica.setDriverClassName(properties.determineDriverClassName());
+            // Sem credenciais próprias, usa as do primário
+            replica.setUsername(username != null ? username : properties.determineUsername());
+            replica.setPassword(password != null ? password : properties.determinePassword());
+            replica.setMaximumPoolSize(tamanhoPool);
+            replica.setReadOnly(true);
+            // Uma réplica fora do ar na subida não impede a aplicação de iniciar
+            replica.setInitializationFailTimeout(-1);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            replicas.add(replica);
+        }
+        ReplicasDataSource replicasDataSource = new ReplicasDataSource(primarioDataSource, replicas, intervaloVerificacao);
+        Gauge.builder("fictcred.replicas.disponiveis", replicasDataSource, ReplicasDataSource::getDisponiveis)
+                .register(registry);
+        return replicasDataSource;
+    }
+
+    // A conexão só é obtida no primeiro comando, quando o proxy já sabe se a transação é somente-leitura
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primarioDataSource, ReplicasDataSource replicasDataSource) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primarioDataSource);
+        proxy.setReadOnlyDataSource(replicasDataSource);
+        return proxy;
+    }
+
+    @Bean
+    public FilterRegistrationBean<LeituraPrimarioFilter> leituraPrimario(
+            @Value("${fictcred.datasource.replicas.janela-leitura-primario:PT5S}") Duration janela) {
+        FilterRegistrationBean<LeituraPrimarioFilter> registro = new FilterRegistrationBean<>(new LeituraPrimarioFilter(janela));
+        registro.addUrlPatterns("/fictcred/*");
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE + 15);
+        return registro;
+    }
+}
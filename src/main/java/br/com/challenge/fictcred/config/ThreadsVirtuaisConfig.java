@@ -0,0 +1,58 @@
+package br.com.challenge.fictcred.config;
+
+import br.com.challenge.fictcred.concorrencia.LimitadorConcorrenciaFilter;
+import br.com.challenge.fictcred.concorrencia.MonitorPinning;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+// Ativada com spring.threads.virtual.enabled=true (Tomcat, @Async e @Scheduled passam a usar threads virtuais)
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class ThreadsVirtuaisConfig {
+
+    @Bean
+    public FilterRegistrationBean<LimitadorConcorrenciaFilter> limitadorConcorrencia(
+            DataSource dataSource,
+            @Value("${fictcred.threads.virtuais.requisicoes-por-conexao:2}") int requisicoesPorConexao,
+            @Value("${fictcred.threads.virtuais.espera-maxima:PT2S}") Duration esperaMaxima,
+            MeterRegistry registry) throws SQLException {
+        int limite = tamanhoPool(dataSource) * requisicoesPorConexao;
+        LimitadorConcorrenciaFilter limitador = new LimitadorConcorrenciaFilter(limite, esperaMaxima);
+
+        Gauge.builder("fictcred.limitador.requisicoes.ativas", limitador, LimitadorConcorrenciaFilter::getEmUso)
+                .register(registry);
+        Gauge.builder("fictcred.limitador.requisicoes.aguardando", limitador, LimitadorConcorrenciaFilter::getAguardando)
+                .register(registry);
+
+        FilterRegistrationBean<LimitadorConcorrenciaFilter> registro = new FilterRegistrationBean<>(limitador);
+        registro.addUrlPatterns("/fictcred/*");
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registro;
+    }
+
+    @Bean(initMethod = "iniciar", destroyMethod = "close")
+    public MonitorPinning monitorPinning(
+            @Value("${fictcred.threads.virtuais.limiar-pinning:PT0.02S}") Duration limiar,
+            MeterRegistry registry) {
+        return new MonitorPinning(limiar, registry);
+    }
+
+    private int tamanhoPool(DataSource dataSource) throws SQLException {
+        if (dataSource.isWrapperFor(HikariDataSource.class)) {
+            return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+        }
+        return 10;
+    }
+}
@@ -1,24 +1,42 @@
 package br.com.challenge.fictcred.controller;
 
+import br.com.challenge.fictcred.cache.VersaoCliente;
 import br.com.challenge.fictcred.dto.ClienteInsertDTO;
 import br.com.challenge.fictcred.dto.ClienteListDTO;
+import br.com.challenge.fictcred.dto.ClientePatchDTO;
 import br.com.challenge.fictcred.dto.ClienteUpdateDTO;
+import br.com.challenge.fictcred.dto.ExclusaoClienteDTO;
+import br.com.challenge.fictcred.dto.FiltroBuscaClienteDTO;
+import br.com.challenge.fictcred.dto.ImportacaoClientesDTO;
+import br.com.challenge.fictcred.dto.ResultadoBuscaDTO;
 import br.com.challenge.fictcred.model.Cliente;
+import br.com.challenge.fictcred.service.ClienteImportacaoService;
 import br.com.challenge.fictcred.service.ClienteService;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
 import java.util.Date;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 @Tag(name = "Cliente", description = "APIs para gerenciamento de clientes")
 @RestController
@@ -28,6 +46,12 @@ public class ClienteController {
     @Autowired
     private ClienteService clienteService;
 
+    @Autowired
+    private ClienteImportacaoService clienteImportacaoService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Operation(summary = "Criar cliente",
                description = "Cria um novo cliente no sistema com os dados fornecidos.")
     @ApiResponses(value = {
@@ -52,72 +76,221 @@ public class ClienteController {
         }
     }
 
+    @Operation(summary = "Importar clientes em lote",
+               description = "Cadastra muitos clientes em uma única requisição. Aceita um array JSON ou NDJSON (um cliente por linha). Os registros são validados e gravados em blocos; registros inválidos ou com CPF já cadastrado são reportados individualmente sem interromper a importação.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Importação processada; consulte o campo falhas para os registros rejeitados")
+    })
+    @PostMapping(value = "/lote", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ImportacaoClientesDTO> importarClientes(HttpServletRequest request) throws IOException {
+        try (MappingIterator<ClienteInsertDTO> registros = objectMapper.readerFor(ClienteInsertDTO.class)
+                .readValues(request.getInputStream())) {
+            return ResponseEntity.ok(clienteImportacaoService.importar(registros));
+        }
+    }
+
     @Operation(summary = "Atualizar cliente",
-               description = "Atualiza os dados de um cliente existente pelo seu ID único.")
+               description = "Atualiza os dados de um cliente existente pelo seu ID único. Com o cabeçalho If-Match (ETag devolvido pela consulta), a atualização só é aplicada se o cliente não tiver sido alterado desde então.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Cliente atualizado com sucesso"),
-        @ApiResponse(responseCode = "404", description = "Cliente não encontrado")
+        @ApiResponse(responseCode = "404", description = "Cliente não encontrado"),
+        @ApiResponse(responseCode = "409", description = "Cliente alterado por outra requisição durante a atualização ou CPF já cadastrado"),
+        @ApiResponse(responseCode = "412", description = "If-Match não corresponde à versão atual do cliente")
     })
     @PutMapping("/{id}")
     public ResponseEntity<ClienteListDTO> atualizarCliente(
             @Parameter(description = "ID do cliente a ser atualizado", required = true)
             @PathVariable Long id,
+            @Parameter(description = "ETag da versão do cliente que está sendo alterada")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Parameter(description = "Dados atualizados do cliente", required = true)
             @Valid @RequestBody ClienteUpdateDTO clienteDTO) {
+        return atualizar(id, ifMatch, convertToEntity(clienteDTO));
+    }
+
+    @Operation(summary = "Alterar campos do cliente",
+               description = "Altera só os campos informados (nome, cpf, rendaMensal); os ausentes mantêm o valor atual. Como no PUT, o cabeçalho If-Match restringe a alteração à versão informada.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Cliente alterado com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Dados inválidos fornecidos"),
+        @ApiResponse(responseCode = "404", description = "Cliente não encontrado"),
+        @ApiResponse(responseCode = "409", description = "Cliente alterado por outra requisição durante a alteração ou CPF já cadastrado"),
+        @ApiResponse(responseCode = "412", description = "If-Match não corresponde à versão atual do cliente")
+    })
+    @PatchMapping("/{id}")
+    public ResponseEntity<ClienteListDTO> alterarCliente(
+            @Parameter(description = "ID do cliente a ser alterado", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "ETag da versão do cliente que está sendo alterada")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Parameter(description = "Campos a alterar", required = true)
+            @Valid @RequestBody ClientePatchDTO clienteDTO) {
+        return atualizar(id, ifMatch, convertToEntity(clienteDTO));
+    }
+
+    // A versão não é lida antes: o UPDATE condicional decide entre 200, 404 e 409/412
+    private ResponseEntity<ClienteListDTO> atualizar(Long id, String ifMatch, Cliente cliente) {
         try {
-            Cliente cliente = convertToEntity(clienteDTO);
-            Cliente clienteAtualizado = clienteService.atualizar(id, cliente);
+            Cliente clienteAtualizado = clienteService.atualizar(id, cliente, PreCondicoes.versaoExigida(ifMatch));
             ClienteListDTO response = convertToListDTO(clienteAtualizado);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok()
+                    .eTag(VersaoCliente.etagCliente(clienteAtualizado.getVersao()))
+                    .body(response);
+        } catch (DataIntegrityViolationException e) {
+            // CPF de outro cliente
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
+            if (ClienteService.VERSAO_DIVERGENTE.equals(e.getMessage())) {
+                return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).build();
+            }
             return ResponseEntity.notFound().build();
         }
     }
 
     @Operation(summary = "Buscar cliente por ID",
-               description = "Busca um cliente específico pelo seu ID único.")
+               description = "Busca um cliente específico pelo seu ID único. A resposta traz um ETag; enviado de volta em If-None-Match, a consulta responde 304 enquanto o cliente não mudar.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Cliente encontrado e retornado"),
+        @ApiResponse(responseCode = "304", description = "Cliente não mudou desde o ETag informado"),
         @ApiResponse(responseCode = "404", description = "Cliente não encontrado")
     })
     @GetMapping("/{id}")
     public ResponseEntity<ClienteListDTO> buscarClientePorId(
             @Parameter(description = "ID do cliente a ser buscado", required = true)
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            @Parameter(description = "ETag de uma consulta anterior")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // A versão vem do cache de versões: o 304 não carrega nem serializa o cliente
+        if (ifNoneMatch != null) {
+            Optional<VersaoCliente> versao = clienteService.buscarVersao(id);
+            if (versao.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            if (PreCondicoes.naoModificado(ifNoneMatch, versao.get().etagCliente())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(versao.get().etagCliente()).build();
+            }
+        }
         return clienteService.buscarPorId(id)
-                .map(cliente -> ResponseEntity.ok(convertToListDTO(cliente)))
+                .map(cliente -> ResponseEntity.ok()
+                        .eTag(VersaoCliente.etagCliente(cliente.getVersao()))
+                        .body(convertToListDTO(cliente)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
-    @Operation(summary = "Listar todos os clientes",
-               description = "Retorna uma lista com todos os clientes cadastrados no sistema.")
+    @Operation(summary = "Listar clientes",
+               description = "Retorna uma página de clientes ordenada por ID. Use o campo proximoCursor da resposta como parâmetro cursor para obter a página seguinte. Com Accept: application/x-ndjson, transmite todos os clientes a partir do cursor, um JSON por linha, sem limite de página.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página de clientes retornada com sucesso")
+    })
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> listarClientes(
+            @Parameter(description = "ID do último cliente da página anterior")
+            @RequestParam(required = false) Long cursor,
+            @Parameter(description = "Quantidade de clientes por página (máximo " + ClienteService.TAMANHO_PAGINA_MAXIMO + ")")
+            @RequestParam(defaultValue = "" + ClienteService.TAMANHO_PAGINA_PADRAO) int tamanho,
+            @Parameter(hidden = true)
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        if (EscritaJson.prefereNdjson(accept)) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(EscritaJson.<ClienteListDTO>ndjson(objectMapper,
+                            consumidor -> clienteService.percorrerTodos(cursor, consumidor)));
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(EscritaJson.<ClienteListDTO>pagina(objectMapper,
+                        consumidor -> clienteService.percorrerPagina(cursor, tamanho, consumidor)));
+    }
+
+    @Operation(summary = "Buscar clientes",
+               description = "Busca clientes por início do nome (ou trecho do nome, com contem=true), CPF exato e faixa de renda mensal, combináveis. O nome é comparado sem acentos e sem diferenciar maiúsculas. Os resultados vêm ordenados por nome; use proximoCursor como cursor para a página seguinte. Na primeira página, total traz a quantidade de resultados até " + ClienteService.LIMITE_CONTAGEM_BUSCA + " (totalExato=false quando há mais).")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Lista de clientes retornada com sucesso")
+        @ApiResponse(responseCode = "200", description = "Página de resultados retornada com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Filtros inválidos ou cursor inexistente")
     })
-    @GetMapping
-    public ResponseEntity<List<ClienteListDTO>> listarClientes() {
-        List<Cliente> clientes = clienteService.listarTodos();
-        List<ClienteListDTO> dtos = clientes.stream()
-                .map(this::convertToListDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(dtos);
+    @GetMapping("/busca")
+    public ResponseEntity<ResultadoBuscaDTO<ClienteListDTO>> buscarClientes(
+            @Parameter(description = "Início do nome, ou trecho do nome com contem=true (mínimo " + ClienteService.TAMANHO_MINIMO_TRECHO + " caracteres)")
+            @RequestParam(required = false) String nome,
+            @Parameter(description = "Procura o nome em qualquer posição em vez de só no início")
+            @RequestParam(defaultValue = "false") boolean contem,
+            @Parameter(description = "CPF exato")
+            @RequestParam(required = false) String cpf,
+            @Parameter(description = "Renda mensal mínima")
+            @RequestParam(required = false) BigDecimal rendaMinima,
+            @Parameter(description = "Renda mensal máxima")
+            @RequestParam(required = false) BigDecimal rendaMaxima,
+            @Parameter(description = "ID do último cliente da página anterior")
+            @RequestParam(required = false) Long cursor,
+            @Parameter(description = "Quantidade de clientes por página (máximo " + ClienteService.TAMANHO_PAGINA_MAXIMO + ")")
+            @RequestParam(defaultValue = "" + ClienteService.TAMANHO_PAGINA_PADRAO) int tamanho) {
+        try {
+            FiltroBuscaClienteDTO filtro = new FiltroBuscaClienteDTO(nome, contem, cpf, rendaMinima, rendaMaxima);
+            return ResponseEntity.ok(clienteService.buscar(filtro, cursor, tamanho));
+        } catch (RuntimeException e) {
+            if (e.getMessage() != null && e.getMessage().startsWith(ClienteService.BUSCA_INVALIDA)) {
+                return ResponseEntity.badRequest().build();
+            }
+            throw e;
+        }
+    }
+
+    @Operation(summary = "Exportar todos os clientes",
+               description = "Transmite todos os clientes em NDJSON (um JSON por linha), lendo do banco com cursor sem carregar a tabela inteira em memória.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Clientes transmitidos com sucesso")
+    })
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportarClientes() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(EscritaJson.<ClienteListDTO>ndjson(objectMapper,
+                        consumidor -> clienteService.percorrerTodos(null, consumidor)));
     }
 
     @Operation(summary = "Remover cliente",
-               description = "Remove um cliente do sistema pelo seu ID único.")
+               description = "Exclui um cliente pelo seu ID único. O cliente e suas propostas deixam de aparecer nas consultas imediatamente e o CPF fica livre para um novo cadastro; as propostas são removidas do banco em segundo plano. O cabeçalho Location aponta para o acompanhamento da exclusão.")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "204", description = "Cliente removido com sucesso"),
+        @ApiResponse(responseCode = "202", description = "Exclusão registrada; a remoção das propostas segue em segundo plano"),
         @ApiResponse(responseCode = "404", description = "Cliente não encontrado")
     })
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> removerCliente(
             @Parameter(description = "ID do cliente a ser removido", required = true)
             @PathVariable Long id) {
-        clienteService.deletar(id);
-        return ResponseEntity.noContent().build();
+        try {
+            clienteService.deletar(id);
+            URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                    .path("/fictcred/v1/api/cliente/{id}/exclusao")
+                    .buildAndExpand(id)
+                    .toUri();
+            return ResponseEntity.accepted().location(location).build();
+        } catch (RuntimeException e) {
+            if (e.getMessage() != null && e.getMessage().startsWith("Cliente não encontrado")) {
+                return ResponseEntity.notFound().build();
+            }
+            throw e;
+        }
+    }
+
+    @Operation(summary = "Acompanhar exclusão de cliente",
+               description = "Informa o andamento da remoção em segundo plano das propostas de um cliente excluído: quantas já foram removidas, quantas restam e quando a exclusão foi concluída.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Andamento da exclusão retornado"),
+        @ApiResponse(responseCode = "404", description = "Não há exclusão registrada para o cliente")
+    })
+    @GetMapping("/{id}/exclusao")
+    public ResponseEntity<ExclusaoClienteDTO> buscarExclusao(
+            @Parameter(description = "ID do cliente excluído", required = true)
+            @PathVariable Long id) {
+        return clienteService.buscarExclusao(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
-    private Cliente convertToEntity(ClienteInsertDTO dto) {
+    Cliente convertToEntity(ClienteInsertDTO dto) {
         Cliente cliente = new Cliente();
         cliente.setNome(dto.getNome());
         cliente.setCpf(dto.getCpf());
@@ -126,7 +299,15 @@ public class ClienteController {
         return cliente;
     }
 
-    private Cliente convertToEntity(ClienteUpdateDTO dto) {
+    Cliente convertToEntity(ClienteUpdateDTO dto) {
+        Cliente cliente = new Cliente();
+        cliente.setNome(dto.getNome());
+        cliente.setCpf(dto.getCpf());
+        cliente.setRendaMensal(dto.getRendaMensal());
+        return cliente;
+    }
+
+    Cliente convertToEntity(ClientePatchDTO dto) {
         Cliente cliente = new Cliente();
         cliente.setNome(dto.getNome());
         cliente.setCpf(dto.getCpf());
@@ -134,7 +315,7 @@ public class ClienteController {
         return cliente;
     }
 
-    private ClienteListDTO convertToListDTO(Cliente cliente) {
+    ClienteListDTO convertToListDTO(Cliente cliente) {
         return new ClienteListDTO(
                 cliente.getId(),
                 cliente.getNome(),
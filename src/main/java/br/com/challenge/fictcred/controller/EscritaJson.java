@@ -0,0 +1,151 @@
+package br.com.challenge.fictcred.controller;
+
+import br.com.challenge.fictcred.replica.LeituraNoPrimario;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Escrita das listagens direto no JsonGenerator, linha a linha conforme saem do cursor do banco:
+// a memória usada não depende do tamanho do resultado e o primeiro registro sai antes do último ser lido.
+// O corpo é escrito depois, numa thread do processamento assíncrono do Spring MVC: a fixação de leitura no
+// primário da thread da requisição é capturada aqui e reaplicada na leitura da fonte
+final class EscritaJson {
+
+    private EscritaJson() {
+    }
+
+    // Negociação entre JSON e NDJSON pelo Accept: vale o tipo de maior q; sem preferência, JSON
+    static boolean prefereNdjson(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+        List<MediaType> tipos;
+        try {
+            tipos = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        tipos.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType tipo : tipos) {
+            if (tipo.getQualityValue() == 0) {
+                break;
+            }
+            if (tipo.isWildcardType() || tipo.isWildcardSubtype()) {
+                return false;
+            }
+            if (MediaType.APPLICATION_NDJSON.isCompatibleWith(tipo)) {
+                return true;
+            }
+            if (MediaType.APPLICATION_JSON.isCompatibleWith(tipo)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    // Um JSON por linha, sem envelope
+    static <T> StreamingResponseBody ndjson(ObjectMapper objectMapper, Consumer<Consumer<T>> fonte) {
+        boolean primario = LeituraNoPrimario.ativa();
+        return out -> {
+            try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(out)) {
+                gerador.setRootValueSeparator(null);
+                ObjectWriter writer = escritor(objectMapper);
+                ler(primario, () -> {
+                    fonte.accept(new Escrita<>(gerador, item -> {
+                        writer.writeValue(gerador, item);
+                        gerador.writeRaw('\n');
+                    }));
+                    return null;
+                });
+            }
+        };
+    }
+
+    // Array JSON simples
+    static <T> StreamingResponseBody lista(ObjectMapper objectMapper, Consumer<Consumer<T>> fonte) {
+        boolean primario = LeituraNoPrimario.ativa();
+        return out -> {
+            try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(out)) {
+                ObjectWriter writer = escritor(objectMapper);
+                gerador.writeStartArray();
+                ler(primario, () -> {
+                    fonte.accept(new Escrita<>(gerador, item -> writer.writeValue(gerador, item)));
+                    return null;
+                });
+                gerador.writeEndArray();
+            }
+        };
+    }
+
+    // Página no formato {"itens":[...],"proximoCursor":...}; o cursor só é conhecido depois dos itens
+    static <T> StreamingResponseBody pagina(ObjectMapper objectMapper, Function<Consumer<T>, Long> fonte) {
+        boolean primario = LeituraNoPrimario.ativa();
+        return out -> {
+            try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(out)) {
+                ObjectWriter writer = escritor(objectMapper);
+                gerador.writeStartObject();
+                gerador.writeArrayFieldStart("itens");
+                Long proximoCursor = ler(primario,
+                        () -> fonte.apply(new Escrita<>(gerador, item -> writer.writeValue(gerador, item))));
+                gerador.writeEndArray();
+                if (proximoCursor == null) {
+                    gerador.writeNullField("proximoCursor");
+                } else {
+                    gerador.writeNumberField("proximoCursor", proximoCursor);
+                }
+                gerador.writeEndObject();
+            }
+        };
+    }
+
+    private static <R> R ler(boolean primario, Supplier<R> leitura) {
+        return primario ? LeituraNoPrimario.executar(leitura) : leitura.get();
+    }
+
+    // Sem flush a cada valor: o gerador só descarrega quando o buffer enche
+    private static ObjectWriter escritor(ObjectMapper objectMapper) {
+        return objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    private interface EscritaItem<T> {
+        void escrever(T item) throws IOException;
+    }
+
+    private static final class Escrita<T> implements Consumer<T> {
+
+        private final JsonGenerator gerador;
+        private final EscritaItem<T> escrita;
+        private boolean primeiro = true;
+
+        private Escrita(JsonGenerator gerador, EscritaItem<T> escrita) {
+            this.gerador = gerador;
+            this.escrita = escrita;
+        }
+
+        @Override
+        public void accept(T item) {
+            try {
+                escrita.escrever(item);
+                // O primeiro registro vai para o cliente imediatamente, sem esperar o buffer encher
+                if (primeiro) {
+                    gerador.flush();
+                    primeiro = false;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package br.com.challenge.fictcred.controller;
+
+import br.com.challenge.fictcred.dto.EstatisticasDTO;
+import br.com.challenge.fictcred.service.EstatisticaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("fictcred/v1/api/estatisticas")
+@Tag(name = "Estatísticas", description = "Indicadores de aprovação das propostas de crédito")
+public class EstatisticaController {
+
+    @Autowired
+    private EstatisticaService estatisticaService;
+
+    @Operation(summary = "Consultar estatísticas de aprovação",
+               description = "Retorna, para os últimos N dias (até 366), a quantidade de propostas aprovadas e reprovadas, os valores solicitados e a taxa de aprovação, por dia e no período. Os dados vêm do resumo diário e podem estar atrasados em até fictcred.estatisticas.intervalo-descarga.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Estatísticas retornadas com sucesso")
+    })
+    @GetMapping
+    public ResponseEntity<EstatisticasDTO> consultar(
+            @Parameter(description = "Quantidade de dias, contando hoje")
+            @RequestParam(defaultValue = "30") int dias) {
+        return ResponseEntity.ok(estatisticaService.consultar(dias));
+    }
+
+    @Operation(summary = "Reconstruir estatísticas",
+               description = "Recalcula o resumo diário a partir de todas as propostas. Usado para recuperação; percorre a tabela de propostas inteira.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Estatísticas reconstruídas")
+    })
+    @PostMapping("/reconstruir")
+    public ResponseEntity<Void> reconstruir() {
+        estatisticaService.reconstruir();
+        return ResponseEntity.noContent().build();
+    }
+}
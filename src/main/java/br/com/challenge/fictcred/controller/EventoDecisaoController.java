@@ -0,0 +1,39 @@
+package br.com.challenge.fictcred.controller;
+
+import br.com.challenge.fictcred.dto.EventoDecisaoDTO;
+import br.com.challenge.fictcred.dto.PaginaDTO;
+import br.com.challenge.fictcred.service.EventoDecisaoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("fictcred/v1/api/eventos-decisao")
+@Tag(name = "Eventos de Decisão", description = "Stream das decisões de crédito para sistemas consumidores")
+public class EventoDecisaoController {
+
+    @Autowired
+    private EventoDecisaoService eventoDecisaoService;
+
+    @Operation(summary = "Ler eventos de decisão",
+               description = "Retorna os eventos de decisão já publicados, em ordem de sequência, a partir do cursor informado em apos. O campo proximoCursor deve ser guardado pelo consumidor e enviado na próxima consulta; quando não há eventos novos ele repete o cursor recebido. A entrega é pelo menos uma vez: use a sequência para descartar repetidos.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Eventos retornados com sucesso")
+    })
+    @GetMapping
+    public ResponseEntity<PaginaDTO<EventoDecisaoDTO>> listarEventos(
+            @Parameter(description = "Última sequência já processada pelo consumidor")
+            @RequestParam(required = false) Long apos,
+            @Parameter(description = "Filtra os eventos de um cliente")
+            @RequestParam(required = false) Long clienteId,
+            @Parameter(description = "Quantidade máxima de eventos (até 500)")
+            @RequestParam(defaultValue = "500") int limite) {
+        return ResponseEntity.ok(eventoDecisaoService.listarPublicados(apos, clienteId, limite));
+    }
+}
@@ -0,0 +1,48 @@
+package br.com.challenge.fictcred.controller;
+
+import org.springframework.http.ETag;
+
+// Avaliação dos cabeçalhos If-None-Match e If-Match contra os ETags de versão
+final class PreCondicoes {
+
+    // Nenhuma versão é negativa: If-Match com esse valor sempre falha
+    static final long VERSAO_INEXISTENTE = -1L;
+
+    private PreCondicoes() {
+    }
+
+    // If-None-Match usa comparação fraca: W/"3" corresponde a "3"
+    static boolean naoModificado(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        ETag atual = ETag.create(etag);
+        for (ETag informado : ETag.parse(ifNoneMatch)) {
+            if (informado.isWildcard() || informado.compare(atual, false)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Versão exigida por If-Match, ou null quando não há pré-condição ou ela é "*".
+    // If-Match usa comparação forte, então ETags fracos ou que não são versões nunca correspondem.
+    static Long versaoExigida(String ifMatch) {
+        if (ifMatch == null) {
+            return null;
+        }
+        for (ETag informado : ETag.parse(ifMatch)) {
+            if (informado.isWildcard()) {
+                return null;
+            }
+            if (!informado.weak()) {
+                try {
+                    return Long.valueOf(informado.tag());
+                } catch (NumberFormatException e) {
+                    // ETag de outro formato: tenta o próximo da lista
+                }
+            }
+        }
+        return VERSAO_INEXISTENTE;
+    }
+}
@@ -1,9 +1,18 @@
 package br.com.challenge.fictcred.controller;
 
+import br.com.challenge.fictcred.cache.VersaoCliente;
+import br.com.challenge.fictcred.dto.FiltroBuscaPropostaDTO;
+import br.com.challenge.fictcred.dto.PaginaDTO;
 import br.com.challenge.fictcred.dto.PropostaCreditoInsertDTO;
 import br.com.challenge.fictcred.dto.PropostaCreditoListDTO;
+import br.com.challenge.fictcred.dto.PropostaCreditoLoteItemDTO;
+import br.com.challenge.fictcred.dto.PropostaCreditoLoteResultadoDTO;
+import br.com.challenge.fictcred.enums.StatusParcela;
 import br.com.challenge.fictcred.model.PropostaCredito;
+import br.com.challenge.fictcred.service.ClienteService;
+import br.com.challenge.fictcred.service.PropostaAssincronaService;
 import br.com.challenge.fictcred.service.PropostaCreditoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -12,11 +21,25 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.math.BigDecimal;
+import java.net.URI;
+import java.time.Instant;
+import java.util.Date;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("fictcred/v1/api/proposta-cliente")
@@ -26,8 +49,17 @@ public class PropostaCreditoController {
     @Autowired
     private PropostaCreditoService propostaCreditoService;
 
+    @Autowired
+    private PropostaAssincronaService propostaAssincronaService;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Operation(summary = "Criar proposta de crédito",
-               description = "Cria uma nova proposta de crédito para um cliente específico. A proposta é avaliada automaticamente com base nas regras de negócio (valor solicitado não pode exceder 5x a renda mensal do cliente, número de parcelas deve estar entre 1 e 24).")
+               description = "Cria uma nova proposta de crédito para um cliente específico. A proposta é avaliada automaticamente pelas regras de crédito configuradas (por padrão, valor solicitado não pode exceder 5x a renda mensal do cliente e número de parcelas deve estar entre 1 e 24). Quando reprovada, o campo regraReprovacao indica a regra responsável.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Proposta criada com sucesso"),
         @ApiResponse(responseCode = "400", description = "Cliente não encontrado ou dados inválidos")
@@ -48,6 +80,50 @@ public class PropostaCreditoController {
         }
     }
     
+    @Operation(summary = "Criar proposta de crédito (assíncrona)",
+               description = "Aceita a proposta, grava com status PENDENTE e a coloca na fila de avaliação. A resposta 202 traz no cabeçalho Location o endereço da proposta, que deve ser consultado até o status deixar de ser PENDENTE.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Proposta aceita para avaliação"),
+        @ApiResponse(responseCode = "400", description = "Cliente não encontrado ou dados inválidos"),
+        @ApiResponse(responseCode = "503", description = "Fila de avaliação cheia, tente novamente")
+    })
+    @PostMapping("/{clienteId}/assincrona")
+    public ResponseEntity<PropostaCreditoListDTO> criarPropostaAssincrona(
+            @Parameter(description = "ID do cliente para o qual a proposta será criada", required = true)
+            @PathVariable Long clienteId,
+            @Parameter(description = "Dados da proposta a ser criada", required = true)
+            @Valid @RequestBody PropostaCreditoInsertDTO propostaDTO) {
+        try {
+            PropostaCredito proposta = propostaAssincronaService.criarProposta(clienteId, convertToEntity(propostaDTO));
+            URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                    .path("/fictcred/v1/api/proposta-cliente/{id}")
+                    .buildAndExpand(proposta.getId())
+                    .toUri();
+            return ResponseEntity.accepted().location(location).body(convertToListDTO(proposta));
+        } catch (RuntimeException e) {
+            if (PropostaAssincronaService.FILA_CHEIA.equals(e.getMessage())) {
+                return ResponseEntity.status(503).header("Retry-After", "1").build();
+            }
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(summary = "Criar propostas de crédito em lote",
+               description = "Avalia e grava várias propostas, de clientes diferentes, em uma única chamada (até " + PropostaCreditoService.TAMANHO_MAXIMO_LOTE + " itens). Os clientes de cada bloco são carregados em uma única consulta e as propostas são gravadas em batch, um bloco por transação. A resposta traz a decisão de cada item, na mesma ordem do envio; itens inválidos, de clientes inexistentes ou de um bloco que não pôde ser gravado retornam com o campo erro preenchido.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Lote processado com sucesso"),
+        @ApiResponse(responseCode = "413", description = "Lote com mais itens que o permitido")
+    })
+    @PostMapping("/lote")
+    public ResponseEntity<List<PropostaCreditoLoteResultadoDTO>> criarPropostasEmLote(
+            @Parameter(description = "Itens do lote (clienteId, valorSolicitado e numeroParcelas)", required = true)
+            @RequestBody List<PropostaCreditoLoteItemDTO> itens) {
+        if (itens.size() > PropostaCreditoService.TAMANHO_MAXIMO_LOTE) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        return ResponseEntity.ok(propostaCreditoService.criarPropostasEmLote(itens));
+    }
+
     @Operation(summary = "Buscar proposta por id",
                description = "Retorna a proposta de acordo com o id passado")
     @ApiResponses(value = {
@@ -57,39 +133,105 @@ public class PropostaCreditoController {
     @GetMapping("/{id}")
     public ResponseEntity<PropostaCreditoListDTO> buscarPropostaPorId(@PathVariable Long id) {
         return propostaCreditoService.buscarPorId(id)
-                .map(proposta -> ResponseEntity.ok(convertToListDTO(proposta)))
+                .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @Operation(summary = "Consultar propostas",
+               description = "Consulta propostas de todos os clientes por status (um ou mais), período de criação (dataInicio inclusive, dataFim exclusive, em ISO-8601), faixa de valor solicitado e faixa de número de parcelas. Todos os filtros são opcionais e combináveis. Os resultados vêm das mais recentes para as mais antigas; use proximoCursor como cursor para a página seguinte.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página de propostas retornada com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Filtros inválidos ou cursor inexistente")
+    })
+    @GetMapping("/busca")
+    public ResponseEntity<PaginaDTO<PropostaCreditoListDTO>> buscarPropostas(
+            @Parameter(description = "Status aceitos (pode ser repetido)")
+            @RequestParam(required = false) List<StatusParcela> status,
+            @Parameter(description = "Criadas a partir deste instante (ex.: 2026-10-12T00:00:00Z)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant dataInicio,
+            @Parameter(description = "Criadas antes deste instante")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant dataFim,
+            @Parameter(description = "Valor solicitado mínimo")
+            @RequestParam(required = false) BigDecimal valorMinimo,
+            @Parameter(description = "Valor solicitado máximo")
+            @RequestParam(required = false) BigDecimal valorMaximo,
+            @Parameter(description = "Número mínimo de parcelas")
+            @RequestParam(required = false) Integer parcelasMinimo,
+            @Parameter(description = "Número máximo de parcelas")
+            @RequestParam(required = false) Integer parcelasMaximo,
+            @Parameter(description = "ID da última proposta da página anterior")
+            @RequestParam(required = false) Long cursor,
+            @Parameter(description = "Quantidade de propostas por página (máximo " + PropostaCreditoService.TAMANHO_PAGINA_MAXIMO + ")")
+            @RequestParam(defaultValue = "" + PropostaCreditoService.TAMANHO_PAGINA_PADRAO) int tamanho) {
+        try {
+            FiltroBuscaPropostaDTO filtro = new FiltroBuscaPropostaDTO(status,
+                    dataInicio == null ? null : Date.from(dataInicio), dataFim == null ? null : Date.from(dataFim),
+                    valorMinimo, valorMaximo, parcelasMinimo, parcelasMaximo);
+            return ResponseEntity.ok(propostaCreditoService.buscar(filtro, cursor, tamanho));
+        } catch (RuntimeException e) {
+            if (e.getMessage() != null && e.getMessage().startsWith(PropostaCreditoService.BUSCA_INVALIDA)) {
+                return ResponseEntity.badRequest().build();
+            }
+            throw e;
+        }
+    }
+
     @Operation(summary = "Listar propostas por cliente",
-               description = "Lista todas as propostas de crédito associadas a um cliente específico.")
+               description = "Lista as propostas de crédito de um cliente, paginadas (parâmetros page e size, máximo 500 por página) e ordenáveis (parâmetro sort, ex.: sort=dataCriacao,desc). O cabeçalho X-Proxima-Pagina indica se há mais resultados. A resposta traz um ETag que muda sempre que uma proposta do cliente é criada ou avaliada; enviado de volta em If-None-Match, a consulta responde 304 enquanto nada mudar. Com Accept: application/x-ndjson, transmite todas as propostas do cliente na ordem pedida, um JSON por linha, sem paginação.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Lista de propostas retornada com sucesso"),
+        @ApiResponse(responseCode = "304", description = "Propostas do cliente não mudaram desde o ETag informado"),
         @ApiResponse(responseCode = "404", description = "Cliente não encontrado")
     })
-    @GetMapping("/cliente/{clienteId}")
-    public ResponseEntity<List<PropostaCreditoListDTO>> listarPropostasPorCliente(
+    @GetMapping(value = "/cliente/{clienteId}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> listarPropostasPorCliente(
             @Parameter(description = "ID do cliente cujas propostas serão listadas", required = true)
-            @PathVariable Long clienteId) {
+            @PathVariable Long clienteId,
+            @Parameter(description = "ETag de uma consulta anterior")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @Parameter(hidden = true)
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @Parameter(hidden = true)
+            @PageableDefault(size = 50, sort = "id", direction = Sort.Direction.ASC) Pageable pageable) {
+        // A versão é lida antes da lista: se a lista mudar no meio, o ETag fica mais antigo que o corpo
+        // e a próxima consulta recebe a lista de novo, em vez de um 304 indevido
+        Optional<VersaoCliente> versao = clienteService.buscarVersao(clienteId);
+        if (versao.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (EscritaJson.prefereNdjson(accept)) {
+            // Exportação completa direto do cursor do banco; sem ETag porque a lista é lida depois da versão
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(EscritaJson.<PropostaCreditoListDTO>ndjson(objectMapper,
+                            consumidor -> propostaCreditoService.percorrerPorCliente(clienteId, pageable.getSort(), consumidor)));
+        }
+        String etag = versao.get().etagPropostas();
+        if (PreCondicoes.naoModificado(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
         try {
-            List<PropostaCredito> propostas = propostaCreditoService.listarPorCliente(clienteId);
-            List<PropostaCreditoListDTO> dtos = propostas.stream()
-                    .map(this::convertToListDTO)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(dtos);
+            Slice<PropostaCreditoListDTO> propostas = propostaCreditoService.listarPorCliente(clienteId, pageable);
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .header("X-Proxima-Pagina", String.valueOf(propostas.hasNext()))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(EscritaJson.<PropostaCreditoListDTO>lista(objectMapper, propostas.getContent()::forEach));
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
-    private PropostaCredito convertToEntity(PropostaCreditoInsertDTO dto) {
+    PropostaCredito convertToEntity(PropostaCreditoInsertDTO dto) {
         PropostaCredito proposta = new PropostaCredito();
         proposta.setValorSolicitado(dto.getValorSolicitado());
         proposta.setNumeroParcelas(dto.getNumeroParcelas());
         return proposta;
     }
 
-    private PropostaCreditoListDTO convertToListDTO(PropostaCredito proposta) {
+    PropostaCreditoListDTO convertToListDTO(PropostaCredito proposta) {
         return new PropostaCreditoListDTO(
                 proposta.getId(),
                 proposta.getValorSolicitado(),
@@ -97,7 +239,8 @@ public class PropostaCreditoController {
                 proposta.getStatus(),
                 proposta.getDataCriacao(),
                 proposta.getCliente().getId(),
-                proposta.getCliente().getNome()
+                proposta.getCliente().getNome(),
+                proposta.getRegraReprovacao()
         );
     }
 }
@@ -0,0 +1,45 @@
+package br.com.challenge.fictcred.dto;
+
+import java.math.BigDecimal;
+
+import org.hibernate.validator.constraints.br.CPF;
+
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+// Alteração parcial: os campos ausentes (nulos) mantêm o valor atual
+public class ClientePatchDTO {
+
+    @Size(min = 2, max = 100)
+    private String nome;
+
+    @CPF(message = "CPF inválido")
+    private String cpf;
+
+    @Positive(message = "O valor da renda mensal deve ser maior que zero")
+    private BigDecimal rendaMensal;
+
+    public String getNome() {
+        return nome;
+    }
+
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+
+    public String getCpf() {
+        return cpf;
+    }
+
+    public void setCpf(String cpf) {
+        this.cpf = cpf;
+    }
+
+    public BigDecimal getRendaMensal() {
+        return rendaMensal;
+    }
+
+    public void setRendaMensal(BigDecimal rendaMensal) {
+        this.rendaMensal = rendaMensal;
+    }
+}
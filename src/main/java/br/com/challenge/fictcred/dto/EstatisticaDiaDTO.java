@@ -0,0 +1,21 @@
+package br.com.challenge.fictcred.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EstatisticaDiaDTO {
+
+    private LocalDate dia;
+    private long aprovadas;
+    private long reprovadas;
+    private BigDecimal valorAprovado;
+    private BigDecimal valorReprovado;
+    private double taxaAprovacao;
+}
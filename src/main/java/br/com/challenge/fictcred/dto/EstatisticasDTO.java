@@ -0,0 +1,23 @@
+package br.com.challenge.fictcred.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EstatisticasDTO {
+
+    private LocalDate inicio;
+    private LocalDate fim;
+    private long aprovadas;
+    private long reprovadas;
+    private BigDecimal valorTotalSolicitado;
+    private double taxaAprovacao;
+    private List<EstatisticaDiaDTO> dias;
+}
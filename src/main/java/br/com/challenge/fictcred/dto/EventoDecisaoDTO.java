@@ -0,0 +1,24 @@
+package br.com.challenge.fictcred.dto;
+
+import br.com.challenge.fictcred.enums.StatusParcela;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventoDecisaoDTO {
+
+    private Long sequencia;
+    private Long propostaId;
+    private Long clienteId;
+    private StatusParcela status;
+    private String regraReprovacao;
+    private BigDecimal valorSolicitado;
+    private int numeroParcelas;
+    private Date dataDecisao;
+}
@@ -0,0 +1,20 @@
+package br.com.challenge.fictcred.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExclusaoClienteDTO {
+
+    private Long clienteId;
+    private Date dataSolicitacao;
+    private long propostasRemovidas;
+    private long propostasRestantes;
+    private Date dataConclusao;
+    private boolean concluida;
+}
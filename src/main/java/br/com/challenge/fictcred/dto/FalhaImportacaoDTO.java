@@ -0,0 +1,25 @@
+package br.com.challenge.fictcred.dto;
+
+public class FalhaImportacaoDTO {
+    private int indice;
+    private String cpf;
+    private String motivo;
+
+    public FalhaImportacaoDTO(int indice, String cpf, String motivo) {
+        this.indice = indice;
+        this.cpf = cpf;
+        this.motivo = motivo;
+    }
+
+    public int getIndice() {
+        return indice;
+    }
+
+    public String getCpf() {
+        return cpf;
+    }
+
+    public String getMotivo() {
+        return motivo;
+    }
+}
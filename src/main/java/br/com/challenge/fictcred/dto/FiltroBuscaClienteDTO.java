@@ -0,0 +1,39 @@
+package br.com.challenge.fictcred.dto;
+
+import java.math.BigDecimal;
+
+public class FiltroBuscaClienteDTO {
+    private String nome;
+    private boolean contem;
+    private String cpf;
+    private BigDecimal rendaMinima;
+    private BigDecimal rendaMaxima;
+
+    public FiltroBuscaClienteDTO(String nome, boolean contem, String cpf, BigDecimal rendaMinima, BigDecimal rendaMaxima) {
+        this.nome = nome;
+        this.contem = contem;
+        this.cpf = cpf;
+        this.rendaMinima = rendaMinima;
+        this.rendaMaxima = rendaMaxima;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public boolean isContem() {
+        return contem;
+    }
+
+    public String getCpf() {
+        return cpf;
+    }
+
+    public BigDecimal getRendaMinima() {
+        return rendaMinima;
+    }
+
+    public BigDecimal getRendaMaxima() {
+        return rendaMaxima;
+    }
+}
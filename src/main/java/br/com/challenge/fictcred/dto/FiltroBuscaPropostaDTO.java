@@ -0,0 +1,56 @@
+package br.com.challenge.fictcred.dto;
+
+import br.com.challenge.fictcred.enums.StatusParcela;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+
+public class FiltroBuscaPropostaDTO {
+    private List<StatusParcela> status;
+    private Date dataInicio;
+    private Date dataFim;
+    private BigDecimal valorMinimo;
+    private BigDecimal valorMaximo;
+    private Integer parcelasMinimo;
+    private Integer parcelasMaximo;
+
+    public FiltroBuscaPropostaDTO(List<StatusParcela> status, Date dataInicio, Date dataFim, BigDecimal valorMinimo,
+                                  BigDecimal valorMaximo, Integer parcelasMinimo, Integer parcelasMaximo) {
+        this.status = status;
+        this.dataInicio = dataInicio;
+        this.dataFim = dataFim;
+        this.valorMinimo = valorMinimo;
+        this.valorMaximo = valorMaximo;
+        this.parcelasMinimo = parcelasMinimo;
+        this.parcelasMaximo = parcelasMaximo;
+    }
+
+    public List<StatusParcela> getStatus() {
+        return status;
+    }
+
+    public Date getDataInicio() {
+        return dataInicio;
+    }
+
+    public Date getDataFim() {
+        return dataFim;
+    }
+
+    public BigDecimal getValorMinimo() {
+        return valorMinimo;
+    }
+
+    public BigDecimal getValorMaximo() {
+        return valorMaximo;
+    }
+
+    public Integer getParcelasMinimo() {
+        return parcelasMinimo;
+    }
+
+    public Integer getParcelasMaximo() {
+        return parcelasMaximo;
+    }
+}
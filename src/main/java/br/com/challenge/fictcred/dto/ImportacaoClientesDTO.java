@@ -0,0 +1,34 @@
+package br.com.challenge.fictcred.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ImportacaoClientesDTO {
+    private int total;
+    private int inseridos;
+    private List<FalhaImportacaoDTO> falhas = new ArrayList<>();
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public int getInseridos() {
+        return inseridos;
+    }
+
+    public void setInseridos(int inseridos) {
+        this.inseridos = inseridos;
+    }
+
+    public List<FalhaImportacaoDTO> getFalhas() {
+        return falhas;
+    }
+
+    public void adicionarFalha(int indice, String cpf, String motivo) {
+        falhas.add(new FalhaImportacaoDTO(indice, cpf, motivo));
+    }
+}
@@ -0,0 +1,21 @@
+package br.com.challenge.fictcred.dto;
+
+import java.util.List;
+
+public class PaginaDTO<T> {
+    private List<T> itens;
+    private Long proximoCursor;
+
+    public PaginaDTO(List<T> itens, Long proximoCursor) {
+        this.itens = itens;
+        this.proximoCursor = proximoCursor;
+    }
+
+    public List<T> getItens() {
+        return itens;
+    }
+
+    public Long getProximoCursor() {
+        return proximoCursor;
+    }
+}
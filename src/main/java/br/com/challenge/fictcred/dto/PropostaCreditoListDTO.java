@@ -20,4 +20,5 @@ public class PropostaCreditoListDTO {
     private Date dataCriacao;
     private Long clienteId;
     private String clienteNome;
+    private String regraReprovacao;
 }
@@ -0,0 +1,19 @@
+package br.com.challenge.fictcred.dto;
+
+import br.com.challenge.fictcred.enums.StatusParcela;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PropostaCreditoLoteResultadoDTO {
+
+    private int indice;
+    private Long clienteId;
+    private Long propostaId;
+    private StatusParcela status;
+    private String regraReprovacao;
+    private String erro;
+}
@@ -0,0 +1,34 @@
+package br.com.challenge.fictcred.dto;
+
+import java.util.List;
+
+public class ResultadoBuscaDTO<T> {
+    private List<T> itens;
+    private Long proximoCursor;
+    // Total de resultados, contado só na primeira página e até um limite; totalExato é false quando há mais
+    private Long total;
+    private Boolean totalExato;
+
+    public ResultadoBuscaDTO(List<T> itens, Long proximoCursor, Long total, Boolean totalExato) {
+        this.itens = itens;
+        this.proximoCursor = proximoCursor;
+        this.total = total;
+        this.totalExato = totalExato;
+    }
+
+    public List<T> getItens() {
+        return itens;
+    }
+
+    public Long getProximoCursor() {
+        return proximoCursor;
+    }
+
+    public Long getTotal() {
+        return total;
+    }
+
+    public Boolean getTotalExato() {
+        return totalExato;
+    }
+}
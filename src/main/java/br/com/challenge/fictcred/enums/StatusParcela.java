@@ -2,7 +2,9 @@ package br.com.challenge.fictcred.enums;
 
 public enum StatusParcela {
     APROVADA(1),
-    REPROVADA(2);
+    REPROVADA(2),
+    // Gravado pelo ordinal: novos status entram sempre no fim
+    PENDENTE(3);
 
     private int valorInteiro;
 
@@ -0,0 +1,22 @@
+package br.com.challenge.fictcred.enums;
+
+public enum TipoRegraCredito {
+    PARCELAS_ENTRE(1),
+    VALOR_MINIMO(2),
+    VALOR_MAXIMO(2),
+    RENDA_MINIMA(2),
+    VALOR_MAXIMO_MULTIPLO_RENDA(3),
+    PROPOSTAS_ABERTAS_MAXIMO(1),
+    EXPOSICAO_MAXIMA_MULTIPLO_RENDA(4);
+
+    // Custo relativo de avaliação, usado para ordenar as regras mais baratas primeiro
+    private final int custoPadrao;
+
+    TipoRegraCredito(int custoPadrao) {
+        this.custoPadrao = custoPadrao;
+    }
+
+    public int getCustoPadrao() {
+        return custoPadrao;
+    }
+}
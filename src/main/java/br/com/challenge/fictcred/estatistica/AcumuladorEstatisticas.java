@@ -0,0 +1,65 @@
+package br.com.challenge.fictcred.estatistica;
+
+import br.com.challenge.fictcred.enums.StatusParcela;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Contadores por dia e status atualizados sem bloqueio (LongAdder). Os contadores nunca são
+// zerados: a descarga grava a diferença entre o total acumulado e o que já foi confirmado,
+// então incrementos concorrentes com a descarga entram na próxima e nenhum é perdido.
+public class AcumuladorEstatisticas {
+
+    private final Map<Chave, Contadores> contadores = new ConcurrentHashMap<>();
+
+    public void registrar(LocalDate dia, StatusParcela status, long centavos) {
+        contadores.computeIfAbsent(new Chave(dia, status), chave -> new Contadores()).adicionar(centavos);
+    }
+
+    // Chamado por uma única thread por vez (a da descarga)
+    public List<Delta> pendentes() {
+        List<Delta> deltas = new ArrayList<>();
+        contadores.forEach((chave, valores) -> {
+            long quantidade = valores.quantidade.sum() - valores.quantidadeConfirmada;
+            long centavos = valores.centavos.sum() - valores.centavosConfirmados;
+            if (quantidade != 0 || centavos != 0) {
+                deltas.add(new Delta(chave, quantidade, centavos));
+            }
+        });
+        return deltas;
+    }
+
+    public void confirmar(List<Delta> deltas) {
+        for (Delta delta : deltas) {
+            Contadores valores = contadores.get(delta.chave());
+            valores.quantidadeConfirmada += delta.quantidade();
+            valores.centavosConfirmados += delta.centavos();
+        }
+    }
+
+    public void descartarPendentes() {
+        confirmar(pendentes());
+    }
+
+    public record Chave(LocalDate dia, StatusParcela status) {
+    }
+
+    public record Delta(Chave chave, long quantidade, long centavos) {
+    }
+
+    private static final class Contadores {
+        private final LongAdder quantidade = new LongAdder();
+        private final LongAdder centavos = new LongAdder();
+        private volatile long quantidadeConfirmada;
+        private volatile long centavosConfirmados;
+
+        private void adicionar(long valorCentavos) {
+            quantidade.increment();
+            centavos.add(valorCentavos);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package br.com.challenge.fictcred.exclusao;
+
+import br.com.challenge.fictcred.model.Cliente;
+import br.com.challenge.fictcred.model.ExclusaoCliente;
+import br.com.challenge.fictcred.repository.ExclusaoClienteRepository;
+import br.com.challenge.fictcred.repository.PropostaCreditoArquivadaRepository;
+import br.com.challenge.fictcred.repository.PropostaCreditoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.query.NativeQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Remove em segundo plano o que sobra de um cliente excluído: as propostas da tabela principal e do
+// arquivo em lotes, cada lote na sua transação, e por fim o razão de exposição e a linha do cliente.
+// Cada execução trabalha no máximo duracaoMaxima e devolve a thread ao agendador; o intervalo entre as
+// execuções limita a fração do tempo do banco usada pela purga, e as transações curtas não seguram
+// bloqueios nem atrasam o vacuum como um único delete em cascata faria.
+public class PurgaClientes {
+
+    private static final Logger log = LoggerFactory.getLogger(PurgaClientes.class);
+    private static final int EXCLUSOES_POR_EXECUCAO = 10;
+
+    private final ExclusaoClienteRepository exclusaoClienteRepository;
+    private final PropostaCreditoRepository propostaCreditoRepository;
+    private final PropostaCreditoArquivadaRepository arquivadaRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final int tamanhoLote;
+    private final Duration duracaoMaxima;
+    private final AtomicLong pendentes = new AtomicLong();
+    private Counter propostasRemovidas;
+    private Counter clientesRemovidos;
+    private Timer duracaoLote;
+
+    public PurgaClientes(ExclusaoClienteRepository exclusaoClienteRepository,
+                         PropostaCreditoRepository propostaCreditoRepository,
+                         PropostaCreditoArquivadaRepository arquivadaRepository,
+                         TransactionTemplate transactionTemplate, EntityManagerFactory entityManagerFactory,
+                         int tamanhoLote, Duration duracaoMaxima) {
+        this.exclusaoClienteRepository = exclusaoClienteRepository;
+        this.propostaCreditoRepository = propostaCreditoRepository;
+        this.arquivadaRepository = arquivadaRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.tamanhoLote = tamanhoLote;
+        this.duracaoMaxima = duracaoMaxima;
+    }
+
+    public void registrarMetricas(MeterRegistry registry) {
+        propostasRemovidas = Counter.builder("fictcred.exclusao.propostas")
+                .description("Propostas removidas pela purga de clientes excluídos")
+                .register(registry);
+        clientesRemovidos = Counter.builder("fictcred.exclusao.clientes")
+                .description("Clientes excluídos com a purga concluída")
+                .register(registry);
+        duracaoLote = Timer.builder("fictcred.exclusao.lote")
+                .description("Duração de cada lote da purga")
+                .register(registry);
+        Gauge.builder("fictcred.exclusao.pendentes", pendentes, AtomicLong::get)
+                .description("Exclusões de clientes aguardando a purga")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${fictcred.exclusao.intervalo:1000}")
+    public void executar() {
+        try {
+            executar(duracaoMaxima);
+        } catch (RuntimeException e) {
+            log.error("Falha na purga de clientes excluídos; será tentada de novo na próxima execução", e);
+        }
+    }
+
+    // Retorna o número de propostas removidas nesta execução
+    public long executar(Duration duracao) {
+        long limite = System.nanoTime() + duracao.toNanos();
+        long total = 0;
+        List<ExclusaoCliente> exclusoes = exclusaoClienteRepository
+                .findByDataConclusaoIsNullOrderByDataSolicitacao(Limit.of(EXCLUSOES_POR_EXECUCAO));
+        for (ExclusaoCliente exclusao : exclusoes) {
+            Long clienteId = exclusao.getClienteId();
+            try {
+                int removidas;
+                do {
+                    if (System.nanoTime() >= limite) {
+                        pendentes.set(exclusaoClienteRepository.countByDataConclusaoIsNull());
+                        return total;
+                    }
+                    removidas = removerLote(clienteId);
+                    total += removidas;
+                } while (removidas > 0);
+                concluir(clienteId);
+            } catch (RuntimeException e) {
+                // Uma exclusão com problema não impede as seguintes; ela volta na próxima execução
+                log.error("Falha na purga do cliente {}", clienteId, e);
+            }
+        }
+        pendentes.set(exclusaoClienteRepository.countByDataConclusaoIsNull());
+        return total;
+    }
+
+    // Primeiro a tabela principal, depois o arquivo. Usa as linhas de fato removidas, para que outra
+    // execução concorrente sobre o mesmo cliente não conte as mesmas propostas duas vezes
+    private int removerLote(Long clienteId) {
+        long inicio = System.nanoTime();
+        Integer removidas = transactionTemplate.execute(status -> {
+            List<Long> ids = propostaCreditoRepository.findIdsByClienteId(clienteId, Limit.of(tamanhoLote));
+            int quantidade;
+            if (!ids.isEmpty()) {
+                quantidade = propostaCreditoRepository.removerPorIds(ids);
+            } else {
+                ids = arquivadaRepository.findIdsByClienteId(clienteId, Limit.of(tamanhoLote));
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                quantidade = arquivadaRepository.removerPorIds(ids);
+            }
+            exclusaoClienteRepository.registrarRemovidas(clienteId, quantidade);
+            return quantidade;
+        });
+        int quantidade = removidas == null ? 0 : removidas;
+        if (quantidade > 0 && propostasRemovidas != null) {
+            propostasRemovidas.increment(quantidade);
+            duracaoLote.record(Duration.ofNanos(System.nanoTime() - inicio));
+        }
+        return quantidade;
+    }
+
+    // Sem propostas, o razão de exposição e o cliente saem numa transação junto com a conclusão.
+    // O cliente é removido por SQL nativo porque as consultas de Cliente não enxergam os excluídos
+    private void concluir(Long clienteId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+            entityManager.createQuery("delete from ExposicaoCliente e where e.clienteId = :clienteId")
+                    .setParameter("clienteId", clienteId)
+                    .executeUpdate();
+            // Sincronizado só com Cliente: sem isso o Hibernate descartaria todo o cache de segundo nível
+            entityManager.createNativeQuery("delete from cliente where id = :id and data_exclusao is not null")
+                    .setParameter("id", clienteId)
+                    .unwrap(NativeQuery.class)
+                    .addSynchronizedEntityClass(Cliente.class)
+                    .executeUpdate();
+            exclusaoClienteRepository.concluir(clienteId, new Date());
+        });
+        if (clientesRemovidos != null) {
+            clientesRemovidos.increment();
+        }
+        log.info("Purga do cliente {} concluída", clienteId);
+    }
+}
@@ -0,0 +1,224 @@
+package br.com.challenge.fictcred.fila;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+// Fila limitada de propostas pendentes, consumida por um conjunto fixo de trabalhadores que
+// avaliam e gravam em micro-lotes. A vaga é reservada antes de a proposta ser gravada, de modo
+// que toda proposta pendente aceita tenha lugar garantido na fila.
+// Uma proposta fica na fila uma única vez: enquanto está na fila, em avaliação ou aguardando nova
+// tentativa, enfileirá-la de novo (ex.: pela recuperação das pendentes) não tem efeito.
+public class FilaPropostas implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(FilaPropostas.class);
+
+    private final BlockingQueue<Item> fila;
+    private final Semaphore vagas;
+    private final int trabalhadores;
+    private final int tamanhoLote;
+    private final int maximoTentativas;
+    private final long esperaRetentativaMillis;
+    private final Consumer<List<Long>> processador;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService retentativas;
+    private final Set<Long> presentes = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger emProcessamento = new AtomicInteger();
+    private final Timer espera;
+    private final Timer lote;
+    private final Counter rejeitadas;
+    private final Counter reprocessadas;
+    private final Counter falhas;
+
+    public FilaPropostas(int capacidade, int trabalhadores, int tamanhoLote, int maximoTentativas,
+                         Duration esperaRetentativa, Consumer<List<Long>> processador, MeterRegistry registry) {
+        this.fila = new ArrayBlockingQueue<>(capacidade);
+        this.vagas = new Semaphore(capacidade);
+        this.trabalhadores = trabalhadores;
+        this.tamanhoLote = tamanhoLote;
+        this.maximoTentativas = maximoTentativas;
+        this.esperaRetentativaMillis = esperaRetentativa.toMillis();
+        this.processador = processador;
+        this.executor = Executors.newFixedThreadPool(trabalhadores,
+                Thread.ofPlatform().name("fila-propostas-", 0).daemon().factory());
+        this.retentativas = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("fila-propostas-retentativas").daemon().factory());
+
+        Gauge.builder("fictcred.fila.propostas.tamanho", fila, BlockingQueue::size)
+                .description("Propostas pendentes aguardando avaliação")
+                .register(registry);
+        Gauge.builder("fictcred.fila.propostas.em-processamento", emProcessamento, AtomicInteger::get)
+                .description("Propostas em avaliação pelos trabalhadores")
+                .register(registry);
+        this.espera = Timer.builder("fictcred.fila.propostas.espera")
+                .description("Tempo entre o enfileiramento e a gravação da decisão")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.lote = Timer.builder("fictcred.fila.propostas.lote")
+                .description("Tempo de avaliação e gravação de cada micro-lote")
+                .register(registry);
+        this.rejeitadas = Counter.builder("fictcred.fila.propostas.rejeitadas")
+                .description("Propostas recusadas por fila cheia")
+                .register(registry);
+        this.reprocessadas = Counter.builder("fictcred.fila.propostas.retentativas")
+                .description("Propostas reenfileiradas após falha na avaliação")
+                .register(registry);
+        this.falhas = Counter.builder("fictcred.fila.propostas.falhas")
+                .description("Propostas que esgotaram as tentativas e ficaram pendentes")
+                .register(registry);
+    }
+
+    public void iniciar() {
+        for (int i = 0; i < trabalhadores; i++) {
+            executor.execute(this::consumir);
+        }
+    }
+
+    public boolean reservar() {
+        if (vagas.tryAcquire()) {
+            return true;
+        }
+        rejeitadas.increment();
+        return false;
+    }
+
+    public void cancelarReserva() {
+        vagas.release();
+    }
+
+    // Só pode ser chamado depois de uma reserva bem-sucedida, então sempre há espaço. A reserva de uma
+    // proposta que já está na fila é devolvida.
+    public void enfileirar(Long propostaId) {
+        if (!presentes.add(propostaId)) {
+            vagas.release();
+            return;
+        }
+        fila.add(new Item(propostaId, System.nanoTime(), 1));
+    }
+
+    // Usado na recuperação das pendentes: bloqueia até haver vaga em vez de recusar
+    public void enfileirarAguardando(Long propostaId) throws InterruptedException {
+        vagas.acquire();
+        enfileirar(propostaId);
+    }
+
+    public int getTamanho() {
+        return fila.size();
+    }
+
+    public int getEmProcessamento() {
+        return emProcessamento.get();
+    }
+
+    private void consumir() {
+        List<Item> itens = new ArrayList<>(tamanhoLote);
+        List<Long> ids = new ArrayList<>(tamanhoLote);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                itens.add(fila.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            fila.drainTo(itens, tamanhoLote - 1);
+            vagas.release(itens.size());
+            emProcessamento.addAndGet(itens.size());
+
+            for (Item item : itens) {
+                ids.add(item.propostaId);
+            }
+            long inicio = System.nanoTime();
+            try {
+                processador.accept(ids);
+                long fim = System.nanoTime();
+                lote.record(fim - inicio, TimeUnit.NANOSECONDS);
+                for (Item item : itens) {
+                    concluir(item, fim);
+                }
+            } catch (RuntimeException e) {
+                if (itens.size() == 1) {
+                    falhou(itens.get(0), e);
+                } else {
+                    // Uma falha desfaz o lote inteiro: cada proposta é avaliada sozinha, para que uma com
+                    // problema não segure as demais
+                    log.warn("Falha ao avaliar lote de {} propostas pendentes; avaliando uma a uma", itens.size(), e);
+                    for (Item item : itens) {
+                        avaliarSozinha(item);
+                    }
+                }
+            } finally {
+                emProcessamento.addAndGet(-itens.size());
+                itens.clear();
+                ids.clear();
+            }
+        }
+    }
+
+    private void avaliarSozinha(Item item) {
+        try {
+            processador.accept(List.of(item.propostaId));
+            concluir(item, System.nanoTime());
+        } catch (RuntimeException e) {
+            falhou(item, e);
+        }
+    }
+
+    private void falhou(Item item, RuntimeException e) {
+        if (item.tentativa >= maximoTentativas) {
+            // A proposta continua pendente no banco e volta para a fila na próxima inicialização
+            presentes.remove(item.propostaId);
+            falhas.increment();
+            log.error("Proposta {} continua pendente após {} tentativas", item.propostaId, item.tentativa, e);
+            return;
+        }
+        reprocessadas.increment();
+        long esperaMillis = esperaRetentativaMillis << Math.min(item.tentativa - 1, 10);
+        log.warn("Falha ao avaliar a proposta {}; nova tentativa em {} ms", item.propostaId, esperaMillis, e);
+        reagendar(new Item(item.propostaId, item.enfileiradoEm, item.tentativa + 1), esperaMillis);
+    }
+
+    private void concluir(Item item, long fim) {
+        presentes.remove(item.propostaId);
+        espera.record(fim - item.enfileiradoEm, TimeUnit.NANOSECONDS);
+    }
+
+    // A proposta segue em presentes enquanto espera, então a recuperação não a duplica. Sem vaga na
+    // volta, espera mais um intervalo em vez de bloquear a thread das retentativas.
+    private void reagendar(Item item, long esperaMillis) {
+        retentativas.schedule(() -> {
+            if (vagas.tryAcquire()) {
+                fila.add(item);
+            } else {
+                reagendar(item, esperaRetentativaMillis);
+            }
+        }, esperaMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        retentativas.shutdownNow();
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private record Item(Long propostaId, long enfileiradoEm, int tentativa) {
+    }
+}
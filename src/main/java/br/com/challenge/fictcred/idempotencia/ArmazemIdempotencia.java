@@ -0,0 +1,15 @@
+package br.com.challenge.fictcred.idempotencia;
+
+import java.util.Optional;
+
+public interface ArmazemIdempotencia {
+
+    // Vazio quando a chave foi reservada para a requisição corrente; senão, o que já está guardado para ela.
+    // reserva identifica a requisição que reservou: só ela conclui ou libera a chave
+    Optional<RespostaArmazenada> reservar(String chave, String hashRequisicao, String reserva);
+
+    void concluir(String chave, String reserva, RespostaArmazenada resposta);
+
+    // Desfaz a reserva para que uma nova tentativa execute a requisição de novo
+    void liberar(String chave, String reserva);
+}
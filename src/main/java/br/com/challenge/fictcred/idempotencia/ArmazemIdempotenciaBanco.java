@@ -0,0 +1,63 @@
+package br.com.challenge.fictcred.idempotencia;
+
+import br.com.challenge.fictcred.model.RespostaIdempotente;
+import br.com.challenge.fictcred.repository.RespostaIdempotenteRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+// Armazém compartilhado entre instâncias: a chave primária da tabela garante que só uma reserva vence.
+// A reserva vale só por prazoReserva: se a instância que a fez cair, a próxima repetição depois do prazo
+// assume a chave em vez de receber 409 até o fim do TTL. Ao concluir, o prazo passa a ser o TTL.
+// Concluir e liberar conferem a reserva: uma instância que perdeu o prazo não mexe na chave de quem a assumiu.
+public class ArmazemIdempotenciaBanco implements ArmazemIdempotencia {
+
+    private final RespostaIdempotenteRepository repository;
+    private final Duration ttl;
+    private final Duration prazoReserva;
+
+    public ArmazemIdempotenciaBanco(RespostaIdempotenteRepository repository, Duration ttl, Duration prazoReserva) {
+        this.repository = repository;
+        this.ttl = ttl;
+        this.prazoReserva = prazoReserva;
+    }
+
+    @Override
+    public Optional<RespostaArmazenada> reservar(String chave, String hashRequisicao, String reserva) {
+        Instant agora = Instant.now();
+        repository.deleteExpirada(chave, agora);
+        try {
+            repository.inserirReserva(chave, hashRequisicao, reserva, agora.plus(prazoReserva));
+            return Optional.empty();
+        } catch (DataIntegrityViolationException e) {
+            // Outra requisição reservou primeiro; se ela já liberou a chave, trata como ainda em processamento
+            return Optional.of(repository.findById(chave)
+                    .map(this::converter)
+                    .orElseGet(() -> RespostaArmazenada.reserva(hashRequisicao)));
+        }
+    }
+
+    @Override
+    public void concluir(String chave, String reserva, RespostaArmazenada resposta) {
+        repository.concluir(chave, reserva, resposta.status(), resposta.contentType(), resposta.location(),
+                resposta.corpo(), Instant.now().plus(ttl));
+    }
+
+    @Override
+    public void liberar(String chave, String reserva) {
+        repository.deleteReserva(chave, reserva);
+    }
+
+    @Scheduled(fixedDelayString = "${fictcred.idempotencia.intervalo-limpeza:60000}")
+    public void removerExpiradas() {
+        repository.deleteExpiradas(Instant.now());
+    }
+
+    private RespostaArmazenada converter(RespostaIdempotente registro) {
+        return new RespostaArmazenada(registro.getHashRequisicao(), registro.getStatus(),
+                registro.getContentType(), registro.getLocation(), registro.getCorpo());
+    }
+}
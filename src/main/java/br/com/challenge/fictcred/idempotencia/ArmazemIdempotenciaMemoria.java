@@ -0,0 +1,40 @@
+package br.com.challenge.fictcred.idempotencia;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.Optional;
+
+// Armazém local à instância: limitado em quantidade e com expiração pelo TTL. Sem prazo de reserva, a
+// chave só muda de dono depois de liberada, então a reserva não precisa ser conferida
+public class ArmazemIdempotenciaMemoria implements ArmazemIdempotencia {
+
+    private final Cache<String, RespostaArmazenada> respostas;
+
+    public ArmazemIdempotenciaMemoria(long capacidade, Duration ttl) {
+        this.respostas = Caffeine.newBuilder()
+                .maximumSize(capacidade)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public Optional<RespostaArmazenada> reservar(String chave, String hashRequisicao, String reserva) {
+        return Optional.ofNullable(respostas.asMap().putIfAbsent(chave, RespostaArmazenada.reserva(hashRequisicao)));
+    }
+
+    @Override
+    public void concluir(String chave, String reserva, RespostaArmazenada resposta) {
+        respostas.put(chave, resposta);
+    }
+
+    @Override
+    public void liberar(String chave, String reserva) {
+        respostas.invalidate(chave);
+    }
+
+    public long getTamanho() {
+        return respostas.estimatedSize();
+    }
+}
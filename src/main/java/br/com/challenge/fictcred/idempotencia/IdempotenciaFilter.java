@@ -0,0 +1,219 @@
+package br.com.challenge.fictcred.idempotencia;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// POSTs com Idempotency-Key executam uma vez: repetições recebem a primeira resposta sem chegar ao controller.
+// Duplicatas simultâneas na mesma instância esperam a original terminar; em outra instância recebem 409.
+public class IdempotenciaFilter extends OncePerRequestFilter {
+
+    public static final String CABECALHO = "Idempotency-Key";
+    public static final String CABECALHO_REPRODUZIDA = "Idempotent-Replayed";
+    public static final int TAMANHO_MAXIMO_CHAVE = 255;
+    // Respostas maiores que isso não são guardadas e uma repetição executa de novo
+    public static final int TAMANHO_MAXIMO_CORPO = 1024 * 1024;
+
+    private final ArmazemIdempotencia armazem;
+    private final long esperaMaximaNanos;
+    // ConcurrentHashMap trava por posição da tabela, então chaves diferentes não disputam o mesmo lock
+    private final ConcurrentHashMap<String, CompletableFuture<Void>> emAndamento = new ConcurrentHashMap<>();
+
+    public IdempotenciaFilter(ArmazemIdempotencia armazem, Duration esperaMaxima) {
+        this.armazem = armazem;
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod()) || request.getHeader(CABECALHO) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String chave = request.getHeader(CABECALHO);
+        if (chave.isBlank() || chave.length() > TAMANHO_MAXIMO_CHAVE) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            return;
+        }
+        byte[] corpo = request.getInputStream().readAllBytes();
+        String hash = hash(request, corpo);
+
+        while (true) {
+            CompletableFuture<Void> sinal = new CompletableFuture<>();
+            CompletableFuture<Void> original = emAndamento.putIfAbsent(chave, sinal);
+            if (original != null) {
+                // Depois que a original termina, a próxima volta encontra a resposta guardada
+                // ou, se ela falhou e liberou a chave, executa a requisição
+                if (!aguardar(original)) {
+                    emProcessamento(response);
+                    return;
+                }
+                continue;
+            }
+            try {
+                String reserva = UUID.randomUUID().toString();
+                Optional<RespostaArmazenada> existente = armazem.reservar(chave, hash, reserva);
+                if (existente.isEmpty()) {
+                    executar(chave, hash, reserva, new RequisicaoComCorpo(request, corpo), response, filterChain);
+                } else if (!existente.get().hashRequisicao().equals(hash)) {
+                    // Mesma chave com outra requisição: provavelmente reuso indevido da chave pelo cliente
+                    response.setStatus(HttpStatus.UNPROCESSABLE_ENTITY.value());
+                } else if (existente.get().emProcessamento()) {
+                    emProcessamento(response);
+                } else {
+                    reproduzir(existente.get(), response);
+                }
+                return;
+            } finally {
+                emAndamento.remove(chave, sinal);
+                sinal.complete(null);
+            }
+        }
+    }
+
+    private void executar(String chave, String hash, String reserva, HttpServletRequest request,
+                          HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        ContentCachingResponseWrapper captura = new ContentCachingResponseWrapper(response);
+        boolean guardada = false;
+        try {
+            filterChain.doFilter(request, captura);
+            // Erros do servidor não são guardados: a repetição deve ter a chance de dar certo
+            if (captura.getStatus() < 500 && captura.getContentSize() <= TAMANHO_MAXIMO_CORPO) {
+                armazem.concluir(chave, reserva, new RespostaArmazenada(hash, captura.getStatus(), captura.getContentType(),
+                        captura.getHeader(HttpHeaders.LOCATION), captura.getContentAsByteArray()));
+                guardada = true;
+            }
+        } finally {
+            if (!guardada) {
+                armazem.liberar(chave, reserva);
+            }
+            captura.copyBodyToResponse();
+        }
+    }
+
+    private boolean aguardar(CompletableFuture<Void> original) {
+        try {
+            original.get(esperaMaximaNanos, TimeUnit.NANOSECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (TimeoutException | ExecutionException e) {
+            return false;
+        }
+    }
+
+    private void reproduzir(RespostaArmazenada resposta, HttpServletResponse response) throws IOException {
+        response.setStatus(resposta.status());
+        response.setHeader(CABECALHO_REPRODUZIDA, "true");
+        if (resposta.contentType() != null) {
+            response.setContentType(resposta.contentType());
+        }
+        if (resposta.location() != null) {
+            response.setHeader(HttpHeaders.LOCATION, resposta.location());
+        }
+        if (resposta.corpo() != null && resposta.corpo().length > 0) {
+            response.setContentLength(resposta.corpo().length);
+            response.getOutputStream().write(resposta.corpo());
+        }
+    }
+
+    private void emProcessamento(HttpServletResponse response) {
+        response.setStatus(HttpStatus.CONFLICT.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+    }
+
+    private String hash(HttpServletRequest request, byte[] corpo) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(request.getRequestURI().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(corpo);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public int getEmAndamento() {
+        return emAndamento.size();
+    }
+
+    // O corpo já foi lido para calcular o hash; o controller lê a cópia
+    private static class RequisicaoComCorpo extends HttpServletRequestWrapper {
+
+        private final byte[] corpo;
+
+        RequisicaoComCorpo(HttpServletRequest request, byte[] corpo) {
+            super(request);
+            this.corpo = corpo;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream entrada = new ByteArrayInputStream(corpo);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return entrada.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return entrada.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return entrada.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public int getContentLength() {
+            return corpo.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return corpo.length;
+        }
+    }
+}
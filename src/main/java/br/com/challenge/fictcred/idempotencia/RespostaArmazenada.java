@@ -0,0 +1,13 @@
+package br.com.challenge.fictcred.idempotencia;
+
+// Resposta guardada para uma Idempotency-Key. Status 0 indica que a requisição original ainda está em processamento.
+public record RespostaArmazenada(String hashRequisicao, int status, String contentType, String location, byte[] corpo) {
+
+    public static RespostaArmazenada reserva(String hashRequisicao) {
+        return new RespostaArmazenada(hashRequisicao, 0, null, null, null);
+    }
+
+    public boolean emProcessamento() {
+        return status == 0;
+    }
+}
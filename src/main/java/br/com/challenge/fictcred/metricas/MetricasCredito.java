@@ -0,0 +1,68 @@
+package br.com.challenge.fictcred.metricas;
+
+import br.com.challenge.fictcred.regra.ResultadoAvaliacao;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Medidores da avaliação de propostas. Todos são registrados uma única vez e reaproveitados,
+// para que o caminho quente não monte tags nem consulte o registry a cada chamada.
+@Component
+public class MetricasCredito {
+
+    public static final String AVALIACAO = "fictcred.propostas.avaliacao";
+    public static final String DECISOES = "fictcred.propostas.decisoes";
+
+    private final MeterRegistry registry;
+    private final Timer avaliacao;
+    private final Counter aprovadas;
+    private final Map<String, Counter> reprovadasPorRegra = new ConcurrentHashMap<>();
+
+    public MetricasCredito(MeterRegistry registry) {
+        this.registry = registry;
+        this.avaliacao = Timer.builder(AVALIACAO)
+                .description("Tempo de avaliação das regras de crédito")
+                .register(registry);
+        this.aprovadas = Counter.builder(DECISOES)
+                .description("Propostas avaliadas por decisão e regra de reprovação")
+                .tag("status", "aprovada")
+                .tag("regra", "nenhuma")
+                .register(registry);
+    }
+
+    // Chamado a cada carga das regras: o contador de reprovação de cada regra existe (zerado) desde o
+    // início, e não só depois da primeira reprovação, para que rate() e alertas de série ausente o vejam
+    public void registrarRegras(Collection<String> regras) {
+        for (String regra : regras) {
+            reprovadasPorRegra.computeIfAbsent(regra, this::criarContadorReprovacao);
+        }
+    }
+
+    public void registrarAvaliacao(long duracaoNanos, ResultadoAvaliacao resultado) {
+        avaliacao.record(duracaoNanos, TimeUnit.NANOSECONDS);
+        if (resultado.isAprovada()) {
+            aprovadas.increment();
+            return;
+        }
+        Counter reprovadas = reprovadasPorRegra.get(resultado.getRegra());
+        if (reprovadas == null) {
+            // Só para regras que não passaram por registrarRegras; os nomes vêm da configuração, então a cardinalidade é limitada
+            reprovadas = reprovadasPorRegra.computeIfAbsent(resultado.getRegra(), this::criarContadorReprovacao);
+        }
+        reprovadas.increment();
+    }
+
+    private Counter criarContadorReprovacao(String regra) {
+        return Counter.builder(DECISOES)
+                .description("Propostas avaliadas por decisão e regra de reprovação")
+                .tag("status", "reprovada")
+                .tag("regra", regra)
+                .register(registry);
+    }
+}
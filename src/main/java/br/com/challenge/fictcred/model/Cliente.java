@@ -1,32 +1,84 @@
 package br.com.challenge.fictcred.model;
 
 import java.math.BigDecimal;
+import java.text.Normalizer;
 import java.util.Date;
 import java.util.List;
+import java.util.Locale;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.SQLRestriction;
+
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
+// Cache de segundo nível: leituras por id não vão ao banco; o Hibernate atualiza a entrada em cada commit
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "cliente")
+// Clientes excluídos somem de todas as consultas assim que a exclusão é registrada; a remoção das
+// linhas (propostas e o próprio cliente) fica para a purga em segundo plano
+@SQLRestriction("data_exclusao is null")
+// Índices da busca de clientes; no PostgreSQL são criados por db/postgresql/008-busca-cliente.sql
+@Table(indexes = {
+        @Index(name = "idx_cliente_nome_busca", columnList = "nomeBusca, id"),
+        @Index(name = "idx_cliente_renda_mensal", columnList = "rendaMensal, id")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 public class Cliente {
 
+    // Sequência com alocação em bloco (pooled) para permitir batch de inserts no JDBC
     @Id 
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cliente_seq")
+    @SequenceGenerator(name = "cliente_seq", sequenceName = "cliente_seq", allocationSize = 50)
     private Long id;
     private String nome;
+    // Nome sem acentos, em minúsculas e com espaços simples: coluna indexada usada na busca por nome
+    private String nomeBusca;
+    @Column(unique = true)
     private String cpf;
     private BigDecimal rendaMensal;
     private Date dataCadastro;
+    private Date dataExclusao;
+
+    // Incrementada a cada alteração: controla a concorrência otimista e gera o ETag do cliente
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long versao;
 
     @OneToMany(mappedBy = "cliente")
     private List<PropostaCredito> propostas;
+
+    @PrePersist
+    @PreUpdate
+    void atualizarNomeBusca() {
+        nomeBusca = normalizarNome(nome);
+    }
+
+    public static String normalizarNome(String nome) {
+        if (nome == null) {
+            return null;
+        }
+        String semAcentos = Normalizer.normalize(nome, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return semAcentos.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
 }
@@ -0,0 +1,22 @@
+package br.com.challenge.fictcred.model;
+
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Resumo por dia e status das propostas decididas, mantido de forma incremental
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EstatisticaDiaria {
+
+    @EmbeddedId
+    private EstatisticaDiariaId id;
+    private long quantidade;
+    private BigDecimal valorTotal;
+}
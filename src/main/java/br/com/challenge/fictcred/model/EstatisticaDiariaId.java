@@ -0,0 +1,20 @@
+package br.com.challenge.fictcred.model;
+
+import br.com.challenge.fictcred.enums.StatusParcela;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Embeddable
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EstatisticaDiariaId implements Serializable {
+
+    private LocalDate dia;
+    private StatusParcela status;
+}
@@ -0,0 +1,51 @@
+package br.com.challenge.fictcred.model;
+
+import br.com.challenge.fictcred.enums.StatusParcela;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+// Outbox das decisões de crédito: gravado na mesma transação da proposta e publicado depois pelo relay
+@Entity
+@Table(indexes = {
+        @Index(name = "uk_evento_decisao_sequencia", columnList = "sequencia", unique = true),
+        @Index(name = "idx_evento_decisao_cliente", columnList = "clienteId, sequencia"),
+        @Index(name = "idx_evento_decisao_nao_publicado", columnList = "publicado, sequencia")
+})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventoDecisao {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "evento_decisao_seq")
+    @SequenceGenerator(name = "evento_decisao_seq", sequenceName = "evento_decisao_seq", allocationSize = 50)
+    private Long id;
+    // Posição no stream; nula enquanto o relay não numerou o evento
+    private Long sequencia;
+    // Enviado ao PublicadorEventos depois de numerado; falso até o envio ser confirmado
+    @ColumnDefault("false")
+    private boolean publicado;
+    // Versão da lista de propostas do cliente após a decisão (ExposicaoCliente.versaoPropostas): cresce
+    // na ordem das decisões do cliente, o que os ids, alocados em blocos por instância, não garantem
+    @ColumnDefault("0")
+    private long versaoCliente;
+    private Long propostaId;
+    private Long clienteId;
+    private StatusParcela status;
+    private String regraReprovacao;
+    private BigDecimal valorSolicitado;
+    private int numeroParcelas;
+    private Date dataDecisao;
+}
@@ -0,0 +1,29 @@
+package br.com.challenge.fictcred.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+// Registro de uma exclusão de cliente: criado quando o cliente é marcado como excluído e concluído pela
+// purga em segundo plano depois de remover as propostas e a linha do cliente. Fica como histórico,
+// sem chave estrangeira, já que o cliente deixa de existir.
+// No PostgreSQL a tabela é criada por db/postgresql/011-exclusao-cliente.sql
+@Entity
+@Table(indexes = @Index(name = "idx_exclusao_cliente_pendente", columnList = "dataConclusao, dataSolicitacao"))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExclusaoCliente {
+
+    @Id
+    private Long clienteId;
+    private Date dataSolicitacao;
+    private long propostasRemovidas;
+    private Date dataConclusao;
+}
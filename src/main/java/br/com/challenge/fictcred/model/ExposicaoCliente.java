@@ -0,0 +1,47 @@
+package br.com.challenge.fictcred.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.MapsId;
+import jakarta.persistence.OneToOne;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.math.BigDecimal;
+
+// Razão de exposição do cliente: soma e quantidade das propostas aprovadas, atualizadas a cada
+// aprovação com a linha do cliente bloqueada, para que a avaliação não precise ler as propostas.
+// Guarda também a versão da lista de propostas do cliente, usada no ETag da listagem.
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExposicaoCliente {
+
+    @Id
+    private Long clienteId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "cliente_id")
+    private Cliente cliente;
+
+    private BigDecimal totalAprovado;
+    private int propostasAbertas;
+
+    @ColumnDefault("0")
+    private long versaoPropostas;
+
+    public void registrarAprovacao(BigDecimal valor) {
+        totalAprovado = totalAprovado.add(valor);
+        propostasAbertas++;
+    }
+
+    public void registrarAlteracaoPropostas() {
+        versaoPropostas++;
+    }
+}
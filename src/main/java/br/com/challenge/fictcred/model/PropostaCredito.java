@@ -1,32 +1,52 @@
 package br.com.challenge.fictcred.model;
 
 import br.com.challenge.fictcred.enums.StatusParcela;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.util.Date;
 
 @Entity
+// Índices da consulta de propostas (status, período, valor); no PostgreSQL são criados por
+// db/postgresql/009-busca-proposta.sql
+@Table(indexes = {
+        @Index(name = "idx_proposta_credito_status_data", columnList = "status, dataCriacao, id"),
+        @Index(name = "idx_proposta_credito_data", columnList = "dataCriacao, id"),
+        @Index(name = "idx_proposta_credito_status_valor", columnList = "status, valorSolicitado")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 public class PropostaCredito {
 
     @Id 
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "proposta_credito_seq")
+    @SequenceGenerator(name = "proposta_credito_seq", sequenceName = "proposta_credito_seq", allocationSize = 50)
     private Long id;
     private BigDecimal valorSolicitado;
     private int numeroParcelas;
     private StatusParcela status;
     private Date dataCriacao;
+    private String regraReprovacao;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long versao;
 
     @ManyToOne
     @JoinColumn(name = "cliente_id")
@@ -0,0 +1,44 @@
+package br.com.challenge.fictcred.model;
+
+import br.com.challenge.fictcred.enums.StatusParcela;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+// Propostas decididas há mais que a retenção, movidas de proposta_credito pelo arquivamento. Só recebe
+// inserções em lote e leituras, por isso tem apenas os índices das consultas que caem no arquivo.
+// No PostgreSQL a tabela é criada por db/postgresql/010-particionamento-proposta.sql
+@Entity
+@Table(name = "proposta_credito_arquivo", indexes = {
+        @Index(name = "idx_proposta_arquivo_cliente", columnList = "cliente_id, dataCriacao"),
+        @Index(name = "idx_proposta_arquivo_data", columnList = "dataCriacao, id")
+})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PropostaCreditoArquivada {
+
+    // Mesmo id da proposta original
+    @Id
+    private Long id;
+    private BigDecimal valorSolicitado;
+    private int numeroParcelas;
+    private StatusParcela status;
+    private Date dataCriacao;
+    private String regraReprovacao;
+    private Long versao;
+    private Date dataArquivamento;
+
+    @ManyToOne
+    @JoinColumn(name = "cliente_id")
+    private Cliente cliente;
+}
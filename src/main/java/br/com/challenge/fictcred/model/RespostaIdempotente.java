@@ -0,0 +1,36 @@
+package br.com.challenge.fictcred.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// Respostas guardadas por Idempotency-Key quando o armazém de idempotência é o banco
+@Entity
+@Table(indexes = @Index(name = "idx_resposta_idempotente_expiracao", columnList = "expiraEm"))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RespostaIdempotente {
+
+    @Id
+    private String chave;
+    @Column(length = 64)
+    private String hashRequisicao;
+    // Identifica a requisição dona da reserva
+    @Column(length = 36)
+    private String reserva;
+    // 0 enquanto a requisição original está em processamento
+    private int status;
+    private String contentType;
+    private String location;
+    @Column(length = 1048576)
+    private byte[] corpo;
+    private Instant expiraEm;
+}
@@ -0,0 +1,22 @@
+package br.com.challenge.fictcred.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Linha única com a última sequência atribuída pelo relay do outbox. Bloqueada durante a numeração:
+// só uma instância numera por vez, e as sequências ficam na ordem em que as numerações são confirmadas
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SequenciaEventos {
+
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+    private long ultima;
+}
@@ -0,0 +1,12 @@
+package br.com.challenge.fictcred.outbox;
+
+import br.com.challenge.fictcred.dto.EventoDecisaoDTO;
+
+import java.util.List;
+
+// Destino dos eventos de decisão. A entrega é pelo menos uma vez: um lote pode ser republicado
+// (com as mesmas sequências, por esta ou por outra instância) se a marcação falhar depois da publicação.
+public interface PublicadorEventos {
+
+    void publicar(List<EventoDecisaoDTO> eventos);
+}
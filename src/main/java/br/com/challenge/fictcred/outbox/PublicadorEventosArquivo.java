@@ -0,0 +1,52 @@
+package br.com.challenge.fictcred.outbox;
+
+import br.com.challenge.fictcred.dto.EventoDecisaoDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Acrescenta cada lote a um arquivo NDJSON (um evento por linha) e só retorna depois do fsync
+public class PublicadorEventosArquivo implements PublicadorEventos {
+
+    private final Path arquivo;
+    private final ObjectWriter writer;
+
+    public PublicadorEventosArquivo(Path arquivo, ObjectMapper objectMapper) {
+        this.arquivo = arquivo;
+        this.writer = objectMapper.writerFor(EventoDecisaoDTO.class);
+    }
+
+    @Override
+    public synchronized void publicar(List<EventoDecisaoDTO> eventos) {
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(eventos.size() * 256);
+            for (EventoDecisaoDTO evento : eventos) {
+                writer.writeValue(buffer, evento);
+                buffer.write('\n');
+            }
+            Path diretorio = arquivo.toAbsolutePath().getParent();
+            if (diretorio != null) {
+                Files.createDirectories(diretorio);
+            }
+            try (FileChannel canal = FileChannel.open(arquivo,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+                while (bytes.hasRemaining()) {
+                    canal.write(bytes);
+                }
+                canal.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao publicar eventos em " + arquivo, e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package br.com.challenge.fictcred.outbox;
+
+import br.com.challenge.fictcred.dto.EventoDecisaoDTO;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+// Mantém os últimos eventos publicados em memória; usado em testes e ambientes locais
+public class PublicadorEventosMemoria implements PublicadorEventos {
+
+    private final int capacidade;
+    private final Deque<EventoDecisaoDTO> eventos;
+
+    public PublicadorEventosMemoria(int capacidade) {
+        this.capacidade = capacidade;
+        this.eventos = new ArrayDeque<>(Math.min(capacidade, 1024));
+    }
+
+    @Override
+    public synchronized void publicar(List<EventoDecisaoDTO> novos) {
+        for (EventoDecisaoDTO evento : novos) {
+            if (eventos.size() == capacidade) {
+                eventos.removeFirst();
+            }
+            eventos.addLast(evento);
+        }
+    }
+
+    public synchronized List<EventoDecisaoDTO> getEventos() {
+        return new ArrayList<>(eventos);
+    }
+
+    public synchronized void limpar() {
+        eventos.clear();
+    }
+}
@@ -0,0 +1,173 @@
+package br.com.challenge.fictcred.outbox;
+
+import br.com.challenge.fictcred.dto.EventoDecisaoDTO;
+import br.com.challenge.fictcred.model.EventoDecisao;
+import br.com.challenge.fictcred.model.SequenciaEventos;
+import br.com.challenge.fictcred.repository.EventoDecisaoRepository;
+import br.com.challenge.fictcred.repository.SequenciaEventosRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Numera e publica os eventos de decisão em duas etapas:
+// 1. Numeração: com a linha de SequenciaEventos bloqueada, atribui as próximas sequências aos eventos
+//    ainda sem número e confirma. Só uma instância numera por vez, então a ordem das sequências é a ordem
+//    em que ficam visíveis, e um número confirmado nunca é reaproveitado.
+// 2. Envio: em outra transação, também com a trava, entrega ao PublicadorEventos os numerados ainda não
+//    enviados e os marca. Se o envio ou a marcação falhar, os mesmos eventos são reenviados com as mesmas
+//    sequências.
+@Component
+public class RelayEventosDecisao {
+
+    public static final int TAMANHO_LOTE = 500;
+
+    private static final Logger log = LoggerFactory.getLogger(RelayEventosDecisao.class);
+
+    @Autowired
+    private EventoDecisaoRepository eventoDecisaoRepository;
+
+    @Autowired
+    private SequenciaEventosRepository sequenciaEventosRepository;
+
+    @Autowired
+    private PublicadorEventos publicadorEventos;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter publicados;
+    private Timer atraso;
+
+    @PostConstruct
+    public void registrarMetricas() {
+        publicados = Counter.builder("fictcred.outbox.publicados")
+                .description("Eventos de decisão publicados")
+                .register(meterRegistry);
+        atraso = Timer.builder("fictcred.outbox.atraso")
+                .description("Tempo entre a decisão e a publicação do evento")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${fictcred.outbox.intervalo:1000}",
+               initialDelayString = "${fictcred.outbox.intervalo:1000}")
+    public void publicarPendentes() {
+        try {
+            while (publicarLote() == TAMANHO_LOTE) {
+                // Continua enquanto houver lotes cheios
+            }
+        } catch (RuntimeException e) {
+            log.error("Falha ao publicar eventos de decisão; o lote será reenviado", e);
+        }
+    }
+
+    public int publicarLote() {
+        transactionTemplate.executeWithoutResult(status -> numerar());
+        List<EventoDecisao> eventos = transactionTemplate.execute(status -> enviar());
+        if (eventos == null || eventos.isEmpty()) {
+            return 0;
+        }
+        long agora = System.currentTimeMillis();
+        for (EventoDecisao evento : eventos) {
+            atraso.record(agora - evento.getDataDecisao().getTime(), TimeUnit.MILLISECONDS);
+        }
+        publicados.increment(eventos.size());
+        return eventos.size();
+    }
+
+    // Com a trava, outra instância não envia o mesmo lote em paralelo; só há reenvio quando o commit da
+    // marcação falha depois da publicação
+    private List<EventoDecisao> enviar() {
+        sequenciaEventosRepository.travar();
+        List<EventoDecisao> eventos =
+                eventoDecisaoRepository.findBySequenciaIsNotNullAndPublicadoFalseOrderBySequenciaAsc(Limit.of(TAMANHO_LOTE));
+        if (eventos.isEmpty()) {
+            return eventos;
+        }
+        List<EventoDecisaoDTO> lote = new ArrayList<>(eventos.size());
+        List<Long> ids = new ArrayList<>(eventos.size());
+        for (EventoDecisao evento : eventos) {
+            lote.add(new EventoDecisaoDTO(evento.getSequencia(), evento.getPropostaId(), evento.getClienteId(),
+                    evento.getStatus(), evento.getRegraReprovacao(), evento.getValorSolicitado(),
+                    evento.getNumeroParcelas(), evento.getDataDecisao()));
+            ids.add(evento.getId());
+        }
+        publicadorEventos.publicar(lote);
+        eventoDecisaoRepository.marcarPublicados(ids);
+        return eventos;
+    }
+
+    // A trava vale até o commit: as sequências ficam visíveis na ordem em que foram atribuídas
+    private void numerar() {
+        SequenciaEventos sequencia = sequenciaEventosRepository.travar().orElseGet(this::criarSequencia);
+        List<EventoDecisao> eventos = eventoDecisaoRepository.findBySequenciaIsNullOrderByIdAsc(Limit.of(TAMANHO_LOTE));
+        if (eventos.isEmpty()) {
+            return;
+        }
+        if (eventos.size() == TAMANHO_LOTE) {
+            Set<Long> clientes = new LinkedHashSet<>();
+            for (EventoDecisao evento : eventos) {
+                clientes.add(evento.getClienteId());
+            }
+            eventos = new ArrayList<>(eventos);
+            eventos.addAll(eventoDecisaoRepository.findBySequenciaIsNullAndClienteIdInAndIdGreaterThan(
+                    clientes, eventos.get(eventos.size() - 1).getId()));
+        }
+
+        long ultima = sequencia.getUltima();
+        for (EventoDecisao evento : ordenarPorCliente(eventos)) {
+            evento.setSequencia(++ultima);
+        }
+        sequencia.setUltima(ultima);
+    }
+
+    // Mantém as posições da ordem de id, mas as de cada cliente recebem os eventos dele em ordem de
+    // versaoCliente: com várias instâncias, uma decisão posterior pode ter id menor que a anterior
+    static List<EventoDecisao> ordenarPorCliente(List<EventoDecisao> eventos) {
+        List<EventoDecisao> porId = new ArrayList<>(eventos);
+        porId.sort(Comparator.comparing(EventoDecisao::getId));
+        Map<Long, Deque<EventoDecisao>> porCliente = new HashMap<>();
+        for (EventoDecisao evento : porId) {
+            porCliente.computeIfAbsent(evento.getClienteId(), id -> new ArrayDeque<>()).add(evento);
+        }
+        for (Map.Entry<Long, Deque<EventoDecisao>> cliente : porCliente.entrySet()) {
+            List<EventoDecisao> ordenados = new ArrayList<>(cliente.getValue());
+            ordenados.sort(Comparator.comparingLong(EventoDecisao::getVersaoCliente).thenComparing(EventoDecisao::getId));
+            cliente.setValue(new ArrayDeque<>(ordenados));
+        }
+        List<EventoDecisao> ordem = new ArrayList<>(porId.size());
+        for (EventoDecisao evento : porId) {
+            ordem.add(porCliente.get(evento.getClienteId()).poll());
+        }
+        return ordem;
+    }
+
+    // Primeira numeração da base: parte da maior sequência já gravada. Se outra instância criar a linha
+    // ao mesmo tempo, o commit desta falha e a numeração fica para a próxima execução
+    private SequenciaEventos criarSequencia() {
+        SequenciaEventos sequencia = new SequenciaEventos(SequenciaEventos.ID, eventoDecisaoRepository.findUltimaSequencia());
+        sequenciaEventosRepository.saveAndFlush(sequencia);
+        return sequenciaEventosRepository.travar().orElseThrow();
+    }
+}
@@ -0,0 +1,150 @@
+package br.com.challenge.fictcred.regra;
+
+import br.com.challenge.fictcred.enums.StatusParcela;
+import br.com.challenge.fictcred.enums.TipoRegraCredito;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Conjunto imutável de regras já compiladas. As regras são ordenadas por custo e,
+ * em caso de empate, pela seletividade informada, de forma que a primeira reprovação
+ * interrompa a avaliação o quanto antes. Os resultados de reprovação são criados na
+ * compilação, então avaliar não aloca nada além do que a aritmética de BigDecimal exige.
+ */
+public final class AvaliadorCredito {
+
+    private final RegraCredito[] regras;
+    private final ResultadoAvaliacao[] reprovacoes;
+
+    private AvaliadorCredito(RegraCredito[] regras, ResultadoAvaliacao[] reprovacoes) {
+        this.regras = regras;
+        this.reprovacoes = reprovacoes;
+    }
+
+    // Avaliação sem histórico: o cliente ainda não tem propostas aprovadas
+    public ResultadoAvaliacao avaliar(BigDecimal valorSolicitado, int numeroParcelas, BigDecimal rendaMensal) {
+        return avaliar(valorSolicitado, numeroParcelas, rendaMensal, BigDecimal.ZERO, 0);
+    }
+
+    public ResultadoAvaliacao avaliar(BigDecimal valorSolicitado, int numeroParcelas, BigDecimal rendaMensal,
+                                      BigDecimal exposicao, int propostasAbertas) {
+        for (int i = 0; i < regras.length; i++) {
+            if (regras[i].reprova(valorSolicitado, numeroParcelas, rendaMensal, exposicao, propostasAbertas)) {
+                return reprovacoes[i];
+            }
+        }
+        return ResultadoAvaliacao.APROVADA;
+    }
+
+    public List<String> getNomesRegras() {
+        List<String> nomes = new ArrayList<>(reprovacoes.length);
+        for (ResultadoAvaliacao reprovacao : reprovacoes) {
+            nomes.add(reprovacao.getRegra());
+        }
+        return nomes;
+    }
+
+    public static AvaliadorCredito padrao() {
+        DefinicaoRegra valor = new DefinicaoRegra("valor-maximo-5x-renda", TipoRegraCredito.VALOR_MAXIMO_MULTIPLO_RENDA);
+        valor.setFator(BigDecimal.valueOf(5));
+        DefinicaoRegra parcelas = new DefinicaoRegra("parcelas-entre-1-e-24", TipoRegraCredito.PARCELAS_ENTRE);
+        parcelas.setMinimo(1);
+        parcelas.setMaximo(24);
+        DefinicaoRegra exposicao = new DefinicaoRegra("exposicao-maxima-10x-renda", TipoRegraCredito.EXPOSICAO_MAXIMA_MULTIPLO_RENDA);
+        exposicao.setFator(BigDecimal.valueOf(10));
+        return compilar(List.of(valor, parcelas, exposicao));
+    }
+
+    public static AvaliadorCredito compilar(List<DefinicaoRegra> definicoes) {
+        Set<String> nomes = new HashSet<>();
+        List<DefinicaoRegra> ativas = new ArrayList<>();
+        for (DefinicaoRegra definicao : definicoes) {
+            if (definicao.getNome() == null || definicao.getNome().isBlank()) {
+                throw new IllegalArgumentException("Regra sem nome");
+            }
+            if (!nomes.add(definicao.getNome())) {
+                throw new IllegalArgumentException("Regra duplicada: " + definicao.getNome());
+            }
+            if (definicao.getTipo() == null) {
+                throw new IllegalArgumentException("Regra " + definicao.getNome() + " sem tipo");
+            }
+            if (definicao.isAtiva()) {
+                ativas.add(definicao);
+            }
+        }
+
+        ativas.sort(Comparator
+                .comparingInt(AvaliadorCredito::custo)
+                .thenComparing(Comparator.comparingDouble(AvaliadorCredito::seletividade).reversed()));
+
+        RegraCredito[] regras = new RegraCredito[ativas.size()];
+        ResultadoAvaliacao[] reprovacoes = new ResultadoAvaliacao[ativas.size()];
+        for (int i = 0; i < ativas.size(); i++) {
+            regras[i] = compilar(ativas.get(i));
+            reprovacoes[i] = new ResultadoAvaliacao(StatusParcela.REPROVADA, ativas.get(i).getNome());
+        }
+        return new AvaliadorCredito(regras, reprovacoes);
+    }
+
+    private static RegraCredito compilar(DefinicaoRegra definicao) {
+        switch (definicao.getTipo()) {
+            case PARCELAS_ENTRE: {
+                int minimo = obrigatorio(definicao, definicao.getMinimo(), "minimo");
+                int maximo = obrigatorio(definicao, definicao.getMaximo(), "maximo");
+                return (valor, parcelas, renda, exposicao, abertas) -> parcelas < minimo || parcelas > maximo;
+            }
+            case VALOR_MINIMO: {
+                BigDecimal minimo = obrigatorio(definicao, definicao.getValor(), "valor");
+                return (valor, parcelas, renda, exposicao, abertas) -> valor.compareTo(minimo) < 0;
+            }
+            case VALOR_MAXIMO: {
+                BigDecimal maximo = obrigatorio(definicao, definicao.getValor(), "valor");
+                return (valor, parcelas, renda, exposicao, abertas) -> valor.compareTo(maximo) > 0;
+            }
+            case RENDA_MINIMA: {
+                BigDecimal minima = obrigatorio(definicao, definicao.getValor(), "valor");
+                return (valor, parcelas, renda, exposicao, abertas) -> renda.compareTo(minima) < 0;
+            }
+            case VALOR_MAXIMO_MULTIPLO_RENDA: {
+                BigDecimal fator = obrigatorio(definicao, definicao.getFator(), "fator");
+                if (fator.compareTo(BigDecimal.ONE) >= 0) {
+                    // Valores até a própria renda nunca excedem o limite: evita a multiplicação
+                    return (valor, parcelas, renda, exposicao, abertas) ->
+                            valor.compareTo(renda) > 0 && valor.compareTo(renda.multiply(fator)) > 0;
+                }
+                return (valor, parcelas, renda, exposicao, abertas) -> valor.compareTo(renda.multiply(fator)) > 0;
+            }
+            case PROPOSTAS_ABERTAS_MAXIMO: {
+                int maximo = obrigatorio(definicao, definicao.getMaximo(), "maximo");
+                return (valor, parcelas, renda, exposicao, abertas) -> abertas >= maximo;
+            }
+            case EXPOSICAO_MAXIMA_MULTIPLO_RENDA: {
+                BigDecimal fator = obrigatorio(definicao, definicao.getFator(), "fator");
+                return (valor, parcelas, renda, exposicao, abertas) ->
+                        exposicao.add(valor).compareTo(renda.multiply(fator)) > 0;
+            }
+            default:
+                throw new IllegalArgumentException("Tipo de regra não suportado: " + definicao.getTipo());
+        }
+    }
+
+    private static <T> T obrigatorio(DefinicaoRegra definicao, T parametro, String nomeParametro) {
+        if (parametro == null) {
+            throw new IllegalArgumentException("Regra " + definicao.getNome() + " sem o parâmetro " + nomeParametro);
+        }
+        return parametro;
+    }
+
+    private static int custo(DefinicaoRegra definicao) {
+        return definicao.getCusto() != null ? definicao.getCusto() : definicao.getTipo().getCustoPadrao();
+    }
+
+    private static double seletividade(DefinicaoRegra definicao) {
+        return definicao.getSeletividade() != null ? definicao.getSeletividade() : 0.0;
+    }
+}
@@ -0,0 +1,31 @@
+package br.com.challenge.fictcred.regra;
+
+import br.com.challenge.fictcred.enums.TipoRegraCredito;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+public class DefinicaoRegra {
+
+    private String nome;
+    private TipoRegraCredito tipo;
+    private boolean ativa = true;
+
+    // Parâmetros: cada tipo usa apenas os que fazem sentido para ele
+    private BigDecimal fator;
+    private BigDecimal valor;
+    private Integer minimo;
+    private Integer maximo;
+
+    // Opcionais: sobrescrevem o custo padrão do tipo e informam a taxa esperada de reprovação (0 a 1)
+    private Integer custo;
+    private Double seletividade;
+
+    public DefinicaoRegra(String nome, TipoRegraCredito tipo) {
+        this.nome = nome;
+        this.tipo = tipo;
+    }
+}
@@ -0,0 +1,11 @@
+package br.com.challenge.fictcred.regra;
+
+import java.math.BigDecimal;
+
+@FunctionalInterface
+public interface RegraCredito {
+
+    // exposicao e propostasAbertas vêm do razão de exposição do cliente, antes desta proposta
+    boolean reprova(BigDecimal valorSolicitado, int numeroParcelas, BigDecimal rendaMensal,
+                    BigDecimal exposicao, int propostasAbertas);
+}
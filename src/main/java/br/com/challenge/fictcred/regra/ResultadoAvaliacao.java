@@ -0,0 +1,28 @@
+package br.com.challenge.fictcred.regra;
+
+import br.com.challenge.fictcred.enums.StatusParcela;
+
+public final class ResultadoAvaliacao {
+
+    public static final ResultadoAvaliacao APROVADA = new ResultadoAvaliacao(StatusParcela.APROVADA, null);
+
+    private final StatusParcela status;
+    private final String regra;
+
+    ResultadoAvaliacao(StatusParcela status, String regra) {
+        this.status = status;
+        this.regra = regra;
+    }
+
+    public StatusParcela getStatus() {
+        return status;
+    }
+
+    public String getRegra() {
+        return regra;
+    }
+
+    public boolean isAprovada() {
+        return status == StatusParcela.APROVADA;
+    }
+}
@@ -0,0 +1,36 @@
+package br.com.challenge.fictcred.replica;
+
+import java.util.function.Supplier;
+
+// Marca a thread atual para que até as leituras somente-leitura usem o primário (leia o que escreveu)
+public final class LeituraNoPrimario {
+
+    private static final ThreadLocal<Boolean> FIXADA = new ThreadLocal<>();
+
+    private LeituraNoPrimario() {
+    }
+
+    public static boolean ativa() {
+        return FIXADA.get() != null;
+    }
+
+    public static <T> T executar(Supplier<T> acao) {
+        if (ativa()) {
+            return acao.get();
+        }
+        fixar();
+        try {
+            return acao.get();
+        } finally {
+            soltar();
+        }
+    }
+
+    static void fixar() {
+        FIXADA.set(Boolean.TRUE);
+    }
+
+    static void soltar() {
+        FIXADA.remove();
+    }
+}
@@ -0,0 +1,70 @@
+package br.com.challenge.fictcred.replica;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+// Requisições de escrita e, durante a janela configurada, as seguintes do mesmo cliente HTTP
+// (cookie) leem do primário: quem acabou de criar uma proposta não recebe 404 por atraso da réplica
+public class LeituraPrimarioFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE = "fictcred-primario-ate";
+
+    private final long janelaMillis;
+
+    public LeituraPrimarioFilter(Duration janela) {
+        this.janelaMillis = janela.toMillis();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long agora = System.currentTimeMillis();
+        boolean escrita = !HttpMethod.GET.matches(request.getMethod())
+                && !HttpMethod.HEAD.matches(request.getMethod())
+                && !HttpMethod.OPTIONS.matches(request.getMethod());
+        if (escrita && janelaMillis > 0) {
+            Cookie cookie = new Cookie(COOKIE, String.valueOf(agora + janelaMillis));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, (janelaMillis + 999) / 1000));
+            response.addCookie(cookie);
+        }
+
+        if (!escrita && !dentroDaJanela(request, agora)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        LeituraNoPrimario.fixar();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            LeituraNoPrimario.soltar();
+        }
+    }
+
+    // O valor vem do cliente: além do prazo, não aceita nada além da janela configurada
+    private boolean dentroDaJanela(HttpServletRequest request, long agora) {
+        if (request.getCookies() == null) {
+            return false;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    long ate = Long.parseLong(cookie.getValue());
+                    return ate > agora && ate <= agora + janelaMillis;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
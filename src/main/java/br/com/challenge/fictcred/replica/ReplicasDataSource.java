@@ -0,0 +1,122 @@
+package br.com.challenge.fictcred.replica;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Destino das transações somente-leitura: distribui as conexões entre as réplicas disponíveis em
+// rodízio. Réplica que falha sai do rodízio até a próxima verificação; sem nenhuma, usa o primário.
+public class ReplicasDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicasDataSource.class);
+    private static final int TIMEOUT_VALIDACAO_SEGUNDOS = 2;
+
+    private final DataSource primario;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger proxima = new AtomicInteger();
+    private final Duration intervaloVerificacao;
+    private ScheduledExecutorService verificador;
+
+    public ReplicasDataSource(DataSource primario, List<DataSource> replicas, Duration intervaloVerificacao) {
+        this.primario = primario;
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.add(new Replica(i, replicas.get(i)));
+        }
+        this.intervaloVerificacao = intervaloVerificacao;
+    }
+
+    public void iniciar() {
+        verificador = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("verificador-replicas").daemon().factory());
+        verificador.scheduleWithFixedDelay(this::verificar, 0, intervaloVerificacao.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return conectar(null, null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return conectar(username, password);
+    }
+
+    private Connection conectar(String username, String password) throws SQLException {
+        if (!LeituraNoPrimario.ativa()) {
+            int inicio = Math.floorMod(proxima.getAndIncrement(), replicas.size());
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = replicas.get((inicio + i) % replicas.size());
+                if (!replica.disponivel) {
+                    continue;
+                }
+                try {
+                    return username == null ? replica.dataSource.getConnection()
+                            : replica.dataSource.getConnection(username, password);
+                } catch (SQLException e) {
+                    replica.disponivel = false;
+                    log.warn("Réplica {} indisponível, retirada do rodízio até a próxima verificação", replica.indice, e);
+                }
+            }
+        }
+        return username == null ? primario.getConnection() : primario.getConnection(username, password);
+    }
+
+    public void verificar() {
+        for (Replica replica : replicas) {
+            boolean disponivel;
+            try (Connection conexao = replica.dataSource.getConnection()) {
+                disponivel = conexao.isValid(TIMEOUT_VALIDACAO_SEGUNDOS);
+            } catch (SQLException | RuntimeException e) {
+                disponivel = false;
+            }
+            if (disponivel != replica.disponivel) {
+                log.info("Réplica {} {}", replica.indice, disponivel ? "voltou ao rodízio" : "saiu do rodízio");
+            }
+            replica.disponivel = disponivel;
+        }
+    }
+
+    public int getDisponiveis() {
+        int disponiveis = 0;
+        for (Replica replica : replicas) {
+            if (replica.disponivel) {
+                disponiveis++;
+            }
+        }
+        return disponiveis;
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (verificador != null) {
+            verificador.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable fechavel) {
+                fechavel.close();
+            }
+        }
+    }
+
+    private static class Replica {
+        private final int indice;
+        private final DataSource dataSource;
+        private volatile boolean disponivel = true;
+
+        Replica(int indice, DataSource dataSource) {
+            this.indice = indice;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package br.com.challenge.fictcred.repository;
+
+import java.math.BigDecimal;
+
+// Atualização condicional em uma única instrução, sem carregar a entidade
+public interface ClienteAtualizacaoRepository {
+
+    // Grava só as colunas informadas (as nulas ficam como estão) se o cliente ainda estiver na versão,
+    // incrementando-a. Retorna as linhas afetadas: 0 quando o cliente não existe, foi excluído ou mudou
+    int atualizarNaVersao(Long id, long versao, String nome, String cpf, BigDecimal rendaMensal);
+}
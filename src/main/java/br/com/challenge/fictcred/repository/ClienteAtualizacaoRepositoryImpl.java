@@ -0,0 +1,52 @@
+package br.com.challenge.fictcred.repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import br.com.challenge.fictcred.model.Cliente;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceUnit;
+
+// Executada por JDBC e não como update em massa do Hibernate: este descartaria a região "cliente" inteira
+// do cache de segundo nível a cada alteração. Quem chama descarta a entrada do cliente (ClienteCache.invalidar)
+public class ClienteAtualizacaoRepositoryImpl implements ClienteAtualizacaoRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public int atualizarNaVersao(Long id, long versao, String nome, String cpf, BigDecimal rendaMensal) {
+        StringBuilder sql = new StringBuilder("update cliente set versao = versao + 1");
+        List<Object> parametros = new ArrayList<>();
+        if (nome != null) {
+            sql.append(", nome = ?, nome_busca = ?");
+            parametros.add(nome);
+            parametros.add(Cliente.normalizarNome(nome));
+        }
+        if (cpf != null) {
+            sql.append(", cpf = ?");
+            parametros.add(cpf);
+        }
+        if (rendaMensal != null) {
+            sql.append(", renda_mensal = ?");
+            parametros.add(rendaMensal);
+        }
+        sql.append(" where id = ? and versao = ? and data_exclusao is null");
+        parametros.add(id);
+        parametros.add(versao);
+        int linhas = jdbcTemplate.update(sql.toString(), parametros.toArray());
+        if (linhas > 0 && nome != null) {
+            // As listagens de propostas em cache trazem o nome do cliente
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegion("propostas-por-cliente");
+        }
+        return linhas;
+    }
+}
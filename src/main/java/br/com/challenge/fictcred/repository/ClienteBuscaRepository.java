@@ -0,0 +1,17 @@
+package br.com.challenge.fictcred.repository;
+
+import java.util.List;
+
+import br.com.challenge.fictcred.dto.ClienteListDTO;
+import br.com.challenge.fictcred.dto.FiltroBuscaClienteDTO;
+
+// Busca com filtros opcionais: a consulta é montada só com os filtros informados para que o banco
+// escolha o índice de cada combinação
+public interface ClienteBuscaRepository {
+
+    // Ordenada por nome normalizado e id; a página seguinte começa depois de (cursorNome, cursorId)
+    List<ClienteListDTO> buscar(FiltroBuscaClienteDTO filtro, String cursorNome, Long cursorId, int limite);
+
+    // Conta no máximo limite resultados, sem percorrer todos os que atendem ao filtro
+    long contarAte(FiltroBuscaClienteDTO filtro, int limite);
+}
@@ -0,0 +1,65 @@
+package br.com.challenge.fictcred.repository;
+
+import java.util.List;
+
+import br.com.challenge.fictcred.dto.ClienteListDTO;
+import br.com.challenge.fictcred.dto.FiltroBuscaClienteDTO;
+import br.com.challenge.fictcred.model.Cliente;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+public class ClienteBuscaRepositoryImpl implements ClienteBuscaRepository {
+
+    private static final String SELECAO = "select new br.com.challenge.fictcred.dto.ClienteListDTO("
+            + "c.id, c.nome, c.cpf, c.rendaMensal, c.dataCadastro)";
+    private static final String ORDENACAO = "c.nomeBusca, c.id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ClienteListDTO> buscar(FiltroBuscaClienteDTO filtro, String cursorNome, Long cursorId, int limite) {
+        ConsultaDinamica consulta = filtrar(filtro);
+        if (cursorId != null) {
+            // Comparação de tupla: vira uma única condição de faixa sobre o índice (nome_busca, id)
+            consulta.condicao("(c.nomeBusca, c.id) > (:cursorNome, :cursorId)")
+                    .parametro("cursorNome", cursorNome)
+                    .parametro("cursorId", cursorId);
+        }
+        return consulta.criar(entityManager, SELECAO, ORDENACAO, ClienteListDTO.class)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+
+    @Override
+    public long contarAte(FiltroBuscaClienteDTO filtro, int limite) {
+        return filtrar(filtro).contarAte(entityManager, "select c.id id", ORDENACAO, limite);
+    }
+
+    private ConsultaDinamica filtrar(FiltroBuscaClienteDTO filtro) {
+        ConsultaDinamica consulta = new ConsultaDinamica("from Cliente c");
+        String nome = Cliente.normalizarNome(filtro.getNome());
+        if (nome != null && !nome.isEmpty()) {
+            if (filtro.isContem()) {
+                // Sem índice B-tree possível; no PostgreSQL é atendido pelo índice de trigramas
+                consulta.condicao("c.nomeBusca like :trecho escape '\\'")
+                        .parametro("trecho", "%" + escaparLike(nome) + "%");
+            } else {
+                // Prefixo como faixa [prefixo, prefixo com o último caractere incrementado): usa o índice
+                // mesmo com o valor vindo de parâmetro, o que não acontece com like no H2
+                consulta.condicao("c.nomeBusca >= :prefixo and c.nomeBusca < :limitePrefixo")
+                        .parametro("prefixo", nome)
+                        .parametro("limitePrefixo", nome.substring(0, nome.length() - 1)
+                                + (char) (nome.charAt(nome.length() - 1) + 1));
+            }
+        }
+        return consulta
+                .se(filtro.getCpf(), "c.cpf = :cpf", "cpf")
+                .se(filtro.getRendaMinima(), "c.rendaMensal >= :rendaMinima", "rendaMinima")
+                .se(filtro.getRendaMaxima(), "c.rendaMensal <= :rendaMaxima", "rendaMaxima");
+    }
+
+    private static String escaparLike(String valor) {
+        return valor.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -1,11 +1,58 @@
 package br.com.challenge.fictcred.repository;
 
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import br.com.challenge.fictcred.cache.VersaoCliente;
+import br.com.challenge.fictcred.dto.ClienteListDTO;
 import br.com.challenge.fictcred.model.Cliente;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
 @Repository
-public interface ClienteRepository extends JpaRepository<Cliente, Long> {
+public interface ClienteRepository extends JpaRepository<Cliente, Long>, ClienteBuscaRepository,
+        ClienteAtualizacaoRepository {
     boolean existsByCpf(String cpf);
+
+    @Query("select c.cpf from Cliente c where c.cpf in :cpfs")
+    List<String> findCpfsExistentes(Collection<String> cpfs);
+
+    // Projeção direto no DTO de listagem: as linhas não passam pelo contexto de persistência nem pelo
+    // cache de segundo nível, e o fetch size faz o driver entregá-las aos poucos
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new br.com.challenge.fictcred.dto.ClienteListDTO(c.id, c.nome, c.cpf, c.rendaMensal, c.dataCadastro) "
+            + "from Cliente c where c.id > :id order by c.id")
+    Stream<ClienteListDTO> streamListagemAPartirDe(Long id, Limit limit);
+
+    @Query("select c.nomeBusca from Cliente c where c.id = :id")
+    Optional<String> findNomeBuscaById(Long id);
+
+    // Ordenado por id para que transações que bloqueiam vários clientes não entrem em deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Cliente c where c.id in :ids order by c.id")
+    List<Cliente> findAllByIdParaAtualizacao(Collection<Long> ids);
+
+    // Marca o cliente como excluído e libera o CPF para um novo cadastro; a linha só é removida pela purga.
+    // A versão muda para que ETags antigos deixem de valer
+    @Modifying
+    @Query("update Cliente c set c.dataExclusao = :data, c.cpf = null, c.versao = c.versao + 1 "
+            + "where c.id = :id and c.dataExclusao is null")
+    int marcarExcluido(Long id, Date data);
+
+    // Só as versões, sem carregar a entidade; sem razão de exposição a versão das propostas é 0
+    @Query("select new br.com.challenge.fictcred.cache.VersaoCliente(c.versao, coalesce(e.versaoPropostas, 0L)) "
+            + "from Cliente c left join ExposicaoCliente e on e.clienteId = c.id where c.id = :id")
+    Optional<VersaoCliente> findVersaoById(Long id);
 }
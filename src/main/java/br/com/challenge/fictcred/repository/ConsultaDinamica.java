@@ -0,0 +1,71 @@
+package br.com.challenge.fictcred.repository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+
+// Monta JPQL com apenas as condições dos filtros informados: sem "(:x is null or ...)", o banco recebe
+// uma consulta diferente por combinação de filtros e escolhe o índice adequado para cada uma
+class ConsultaDinamica {
+
+    private final StringBuilder jpql;
+    private final Map<String, Object> parametros = new HashMap<>();
+    private boolean temCondicao;
+
+    // A partir do from; a seleção e a ordenação são informadas ao criar a consulta
+    ConsultaDinamica(String origem) {
+        this.jpql = new StringBuilder(origem);
+    }
+
+    // Acrescenta a condição, com o parâmetro de mesmo nome, só quando o valor foi informado
+    ConsultaDinamica se(Object valor, String condicao, String parametro) {
+        if (valor != null) {
+            condicao(condicao).parametro(parametro, valor);
+        }
+        return this;
+    }
+
+    ConsultaDinamica condicao(String condicao) {
+        jpql.append(temCondicao ? " and " : " where ").append(condicao);
+        temCondicao = true;
+        return this;
+    }
+
+    ConsultaDinamica parametro(String nome, Object valor) {
+        parametros.put(nome, valor);
+        return this;
+    }
+
+    <T> TypedQuery<T> criar(EntityManager entityManager, String selecao, String ordenacao, Class<T> tipo) {
+        TypedQuery<T> query = entityManager.createQuery(selecao + " " + jpql + " order by " + ordenacao, tipo);
+        parametros.forEach(query::setParameter);
+        return query;
+    }
+
+    // Conta quantas linhas a consulta retornaria, parando em limite. O HQL só aceita limit depois de
+    // order by; com a mesma ordenação da listagem, a contagem percorre o mesmo índice
+    long contarAte(EntityManager entityManager, String selecao, String ordenacao, int limite) {
+        Query query = entityManager.createQuery("select count(*) from (" + selecao + " " + jpql
+                + " order by " + ordenacao + " limit " + limite + ") encontrados");
+        parametros.forEach(query::setParameter);
+        return (Long) query.getSingleResult();
+    }
+
+    // As mesmas condições sobre cada origem, unidas com union all. Cada parte já vem ordenada e limitada,
+    // percorrendo o índice da sua tabela; a ordenação externa intercala as partes e o limite vale para o todo
+    TypedQuery<Object[]> criarUniao(EntityManager entityManager, String selecao, String colunas, List<String> origens,
+                                    String ordenacao, String ordenacaoExterna, int limite) {
+        StringJoiner uniao = new StringJoiner(" union all ", selecao + " from (", ") u order by " + ordenacaoExterna);
+        for (String origem : origens) {
+            uniao.add("(select " + colunas + " " + origem + jpql + " order by " + ordenacao + " limit " + limite + ")");
+        }
+        TypedQuery<Object[]> query = entityManager.createQuery(uniao.toString(), Object[].class);
+        parametros.forEach(query::setParameter);
+        return query.setMaxResults(limite);
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.challenge.fictcred.repository;
+
+import br.com.challenge.fictcred.enums.StatusParcela;
+import br.com.challenge.fictcred.model.EstatisticaDiaria;
+import br.com.challenge.fictcred.model.EstatisticaDiariaId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface EstatisticaDiariaRepository extends JpaRepository<EstatisticaDiaria, EstatisticaDiariaId> {
+
+    @Modifying
+    @Query("update EstatisticaDiaria e set e.quantidade = e.quantidade + :quantidade, e.valorTotal = e.valorTotal + :valor "
+            + "where e.id.dia = :dia and e.id.status = :status")
+    int incrementar(LocalDate dia, StatusParcela status, long quantidade, BigDecimal valor);
+
+    List<EstatisticaDiaria> findByIdDiaGreaterThanEqualOrderByIdDiaAsc(LocalDate inicio);
+}
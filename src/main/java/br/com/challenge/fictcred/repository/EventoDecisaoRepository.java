@@ -0,0 +1,43 @@
+package br.com.challenge.fictcred.repository;
+
+import br.com.challenge.fictcred.dto.EventoDecisaoDTO;
+import br.com.challenge.fictcred.model.EventoDecisao;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EventoDecisaoRepository extends JpaRepository<EventoDecisao, Long> {
+
+    String PUBLICADOS = "select new br.com.challenge.fictcred.dto.EventoDecisaoDTO("
+            + "e.sequencia, e.propostaId, e.clienteId, e.status, e.regraReprovacao, e.valorSolicitado, "
+            + "e.numeroParcelas, e.dataDecisao) from EventoDecisao e ";
+
+    List<EventoDecisao> findBySequenciaIsNullOrderByIdAsc(Limit limit);
+
+    // Decisões anteriores dos clientes do lote que ficaram além do limite (ids de blocos de outra instância)
+    List<EventoDecisao> findBySequenciaIsNullAndClienteIdInAndIdGreaterThan(Collection<Long> clienteIds, Long id);
+
+    List<EventoDecisao> findBySequenciaIsNotNullAndPublicadoFalseOrderBySequenciaAsc(Limit limit);
+
+    @Query("select coalesce(max(e.sequencia), 0) from EventoDecisao e")
+    long findUltimaSequencia();
+
+    @Modifying
+    @Query("update EventoDecisao e set e.publicado = true where e.id in :ids")
+    int marcarPublicados(Collection<Long> ids);
+
+    // Só os já entregues ao destino. O relay publica em ordem de sequência, então os publicados formam um
+    // prefixo contínuo e o cursor não pula eventos numerados que ainda serão enviados
+    @Query(PUBLICADOS + "where e.sequencia > :sequencia and e.publicado = true order by e.sequencia")
+    List<EventoDecisaoDTO> findPublicadosApos(Long sequencia, Limit limit);
+
+    @Query(PUBLICADOS + "where e.clienteId = :clienteId and e.sequencia > :sequencia and e.publicado = true "
+            + "order by e.sequencia")
+    List<EventoDecisaoDTO> findPublicadosAposPorCliente(Long clienteId, Long sequencia, Limit limit);
+}
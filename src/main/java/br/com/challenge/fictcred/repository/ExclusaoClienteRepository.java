@@ -0,0 +1,30 @@
+package br.com.challenge.fictcred.repository;
+
+import br.com.challenge.fictcred.model.ExclusaoCliente;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface ExclusaoClienteRepository extends JpaRepository<ExclusaoCliente, Long> {
+
+    // As mais antigas primeiro: a purga termina um cliente antes de começar o seguinte
+    List<ExclusaoCliente> findByDataConclusaoIsNullOrderByDataSolicitacao(Limit limit);
+
+    long countByDataConclusaoIsNull();
+
+    // Incremento no próprio update: execuções concorrentes da purga (outra instância) não perdem contagem
+    @Modifying
+    @Query("update ExclusaoCliente e set e.propostasRemovidas = e.propostasRemovidas + :quantidade "
+            + "where e.clienteId = :clienteId")
+    int registrarRemovidas(Long clienteId, long quantidade);
+
+    @Modifying
+    @Query("update ExclusaoCliente e set e.dataConclusao = :data where e.clienteId = :clienteId and e.dataConclusao is null")
+    int concluir(Long clienteId, Date data);
+}
@@ -0,0 +1,9 @@
+package br.com.challenge.fictcred.repository;
+
+import br.com.challenge.fictcred.model.ExposicaoCliente;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ExposicaoClienteRepository extends JpaRepository<ExposicaoCliente, Long> {
+}
@@ -0,0 +1,61 @@
+package br.com.challenge.fictcred.repository;
+
+import br.com.challenge.fictcred.dto.PropostaCreditoListDTO;
+import br.com.challenge.fictcred.enums.StatusParcela;
+import br.com.challenge.fictcred.model.PropostaCreditoArquivada;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PropostaCreditoArquivadaRepository extends JpaRepository<PropostaCreditoArquivada, Long> {
+
+    @Query("select new br.com.challenge.fictcred.dto.PropostaCreditoListDTO("
+            + "p.id, p.valorSolicitado, p.numeroParcelas, p.status, p.dataCriacao, c.id, c.nome, p.regraReprovacao) "
+            + "from PropostaCreditoArquivada p join p.cliente c where p.id = :id")
+    Optional<PropostaCreditoListDTO> findListagemById(Long id);
+
+    @Query("select p.dataCriacao from PropostaCreditoArquivada p where p.id = :id")
+    Optional<Date> findDataCriacaoById(Long id);
+
+    // Pelo índice (cliente_id, data_criacao): decide se a listagem do cliente precisa consultar o arquivo
+    boolean existsByClienteId(Long clienteId);
+
+    // Sem junção com cliente, como em PropostaCreditoRepository: usadas pela purga de clientes excluídos
+    @Query("select p.id from PropostaCreditoArquivada p where p.cliente.id = :clienteId")
+    List<Long> findIdsByClienteId(Long clienteId, Limit limit);
+
+    @Query("select count(p) from PropostaCreditoArquivada p where p.cliente.id = :clienteId")
+    long contarPorCliente(Long clienteId);
+
+    @Modifying
+    @Query("delete from PropostaCreditoArquivada p where p.id in :ids")
+    int removerPorIds(Collection<Long> ids);
+
+    // Somada à da tabela principal ao criar o razão de exposição de um cliente
+    @Query("select p.cliente.id, coalesce(sum(p.valorSolicitado), 0), count(p) from PropostaCreditoArquivada p "
+            + "where p.cliente.id in :clienteIds and p.status = :status group by p.cliente.id")
+    List<Object[]> somarPorCliente(Collection<Long> clienteIds, StatusParcela status);
+
+    // Usada só na reconstrução das estatísticas diárias, somada à da tabela principal; o arquivo não tem pendentes
+    @Query("select cast(p.dataCriacao as LocalDate), p.status, count(p), sum(p.valorSolicitado) "
+            + "from PropostaCreditoArquivada p where p.dataCriacao >= :desde "
+            + "group by cast(p.dataCriacao as LocalDate), p.status")
+    List<Object[]> agregarPorDiaEStatus(Date desde);
+
+    // Copia as propostas para o arquivo num único insert ... select; a remoção da tabela principal
+    // acontece na mesma transação
+    @Modifying
+    @Query("insert into PropostaCreditoArquivada (id, valorSolicitado, numeroParcelas, status, dataCriacao, "
+            + "regraReprovacao, versao, dataArquivamento, cliente) "
+            + "select p.id, p.valorSolicitado, p.numeroParcelas, p.status, p.dataCriacao, p.regraReprovacao, p.versao, "
+            + "current_timestamp, p.cliente from PropostaCredito p where p.id in :ids")
+    int copiarParaArquivo(Collection<Long> ids);
+}
@@ -0,0 +1,26 @@
+package br.com.challenge.fictcred.repository;
+
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Sort;
+
+import br.com.challenge.fictcred.dto.FiltroBuscaPropostaDTO;
+import br.com.challenge.fictcred.dto.PropostaCreditoListDTO;
+
+// Consulta de propostas com filtros opcionais, só com as condições dos filtros informados
+public interface PropostaCreditoBuscaRepository {
+
+    // Mais recentes primeiro (dataCriacao, id decrescentes); a página seguinte começa antes de (cursorData, cursorId)
+    List<PropostaCreditoListDTO> buscar(FiltroBuscaPropostaDTO filtro, Date cursorData, Long cursorId, int limite);
+
+    // A mesma consulta sobre proposta_credito e proposta_credito_arquivo (union all), intercaladas pela mesma
+    // ordenação: uma proposta antiga ainda pendente continua na tabela principal, atrás das já arquivadas
+    List<PropostaCreditoListDTO> buscarComArquivadas(FiltroBuscaPropostaDTO filtro, Date cursorData, Long cursorId, int limite);
+
+    // Propostas do cliente nas duas tabelas (union all), na ordem pedida; o desempate final é pelo id
+    List<PropostaCreditoListDTO> listarComArquivadas(Long clienteId, Sort sort, int primeiro, int quantidade);
+
+    Stream<PropostaCreditoListDTO> percorrerComArquivadas(Long clienteId, Sort sort);
+}
@@ -0,0 +1,120 @@
+package br.com.challenge.fictcred.repository;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+
+import br.com.challenge.fictcred.dto.FiltroBuscaPropostaDTO;
+import br.com.challenge.fictcred.dto.PropostaCreditoListDTO;
+import br.com.challenge.fictcred.enums.StatusParcela;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+public class PropostaCreditoBuscaRepositoryImpl implements PropostaCreditoBuscaRepository {
+
+    private static final String SELECAO = "select new br.com.challenge.fictcred.dto.PropostaCreditoListDTO("
+            + "p.id, p.valorSolicitado, p.numeroParcelas, p.status, p.dataCriacao, c.id, c.nome, p.regraReprovacao)";
+    private static final String ORDENACAO = "p.dataCriacao desc, p.id desc";
+
+    // Os nomes das colunas do union são os campos de PropostaCreditoListDTO, que são também as ordenações aceitas
+    private static final String COLUNAS = "p.id as id, p.valorSolicitado as valorSolicitado, "
+            + "p.numeroParcelas as numeroParcelas, p.status as status, p.dataCriacao as dataCriacao, "
+            + "c.id as clienteId, c.nome as clienteNome, p.regraReprovacao as regraReprovacao";
+    // A ordenação fica fora da tabela derivada para valer para o union inteiro, e não só para o último select
+    private static final String SELECAO_UNIAO = "select u.id, u.valorSolicitado, u.numeroParcelas, u.status, "
+            + "u.dataCriacao, u.clienteId, u.clienteNome, u.regraReprovacao";
+    private static final String COM_ARQUIVADAS = SELECAO_UNIAO + " from (select " + COLUNAS
+            + " from PropostaCredito p join p.cliente c where c.id = :clienteId union all select " + COLUNAS
+            + " from PropostaCreditoArquivada p join p.cliente c where c.id = :clienteId) u";
+    private static final List<String> ORIGENS = List.of("from PropostaCredito p join p.cliente c",
+            "from PropostaCreditoArquivada p join p.cliente c");
+    private static final Set<String> ORDENACOES = Set.of("id", "valorSolicitado", "numeroParcelas", "status",
+            "dataCriacao", "clienteId", "clienteNome", "regraReprovacao");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<PropostaCreditoListDTO> buscar(FiltroBuscaPropostaDTO filtro, Date cursorData, Long cursorId, int limite) {
+        return filtros(new ConsultaDinamica(ORIGENS.get(0)), filtro, cursorData, cursorId)
+                .criar(entityManager, SELECAO, ORDENACAO, PropostaCreditoListDTO.class)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+
+    @Override
+    public List<PropostaCreditoListDTO> buscarComArquivadas(FiltroBuscaPropostaDTO filtro, Date cursorData, Long cursorId,
+                                                             int limite) {
+        // Só as condições: cada parte do union recebe a sua origem
+        return filtros(new ConsultaDinamica(""), filtro, cursorData, cursorId)
+                .criarUniao(entityManager, SELECAO_UNIAO, COLUNAS, ORIGENS, ORDENACAO, "u.dataCriacao desc, u.id desc", limite)
+                .getResultStream()
+                .map(this::listagem)
+                .toList();
+    }
+
+    private ConsultaDinamica filtros(ConsultaDinamica consulta, FiltroBuscaPropostaDTO filtro, Date cursorData,
+                                     Long cursorId) {
+        List<?> status = filtro.getStatus() == null || filtro.getStatus().isEmpty() ? null : filtro.getStatus();
+        consulta.se(status, "p.status in :status", "status")
+                .se(filtro.getDataInicio(), "p.dataCriacao >= :dataInicio", "dataInicio")
+                .se(filtro.getDataFim(), "p.dataCriacao < :dataFim", "dataFim")
+                .se(filtro.getValorMinimo(), "p.valorSolicitado >= :valorMinimo", "valorMinimo")
+                .se(filtro.getValorMaximo(), "p.valorSolicitado <= :valorMaximo", "valorMaximo")
+                .se(filtro.getParcelasMinimo(), "p.numeroParcelas >= :parcelasMinimo", "parcelasMinimo")
+                .se(filtro.getParcelasMaximo(), "p.numeroParcelas <= :parcelasMaximo", "parcelasMaximo");
+        if (cursorId != null) {
+            // Continua a varredura dos índices (..., data_criacao, id) do ponto em que a página anterior parou
+            consulta.condicao("(p.dataCriacao, p.id) < (:cursorData, :cursorId)")
+                    .parametro("cursorData", cursorData)
+                    .parametro("cursorId", cursorId);
+        }
+        return consulta;
+    }
+
+    @Override
+    public List<PropostaCreditoListDTO> listarComArquivadas(Long clienteId, Sort sort, int primeiro, int quantidade) {
+        return comArquivadas(clienteId, sort)
+                .setFirstResult(primeiro)
+                .setMaxResults(quantidade)
+                .getResultStream()
+                .map(this::listagem)
+                .toList();
+    }
+
+    @Override
+    public Stream<PropostaCreditoListDTO> percorrerComArquivadas(Long clienteId, Sort sort) {
+        return comArquivadas(clienteId, sort)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, 500)
+                .getResultStream()
+                .map(this::listagem);
+    }
+
+    private TypedQuery<Object[]> comArquivadas(Long clienteId, Sort sort) {
+        StringBuilder ordenacao = new StringBuilder();
+        for (Sort.Order ordem : sort) {
+            if (!ORDENACOES.contains(ordem.getProperty())) {
+                throw new IllegalArgumentException("Ordenação não suportada: " + ordem.getProperty());
+            }
+            ordenacao.append("u.").append(ordem.getProperty()).append(ordem.isAscending() ? " asc, " : " desc, ");
+        }
+        if (sort.getOrderFor("id") == null) {
+            ordenacao.append("u.id asc");
+        } else {
+            ordenacao.setLength(ordenacao.length() - 2);
+        }
+        return entityManager.createQuery(COM_ARQUIVADAS + " order by " + ordenacao, Object[].class)
+                .setParameter("clienteId", clienteId);
+    }
+
+    private PropostaCreditoListDTO listagem(Object[] linha) {
+        return new PropostaCreditoListDTO((Long) linha[0], (BigDecimal) linha[1], (Integer) linha[2],
+                (StatusParcela) linha[3], (Date) linha[4], (Long) linha[5], (String) linha[6], (String) linha[7]);
+    }
+}
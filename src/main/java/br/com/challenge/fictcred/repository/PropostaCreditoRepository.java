@@ -1,14 +1,83 @@
 package br.com.challenge.fictcred.repository;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import br.com.challenge.fictcred.dto.PropostaCreditoListDTO;
+import br.com.challenge.fictcred.enums.StatusParcela;
 import br.com.challenge.fictcred.model.PropostaCredito;
-import br.com.challenge.fictcred.model.Cliente;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface PropostaCreditoRepository extends JpaRepository<PropostaCredito, Long> {
-    List<PropostaCredito> findByCliente(Cliente cliente);
-}
+public interface PropostaCreditoRepository extends JpaRepository<PropostaCredito, Long>, PropostaCreditoBuscaRepository {
+
+    String LISTAGEM = "select new br.com.challenge.fictcred.dto.PropostaCreditoListDTO("
+            + "p.id, p.valorSolicitado, p.numeroParcelas, p.status, p.dataCriacao, c.id, c.nome, p.regraReprovacao) "
+            + "from PropostaCredito p join p.cliente c ";
+
+    // Query cache: o resultado é descartado sempre que proposta_credito ou cliente mudam depois dele
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "propostas-por-cliente")
+    })
+    @Query(LISTAGEM + "where c.id = :clienteId")
+    Slice<PropostaCreditoListDTO> findListagemByClienteId(Long clienteId, Pageable pageable);
+
+    // Todas as propostas do cliente para escrita em streaming, sem passar pelo query cache
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(LISTAGEM + "where c.id = :clienteId")
+    Stream<PropostaCreditoListDTO> streamListagemByClienteId(Long clienteId, Sort sort);
+
+    @Query(LISTAGEM + "where p.id = :id")
+    Optional<PropostaCreditoListDTO> findListagemById(Long id);
+
+    @Query("select p.dataCriacao from PropostaCredito p where p.id = :id")
+    Optional<Date> findDataCriacaoById(Long id);
+
+    // p.cliente.id é a própria coluna cliente_id, sem junção com cliente: enxerga também as propostas de
+    // clientes excluídos, que só a purga ainda acessa
+    @Query("select p.id from PropostaCredito p where p.cliente.id = :clienteId order by p.id")
+    List<Long> findIdsByClienteId(Long clienteId, Limit limit);
+
+    @Query("select count(p) from PropostaCredito p where p.cliente.id = :clienteId")
+    long contarPorCliente(Long clienteId);
 
+    @Modifying
+    @Query("delete from PropostaCredito p where p.id in :ids")
+    int removerPorIds(Collection<Long> ids);
+
+    @Query("select distinct p.cliente.id from PropostaCredito p where p.id in :ids and p.status = :status")
+    List<Long> findClienteIdsByIdInAndStatus(Collection<Long> ids, StatusParcela status);
+
+    @Query("select p from PropostaCredito p join fetch p.cliente where p.id in :ids and p.status = :status")
+    List<PropostaCredito> findByIdInAndStatusComCliente(Collection<Long> ids, StatusParcela status);
+
+    @Query("select p.id from PropostaCredito p where p.status = :status and p.id > :id order by p.id")
+    List<Long> findIdsByStatusAndIdGreaterThan(StatusParcela status, Long id, Limit limit);
+
+    // Candidatas ao arquivamento: decididas e criadas antes do limite
+    @Query("select p.id from PropostaCredito p where p.dataCriacao < :limite and p.status <> :pendente order by p.dataCriacao, p.id")
+    List<Long> findIdsParaArquivar(Date limite, StatusParcela pendente, Limit limit);
+
+    @Query("select p.cliente.id, coalesce(sum(p.valorSolicitado), 0), count(p) from PropostaCredito p "
+            + "where p.cliente.id in :clienteIds and p.status = :status group by p.cliente.id")
+    List<Object[]> somarPorCliente(Collection<Long> clienteIds, StatusParcela status);
+
+    // Usada só na reconstrução das estatísticas diárias
+    @Query("select cast(p.dataCriacao as LocalDate), p.status, count(p), sum(p.valorSolicitado) from PropostaCredito p "
+            + "where p.status <> :ignorado group by cast(p.dataCriacao as LocalDate), p.status")
+    List<Object[]> agregarPorDiaEStatus(StatusParcela ignorado);
+}
@@ -0,0 +1,51 @@
+package br.com.challenge.fictcred.repository;
+
+import br.com.challenge.fictcred.model.RespostaIdempotente;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface RespostaIdempotenteRepository extends JpaRepository<RespostaIdempotente, String> {
+
+    // Insert explícito: save() faria merge e sobrescreveria a reserva de outra instância
+    // Sem a tabela declarada, o Hibernate trataria o SQL nativo como escrita em qualquer tabela
+    // e invalidaria todo o cache de segundo nível e de consultas
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "resposta_idempotente"))
+    @Query(value = "insert into resposta_idempotente (chave, hash_requisicao, reserva, status, expira_em) "
+            + "values (:chave, :hashRequisicao, :reserva, 0, :expiraEm)", nativeQuery = true)
+    void inserirReserva(String chave, String hashRequisicao, String reserva, Instant expiraEm);
+
+    // Só a reserva que ainda é desta requisição: se o prazo venceu e outra a assumiu, nada muda
+    @Transactional
+    @Modifying
+    @Query("update RespostaIdempotente r set r.status = :status, r.contentType = :contentType, "
+            + "r.location = :location, r.corpo = :corpo, r.expiraEm = :expiraEm "
+            + "where r.chave = :chave and r.reserva = :reserva and r.status = 0")
+    int concluir(String chave, String reserva, int status, String contentType, String location, byte[] corpo,
+                 Instant expiraEm);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RespostaIdempotente r where r.chave = :chave and r.reserva = :reserva and r.status = 0")
+    int deleteReserva(String chave, String reserva);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RespostaIdempotente r where r.chave = :chave and r.expiraEm < :agora")
+    void deleteExpirada(String chave, Instant agora);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RespostaIdempotente r where r.expiraEm < :agora")
+    int deleteExpiradas(Instant agora);
+}
@@ -0,0 +1,19 @@
+package br.com.challenge.fictcred.repository;
+
+import br.com.challenge.fictcred.model.SequenciaEventos;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface SequenciaEventosRepository extends JpaRepository<SequenciaEventos, Integer> {
+
+    // Espera a instância que estiver numerando confirmar a transação
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from SequenciaEventos s where s.id = " + SequenciaEventos.ID)
+    Optional<SequenciaEventos> travar();
+}
@@ -0,0 +1,145 @@
+package br.com.challenge.fictcred.service;
+
+import br.com.challenge.fictcred.dto.ClienteInsertDTO;
+import br.com.challenge.fictcred.dto.ImportacaoClientesDTO;
+import br.com.challenge.fictcred.model.Cliente;
+import br.com.challenge.fictcred.repository.ClienteRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class ClienteImportacaoService {
+
+    public static final int TAMANHO_LOTE = 500;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ImportacaoClientesDTO importar(Iterator<ClienteInsertDTO> registros) {
+        ImportacaoClientesDTO resultado = new ImportacaoClientesDTO();
+        List<Registro> lote = new ArrayList<>(TAMANHO_LOTE);
+        int indice = 0;
+
+        while (true) {
+            ClienteInsertDTO dto;
+            try {
+                if (!registros.hasNext()) {
+                    break;
+                }
+                dto = registros.next();
+            } catch (RuntimeException e) {
+                // Conteúdo malformado: não há como continuar lendo o corpo com segurança
+                resultado.adicionarFalha(indice++, null, "Registro malformado: " + e.getMessage());
+                break;
+            }
+            lote.add(new Registro(indice++, dto));
+            if (lote.size() == TAMANHO_LOTE) {
+                processarLote(lote, resultado);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            processarLote(lote, resultado);
+        }
+
+        resultado.setTotal(indice);
+        return resultado;
+    }
+
+    private void processarLote(List<Registro> lote, ImportacaoClientesDTO resultado) {
+        List<Registro> validos = new ArrayList<>(lote.size());
+        Set<String> cpfsDoLote = new HashSet<>();
+
+        for (Registro registro : lote) {
+            Set<ConstraintViolation<ClienteInsertDTO>> violacoes = validator.validate(registro.dto);
+            if (!violacoes.isEmpty()) {
+                String motivo = violacoes.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; "));
+                resultado.adicionarFalha(registro.indice, registro.dto.getCpf(), motivo);
+            } else if (!cpfsDoLote.add(registro.dto.getCpf())) {
+                resultado.adicionarFalha(registro.indice, registro.dto.getCpf(), "CPF duplicado no arquivo");
+            } else {
+                validos.add(registro);
+            }
+        }
+        if (validos.isEmpty()) {
+            return;
+        }
+
+        Set<String> existentes = new HashSet<>(clienteRepository.findCpfsExistentes(cpfsDoLote));
+        List<Registro> novos = new ArrayList<>(validos.size());
+        for (Registro registro : validos) {
+            if (existentes.contains(registro.dto.getCpf())) {
+                resultado.adicionarFalha(registro.indice, registro.dto.getCpf(), "CPF já está cadastrado no sistema");
+            } else {
+                novos.add(registro);
+            }
+        }
+        if (novos.isEmpty()) {
+            return;
+        }
+
+        try {
+            inserir(novos);
+            resultado.setInseridos(resultado.getInseridos() + novos.size());
+        } catch (DataIntegrityViolationException e) {
+            // Outro processo cadastrou algum CPF entre a consulta e o insert: refaz registro a registro
+            for (Registro registro : novos) {
+                try {
+                    inserir(List.of(registro));
+                    resultado.setInseridos(resultado.getInseridos() + 1);
+                } catch (DataIntegrityViolationException ex) {
+                    resultado.adicionarFalha(registro.indice, registro.dto.getCpf(), "CPF já está cadastrado no sistema");
+                }
+            }
+        }
+    }
+
+    private void inserir(List<Registro> registros) {
+        Date agora = new Date();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Registro registro : registros) {
+                entityManager.persist(convertToEntity(registro.dto, agora));
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    private Cliente convertToEntity(ClienteInsertDTO dto, Date dataCadastro) {
+        Cliente cliente = new Cliente();
+        cliente.setNome(dto.getNome());
+        cliente.setCpf(dto.getCpf());
+        cliente.setRendaMensal(dto.getRendaMensal());
+        cliente.setDataCadastro(dataCadastro);
+        return cliente;
+    }
+
+    private record Registro(int indice, ClienteInsertDTO dto) {
+    }
+}
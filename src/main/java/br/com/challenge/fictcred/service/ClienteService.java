@@ -1,19 +1,63 @@
 package br.com.challenge.fictcred.service;
 
+import br.com.challenge.fictcred.cache.ClienteCache;
+import br.com.challenge.fictcred.cache.VersaoCliente;
+import br.com.challenge.fictcred.cache.VersaoClienteCache;
+import br.com.challenge.fictcred.dto.ClienteListDTO;
+import br.com.challenge.fictcred.dto.ExclusaoClienteDTO;
+import br.com.challenge.fictcred.dto.FiltroBuscaClienteDTO;
+import br.com.challenge.fictcred.dto.ResultadoBuscaDTO;
 import br.com.challenge.fictcred.model.Cliente;
+import br.com.challenge.fictcred.model.ExclusaoCliente;
+import br.com.challenge.fictcred.replica.LeituraNoPrimario;
 import br.com.challenge.fictcred.repository.ClienteRepository;
+import br.com.challenge.fictcred.repository.ExclusaoClienteRepository;
+import br.com.challenge.fictcred.repository.PropostaCreditoArquivadaRepository;
+import br.com.challenge.fictcred.repository.PropostaCreditoRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class ClienteService {
 
+    public static final int TAMANHO_PAGINA_PADRAO = 50;
+    public static final int TAMANHO_PAGINA_MAXIMO = 500;
+    public static final String VERSAO_DIVERGENTE = "Versão do cliente divergente";
+    public static final String BUSCA_INVALIDA = "Busca inválida: ";
+    public static final int LIMITE_CONTAGEM_BUSCA = 10_000;
+    // Trechos menores não aproveitam o índice de trigramas e percorreriam a tabela inteira
+    public static final int TAMANHO_MINIMO_TRECHO = 3;
+
     @Autowired
     private ClienteRepository clienteRepository;
 
+    @Autowired
+    private ClienteCache clienteCache;
+
+    @Autowired
+    private VersaoClienteCache versaoClienteCache;
+
+    @Autowired
+    private ExclusaoClienteRepository exclusaoClienteRepository;
+
+    @Autowired
+    private PropostaCreditoRepository propostaCreditoRepository;
+
+    @Autowired
+    private PropostaCreditoArquivadaRepository propostaCreditoArquivadaRepository;
+
     public Cliente salvar(Cliente cliente) {
         if (clienteRepository.existsByCpf(cliente.getCpf())) {
             throw new RuntimeException("Cliente com CPF " + cliente.getCpf() + " já está cadastrado no sistema");
@@ -21,28 +65,209 @@ public class ClienteService {
         return clienteRepository.save(cliente);
     }
 
+    @Transactional(readOnly = true)
     public Optional<Cliente> buscarPorId(Long id) {
-        return clienteRepository.findById(id);
+        return clienteCache.buscar(id, clienteRepository::findById);
     }
 
-    public List<Cliente> listarTodos() {
-        return clienteRepository.findAll();
+    @Transactional(readOnly = true)
+    public Optional<VersaoCliente> buscarVersao(Long id) {
+        return versaoClienteCache.buscar(id, clienteRepository::findVersaoById);
+    }
+
+    // Entrega os clientes da página conforme saem do cursor do banco e devolve o cursor da próxima
+    // página (null na última). Lê um registro a mais apenas para saber se ela existe.
+    @Transactional(readOnly = true)
+    public Long percorrerPagina(Long cursor, int tamanho, Consumer<ClienteListDTO> consumidor) {
+        int limite = Math.min(Math.max(tamanho, 1), TAMANHO_PAGINA_MAXIMO);
+        try (Stream<ClienteListDTO> clientes =
+                     clienteRepository.streamListagemAPartirDe(cursor == null ? 0L : cursor, Limit.of(limite + 1))) {
+            Iterator<ClienteListDTO> linhas = clientes.iterator();
+            Long ultimo = null;
+            for (int entregues = 0; linhas.hasNext(); entregues++) {
+                ClienteListDTO cliente = linhas.next();
+                if (entregues == limite) {
+                    return ultimo;
+                }
+                consumidor.accept(cliente);
+                ultimo = cliente.getId();
+            }
+            return null;
+        }
+    }
+
+    // Busca paginada por cursor: o cursor é o id do último cliente da página anterior, e a posição dele
+    // na ordenação (nome normalizado, id) é lida pela chave primária
+    @Transactional(readOnly = true)
+    public ResultadoBuscaDTO<ClienteListDTO> buscar(FiltroBuscaClienteDTO filtro, Long cursor, int tamanho) {
+        validarBusca(filtro);
+        int limite = Math.min(Math.max(tamanho, 1), TAMANHO_PAGINA_MAXIMO);
+        String cursorNome = null;
+        if (cursor != null) {
+            cursorNome = clienteRepository.findNomeBuscaById(cursor)
+                    .orElseThrow(() -> new RuntimeException(BUSCA_INVALIDA + "cursor " + cursor + " não encontrado"));
+        }
+
+        List<ClienteListDTO> clientes = clienteRepository.buscar(filtro, cursorNome, cursor, limite + 1);
+        Long proximoCursor = null;
+        if (clientes.size() > limite) {
+            clientes = clientes.subList(0, limite);
+            proximoCursor = clientes.get(limite - 1).getId();
+        }
+
+        // O total só é contado na primeira página e até LIMITE_CONTAGEM_BUSCA; nas seguintes fica nulo
+        if (cursor != null) {
+            return new ResultadoBuscaDTO<>(clientes, proximoCursor, null, null);
+        }
+        if (proximoCursor == null) {
+            return new ResultadoBuscaDTO<>(clientes, null, (long) clientes.size(), true);
+        }
+        long total = clienteRepository.contarAte(filtro, LIMITE_CONTAGEM_BUSCA + 1);
+        return new ResultadoBuscaDTO<>(clientes, proximoCursor, Math.min(total, LIMITE_CONTAGEM_BUSCA),
+                total <= LIMITE_CONTAGEM_BUSCA);
+    }
+
+    private void validarBusca(FiltroBuscaClienteDTO filtro) {
+        if (filtro.isContem()) {
+            String nome = Cliente.normalizarNome(filtro.getNome());
+            if (nome == null || nome.length() < TAMANHO_MINIMO_TRECHO) {
+                throw new RuntimeException(BUSCA_INVALIDA + "a busca por trecho do nome exige ao menos "
+                        + TAMANHO_MINIMO_TRECHO + " caracteres");
+            }
+        }
+        if (filtro.getRendaMinima() != null && filtro.getRendaMaxima() != null
+                && filtro.getRendaMinima().compareTo(filtro.getRendaMaxima()) > 0) {
+            throw new RuntimeException(BUSCA_INVALIDA + "renda mínima maior que a renda máxima");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void percorrerTodos(Long cursor, Consumer<ClienteListDTO> consumidor) {
+        try (Stream<ClienteListDTO> clientes =
+                     clienteRepository.streamListagemAPartirDe(cursor == null ? 0L : cursor, Limit.unlimited())) {
+            clientes.forEach(consumidor);
+        }
     }
 
     public Cliente atualizar(Long id, Cliente clienteAtualizado) {
-        Optional<Cliente> clienteExistente = clienteRepository.findById(id);
-        if (clienteExistente.isPresent()) {
-            Cliente cliente = clienteExistente.get();
-            cliente.setNome(clienteAtualizado.getNome());
-            cliente.setCpf(clienteAtualizado.getCpf());
-            cliente.setRendaMensal(clienteAtualizado.getRendaMensal());
-            return clienteRepository.save(cliente);
-        } else {
+        return atualizar(id, clienteAtualizado, null);
+    }
+
+    // Uma única instrução UPDATE ... WHERE id = ? AND versao = ?, só com as colunas que mudaram. O estado
+    // atual vem do cache de clientes e a condição de versão garante que ele é o que está no banco; as linhas
+    // afetadas decidem o resultado. Campos nulos mantêm o valor atual (PATCH); o PUT informa todos.
+    // Com versaoEsperada (If-Match), só atualiza se o cliente ainda estiver nessa versão.
+    // As leituras deste caminho vão ao primário: fora de transação, uma réplica atrasada responderia 404 para
+    // um cliente recém-criado, ou confundiria um conflito (409) com uma exclusão
+    public Cliente atualizar(Long id, Cliente alteracoes, Long versaoEsperada) {
+        Cliente atual = LeituraNoPrimario.executar(() -> clienteCache.buscar(id, clienteRepository::findById))
+                .orElseThrow(() -> new RuntimeException("Cliente não encontrado com id: " + id));
+        if (versaoEsperada != null && !versaoEsperada.equals(atual.getVersao())) {
+            // O cache pode estar atrás do banco: confirma antes de recusar
+            atual = releitura(id);
+            if (!versaoEsperada.equals(atual.getVersao())) {
+                throw new RuntimeException(VERSAO_DIVERGENTE);
+            }
+        }
+
+        Cliente resultado = gravar(id, atual, alteracoes);
+        if (resultado == null && versaoEsperada == null) {
+            // Sem If-Match, a versão da condição é só a do cache, que pode estar atrás do banco (alteração
+            // em outra instância, leitura da réplica): relê do primário e tenta mais uma vez
+            resultado = gravar(id, releitura(id), alteracoes);
+        }
+        if (resultado == null) {
+            throw new RuntimeException(VERSAO_DIVERGENTE);
+        }
+        return resultado;
+    }
+
+    private Cliente releitura(Long id) {
+        clienteCache.invalidar(id);
+        return LeituraNoPrimario.executar(() -> clienteCache.buscar(id, clienteRepository::findById))
+                .orElseThrow(() -> new RuntimeException("Cliente não encontrado com id: " + id));
+    }
+
+    // Null quando nenhuma linha muda na versão de atual
+    private Cliente gravar(Long id, Cliente atual, Cliente alteracoes) {
+        String nome = alterado(alteracoes.getNome(), atual.getNome());
+        String cpf = alterado(alteracoes.getCpf(), atual.getCpf());
+        BigDecimal rendaMensal = alterado(alteracoes.getRendaMensal(), atual.getRendaMensal());
+        if (nome == null && cpf == null && rendaMensal == null) {
+            return atual;
+        }
+
+        int linhas = clienteRepository.atualizarNaVersao(id, atual.getVersao(), nome, cpf, rendaMensal);
+        clienteCache.invalidar(id);
+        if (linhas == 0) {
+            // Só no caminho de erro: sem linha, o cliente foi excluído (404) ou alterado por outra requisição
+            if (LeituraNoPrimario.executar(() -> clienteRepository.findVersaoById(id)).isEmpty()) {
+                throw new RuntimeException("Cliente não encontrado com id: " + id);
+            }
+            return null;
+        }
+
+        // O cache entrega uma cópia própria: ela vira o resultado, com os valores gravados
+        if (nome != null) {
+            atual.setNome(nome);
+            atual.setNomeBusca(Cliente.normalizarNome(nome));
+        }
+        if (cpf != null) {
+            atual.setCpf(cpf);
+        }
+        if (rendaMensal != null) {
+            atual.setRendaMensal(rendaMensal);
+        }
+        atual.setVersao(atual.getVersao() + 1);
+        return atual;
+    }
+
+    // Null quando o valor não muda: a coluna fica fora do UPDATE
+    private static String alterado(String novo, String atual) {
+        return novo == null || novo.equals(atual) ? null : novo;
+    }
+
+    private static BigDecimal alterado(BigDecimal novo, BigDecimal atual) {
+        return novo == null || atual != null && novo.compareTo(atual) == 0 ? null : novo;
+    }
+
+    // Exclusão lógica: o cliente some das consultas no commit e a purga (PurgaClientes) remove as propostas
+    // e a linha depois, em lotes. Os caches só são descartados após o commit, como na alteração de propostas
+    @Transactional
+    public ExclusaoCliente deletar(Long id) {
+        Date agora = new Date();
+        if (clienteRepository.marcarExcluido(id, agora) == 0) {
             throw new RuntimeException("Cliente não encontrado com id: " + id);
         }
+        ExclusaoCliente exclusao = exclusaoClienteRepository.save(new ExclusaoCliente(id, agora, 0L, null));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidarCaches(id);
+        } else {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidarCaches(id);
+                }
+            });
+        }
+        return exclusao;
+    }
+
+    // As restantes são contadas nas duas tabelas pelos índices de cliente_id
+    @Transactional(readOnly = true)
+    public Optional<ExclusaoClienteDTO> buscarExclusao(Long id) {
+        return exclusaoClienteRepository.findById(id).map(exclusao -> new ExclusaoClienteDTO(
+                exclusao.getClienteId(),
+                exclusao.getDataSolicitacao(),
+                exclusao.getPropostasRemovidas(),
+                exclusao.getDataConclusao() != null ? 0
+                        : propostaCreditoRepository.contarPorCliente(id) + propostaCreditoArquivadaRepository.contarPorCliente(id),
+                exclusao.getDataConclusao(),
+                exclusao.getDataConclusao() != null));
     }
 
-    public void deletar(Long id) {
-        clienteRepository.deleteById(id);
+    private void invalidarCaches(Long id) {
+        clienteCache.invalidar(id);
+        versaoClienteCache.invalidar(id);
     }
 }
@@ -0,0 +1,196 @@
+package br.com.challenge.fictcred.service;
+
+import br.com.challenge.fictcred.dto.EstatisticaDiaDTO;
+import br.com.challenge.fictcred.dto.EstatisticasDTO;
+import br.com.challenge.fictcred.enums.StatusParcela;
+import br.com.challenge.fictcred.estatistica.AcumuladorEstatisticas;
+import br.com.challenge.fictcred.model.EstatisticaDiaria;
+import br.com.challenge.fictcred.model.EstatisticaDiariaId;
+import br.com.challenge.fictcred.model.PropostaCredito;
+import br.com.challenge.fictcred.repository.EstatisticaDiariaRepository;
+import br.com.challenge.fictcred.repository.PropostaCreditoArquivadaRepository;
+import br.com.challenge.fictcred.repository.PropostaCreditoRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Service
+public class EstatisticaService {
+
+    public static final int DIAS_MAXIMO = 366;
+
+    private static final Logger log = LoggerFactory.getLogger(EstatisticaService.class);
+    private static final ZoneId ZONA = ZoneId.systemDefault();
+
+    private final AcumuladorEstatisticas acumulador = new AcumuladorEstatisticas();
+    private final Object descarga = new Object();
+
+    @Autowired
+    private EstatisticaDiariaRepository estatisticaDiariaRepository;
+
+    @Autowired
+    private PropostaCreditoRepository propostaCreditoRepository;
+
+    @Autowired
+    private PropostaCreditoArquivadaRepository propostaCreditoArquivadaRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Dentro de uma transação só contabiliza depois do commit, para não contar propostas desfeitas
+    public void registrar(List<PropostaCredito> propostas) {
+        List<Decisao> decisoes = new ArrayList<>(propostas.size());
+        for (PropostaCredito proposta : propostas) {
+            if (proposta.getStatus() != StatusParcela.PENDENTE) {
+                decisoes.add(new Decisao(dia(proposta.getDataCriacao()), proposta.getStatus(), centavos(proposta.getValorSolicitado())));
+            }
+        }
+        if (decisoes.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acumular(decisoes);
+                }
+            });
+        } else {
+            acumular(decisoes);
+        }
+    }
+
+    private void acumular(List<Decisao> decisoes) {
+        for (Decisao decisao : decisoes) {
+            acumulador.registrar(decisao.dia(), decisao.status(), decisao.centavos());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${fictcred.estatisticas.intervalo-descarga:5000}")
+    @PreDestroy
+    public void descarregar() {
+        synchronized (descarga) {
+            List<AcumuladorEstatisticas.Delta> deltas = acumulador.pendentes();
+            if (deltas.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    for (AcumuladorEstatisticas.Delta delta : deltas) {
+                        gravar(delta);
+                    }
+                });
+                acumulador.confirmar(deltas);
+            } catch (RuntimeException e) {
+                // Os deltas continuam pendentes e entram na próxima descarga
+                log.error("Falha ao gravar estatísticas diárias", e);
+            }
+        }
+    }
+
+    private void gravar(AcumuladorEstatisticas.Delta delta) {
+        LocalDate dia = delta.chave().dia();
+        StatusParcela status = delta.chave().status();
+        BigDecimal valor = BigDecimal.valueOf(delta.centavos(), 2);
+        if (estatisticaDiariaRepository.incrementar(dia, status, delta.quantidade(), valor) == 0) {
+            entityManager.persist(new EstatisticaDiaria(new EstatisticaDiariaId(dia, status), delta.quantidade(), valor));
+        }
+    }
+
+    // Recalcula o resumo inteiro a partir das propostas. Decisões gravadas durante a
+    // reconstrução podem ficar fora ou ser contadas duas vezes; usar em janelas de pouco tráfego.
+    public int reconstruir() {
+        synchronized (descarga) {
+            acumulador.descartarPendentes();
+            Integer linhas = transactionTemplate.execute(status -> {
+                estatisticaDiariaRepository.deleteAllInBatch();
+                List<Object[]> agregados = new ArrayList<>(propostaCreditoRepository.agregarPorDiaEStatus(StatusParcela.PENDENTE));
+                // Propostas já arquivadas ainda podem estar dentro do período consultado
+                Date desde = Date.from(LocalDate.now(ZONA).minusDays(DIAS_MAXIMO).atStartOfDay(ZONA).toInstant());
+                agregados.addAll(propostaCreditoArquivadaRepository.agregarPorDiaEStatus(desde));
+                Map<EstatisticaDiariaId, EstatisticaDiaria> porDia = new HashMap<>();
+                for (Object[] agregado : agregados) {
+                    EstatisticaDiariaId id = new EstatisticaDiariaId((LocalDate) agregado[0], (StatusParcela) agregado[1]);
+                    EstatisticaDiaria estatistica = porDia.computeIfAbsent(id, i -> new EstatisticaDiaria(i, 0, BigDecimal.ZERO));
+                    estatistica.setQuantidade(estatistica.getQuantidade() + (Long) agregado[2]);
+                    estatistica.setValorTotal(estatistica.getValorTotal().add((BigDecimal) agregado[3]));
+                }
+                porDia.values().forEach(entityManager::persist);
+                return porDia.size();
+            });
+            log.info("Estatísticas diárias reconstruídas: {} linhas", linhas);
+            return linhas == null ? 0 : linhas;
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public EstatisticasDTO consultar(int dias) {
+        int periodo = Math.min(Math.max(dias, 1), DIAS_MAXIMO);
+        LocalDate fim = LocalDate.now(ZONA);
+        LocalDate inicio = fim.minusDays(periodo - 1L);
+
+        Map<LocalDate, EstatisticaDiaDTO> porDia = new TreeMap<>();
+        for (EstatisticaDiaria estatistica : estatisticaDiariaRepository.findByIdDiaGreaterThanEqualOrderByIdDiaAsc(inicio)) {
+            EstatisticaDiaDTO dia = porDia.computeIfAbsent(estatistica.getId().getDia(),
+                    d -> new EstatisticaDiaDTO(d, 0, 0, BigDecimal.ZERO, BigDecimal.ZERO, 0));
+            if (estatistica.getId().getStatus() == StatusParcela.APROVADA) {
+                dia.setAprovadas(dia.getAprovadas() + estatistica.getQuantidade());
+                dia.setValorAprovado(dia.getValorAprovado().add(estatistica.getValorTotal()));
+            } else if (estatistica.getId().getStatus() == StatusParcela.REPROVADA) {
+                dia.setReprovadas(dia.getReprovadas() + estatistica.getQuantidade());
+                dia.setValorReprovado(dia.getValorReprovado().add(estatistica.getValorTotal()));
+            }
+        }
+
+        long aprovadas = 0;
+        long reprovadas = 0;
+        BigDecimal valorTotal = BigDecimal.ZERO;
+        for (EstatisticaDiaDTO dia : porDia.values()) {
+            dia.setTaxaAprovacao(taxa(dia.getAprovadas(), dia.getReprovadas()));
+            aprovadas += dia.getAprovadas();
+            reprovadas += dia.getReprovadas();
+            valorTotal = valorTotal.add(dia.getValorAprovado()).add(dia.getValorReprovado());
+        }
+        return new EstatisticasDTO(inicio, fim, aprovadas, reprovadas, valorTotal, taxa(aprovadas, reprovadas),
+                new ArrayList<>(porDia.values()));
+    }
+
+    private static double taxa(long aprovadas, long reprovadas) {
+        long total = aprovadas + reprovadas;
+        return total == 0 ? 0 : (double) aprovadas / total;
+    }
+
+    private static LocalDate dia(Date data) {
+        return data.toInstant().atZone(ZONA).toLocalDate();
+    }
+
+    private static long centavos(BigDecimal valor) {
+        return valor.setScale(2, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    private record Decisao(LocalDate dia, StatusParcela status, long centavos) {
+    }
+}
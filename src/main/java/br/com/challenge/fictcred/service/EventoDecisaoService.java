@@ -0,0 +1,34 @@
+package br.com.challenge.fictcred.service;
+
+import br.com.challenge.fictcred.dto.EventoDecisaoDTO;
+import br.com.challenge.fictcred.dto.PaginaDTO;
+import br.com.challenge.fictcred.repository.EventoDecisaoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+public class EventoDecisaoService {
+
+    public static final int TAMANHO_PAGINA_MAXIMO = 500;
+
+    @Autowired
+    private EventoDecisaoRepository eventoDecisaoRepository;
+
+    // Diferente da listagem de clientes, o cursor nunca é nulo: o consumidor guarda o último
+    // valor recebido e volta a consultar a partir dele quando chegarem novos eventos
+    @Transactional(readOnly = true)
+    public PaginaDTO<EventoDecisaoDTO> listarPublicados(Long apos, Long clienteId, int limite) {
+        long sequencia = apos == null ? 0L : apos;
+        Limit tamanho = Limit.of(Math.min(Math.max(limite, 1), TAMANHO_PAGINA_MAXIMO));
+
+        List<EventoDecisaoDTO> eventos = clienteId == null
+                ? eventoDecisaoRepository.findPublicadosApos(sequencia, tamanho)
+                : eventoDecisaoRepository.findPublicadosAposPorCliente(clienteId, sequencia, tamanho);
+        long proximoCursor = eventos.isEmpty() ? sequencia : eventos.get(eventos.size() - 1).getSequencia();
+        return new PaginaDTO<>(eventos, proximoCursor);
+    }
+}
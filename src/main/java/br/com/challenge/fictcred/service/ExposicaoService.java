@@ -0,0 +1,94 @@
+package br.com.challenge.fictcred.service;
+
+import br.com.challenge.fictcred.enums.StatusParcela;
+import br.com.challenge.fictcred.model.Cliente;
+import br.com.challenge.fictcred.model.ExposicaoCliente;
+import br.com.challenge.fictcred.repository.ClienteRepository;
+import br.com.challenge.fictcred.repository.ExposicaoClienteRepository;
+import br.com.challenge.fictcred.repository.PropostaCreditoArquivadaRepository;
+import br.com.challenge.fictcred.repository.PropostaCreditoRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class ExposicaoService {
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ExposicaoClienteRepository exposicaoClienteRepository;
+
+    @Autowired
+    private PropostaCreditoRepository propostaCreditoRepository;
+
+    @Autowired
+    private PropostaCreditoArquivadaRepository propostaCreditoArquivadaRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Bloqueia as linhas dos clientes até o fim da transação do chamador e devolve o razão de cada
+    // cliente existente. Com o bloqueio, duas propostas do mesmo cliente nunca leem o mesmo saldo.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<Long, ExposicaoCliente> travar(Collection<Long> clienteIds) {
+        List<Cliente> clientes = clienteRepository.findAllByIdParaAtualizacao(clienteIds);
+        if (clientes.isEmpty()) {
+            return Map.of();
+        }
+
+        // Só os clientes bloqueados: os excluídos não são encontrados e não recebem novas propostas
+        List<Long> encontrados = new ArrayList<>();
+        for (Cliente cliente : clientes) {
+            encontrados.add(cliente.getId());
+        }
+        Map<Long, ExposicaoCliente> exposicoes = new HashMap<>();
+        for (ExposicaoCliente exposicao : exposicaoClienteRepository.findAllById(encontrados)) {
+            exposicoes.put(exposicao.getClienteId(), exposicao);
+        }
+        List<Long> semRazao = new ArrayList<>();
+        for (Cliente cliente : clientes) {
+            if (!exposicoes.containsKey(cliente.getId())) {
+                semRazao.add(cliente.getId());
+            }
+        }
+        if (!semRazao.isEmpty()) {
+            criarRazoes(clientes, semRazao, exposicoes);
+        }
+        return exposicoes;
+    }
+
+    // Clientes com propostas anteriores ao razão começam com o que já foi aprovado, inclusive o que já
+    // foi para o arquivo
+    private void criarRazoes(List<Cliente> clientes, List<Long> semRazao, Map<Long, ExposicaoCliente> exposicoes) {
+        Map<Long, BigDecimal> totais = new HashMap<>();
+        Map<Long, Long> quantidades = new HashMap<>();
+        List<Object[]> somas = new ArrayList<>(propostaCreditoRepository.somarPorCliente(semRazao, StatusParcela.APROVADA));
+        somas.addAll(propostaCreditoArquivadaRepository.somarPorCliente(semRazao, StatusParcela.APROVADA));
+        for (Object[] soma : somas) {
+            totais.merge((Long) soma[0], (BigDecimal) soma[1], BigDecimal::add);
+            quantidades.merge((Long) soma[0], (Long) soma[2], Long::sum);
+        }
+        for (Cliente cliente : clientes) {
+            if (exposicoes.containsKey(cliente.getId())) {
+                continue;
+            }
+            ExposicaoCliente exposicao = new ExposicaoCliente(null, cliente,
+                    totais.getOrDefault(cliente.getId(), BigDecimal.ZERO),
+                    quantidades.getOrDefault(cliente.getId(), 0L).intValue(), 0L);
+            entityManager.persist(exposicao);
+            exposicoes.put(cliente.getId(), exposicao);
+        }
+    }
+}
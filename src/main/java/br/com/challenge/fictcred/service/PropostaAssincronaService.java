@@ -0,0 +1,70 @@
+package br.com.challenge.fictcred.service;
+
+import br.com.challenge.fictcred.fila.FilaPropostas;
+import br.com.challenge.fictcred.model.PropostaCredito;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public class PropostaAssincronaService {
+
+    public static final String FILA_CHEIA = "Fila de propostas cheia";
+
+    private static final Logger log = LoggerFactory.getLogger(PropostaAssincronaService.class);
+    private static final int TAMANHO_PAGINA_RECUPERACAO = 500;
+
+    @Autowired
+    private PropostaCreditoService propostaCreditoService;
+
+    @Autowired
+    private FilaPropostas filaPropostas;
+
+    public PropostaCredito criarProposta(Long clienteId, PropostaCredito proposta) {
+        if (!filaPropostas.reservar()) {
+            throw new RuntimeException(FILA_CHEIA);
+        }
+        PropostaCredito pendente;
+        try {
+            pendente = propostaCreditoService.registrarPendente(clienteId, proposta);
+        } catch (RuntimeException e) {
+            filaPropostas.cancelarReserva();
+            throw e;
+        }
+        filaPropostas.enfileirar(pendente.getId());
+        return pendente;
+    }
+
+    // Propostas aceitas antes de uma parada ficam pendentes no banco; voltam para a fila ao subir. Roda junto
+    // com as requisições novas: as que já estão na fila não são duplicadas (FilaPropostas.enfileirar)
+    @EventListener(ApplicationReadyEvent.class)
+    public void recuperarPendentes() {
+        Thread.ofVirtual().name("recuperacao-propostas").start(() -> {
+            long ultimoId = 0;
+            int recuperadas = 0;
+            try {
+                List<Long> ids;
+                do {
+                    ids = propostaCreditoService.listarIdsPendentes(ultimoId, TAMANHO_PAGINA_RECUPERACAO);
+                    for (Long id : ids) {
+                        filaPropostas.enfileirarAguardando(id);
+                        ultimoId = id;
+                        recuperadas++;
+                    }
+                } while (ids.size() == TAMANHO_PAGINA_RECUPERACAO);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.error("Falha ao recuperar propostas pendentes após o id {}", ultimoId, e);
+            }
+            if (recuperadas > 0) {
+                log.info("{} propostas pendentes reenfileiradas", recuperadas);
+            }
+        });
+    }
+}
@@ -1,63 +1,387 @@
 package br.com.challenge.fictcred.service;
 
+import br.com.challenge.fictcred.cache.VersaoClienteCache;
+import br.com.challenge.fictcred.dto.FiltroBuscaPropostaDTO;
+import br.com.challenge.fictcred.dto.PaginaDTO;
+import br.com.challenge.fictcred.dto.PropostaCreditoListDTO;
+import br.com.challenge.fictcred.dto.PropostaCreditoLoteItemDTO;
+import br.com.challenge.fictcred.dto.PropostaCreditoLoteResultadoDTO;
 import br.com.challenge.fictcred.enums.StatusParcela;
+import br.com.challenge.fictcred.metricas.MetricasCredito;
 import br.com.challenge.fictcred.model.Cliente;
+import br.com.challenge.fictcred.model.EventoDecisao;
+import br.com.challenge.fictcred.model.ExposicaoCliente;
 import br.com.challenge.fictcred.model.PropostaCredito;
+import br.com.challenge.fictcred.regra.ResultadoAvaliacao;
 import br.com.challenge.fictcred.repository.ClienteRepository;
+import br.com.challenge.fictcred.repository.EventoDecisaoRepository;
+import br.com.challenge.fictcred.repository.PropostaCreditoArquivadaRepository;
 import br.com.challenge.fictcred.repository.PropostaCreditoRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class PropostaCreditoService {
 
+    public static final int TAMANHO_LOTE = 500;
+    public static final int TAMANHO_MAXIMO_LOTE = 2000;
+    public static final String FALHA_BLOCO = "Falha ao gravar o bloco do item; nenhuma proposta do bloco foi gravada";
+    public static final int TAMANHO_PAGINA_PADRAO = 50;
+    public static final int TAMANHO_PAGINA_MAXIMO = 500;
+    public static final String BUSCA_INVALIDA = "Busca inválida: ";
+
+    private static final Logger log = LoggerFactory.getLogger(PropostaCreditoService.class);
+
     @Autowired
     private PropostaCreditoRepository propostaCreditoRepository;
 
+    @Autowired
+    private PropostaCreditoArquivadaRepository propostaCreditoArquivadaRepository;
+
     @Autowired
     private ClienteRepository clienteRepository;
 
+    @Autowired
+    private EventoDecisaoRepository eventoDecisaoRepository;
+
+    @Autowired
+    private VersaoClienteCache versaoClienteCache;
+
+    @Autowired
+    private RegraCreditoService regraCreditoService;
+
+    @Autowired
+    private ExposicaoService exposicaoService;
+
+    @Autowired
+    private MetricasCredito metricasCredito;
+
+    @Autowired
+    private EstatisticaService estatisticaService;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // A proposta, o evento de decisão (outbox) e o razão de exposição são gravados na mesma transação.
+    // O cliente fica bloqueado até o commit, então propostas simultâneas do mesmo cliente são serializadas.
+    @Transactional
     public PropostaCredito criarProposta(Long clienteId, PropostaCredito proposta) {
-        Optional<Cliente> clienteOpt = clienteRepository.findById(clienteId);
-        if (clienteOpt.isEmpty()) {
+        ExposicaoCliente exposicao = exposicaoService.travar(List.of(clienteId)).get(clienteId);
+        if (exposicao == null) {
             throw new RuntimeException("Cliente não encontrado");
         }
-        Cliente cliente = clienteOpt.get();
+        Cliente cliente = exposicao.getCliente();
 
-        StatusParcela status = avaliarProposta(proposta, cliente);
+        ResultadoAvaliacao resultado = avaliarProposta(proposta, cliente, exposicao);
 
         proposta.setCliente(cliente);
-        proposta.setStatus(status);
+        proposta.setStatus(resultado.getStatus());
+        proposta.setRegraReprovacao(resultado.getRegra());
+        proposta.setDataCriacao(new Date());
+
+        PropostaCredito salva = propostaCreditoRepository.save(proposta);
+        registrarDecisao(exposicao, salva);
+        eventoDecisaoRepository.save(criarEvento(salva, exposicao, salva.getDataCriacao()));
+        estatisticaService.registrar(List.of(salva));
+        return salva;
+    }
+
+    // Também bloqueia o cliente: a proposta pendente já muda a lista e, com ela, a versão usada no ETag
+    @Transactional
+    public PropostaCredito registrarPendente(Long clienteId, PropostaCredito proposta) {
+        ExposicaoCliente exposicao = exposicaoService.travar(List.of(clienteId)).get(clienteId);
+        if (exposicao == null) {
+            throw new RuntimeException("Cliente não encontrado");
+        }
+
+        proposta.setCliente(exposicao.getCliente());
+        proposta.setStatus(StatusParcela.PENDENTE);
         proposta.setDataCriacao(new Date());
 
-        return propostaCreditoRepository.save(proposta);
+        PropostaCredito salva = propostaCreditoRepository.save(proposta);
+        registrarAlteracaoPropostas(exposicao);
+        return salva;
+    }
+
+    // Avalia e grava numa única transação as propostas do micro-lote que ainda estão pendentes
+    public int avaliarPendentes(List<Long> ids) {
+        Integer avaliadas = transactionTemplate.execute(status -> {
+            List<Long> clienteIds = propostaCreditoRepository.findClienteIdsByIdInAndStatus(ids, StatusParcela.PENDENTE);
+            if (clienteIds.isEmpty()) {
+                return 0;
+            }
+            Map<Long, ExposicaoCliente> exposicoes = exposicaoService.travar(clienteIds);
+            // Lidas só depois da trava: uma avaliação da mesma proposta que terminou enquanto esta esperava
+            // já está gravada, e a proposta não volta como pendente nem com versão antiga
+            List<PropostaCredito> propostas =
+                    propostaCreditoRepository.findByIdInAndStatusComCliente(ids, StatusParcela.PENDENTE);
+            Date agora = new Date();
+            List<PropostaCredito> decididas = new ArrayList<>();
+            for (PropostaCredito proposta : propostas) {
+                ExposicaoCliente exposicao = exposicoes.get(proposta.getCliente().getId());
+                if (exposicao == null) {
+                    // Cliente excluído depois da leitura: a proposta fica pendente até a purga removê-la
+                    continue;
+                }
+                decididas.add(proposta);
+                ResultadoAvaliacao resultado = avaliarProposta(proposta, proposta.getCliente(), exposicao);
+                proposta.setStatus(resultado.getStatus());
+                proposta.setRegraReprovacao(resultado.getRegra());
+                registrarDecisao(exposicao, proposta);
+                entityManager.persist(criarEvento(proposta, exposicao, agora));
+            }
+            estatisticaService.registrar(decididas);
+            return decididas.size();
+        });
+        return avaliadas == null ? 0 : avaliadas;
+    }
+
+    // Lê do primário: numa réplica atrasada a recuperação deixaria de fora pendentes recém-gravadas
+    @Transactional
+    public List<Long> listarIdsPendentes(Long aposId, int limite) {
+        return propostaCreditoRepository.findIdsByStatusAndIdGreaterThan(StatusParcela.PENDENTE, aposId, Limit.of(limite));
     }
 
-    private StatusParcela avaliarProposta(PropostaCredito proposta, Cliente cliente) {
-        if (proposta.getValorSolicitado().compareTo(cliente.getRendaMensal().multiply(java.math.BigDecimal.valueOf(5))) > 0) {
-            return StatusParcela.REPROVADA;
+    public List<PropostaCreditoLoteResultadoDTO> criarPropostasEmLote(List<PropostaCreditoLoteItemDTO> itens) {
+        List<PropostaCreditoLoteResultadoDTO> resultados = new ArrayList<>(itens.size());
+        for (int inicio = 0; inicio < itens.size(); inicio += TAMANHO_LOTE) {
+            int fim = Math.min(inicio + TAMANHO_LOTE, itens.size());
+            resultados.addAll(processarLote(itens.subList(inicio, fim), inicio));
         }
+        return resultados;
+    }
+
+    private List<PropostaCreditoLoteResultadoDTO> processarLote(List<PropostaCreditoLoteItemDTO> lote, int deslocamento) {
+        List<PropostaCreditoLoteResultadoDTO> resultados = new ArrayList<>(lote.size());
+        List<PropostaCreditoLoteItemDTO> validos = new ArrayList<>(lote.size());
+        List<PropostaCreditoLoteResultadoDTO> pendentes = new ArrayList<>(lote.size());
+        Set<Long> clienteIds = new HashSet<>();
+
+        for (int i = 0; i < lote.size(); i++) {
+            PropostaCreditoLoteItemDTO item = lote.get(i);
+            PropostaCreditoLoteResultadoDTO resultado = new PropostaCreditoLoteResultadoDTO();
+            resultado.setIndice(deslocamento + i);
+            resultado.setClienteId(item.getClienteId());
+            resultados.add(resultado);
+
+            Set<ConstraintViolation<PropostaCreditoLoteItemDTO>> violacoes = validator.validate(item);
+            if (!violacoes.isEmpty()) {
+                resultado.setErro(violacoes.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                continue;
+            }
+            validos.add(item);
+            pendentes.add(resultado);
+            clienteIds.add(item.getClienteId());
+        }
+        if (validos.isEmpty()) {
+            return resultados;
+        }
+
+        // A avaliação acontece com os clientes do lote bloqueados; itens do mesmo cliente no lote
+        // enxergam a exposição uns dos outros porque o razão em memória é atualizado a cada aprovação
+        Date agora = new Date();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<Long, ExposicaoCliente> exposicoes = exposicaoService.travar(clienteIds);
+                List<PropostaCredito> propostas = new ArrayList<>(validos.size());
+                for (int i = 0; i < validos.size(); i++) {
+                    PropostaCreditoLoteItemDTO item = validos.get(i);
+                    ExposicaoCliente exposicao = exposicoes.get(item.getClienteId());
+                    if (exposicao == null) {
+                        pendentes.get(i).setErro("Cliente não encontrado");
+                        continue;
+                    }
+
+                    PropostaCredito proposta = new PropostaCredito();
+                    proposta.setValorSolicitado(item.getValorSolicitado());
+                    proposta.setNumeroParcelas(item.getNumeroParcelas());
+                    proposta.setCliente(exposicao.getCliente());
+                    ResultadoAvaliacao avaliacao = avaliarProposta(proposta, exposicao.getCliente(), exposicao);
+                    proposta.setStatus(avaliacao.getStatus());
+                    proposta.setRegraReprovacao(avaliacao.getRegra());
+                    proposta.setDataCriacao(agora);
+                    registrarDecisao(exposicao, proposta);
+
+                    entityManager.persist(proposta);
+                    entityManager.persist(criarEvento(proposta, exposicao, agora));
+                    propostas.add(proposta);
+
+                    pendentes.get(i).setPropostaId(proposta.getId());
+                    pendentes.get(i).setStatus(proposta.getStatus());
+                    pendentes.get(i).setRegraReprovacao(proposta.getRegraReprovacao());
+                }
+                estatisticaService.registrar(propostas);
+                entityManager.flush();
+                entityManager.clear();
+            });
+        } catch (RuntimeException e) {
+            // Só este bloco voltou atrás: os anteriores já foram confirmados e continuam na resposta, e
+            // os itens daqui saem com erro em vez de uma falha da requisição inteira
+            log.error("Falha ao gravar o bloco do lote de propostas a partir do item {}", deslocamento, e);
+            for (PropostaCreditoLoteResultadoDTO resultado : pendentes) {
+                resultado.setPropostaId(null);
+                resultado.setStatus(null);
+                resultado.setRegraReprovacao(null);
+                if (resultado.getErro() == null) {
+                    resultado.setErro(FALHA_BLOCO);
+                }
+            }
+        }
+        return resultados;
+    }
+
+    private void registrarDecisao(ExposicaoCliente exposicao, PropostaCredito proposta) {
+        if (proposta.getStatus() == StatusParcela.APROVADA) {
+            exposicao.registrarAprovacao(proposta.getValorSolicitado());
+        }
+        registrarAlteracaoPropostas(exposicao);
+    }
+
+    // O cliente está bloqueado, então o incremento não se perde. A versão em cache só é descartada
+    // depois do commit: antes disso uma leitura concorrente recarregaria a versão antiga.
+    private void registrarAlteracaoPropostas(ExposicaoCliente exposicao) {
+        exposicao.registrarAlteracaoPropostas();
+        Long clienteId = exposicao.getClienteId();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            versaoClienteCache.invalidar(clienteId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                versaoClienteCache.invalidar(clienteId);
+            }
+        });
+    }
+
+    private EventoDecisao criarEvento(PropostaCredito proposta, ExposicaoCliente exposicao, Date dataDecisao) {
+        EventoDecisao evento = new EventoDecisao();
+        evento.setPropostaId(proposta.getId());
+        evento.setClienteId(proposta.getCliente().getId());
+        evento.setStatus(proposta.getStatus());
+        evento.setRegraReprovacao(proposta.getRegraReprovacao());
+        evento.setValorSolicitado(proposta.getValorSolicitado());
+        evento.setNumeroParcelas(proposta.getNumeroParcelas());
+        evento.setDataDecisao(dataDecisao);
+        evento.setVersaoCliente(exposicao.getVersaoPropostas());
+        return evento;
+    }
+
+    private ResultadoAvaliacao avaliarProposta(PropostaCredito proposta, Cliente cliente, ExposicaoCliente exposicao) {
+        long inicio = System.nanoTime();
+        ResultadoAvaliacao resultado = regraCreditoService.getAvaliador()
+                .avaliar(proposta.getValorSolicitado(), proposta.getNumeroParcelas(), cliente.getRendaMensal(),
+                        exposicao.getTotalAprovado(), exposicao.getPropostasAbertas());
+        metricasCredito.registrarAvaliacao(System.nanoTime() - inicio, resultado);
+        return resultado;
+    }
+
+    // Propostas antigas podem já ter ido para o arquivo
+    @Transactional(readOnly = true)
+    public Optional<PropostaCreditoListDTO> buscarPorId(Long id) {
+        return propostaCreditoRepository.findListagemById(id)
+                .or(() -> propostaCreditoArquivadaRepository.findListagemById(id));
+    }
 
-        if (proposta.getNumeroParcelas() < 1 || proposta.getNumeroParcelas() > 24) {
-            return StatusParcela.REPROVADA;
+    @Transactional(readOnly = true)
+    public void percorrerPorCliente(Long clienteId, Sort sort, Consumer<PropostaCreditoListDTO> consumidor) {
+        try (Stream<PropostaCreditoListDTO> propostas = propostaCreditoArquivadaRepository.existsByClienteId(clienteId)
+                ? propostaCreditoRepository.percorrerComArquivadas(clienteId, sort)
+                : propostaCreditoRepository.streamListagemByClienteId(clienteId, sort)) {
+            propostas.forEach(consumidor);
+        }
+    }
+
+    // Consulta por cursor: o cursor é o id da última proposta da página anterior, e a posição dela na
+    // ordenação (dataCriacao, id) é lida pela chave primária
+    @Transactional(readOnly = true)
+    public PaginaDTO<PropostaCreditoListDTO> buscar(FiltroBuscaPropostaDTO filtro, Long cursor, int tamanho) {
+        validarBusca(filtro);
+        int limite = Math.min(Math.max(tamanho, 1), TAMANHO_PAGINA_MAXIMO);
+        Date cursorData = null;
+        if (cursor != null) {
+            cursorData = propostaCreditoRepository.findDataCriacaoById(cursor)
+                    .or(() -> propostaCreditoArquivadaRepository.findDataCriacaoById(cursor))
+                    .orElseThrow(() -> new RuntimeException(BUSCA_INVALIDA + "cursor " + cursor + " não encontrado"));
         }
 
-        return StatusParcela.APROVADA;
+        // Um registro a mais apenas para saber se existe uma próxima página
+        List<PropostaCreditoListDTO> propostas =
+                propostaCreditoRepository.buscarComArquivadas(filtro, cursorData, cursor, limite + 1);
+        if (propostas.size() <= limite) {
+            return new PaginaDTO<>(propostas, null);
+        }
+        List<PropostaCreditoListDTO> pagina = propostas.subList(0, limite);
+        return new PaginaDTO<>(pagina, pagina.get(limite - 1).getId());
     }
 
-    public Optional<PropostaCredito> buscarPorId(Long id) {
-        return propostaCreditoRepository.findById(id);
+    private void validarBusca(FiltroBuscaPropostaDTO filtro) {
+        if (filtro.getDataInicio() != null && filtro.getDataFim() != null
+                && !filtro.getDataInicio().before(filtro.getDataFim())) {
+            throw new RuntimeException(BUSCA_INVALIDA + "dataInicio deve ser anterior a dataFim");
+        }
+        if (filtro.getValorMinimo() != null && filtro.getValorMaximo() != null
+                && filtro.getValorMinimo().compareTo(filtro.getValorMaximo()) > 0) {
+            throw new RuntimeException(BUSCA_INVALIDA + "valor mínimo maior que o valor máximo");
+        }
+        if (filtro.getParcelasMinimo() != null && filtro.getParcelasMaximo() != null
+                && filtro.getParcelasMinimo() > filtro.getParcelasMaximo()) {
+            throw new RuntimeException(BUSCA_INVALIDA + "parcelas mínimo maior que parcelas máximo");
+        }
     }
 
-    public List<PropostaCredito> listarPorCliente(Long clienteId) {
-        Optional<Cliente> clienteOpt = clienteRepository.findById(clienteId);
-        if (clienteOpt.isEmpty()) {
+    @Transactional(readOnly = true)
+    public Slice<PropostaCreditoListDTO> listarPorCliente(Long clienteId, Pageable pageable) {
+        Slice<PropostaCreditoListDTO> propostas;
+        if (propostaCreditoArquivadaRepository.existsByClienteId(clienteId)) {
+            // Cliente com propostas arquivadas: as duas tabelas numa única ordenação, sem query cache
+            List<PropostaCreditoListDTO> itens = propostaCreditoRepository.listarComArquivadas(clienteId,
+                    pageable.getSort(), (int) pageable.getOffset(), pageable.getPageSize() + 1);
+            boolean temProxima = itens.size() > pageable.getPageSize();
+            propostas = new SliceImpl<>(temProxima ? itens.subList(0, pageable.getPageSize()) : itens, pageable, temProxima);
+        } else {
+            propostas = propostaCreditoRepository.findListagemByClienteId(clienteId, pageable);
+        }
+        // Só consulta o cliente quando não há propostas, para diferenciar "sem propostas" de "cliente inexistente".
+        // Sem passar pelo cache: a conexão desta transação já pode ser de uma réplica
+        if (!propostas.hasContent() && !clienteRepository.existsById(clienteId)) {
             throw new RuntimeException("Cliente não encontrado");
         }
-        return propostaCreditoRepository.findByCliente(clienteOpt.get());
+        return propostas;
     }
 }
@@ -0,0 +1,86 @@
+package br.com.challenge.fictcred.service;
+
+import br.com.challenge.fictcred.metricas.MetricasCredito;
+import br.com.challenge.fictcred.regra.AvaliadorCredito;
+import br.com.challenge.fictcred.regra.DefinicaoRegra;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+@Service
+public class RegraCreditoService {
+
+    private static final Logger log = LoggerFactory.getLogger(RegraCreditoService.class);
+
+    @Value("${fictcred.regras.localizacao:classpath:regras-credito.json}")
+    private Resource localizacao;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MetricasCredito metricasCredito;
+
+    private volatile AvaliadorCredito avaliador = AvaliadorCredito.padrao();
+    private volatile long ultimaModificacao = Long.MIN_VALUE;
+
+    public AvaliadorCredito getAvaliador() {
+        return avaliador;
+    }
+
+    @PostConstruct
+    public void carregar() throws IOException {
+        long modificacao = modificacao();
+        usar(compilar());
+        ultimaModificacao = modificacao;
+        log.info("Regras de crédito carregadas de {}: {}", localizacao, avaliador.getNomesRegras());
+    }
+
+    @Scheduled(fixedDelayString = "${fictcred.regras.intervalo-recarga:10000}")
+    public void recarregarSeAlterado() {
+        long modificacao = modificacao();
+        if (modificacao == ultimaModificacao) {
+            return;
+        }
+        try {
+            usar(compilar());
+            log.info("Regras de crédito recarregadas de {}: {}", localizacao, avaliador.getNomesRegras());
+        } catch (IOException | RuntimeException e) {
+            // Mantém as regras em uso; uma definição inválida não pode derrubar a avaliação
+            log.error("Definição de regras inválida em {}, mantendo as regras atuais", localizacao, e);
+        }
+        ultimaModificacao = modificacao;
+    }
+
+    private void usar(AvaliadorCredito compilado) {
+        metricasCredito.registrarRegras(compilado.getNomesRegras());
+        avaliador = compilado;
+    }
+
+    private AvaliadorCredito compilar() throws IOException {
+        try (InputStream in = localizacao.getInputStream()) {
+            List<DefinicaoRegra> definicoes = objectMapper.readValue(in, new TypeReference<List<DefinicaoRegra>>() { });
+            return AvaliadorCredito.compilar(definicoes);
+        }
+    }
+
+    private long modificacao() {
+        try {
+            return localizacao.lastModified();
+        } catch (IOException e) {
+            // Recursos dentro do jar não informam data de modificação e nunca são recarregados
+            return ultimaModificacao;
+        }
+    }
+}
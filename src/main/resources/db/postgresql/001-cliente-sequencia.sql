@@ -0,0 +1,6 @@
+-- Sequência usada pelo gerador pooled de Cliente (allocationSize = 50).
+-- Executar uma vez em bases criadas quando o ID ainda era IDENTITY.
+CREATE SEQUENCE IF NOT EXISTS cliente_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('cliente_seq', COALESCE((SELECT MAX(id) FROM cliente), 0) + 50);
+
+ALTER TABLE cliente ADD CONSTRAINT uk_cliente_cpf UNIQUE (cpf);
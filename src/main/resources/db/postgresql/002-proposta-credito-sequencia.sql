@@ -0,0 +1,3 @@
+-- Sequência usada pelo gerador pooled de PropostaCredito (allocationSize = 50).
+CREATE SEQUENCE IF NOT EXISTS proposta_credito_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('proposta_credito_seq', COALESCE((SELECT MAX(id) FROM proposta_credito), 0) + 50);
@@ -0,0 +1,19 @@
+-- Outbox das decisões de crédito. Eventos sem sequência ainda não foram publicados pelo relay.
+CREATE SEQUENCE IF NOT EXISTS evento_decisao_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS evento_decisao (
+    id BIGINT PRIMARY KEY,
+    sequencia BIGINT,
+    proposta_id BIGINT,
+    cliente_id BIGINT,
+    status SMALLINT,
+    regra_reprovacao VARCHAR(255),
+    valor_solicitado NUMERIC(38, 2),
+    numero_parcelas INTEGER NOT NULL,
+    data_decisao TIMESTAMP(6),
+    CONSTRAINT uk_evento_decisao_sequencia UNIQUE (sequencia)
+);
+
+-- Índice parcial: o relay só procura os pendentes, que são poucos em relação ao total
+CREATE INDEX IF NOT EXISTS idx_evento_decisao_pendente ON evento_decisao (id) WHERE sequencia IS NULL;
+CREATE INDEX IF NOT EXISTS idx_evento_decisao_cliente ON evento_decisao (cliente_id, sequencia);
@@ -0,0 +1,9 @@
+-- Resumo diário das decisões de crédito, mantido de forma incremental pela aplicação.
+-- Depois de criar a tabela, popular com POST /fictcred/v1/api/estatisticas/reconstruir.
+CREATE TABLE IF NOT EXISTS estatistica_diaria (
+    dia DATE NOT NULL,
+    status SMALLINT NOT NULL,
+    quantidade BIGINT NOT NULL,
+    valor_total NUMERIC(38, 2),
+    PRIMARY KEY (dia, status)
+);
@@ -0,0 +1,7 @@
+-- Razão de exposição por cliente usado na avaliação das propostas.
+-- Clientes sem linha aqui são inicializados pela aplicação a partir das propostas aprovadas.
+CREATE TABLE IF NOT EXISTS exposicao_cliente (
+    cliente_id BIGINT PRIMARY KEY REFERENCES cliente (id),
+    total_aprovado NUMERIC(38, 2),
+    propostas_abertas INTEGER NOT NULL
+);
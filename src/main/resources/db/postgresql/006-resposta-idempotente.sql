@@ -0,0 +1,17 @@
+-- Respostas por Idempotency-Key, usadas com fictcred.idempotencia.armazem=banco.
+-- Linhas vencidas são removidas periodicamente pela aplicação.
+CREATE TABLE IF NOT EXISTS resposta_idempotente (
+    chave VARCHAR(255) PRIMARY KEY,
+    hash_requisicao VARCHAR(64),
+    reserva VARCHAR(36),
+    status INTEGER NOT NULL,
+    content_type VARCHAR(255),
+    location VARCHAR(255),
+    corpo BYTEA,
+    expira_em TIMESTAMP WITH TIME ZONE
+);
+
+-- Requisição dona da reserva; só ela conclui ou libera a chave (bases criadas antes da coluna)
+ALTER TABLE resposta_idempotente ADD COLUMN IF NOT EXISTS reserva VARCHAR(36);
+
+CREATE INDEX IF NOT EXISTS idx_resposta_idempotente_expiracao ON resposta_idempotente (expira_em);
@@ -0,0 +1,5 @@
+-- Versões para concorrência otimista e ETags: do cliente, de cada proposta e da lista de propostas do cliente.
+-- Linhas existentes começam na versão 0.
+ALTER TABLE cliente ADD COLUMN IF NOT EXISTS versao BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE proposta_credito ADD COLUMN IF NOT EXISTS versao BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE exposicao_cliente ADD COLUMN IF NOT EXISTS versao_propostas BIGINT NOT NULL DEFAULT 0;
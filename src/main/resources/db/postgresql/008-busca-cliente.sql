@@ -0,0 +1,20 @@
+-- Busca de clientes por nome, CPF e faixa de renda.
+-- nome_busca guarda o nome sem acentos, em minúsculas e com espaços simples (mantido pela aplicação).
+-- A collation "C" faz o índice B-tree servir tanto à faixa do prefixo quanto ao ORDER BY nome_busca, id.
+CREATE EXTENSION IF NOT EXISTS unaccent;
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE cliente ADD COLUMN IF NOT EXISTS nome_busca VARCHAR(255) COLLATE "C";
+
+UPDATE cliente
+SET nome_busca = lower(unaccent(regexp_replace(btrim(nome), '\s+', ' ', 'g')))
+WHERE nome_busca IS NULL;
+
+-- Prefixo do nome, ordenação e paginação por cursor
+CREATE INDEX IF NOT EXISTS idx_cliente_nome_busca ON cliente (nome_busca, id);
+-- Trecho do nome (contem=true): like '%trecho%' atendido pelo índice de trigramas
+CREATE INDEX IF NOT EXISTS idx_cliente_nome_busca_trgm ON cliente USING gin (nome_busca gin_trgm_ops);
+-- Faixa de renda
+CREATE INDEX IF NOT EXISTS idx_cliente_renda_mensal ON cliente (renda_mensal, id);
+
+ANALYZE cliente;
@@ -0,0 +1,10 @@
+-- Índices da consulta de propostas (GET /proposta-cliente/busca), ordenada por data_criacao, id decrescentes.
+-- CONCURRENTLY não bloqueia as gravações durante a criação; execute fora de uma transação (psql em autocommit).
+-- status com período: o índice entrega as linhas já na ordem da paginação
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_proposta_credito_status_data ON proposta_credito (status, data_criacao, id);
+-- Só período, ou nenhum filtro seletivo: varredura do índice na ordem da paginação
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_proposta_credito_data ON proposta_credito (data_criacao, id);
+-- status com faixa de valor e sem período (ex.: reprovadas acima de um valor em todo o histórico)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_proposta_credito_status_valor ON proposta_credito (status, valor_solicitado);
+
+ANALYZE proposta_credito;
@@ -0,0 +1,129 @@
+-- Particionamento de proposta_credito por mês de data_criacao e arquivo das propostas antigas.
+-- Cada partição tem seus próprios índices, pequenos: inserções e consultas recentes não passam mais
+-- pelos índices do histórico inteiro, e o arquivamento desanexa uma partição inteira em vez de apagar linhas.
+-- Executar numa janela de manutenção: a tabela é copiada para a nova estrutura dentro de uma transação.
+BEGIN;
+
+ALTER TABLE proposta_credito RENAME TO proposta_credito_antiga;
+ALTER INDEX IF EXISTS idx_proposta_credito_status_data RENAME TO idx_proposta_credito_antiga_status_data;
+ALTER INDEX IF EXISTS idx_proposta_credito_data RENAME TO idx_proposta_credito_antiga_data;
+ALTER INDEX IF EXISTS idx_proposta_credito_status_valor RENAME TO idx_proposta_credito_antiga_status_valor;
+
+-- A chave primária de uma tabela particionada precisa conter a coluna de partição; a unicidade do id
+-- continua garantida pela sequência proposta_credito_seq
+CREATE TABLE proposta_credito (
+    id BIGINT NOT NULL,
+    valor_solicitado NUMERIC(38, 2),
+    numero_parcelas INTEGER NOT NULL,
+    status SMALLINT,
+    data_criacao TIMESTAMP(6) NOT NULL,
+    regra_reprovacao VARCHAR(255),
+    versao BIGINT NOT NULL DEFAULT 0,
+    cliente_id BIGINT REFERENCES cliente (id),
+    PRIMARY KEY (id, data_criacao)
+) PARTITION BY RANGE (data_criacao);
+
+-- Recebe o que cair fora das partições mensais; deve ficar vazia enquanto as partições futuras forem
+-- criadas com antecedência (uma partição nova não pode cobrir linhas que já estão aqui)
+CREATE TABLE proposta_credito_padrao PARTITION OF proposta_credito DEFAULT;
+
+-- Criados na tabela particionada, valem para todas as partições, atuais e futuras
+CREATE INDEX idx_proposta_credito_cliente ON proposta_credito (cliente_id, id);
+CREATE INDEX idx_proposta_credito_status_data ON proposta_credito (status, data_criacao, id);
+CREATE INDEX idx_proposta_credito_data ON proposta_credito (data_criacao, id);
+CREATE INDEX idx_proposta_credito_status_valor ON proposta_credito (status, valor_solicitado);
+
+-- Uma partição por mês entre inicio e fim (proposta_credito_pAAAAMM); as existentes são mantidas.
+-- Chamada pelo arquivamento da aplicação para manter os próximos meses criados
+CREATE OR REPLACE FUNCTION criar_particoes_proposta(inicio DATE, fim DATE) RETURNS INTEGER AS $$
+DECLARE
+    mes DATE := date_trunc('month', inicio);
+    nome TEXT;
+    criadas INTEGER := 0;
+BEGIN
+    WHILE mes < fim LOOP
+        nome := 'proposta_credito_p' || to_char(mes, 'YYYYMM');
+        IF to_regclass(nome) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF proposta_credito FOR VALUES FROM (%L) TO (%L)',
+                           nome, mes, mes + INTERVAL '1 month');
+            criadas := criadas + 1;
+        END IF;
+        mes := mes + INTERVAL '1 month';
+    END LOOP;
+    RETURN criadas;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Arquivo das propostas decididas há mais que a retenção: só recebe inserções em lote, então as páginas
+-- vão cheias (fillfactor 100) e há apenas os índices das leituras que caem no arquivo
+CREATE TABLE IF NOT EXISTS proposta_credito_arquivo (
+    id BIGINT PRIMARY KEY,
+    valor_solicitado NUMERIC(38, 2),
+    numero_parcelas INTEGER NOT NULL,
+    status SMALLINT,
+    data_criacao TIMESTAMP(6),
+    regra_reprovacao VARCHAR(255),
+    versao BIGINT,
+    data_arquivamento TIMESTAMP(6),
+    cliente_id BIGINT REFERENCES cliente (id)
+) WITH (fillfactor = 100);
+
+CREATE INDEX IF NOT EXISTS idx_proposta_arquivo_cliente ON proposta_credito_arquivo (cliente_id, data_criacao);
+CREATE INDEX IF NOT EXISTS idx_proposta_arquivo_data ON proposta_credito_arquivo (data_criacao, id);
+
+-- Move para o arquivo as partições mensais que terminam até limite: a partição é desanexada (sem
+-- varrer a tabela principal), copiada e removida. Um mês com propostas ainda pendentes continua anexado:
+-- só as decididas são copiadas e apagadas da partição dele, e ela é desanexada numa execução posterior,
+-- quando não restarem pendentes (devolvê-las a proposta_credito as levaria para a partição padrão).
+-- Retorna o número de propostas arquivadas
+CREATE OR REPLACE FUNCTION arquivar_particoes_proposta(limite TIMESTAMP) RETURNS BIGINT AS $$
+DECLARE
+    particao RECORD;
+    pendentes BOOLEAN;
+    copiadas BIGINT;
+    total BIGINT := 0;
+BEGIN
+    FOR particao IN
+        SELECT filha.relname AS nome
+        FROM pg_inherits
+        JOIN pg_class filha ON filha.oid = pg_inherits.inhrelid
+        WHERE pg_inherits.inhparent = 'proposta_credito'::regclass
+          AND filha.relname ~ '^proposta_credito_p[0-9]{6}$'
+          AND to_date(substring(filha.relname FROM 19), 'YYYYMM') + INTERVAL '1 month' <= limite
+        ORDER BY filha.relname
+    LOOP
+        -- status 2 = PENDENTE (gravado pelo ordinal)
+        EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE status = 2)', particao.nome) INTO pendentes;
+        IF NOT pendentes THEN
+            EXECUTE format('ALTER TABLE proposta_credito DETACH PARTITION %I', particao.nome);
+        END IF;
+        EXECUTE format('INSERT INTO proposta_credito_arquivo (id, valor_solicitado, numero_parcelas, status, '
+                       'data_criacao, regra_reprovacao, versao, data_arquivamento, cliente_id) '
+                       'SELECT id, valor_solicitado, numero_parcelas, status, data_criacao, regra_reprovacao, '
+                       'versao, now(), cliente_id FROM %I WHERE status IS DISTINCT FROM 2', particao.nome);
+        GET DIAGNOSTICS copiadas = ROW_COUNT;
+        IF pendentes THEN
+            EXECUTE format('DELETE FROM %I WHERE status IS DISTINCT FROM 2', particao.nome);
+        ELSE
+            EXECUTE format('DROP TABLE %I', particao.nome);
+        END IF;
+        total := total + copiadas;
+    END LOOP;
+    RETURN total;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Partições do mês mais antigo até três meses à frente, e cópia das linhas existentes
+SELECT criar_particoes_proposta(
+    COALESCE((SELECT MIN(data_criacao) FROM proposta_credito_antiga), now())::DATE,
+    (date_trunc('month', now()) + INTERVAL '4 months')::DATE);
+
+INSERT INTO proposta_credito (id, valor_solicitado, numero_parcelas, status, data_criacao, regra_reprovacao, versao, cliente_id)
+SELECT id, valor_solicitado, numero_parcelas, status, COALESCE(data_criacao, now()), regra_reprovacao, versao, cliente_id
+FROM proposta_credito_antiga;
+
+COMMIT;
+
+ANALYZE proposta_credito;
+
+-- Depois de conferir a cópia: DROP TABLE proposta_credito_antiga;
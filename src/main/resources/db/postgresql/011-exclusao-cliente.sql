@@ -0,0 +1,19 @@
+-- Exclusão lógica de clientes: a aplicação marca data_exclusao e as consultas de Cliente passam a
+-- ignorar a linha; a purga remove depois as propostas em lotes e, por fim, o próprio cliente.
+ALTER TABLE cliente ADD COLUMN IF NOT EXISTS data_exclusao TIMESTAMP(6);
+
+-- Uma linha por exclusão, mantida como histórico depois da purga (sem chave estrangeira para cliente)
+CREATE TABLE IF NOT EXISTS exclusao_cliente (
+    cliente_id BIGINT PRIMARY KEY,
+    data_solicitacao TIMESTAMP(6),
+    propostas_removidas BIGINT NOT NULL DEFAULT 0,
+    data_conclusao TIMESTAMP(6)
+);
+
+-- A purga só procura as exclusões pendentes, que são poucas
+CREATE INDEX IF NOT EXISTS idx_exclusao_cliente_pendente ON exclusao_cliente (data_solicitacao)
+    WHERE data_conclusao IS NULL;
+
+-- Lotes da purga e contagem das restantes por cliente. Já criado por 010-particionamento-proposta.sql
+-- quando a tabela é particionada; o arquivo usa idx_proposta_arquivo_cliente
+CREATE INDEX IF NOT EXISTS idx_proposta_credito_cliente ON proposta_credito (cliente_id, id);
@@ -0,0 +1,19 @@
+-- Relay do outbox em várias instâncias: a numeração é feita com a linha de sequencia_eventos bloqueada
+-- e o envio acontece depois do commit; publicado marca os eventos já entregues ao destino.
+ALTER TABLE evento_decisao ADD COLUMN IF NOT EXISTS publicado BOOLEAN NOT NULL DEFAULT FALSE;
+ALTER TABLE evento_decisao ADD COLUMN IF NOT EXISTS versao_cliente BIGINT NOT NULL DEFAULT 0;
+
+-- Antes desta versão só recebiam sequência os eventos já publicados
+UPDATE evento_decisao SET publicado = TRUE WHERE sequencia IS NOT NULL AND NOT publicado;
+
+CREATE INDEX IF NOT EXISTS idx_evento_decisao_nao_publicado ON evento_decisao (sequencia)
+    WHERE sequencia IS NOT NULL AND NOT publicado;
+
+CREATE TABLE IF NOT EXISTS sequencia_eventos (
+    id INTEGER PRIMARY KEY,
+    ultima BIGINT NOT NULL
+);
+
+INSERT INTO sequencia_eventos (id, ultima)
+SELECT 1, coalesce(max(sequencia), 0) FROM evento_decisao
+ON CONFLICT (id) DO NOTHING;
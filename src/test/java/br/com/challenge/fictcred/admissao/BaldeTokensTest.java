@@ -0,0 +1,84 @@
+package br.com.challenge.fictcred.admissao;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BaldeTokensTest {
+
+    private static final long SEGUNDO = 1_000_000_000L;
+
+    @Test
+    void tentarConsumir_DevePermitirRajadaEDepoisATaxa() {
+        BaldeTokens balde = new BaldeTokens(10, 5, 0);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, balde.tentarConsumir(0));
+        }
+        long espera = balde.tentarConsumir(0);
+        assertEquals(SEGUNDO / 10, espera);
+
+        // Um token a cada 100 ms
+        assertEquals(0, balde.tentarConsumir(espera));
+        assertTrue(balde.tentarConsumir(espera) > 0);
+    }
+
+    @Test
+    void tentarConsumir_BaldeOciosoNaoDeveAcumularAlemDaRajada() {
+        BaldeTokens balde = new BaldeTokens(10, 2, 0);
+
+        long depois = 60 * SEGUNDO;
+        assertEquals(0, balde.tentarConsumir(depois));
+        assertEquals(0, balde.tentarConsumir(depois));
+        assertTrue(balde.tentarConsumir(depois) > 0);
+    }
+
+    @Test
+    void tentarConsumir_ConcorrenteNaoDeveAdmitirMaisQueARajada() throws Exception {
+        BaldeTokens balde = new BaldeTokens(1, 100, 0);
+        AtomicInteger admitidas = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int t = 0; t < 8; t++) {
+                executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        if (balde.tentarConsumir(0) == 0) {
+                            admitidas.incrementAndGet();
+                        }
+                    }
+                });
+            }
+        }
+
+        assertEquals(100, admitidas.get());
+    }
+
+    @Test
+    void ajustar_LimiteDeveCairComEsperaAltaESubirComUsoAlto() {
+        LimiteAdaptativo limite = new LimiteAdaptativo(10, 2, 12, 5_000_000);
+
+        limite.ajustar(50_000_000);
+        assertEquals(9, limite.getLimite());
+
+        // Sem demanda o limite não cresce
+        limite.ajustar(0);
+        assertEquals(9, limite.getLimite());
+
+        for (int i = 0; i < 9; i++) {
+            assertTrue(limite.tentarAdquirir());
+        }
+        assertFalse(limite.tentarAdquirir());
+        limite.ajustar(0);
+        assertEquals(10, limite.getLimite());
+        assertTrue(limite.tentarAdquirir());
+
+        for (int i = 0; i < 30; i++) {
+            limite.ajustar(50_000_000);
+        }
+        assertEquals(2, limite.getLimite());
+    }
+}
@@ -0,0 +1,116 @@
+package br.com.challenge.fictcred.admissao;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ControleAdmissaoFilterTest {
+
+    private SimpleMeterRegistry registry;
+    private LimiteAdaptativo limite;
+    private ControleAdmissaoFilter filtro;
+    private AtomicInteger executadas;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        limite = new LimiteAdaptativo(1, 1, 10, 5_000_000);
+        // Taxas baixas para que o balde não reponha tokens durante o teste
+        filtro = new ControleAdmissaoFilter(new BaldesPorChave(0.01, 3, 100), new BaldesPorChave(0.01, 2, 100), limite, registry);
+        executadas = new AtomicInteger();
+    }
+
+    @Test
+    void doFilter_DeveLimitarPropostasPorClienteSemAfetarOutros() throws Exception {
+        assertEquals(200, executar(post("/fictcred/v1/api/proposta-cliente/1")).getStatus());
+        assertEquals(200, executar(post("/fictcred/v1/api/proposta-cliente/1/assincrona")).getStatus());
+        MockHttpServletResponse rejeitada = executar(post("/fictcred/v1/api/proposta-cliente/1"));
+
+        assertEquals(429, rejeitada.getStatus());
+        assertNotNull(rejeitada.getHeader("Retry-After"));
+        assertEquals(200, executar(post("/fictcred/v1/api/proposta-cliente/2")).getStatus());
+        // Leituras do mesmo cliente não consomem a taxa de criação
+        assertEquals(200, executar(new MockHttpServletRequest("GET", "/fictcred/v1/api/proposta-cliente/cliente/1")).getStatus());
+        assertEquals(4, executadas.get());
+        assertEquals(1.0, registry.get(ControleAdmissaoFilter.METRICA_REJEITADAS).tag("motivo", "cliente").counter().count());
+    }
+
+    @Test
+    void doFilter_DeveLimitarPorApiKey() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, executar(comApiKey("parceiro-a")).getStatus());
+        }
+
+        assertEquals(429, executar(comApiKey("parceiro-a")).getStatus());
+        assertEquals(200, executar(comApiKey("parceiro-b")).getStatus());
+        assertEquals(1.0, registry.get(ControleAdmissaoFilter.METRICA_REJEITADAS).tag("motivo", "api-key").counter().count());
+    }
+
+    @Test
+    void doFilter_DeveRecusarComServiceUnavailableQuandoLimiteGlobalEsgotado() throws Exception {
+        CountDownLatch dentro = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        Thread ocupante = Thread.ofVirtual().start(() -> {
+            try {
+                filtro.doFilter(new MockHttpServletRequest("GET", "/fictcred/v1/api/cliente"), new MockHttpServletResponse(), (req, res) -> {
+                    dentro.countDown();
+                    try {
+                        liberar.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(dentro.await(5, TimeUnit.SECONDS));
+
+        MockHttpServletResponse rejeitada = executar(new MockHttpServletRequest("GET", "/fictcred/v1/api/cliente"));
+
+        assertEquals(503, rejeitada.getStatus());
+        assertEquals("1", rejeitada.getHeader("Retry-After"));
+        assertEquals(1.0, registry.get(ControleAdmissaoFilter.METRICA_REJEITADAS).tag("motivo", "global").counter().count());
+
+        liberar.countDown();
+        ocupante.join();
+        assertEquals(0, limite.getEmUso());
+    }
+
+    @Test
+    void doFilter_DeveOcuparLimiteGlobalAteARespostaTransmitidaTerminar() throws Exception {
+        MockHttpServletRequest listagem = new MockHttpServletRequest("GET", "/fictcred/v1/api/cliente");
+        listagem.setAsyncSupported(true);
+
+        filtro.doFilter(listagem, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+        assertEquals(1, limite.getEmUso());
+        assertEquals(503, executar(new MockHttpServletRequest("GET", "/fictcred/v1/api/cliente")).getStatus());
+        listagem.getAsyncContext().complete();
+        assertEquals(0, limite.getEmUso());
+    }
+
+    private MockHttpServletRequest post(String uri) {
+        return new MockHttpServletRequest("POST", uri);
+    }
+
+    private MockHttpServletRequest comApiKey(String apiKey) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/fictcred/v1/api/cliente");
+        request.addHeader(ControleAdmissaoFilter.CABECALHO_API_KEY, apiKey);
+        return request;
+    }
+
+    private MockHttpServletResponse executar(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filtro.doFilter(request, response, (req, res) -> executadas.incrementAndGet());
+        return response;
+    }
+}
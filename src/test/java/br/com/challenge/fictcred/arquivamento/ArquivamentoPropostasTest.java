@@ -0,0 +1,131 @@
+package br.com.challenge.fictcred.arquivamento;
+
+import br.com.challenge.fictcred.dto.FiltroBuscaPropostaDTO;
+import br.com.challenge.fictcred.dto.PropostaCreditoListDTO;
+import br.com.challenge.fictcred.enums.StatusParcela;
+import br.com.challenge.fictcred.model.Cliente;
+import br.com.challenge.fictcred.model.PropostaCredito;
+import br.com.challenge.fictcred.repository.ClienteRepository;
+import br.com.challenge.fictcred.repository.PropostaCreditoArquivadaRepository;
+import br.com.challenge.fictcred.repository.PropostaCreditoRepository;
+import br.com.challenge.fictcred.service.EstatisticaService;
+import br.com.challenge.fictcred.service.PropostaCreditoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ArquivamentoPropostasTest {
+
+    @Autowired
+    private ArquivamentoPropostas arquivamentoPropostas;
+
+    @Autowired
+    private PropostaCreditoService propostaCreditoService;
+
+    @Autowired
+    private PropostaCreditoRepository propostaCreditoRepository;
+
+    @Autowired
+    private PropostaCreditoArquivadaRepository propostaCreditoArquivadaRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private EstatisticaService estatisticaService;
+
+    private Cliente cliente;
+
+    @BeforeEach
+    void setUp() {
+        cliente = new Cliente();
+        cliente.setNome("Cliente Arquivo");
+        cliente.setCpf(String.valueOf(System.nanoTime()));
+        cliente.setRendaMensal(new BigDecimal("5000.00"));
+        cliente.setDataCadastro(new Date());
+        cliente = clienteRepository.save(cliente);
+    }
+
+    @Test
+    void executar_DeveArquivarDecididasAntigasEContinuarVisivelNasConsultas() {
+        PropostaCredito maisAntiga = salvar(StatusParcela.APROVADA, "987001", dias(-500));
+        PropostaCredito antiga = salvar(StatusParcela.REPROVADA, "987002", dias(-400));
+        PropostaCredito pendente = salvar(StatusParcela.PENDENTE, "987003", dias(-400));
+        PropostaCredito recente = salvar(StatusParcela.APROVADA, "987004", dias(-1));
+        PropostaCredito pendenteMaisAntiga = salvar(StatusParcela.PENDENTE, "987005", dias(-600));
+
+        assertTrue(arquivamentoPropostas.executar(Instant.now()) >= 2);
+
+        assertTrue(propostaCreditoArquivadaRepository.existsById(maisAntiga.getId()));
+        assertTrue(propostaCreditoArquivadaRepository.existsById(antiga.getId()));
+        assertFalse(propostaCreditoRepository.existsById(antiga.getId()));
+        // Pendentes ainda serão avaliadas, então ficam na tabela principal mesmo antigas
+        assertTrue(propostaCreditoRepository.existsById(pendente.getId()));
+        assertTrue(propostaCreditoRepository.existsById(pendenteMaisAntiga.getId()));
+        assertTrue(propostaCreditoRepository.existsById(recente.getId()));
+
+        // As consultas não mudam para quem as usa
+        assertEquals(StatusParcela.REPROVADA, propostaCreditoService.buscarPorId(antiga.getId()).orElseThrow().getStatus());
+        List<Long> listagem = propostaCreditoService.listarPorCliente(cliente.getId(),
+                PageRequest.of(0, 10, Sort.by("id"))).map(PropostaCreditoListDTO::getId).getContent();
+        assertEquals(List.of(maisAntiga.getId(), antiga.getId(), pendente.getId(), recente.getId(),
+                pendenteMaisAntiga.getId()), listagem);
+
+        FiltroBuscaPropostaDTO filtro = new FiltroBuscaPropostaDTO(null, null, null, new BigDecimal("987000"),
+                new BigDecimal("987010"), null, null);
+        List<Long> primeira = propostaCreditoService.buscar(filtro, null, 3).getItens().stream()
+                .map(PropostaCreditoListDTO::getId).toList();
+        Long cursor = primeira.get(2);
+        List<Long> segunda = propostaCreditoService.buscar(filtro, cursor, 3).getItens().stream()
+                .map(PropostaCreditoListDTO::getId).toList();
+        assertEquals(List.of(recente.getId(), pendente.getId(), antiga.getId()), primeira);
+        // A pendente mais antiga que as arquivadas vem depois delas, e não junto com as da tabela principal
+        assertEquals(List.of(maisAntiga.getId(), pendenteMaisAntiga.getId()), segunda);
+
+        // Sem nada novo a arquivar, uma nova execução não move nada do cliente
+        arquivamentoPropostas.executar(Instant.now());
+        assertTrue(propostaCreditoRepository.existsById(recente.getId()));
+    }
+
+    @Test
+    void reconstruir_DeveContarPropostasArquivadasDentroDoPeriodo() {
+        PropostaCredito proposta = salvar(StatusParcela.APROVADA, "987100", dias(-360));
+        estatisticaService.reconstruir();
+        long antes = estatisticaService.consultar(EstatisticaService.DIAS_MAXIMO).getAprovadas();
+
+        // Dez dias depois a proposta já passou da retenção, mas continua dentro do período das estatísticas
+        arquivamentoPropostas.executar(Instant.now().plus(10, ChronoUnit.DAYS));
+        assertTrue(propostaCreditoArquivadaRepository.existsById(proposta.getId()));
+        estatisticaService.reconstruir();
+
+        assertEquals(antes, estatisticaService.consultar(EstatisticaService.DIAS_MAXIMO).getAprovadas());
+    }
+
+    private PropostaCredito salvar(StatusParcela status, String valor, Date dataCriacao) {
+        PropostaCredito proposta = new PropostaCredito();
+        proposta.setCliente(cliente);
+        proposta.setStatus(status);
+        proposta.setValorSolicitado(new BigDecimal(valor));
+        proposta.setNumeroParcelas(12);
+        proposta.setDataCriacao(dataCriacao);
+        return propostaCreditoRepository.save(proposta);
+    }
+
+    private Date dias(int dias) {
+        return Date.from(Instant.now().plus(dias, ChronoUnit.DAYS));
+    }
+}
@@ -0,0 +1,154 @@
+package br.com.challenge.fictcred.benchmark;
+
+import br.com.challenge.fictcred.FictcredApplication;
+import br.com.challenge.fictcred.cache.ClienteCache;
+import br.com.challenge.fictcred.model.Cliente;
+import br.com.challenge.fictcred.repository.ClienteRepository;
+import br.com.challenge.fictcred.service.ClienteService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Compara os comandos enviados ao banco por atualização: carregar a entidade e salvar (findById + save,
+// com a verificação de versão do Hibernate) contra o UPDATE condicional do ClienteService, com e sem o
+// cache de segundo nível. Os comandos são contados na conexão JDBC, então o UPDATE feito fora do
+// Hibernate também entra na conta.
+// Executar com: mvn test -Pbenchmark -Dtest=AtualizacaoClienteBenchmark
+// Parâmetros: -Dbenchmark.operacoes=20000 -Dbenchmark.clientes=200
+@Tag("benchmark")
+class AtualizacaoClienteBenchmark {
+
+    private static final int OPERACOES = Integer.getInteger("benchmark.operacoes", 20_000);
+    private static final int CLIENTES = Integer.getInteger("benchmark.clientes", 200);
+    private static final Set<String> COMANDOS_JDBC = Set.of("prepareStatement", "prepareCall", "createStatement");
+
+    private final AtomicLong comandos = new AtomicLong();
+
+    @Test
+    void compararCarregarESalvarComUpdateCondicional() {
+        Resultado carregarESalvar = executar(false, false);
+        Resultado updateCondicional = executar(true, false);
+        Resultado carregarESalvarComCache = executar(false, true);
+        Resultado updateCondicionalComCache = executar(true, true);
+
+        System.out.printf("%n%-20s %-8s %12s %14s %10s%n", "atualização", "cache L2", "comandos", "comandos/op", "ops/s");
+        carregarESalvar.imprimir("findById + save", "não");
+        updateCondicional.imprimir("update condicional", "não");
+        carregarESalvarComCache.imprimir("findById + save", "sim");
+        updateCondicionalComCache.imprimir("update condicional", "sim");
+
+        // Sem o cache de segundo nível o merge do save relê a linha; com ele, a releitura sai do cache
+        assertTrue(updateCondicional.comandos < carregarESalvar.comandos,
+                "o UPDATE condicional deveria ir menos vezes ao banco");
+        assertTrue(updateCondicionalComCache.comandos <= carregarESalvarComCache.comandos,
+                "o UPDATE condicional não deveria ir mais vezes ao banco");
+    }
+
+    private Resultado executar(boolean condicional, boolean cacheSegundoNivel) {
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(FictcredApplication.class)
+                .profiles("test")
+                .properties(
+                        "spring.main.web-application-type=none",
+                        "logging.level.root=WARN")
+                .initializers(inicializando -> inicializando.getBeanFactory().addBeanPostProcessor(contarComandos()))
+                .run("--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + cacheSegundoNivel,
+                        "--spring.jpa.properties.hibernate.cache.use_query_cache=" + cacheSegundoNivel)) {
+            ClienteRepository clienteRepository = contexto.getBean(ClienteRepository.class);
+            ClienteService clienteService = contexto.getBean(ClienteService.class);
+            ClienteCache clienteCache = contexto.getBean(ClienteCache.class);
+
+            List<Long> ids = new ArrayList<>(CLIENTES);
+            for (int i = 0; i < CLIENTES; i++) {
+                Cliente cliente = new Cliente();
+                cliente.setNome("Cliente " + i);
+                cliente.setCpf(String.format("%011d", i));
+                cliente.setRendaMensal(new BigDecimal("5000.00"));
+                cliente.setDataCadastro(new Date());
+                ids.add(clienteRepository.save(cliente).getId());
+            }
+
+            SplittableRandom aleatorio = new SplittableRandom(42);
+            comandos.set(0);
+            long inicio = System.nanoTime();
+            for (int i = 0; i < OPERACOES; i++) {
+                Long clienteId = ids.get(aleatorio.nextInt(ids.size()));
+                BigDecimal renda = new BigDecimal(5000 + i);
+                if (condicional) {
+                    Cliente alteracoes = new Cliente();
+                    alteracoes.setRendaMensal(renda);
+                    clienteService.atualizar(clienteId, alteracoes, null);
+                } else {
+                    // O caminho anterior do ClienteService.atualizar
+                    Cliente cliente = clienteRepository.findById(clienteId).orElseThrow();
+                    cliente.setRendaMensal(renda);
+                    clienteRepository.save(cliente);
+                    clienteCache.invalidar(clienteId);
+                }
+            }
+            return new Resultado(comandos.get(), System.nanoTime() - inicio);
+        }
+    }
+
+    private BeanPostProcessor contarComandos() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String nome) {
+                if (!(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+                return new DelegatingDataSource(dataSource) {
+                    @Override
+                    public Connection getConnection() throws SQLException {
+                        return contar(super.getConnection());
+                    }
+
+                    @Override
+                    public Connection getConnection(String usuario, String senha) throws SQLException {
+                        return contar(super.getConnection(usuario, senha));
+                    }
+                };
+            }
+        };
+    }
+
+    private Connection contar(Connection conexao) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, metodo, argumentos) -> {
+                    if (COMANDOS_JDBC.contains(metodo.getName())) {
+                        comandos.incrementAndGet();
+                    }
+                    try {
+                        return metodo.invoke(conexao, argumentos);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private record Resultado(long comandos, long duracaoNanos) {
+
+        void imprimir(String modo, String cache) {
+            System.out.printf("%-20s %-8s %12d %14.2f %10.0f%n", modo, cache, comandos, (double) comandos / OPERACOES,
+                    OPERACOES / (duracaoNanos / 1e9));
+        }
+    }
+}
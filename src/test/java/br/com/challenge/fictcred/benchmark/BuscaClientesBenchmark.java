@@ -0,0 +1,118 @@
+package br.com.challenge.fictcred.benchmark;
+
+import br.com.challenge.fictcred.FictcredApplication;
+import br.com.challenge.fictcred.dto.ClienteListDTO;
+import br.com.challenge.fictcred.dto.FiltroBuscaClienteDTO;
+import br.com.challenge.fictcred.model.Cliente;
+import br.com.challenge.fictcred.repository.ClienteRepository;
+import br.com.challenge.fictcred.service.ClienteService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Latência da busca indexada de clientes contra a abordagem anterior (ler todos e filtrar na aplicação).
+// Executar com: mvn test -Pbenchmark -Dtest=BuscaClientesBenchmark
+// Parâmetros: -Dbenchmark.clientes=500000 -Dbenchmark.buscas=500
+@Tag("benchmark")
+class BuscaClientesBenchmark {
+
+    private static final int CLIENTES = Integer.getInteger("benchmark.clientes", 500_000);
+    private static final int BUSCAS = Integer.getInteger("benchmark.buscas", 500);
+    private static final String[] PRENOMES = {"Ana", "Bruno", "Carla", "Diego", "Elisa", "Fábio", "Gisele", "Hugo",
+            "Íris", "João", "Karen", "Lucas", "Márcia", "Nilo", "Otávio", "Paula", "Renata", "Sérgio", "Tânia", "Vítor"};
+    private static final String[] SOBRENOMES = {"Silva", "Souza", "Oliveira", "Santos", "Pereira", "Lima", "Costa",
+            "Ribeiro", "Almeida", "Gomes"};
+
+    @Test
+    void compararBuscaIndexadaComFiltroNaAplicacao() {
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(FictcredApplication.class)
+                .profiles("test")
+                .properties("spring.main.web-application-type=none", "logging.level.root=WARN")
+                .run("--fictcred.admissao.habilitada=false", "--spring.jpa.show-sql=false")) {
+            popular(contexto.getBean(JdbcTemplate.class));
+            ClienteService clienteService = contexto.getBean(ClienteService.class);
+            ClienteRepository clienteRepository = contexto.getBean(ClienteRepository.class);
+
+            SplittableRandom aleatorio = new SplittableRandom(7);
+            long[] indexada = new long[BUSCAS];
+            for (int i = 0; i < BUSCAS; i++) {
+                FiltroBuscaClienteDTO filtro = filtroAleatorio(aleatorio);
+                long inicio = System.nanoTime();
+                clienteService.buscar(filtro, null, ClienteService.TAMANHO_PAGINA_PADRAO);
+                indexada[i] = System.nanoTime() - inicio;
+            }
+
+            // Poucas repetições: cada uma lê a tabela inteira
+            int repeticoes = Math.max(1, BUSCAS / 100);
+            long[] naAplicacao = new long[repeticoes];
+            for (int i = 0; i < repeticoes; i++) {
+                FiltroBuscaClienteDTO filtro = filtroAleatorio(aleatorio);
+                String prefixo = Cliente.normalizarNome(filtro.getNome());
+                long inicio = System.nanoTime();
+                List<ClienteListDTO> encontrados = new ArrayList<>();
+                clienteService.percorrerTodos(null, cliente -> {
+                    if (Cliente.normalizarNome(cliente.getNome()).startsWith(prefixo)
+                            && encontrados.size() < ClienteService.TAMANHO_PAGINA_PADRAO) {
+                        encontrados.add(cliente);
+                    }
+                });
+                naAplicacao[i] = System.nanoTime() - inicio;
+            }
+
+            System.out.printf("%n%d clientes (%d no banco)%n", CLIENTES, clienteRepository.count());
+            System.out.printf("%-16s %10s %10s %10s%n", "busca", "p50 (ms)", "p99 (ms)", "máx (ms)");
+            imprimir("indexada", indexada);
+            imprimir("na aplicação", naAplicacao);
+
+            assertTrue(percentil(indexada, 0.5) < percentil(naAplicacao, 0.5),
+                    "a busca indexada deveria ser mais rápida que filtrar todos os clientes");
+        }
+    }
+
+    private FiltroBuscaClienteDTO filtroAleatorio(SplittableRandom aleatorio) {
+        String nome = PRENOMES[aleatorio.nextInt(PRENOMES.length)] + " "
+                + SOBRENOMES[aleatorio.nextInt(SOBRENOMES.length)].substring(0, 2);
+        BigDecimal rendaMinima = aleatorio.nextBoolean() ? new BigDecimal(aleatorio.nextInt(1_000, 10_000)) : null;
+        return new FiltroBuscaClienteDTO(nome, false, null, rendaMinima, null);
+    }
+
+    private void popular(JdbcTemplate jdbcTemplate) {
+        Timestamp agora = new Timestamp(System.currentTimeMillis());
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        List<Object[]> lote = new ArrayList<>(5_000);
+        for (int i = 1; i <= CLIENTES; i++) {
+            String nome = PRENOMES[aleatorio.nextInt(PRENOMES.length)] + " "
+                    + SOBRENOMES[aleatorio.nextInt(SOBRENOMES.length)] + " " + i;
+            lote.add(new Object[]{(long) i, nome, Cliente.normalizarNome(nome), String.format("%011d", i),
+                    new BigDecimal(aleatorio.nextInt(1_000, 20_000)), agora});
+            if (lote.size() == 5_000 || i == CLIENTES) {
+                jdbcTemplate.batchUpdate("insert into cliente (id, nome, nome_busca, cpf, renda_mensal, data_cadastro, "
+                        + "versao) values (?, ?, ?, ?, ?, ?, 0)", lote);
+                lote.clear();
+            }
+        }
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private void imprimir(String busca, long[] latencias) {
+        System.out.printf("%-16s %10.2f %10.2f %10.2f%n", busca, percentil(latencias, 0.5) / 1e6,
+                percentil(latencias, 0.99) / 1e6, Arrays.stream(latencias).max().orElse(0) / 1e6);
+    }
+
+    private long percentil(long[] latencias, double percentil) {
+        long[] ordenadas = latencias.clone();
+        Arrays.sort(ordenadas);
+        return ordenadas[(int) Math.min(ordenadas.length - 1, Math.round(percentil * (ordenadas.length - 1)))];
+    }
+}
@@ -0,0 +1,134 @@
+package br.com.challenge.fictcred.benchmark;
+
+import br.com.challenge.fictcred.FictcredApplication;
+import br.com.challenge.fictcred.dto.FiltroBuscaPropostaDTO;
+import br.com.challenge.fictcred.enums.StatusParcela;
+import br.com.challenge.fictcred.service.PropostaCreditoService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Latência da consulta filtrada de propostas com os índices compostos e depois de removê-los.
+// Executar com: mvn test -Pbenchmark -Dtest=BuscaPropostasBenchmark
+// Parâmetros: -Dbenchmark.propostas=2000000 -Dbenchmark.buscas=300 (o volume de produção, 50M, pede PostgreSQL)
+@Tag("benchmark")
+class BuscaPropostasBenchmark {
+
+    private static final int PROPOSTAS = Integer.getInteger("benchmark.propostas", 2_000_000);
+    private static final int BUSCAS = Integer.getInteger("benchmark.buscas", 300);
+    private static final int CLIENTES = Math.max(1, PROPOSTAS / 20);
+    private static final long PERIODO = TimeUnit.DAYS.toMillis(730);
+    private static final String[] INDICES = {"idx_proposta_credito_status_data", "idx_proposta_credito_data",
+            "idx_proposta_credito_status_valor"};
+
+    @Test
+    void compararConsultaComESemIndices() {
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(FictcredApplication.class)
+                .profiles("test")
+                .properties("spring.main.web-application-type=none", "logging.level.root=WARN")
+                .run("--fictcred.admissao.habilitada=false", "--spring.jpa.show-sql=false")) {
+            JdbcTemplate jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+            long agora = System.currentTimeMillis();
+            popular(jdbcTemplate, agora);
+            PropostaCreditoService propostaCreditoService = contexto.getBean(PropostaCreditoService.class);
+
+            long[] comIndices = medir(propostaCreditoService, agora, BUSCAS);
+
+            // Sem índices cada consulta varre a tabela, então bastam poucas repetições
+            for (String indice : INDICES) {
+                jdbcTemplate.execute("drop index " + indice);
+            }
+            jdbcTemplate.execute("ANALYZE");
+            long[] semIndices = medir(propostaCreditoService, agora, Math.max(1, BUSCAS / 30));
+
+            System.out.printf("%n%d propostas de %d clientes%n", PROPOSTAS, CLIENTES);
+            System.out.printf("%-14s %10s %10s %10s%n", "consulta", "p50 (ms)", "p99 (ms)", "máx (ms)");
+            imprimir("com índices", comIndices);
+            imprimir("sem índices", semIndices);
+
+            assertTrue(percentil(comIndices, 0.5) < percentil(semIndices, 0.5),
+                    "a consulta com índices deveria ser mais rápida que a varredura da tabela");
+        }
+    }
+
+    // Mistura os formatos de consulta do back-office: status + período, período sozinho e status + faixa de valor
+    private long[] medir(PropostaCreditoService propostaCreditoService, long agora, int buscas) {
+        SplittableRandom aleatorio = new SplittableRandom(7);
+        long[] latencias = new long[buscas];
+        for (int i = 0; i < buscas; i++) {
+            FiltroBuscaPropostaDTO filtro = filtroAleatorio(aleatorio, agora, i % 3);
+            long inicio = System.nanoTime();
+            propostaCreditoService.buscar(filtro, null, PropostaCreditoService.TAMANHO_PAGINA_PADRAO);
+            latencias[i] = System.nanoTime() - inicio;
+        }
+        return latencias;
+    }
+
+    private FiltroBuscaPropostaDTO filtroAleatorio(SplittableRandom aleatorio, long agora, int formato) {
+        StatusParcela status = StatusParcela.values()[aleatorio.nextInt(StatusParcela.values().length)];
+        Date fim = new Date(agora - aleatorio.nextLong(PERIODO));
+        Date inicio = new Date(fim.getTime() - TimeUnit.DAYS.toMillis(7));
+        return switch (formato) {
+            case 0 -> new FiltroBuscaPropostaDTO(List.of(status), inicio, fim, null, null, null, null);
+            case 1 -> new FiltroBuscaPropostaDTO(null, inicio, fim, null, null, 12, null);
+            default -> {
+                BigDecimal minimo = new BigDecimal(aleatorio.nextInt(1_000, 90_000));
+                yield new FiltroBuscaPropostaDTO(List.of(status), null, null, minimo,
+                        minimo.add(new BigDecimal("500")), null, null);
+            }
+        };
+    }
+
+    private void popular(JdbcTemplate jdbcTemplate, long agora) {
+        Timestamp cadastro = new Timestamp(agora);
+        List<Object[]> lote = new ArrayList<>(5_000);
+        for (int i = 1; i <= CLIENTES; i++) {
+            String nome = "Cliente " + i;
+            lote.add(new Object[]{(long) i, nome, nome.toLowerCase(), String.format("%011d", i),
+                    new BigDecimal("5000.00"), cadastro});
+            if (lote.size() == 5_000 || i == CLIENTES) {
+                jdbcTemplate.batchUpdate("insert into cliente (id, nome, nome_busca, cpf, renda_mensal, data_cadastro, "
+                        + "versao) values (?, ?, ?, ?, ?, ?, 0)", lote);
+                lote.clear();
+            }
+        }
+
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        for (int i = 1; i <= PROPOSTAS; i++) {
+            // Status gravado pelo ordinal
+            lote.add(new Object[]{(long) i, new BigDecimal(aleatorio.nextInt(1_000, 100_000)),
+                    aleatorio.nextInt(1, 61), aleatorio.nextInt(StatusParcela.values().length),
+                    new Timestamp(agora - aleatorio.nextLong(PERIODO)), (long) aleatorio.nextInt(1, CLIENTES + 1)});
+            if (lote.size() == 5_000 || i == PROPOSTAS) {
+                jdbcTemplate.batchUpdate("insert into proposta_credito (id, valor_solicitado, numero_parcelas, status, "
+                        + "data_criacao, cliente_id, versao) values (?, ?, ?, ?, ?, ?, 0)", lote);
+                lote.clear();
+            }
+        }
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private void imprimir(String consulta, long[] latencias) {
+        System.out.printf("%-14s %10.2f %10.2f %10.2f%n", consulta, percentil(latencias, 0.5) / 1e6,
+                percentil(latencias, 0.99) / 1e6, Arrays.stream(latencias).max().orElse(0) / 1e6);
+    }
+
+    private long percentil(long[] latencias, double percentil) {
+        long[] ordenadas = latencias.clone();
+        Arrays.sort(ordenadas);
+        return ordenadas[(int) Math.min(ordenadas.length - 1, Math.round(percentil * (ordenadas.length - 1)))];
+    }
+}
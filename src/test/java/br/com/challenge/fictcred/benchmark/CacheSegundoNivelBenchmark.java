@@ -0,0 +1,110 @@
+package br.com.challenge.fictcred.benchmark;
+
+import br.com.challenge.fictcred.FictcredApplication;
+import br.com.challenge.fictcred.model.Cliente;
+import br.com.challenge.fictcred.model.PropostaCredito;
+import br.com.challenge.fictcred.repository.ClienteRepository;
+import br.com.challenge.fictcred.repository.PropostaCreditoRepository;
+import br.com.challenge.fictcred.service.PropostaCreditoService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Mede idas ao banco numa carga de leitura predominante (90% leituras) com e sem o cache de segundo nível.
+// As leituras usam os repositórios diretamente para não passar pelo ClienteCache da aplicação.
+// Executar com: mvn test -Pbenchmark -Dtest=CacheSegundoNivelBenchmark
+// Parâmetros: -Dbenchmark.operacoes=20000 -Dbenchmark.clientes=200 -Dbenchmark.leituras=90
+@Tag("benchmark")
+class CacheSegundoNivelBenchmark {
+
+    private static final int OPERACOES = Integer.getInteger("benchmark.operacoes", 20_000);
+    private static final int CLIENTES = Integer.getInteger("benchmark.clientes", 200);
+    private static final int PERCENTUAL_LEITURAS = Integer.getInteger("benchmark.leituras", 90);
+    private static final Pageable PAGINA = PageRequest.of(0, 20, Sort.by("id"));
+
+    @Test
+    void compararComESemCacheDeSegundoNivel() {
+        Resultado semCache = executar(false);
+        Resultado comCache = executar(true);
+
+        System.out.printf("%n%-12s %12s %14s %14s %14s %10s%n",
+                "cache", "statements", "statements/op", "hits entidade", "hits consulta", "ops/s");
+        semCache.imprimir("desligado");
+        comCache.imprimir("ligado");
+
+        assertTrue(comCache.statements < semCache.statements,
+                "o cache de segundo nível deveria reduzir as idas ao banco");
+    }
+
+    private Resultado executar(boolean cache) {
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(FictcredApplication.class)
+                .profiles("test")
+                .properties(
+                        "spring.main.web-application-type=none",
+                        "logging.level.root=WARN")
+                // Argumentos de linha de comando: as propriedades acima perdem para o application.properties
+                .run("--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + cache,
+                        "--spring.jpa.properties.hibernate.cache.use_query_cache=" + cache)) {
+            ClienteRepository clienteRepository = contexto.getBean(ClienteRepository.class);
+            PropostaCreditoRepository propostaCreditoRepository = contexto.getBean(PropostaCreditoRepository.class);
+            PropostaCreditoService propostaCreditoService = contexto.getBean(PropostaCreditoService.class);
+            Statistics estatisticas = contexto.getBean(EntityManagerFactory.class)
+                    .unwrap(SessionFactory.class).getStatistics();
+
+            List<Long> ids = new ArrayList<>(CLIENTES);
+            for (int i = 0; i < CLIENTES; i++) {
+                Cliente cliente = new Cliente();
+                cliente.setNome("Cliente " + i);
+                cliente.setCpf(String.format("%011d", i));
+                cliente.setRendaMensal(new BigDecimal("50000.00"));
+                cliente.setDataCadastro(new Date());
+                ids.add(clienteRepository.save(cliente).getId());
+            }
+
+            SplittableRandom aleatorio = new SplittableRandom(42);
+            estatisticas.clear();
+            long inicio = System.nanoTime();
+            for (int i = 0; i < OPERACOES; i++) {
+                Long clienteId = ids.get(aleatorio.nextInt(ids.size()));
+                int sorteio = aleatorio.nextInt(100);
+                if (sorteio >= PERCENTUAL_LEITURAS) {
+                    PropostaCredito proposta = new PropostaCredito();
+                    proposta.setValorSolicitado(new BigDecimal("100.00"));
+                    proposta.setNumeroParcelas(12);
+                    propostaCreditoService.criarProposta(clienteId, proposta);
+                } else if (sorteio % 2 == 0) {
+                    clienteRepository.findById(clienteId);
+                } else {
+                    propostaCreditoRepository.findListagemByClienteId(clienteId, PAGINA);
+                }
+            }
+            long duracaoNanos = System.nanoTime() - inicio;
+            return new Resultado(estatisticas.getPrepareStatementCount(), estatisticas.getSecondLevelCacheHitCount(),
+                    estatisticas.getQueryCacheHitCount(), duracaoNanos);
+        }
+    }
+
+    private record Resultado(long statements, long acertosEntidades, long acertosConsultas, long duracaoNanos) {
+
+        void imprimir(String modo) {
+            System.out.printf("%-12s %12d %14.2f %14d %14d %10.0f%n", modo, statements,
+                    (double) statements / OPERACOES, acertosEntidades, acertosConsultas,
+                    OPERACOES / (duracaoNanos / 1e9));
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package br.com.challenge.fictcred.benchmark;
+
+import br.com.challenge.fictcred.FictcredApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Compara POST /proposta-cliente/{clienteId} com threads de plataforma e threads virtuais.
+// Executar com: mvn test -Pbenchmark -Dtest=ModoExecucaoBenchmark
+// Parâmetros: -Dbenchmark.concorrencia=400 -Dbenchmark.duracao=PT30S -Dbenchmark.aquecimento=PT5S
+@Tag("benchmark")
+class ModoExecucaoBenchmark {
+
+    private static final int CONCORRENCIA = Integer.getInteger("benchmark.concorrencia", 400);
+    private static final Duration DURACAO = Duration.parse(System.getProperty("benchmark.duracao", "PT30S"));
+    private static final Duration AQUECIMENTO = Duration.parse(System.getProperty("benchmark.aquecimento", "PT5S"));
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Test
+    void compararThreadsDePlataformaEThreadsVirtuais() throws Exception {
+        Resultado plataforma = executar(false);
+        Resultado virtuais = executar(true);
+
+        System.out.printf("%n%-20s %12s %10s %10s %8s%n", "modo", "req/s", "p50 (ms)", "p99 (ms)", "erros");
+        plataforma.imprimir("plataforma");
+        virtuais.imprimir("virtuais");
+
+        assertTrue(plataforma.sucessos > 0 && virtuais.sucessos > 0);
+    }
+
+    private Resultado executar(boolean threadsVirtuais) throws Exception {
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(FictcredApplication.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "server.tomcat.threads.max=50",
+                        "spring.datasource.hikari.maximum-pool-size=10",
+                        "logging.level.root=WARN")
+                // Definidas no application.properties: só valem como argumentos de linha de comando
+                .run("--spring.threads.virtual.enabled=" + threadsVirtuais,
+                        "--fictcred.admissao.habilitada=false")) {
+            String base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port")
+                    + "/fictcred/v1/api";
+            long clienteId = criarCliente(base);
+            URI uri = URI.create(base + "/proposta-cliente/" + clienteId);
+
+            medir(uri, AQUECIMENTO);
+            return medir(uri, DURACAO);
+        }
+    }
+
+    private Resultado medir(URI uri, Duration duracao) throws InterruptedException {
+        long fim = System.nanoTime() + duracao.toNanos();
+        AtomicLong erros = new AtomicLong();
+        List<long[]> latenciasPorThread = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+
+        for (int i = 0; i < CONCORRENCIA; i++) {
+            long[][] latencias = {new long[1024]};
+            int[] total = {0};
+            Thread thread = Thread.ofVirtual().unstarted(() -> {
+                HttpRequest request = HttpRequest.newBuilder(uri)
+                        .header("Content-Type", "application/json")
+                        .timeout(Duration.ofSeconds(30))
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"valorSolicitado\": 1000.00, \"numeroParcelas\": 12}"))
+                        .build();
+                while (System.nanoTime() < fim) {
+                    long inicio = System.nanoTime();
+                    try {
+                        HttpResponse<Void> resposta = http.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (resposta.statusCode() != 200) {
+                            erros.incrementAndGet();
+                            continue;
+                        }
+                    } catch (Exception e) {
+                        erros.incrementAndGet();
+                        continue;
+                    }
+                    if (total[0] == latencias[0].length) {
+                        latencias[0] = Arrays.copyOf(latencias[0], total[0] * 2);
+                    }
+                    latencias[0][total[0]++] = System.nanoTime() - inicio;
+                }
+                synchronized (latenciasPorThread) {
+                    latenciasPorThread.add(Arrays.copyOf(latencias[0], total[0]));
+                }
+            });
+            threads.add(thread);
+        }
+        long inicio = System.nanoTime();
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long decorrido = System.nanoTime() - inicio;
+
+        long[] todas = latenciasPorThread.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Resultado(todas, erros.get(), decorrido);
+    }
+
+    private long criarCliente(String base) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/cliente"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"nome\": \"Cliente Benchmark\", \"cpf\": \"30446563030\", \"rendaMensal\": 5000.00}"))
+                .build();
+        String corpo = http.send(request, HttpResponse.BodyHandlers.ofString()).body();
+        Matcher id = Pattern.compile("\"id\"\\s*:\\s*(\\d+)").matcher(corpo);
+        if (!id.find()) {
+            throw new IllegalStateException("Resposta inesperada ao criar cliente: " + corpo);
+        }
+        return Long.parseLong(id.group(1));
+    }
+
+    private static final class Resultado {
+        private final long[] latencias;
+        private final long sucessos;
+        private final long erros;
+        private final long decorridoNanos;
+
+        private Resultado(long[] latencias, long erros, long decorridoNanos) {
+            this.latencias = latencias;
+            this.sucessos = latencias.length;
+            this.erros = erros;
+            this.decorridoNanos = decorridoNanos;
+        }
+
+        private double percentil(double p) {
+            if (latencias.length == 0) {
+                return 0;
+            }
+            int indice = (int) Math.ceil(p * latencias.length) - 1;
+            return latencias[Math.max(indice, 0)] / 1_000_000.0;
+        }
+
+        private void imprimir(String modo) {
+            double vazao = sucessos / (decorridoNanos / 1_000_000_000.0);
+            System.out.printf("%-20s %12.1f %10.2f %10.2f %8d%n", modo, vazao, percentil(0.50), percentil(0.99), erros);
+        }
+    }
+}
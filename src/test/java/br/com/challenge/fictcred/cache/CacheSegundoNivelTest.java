@@ -0,0 +1,136 @@
+package br.com.challenge.fictcred.cache;
+
+import br.com.challenge.fictcred.dto.PropostaCreditoListDTO;
+import br.com.challenge.fictcred.model.Cliente;
+import br.com.challenge.fictcred.model.PropostaCredito;
+import br.com.challenge.fictcred.repository.ClienteRepository;
+import br.com.challenge.fictcred.repository.PropostaCreditoRepository;
+import br.com.challenge.fictcred.service.ClienteService;
+import br.com.challenge.fictcred.service.PropostaCreditoService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CacheSegundoNivelTest {
+
+    private static final Pageable PAGINA = PageRequest.of(0, 50, Sort.by("id"));
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private PropostaCreditoRepository propostaCreditoRepository;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private PropostaCreditoService propostaCreditoService;
+
+    @Autowired
+    private CanalInvalidacaoCliente canal;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estatisticas;
+    private Cliente cliente;
+
+    @BeforeEach
+    void setUp() {
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        cliente = new Cliente();
+        cliente.setNome("Cliente Cache");
+        cliente.setCpf(String.valueOf(System.nanoTime()));
+        cliente.setRendaMensal(new BigDecimal("5000.00"));
+        cliente.setDataCadastro(new Date());
+        cliente = clienteRepository.save(cliente);
+    }
+
+    @Test
+    void findById_DeveServirClienteDoCacheDeSegundoNivel() {
+        EntityStatistics doCliente = estatisticas.getEntityStatistics(Cliente.class.getName());
+        long acertosAntes = doCliente.getCacheHitCount();
+
+        clienteRepository.findById(cliente.getId());
+        clienteRepository.findById(cliente.getId());
+
+        // O save já colocou o cliente no cache: as duas leituras são acertos
+        assertEquals(acertosAntes + 2, doCliente.getCacheHitCount());
+    }
+
+    @Test
+    void atualizar_DeveRefletirNoCacheDeSegundoNivel() {
+        clienteRepository.findById(cliente.getId());
+
+        Cliente alterado = new Cliente();
+        alterado.setNome("Nome Alterado");
+        alterado.setCpf(cliente.getCpf());
+        alterado.setRendaMensal(new BigDecimal("7000.00"));
+        clienteService.atualizar(cliente.getId(), alterado);
+
+        Cliente lido = clienteRepository.findById(cliente.getId()).orElseThrow();
+        assertEquals("Nome Alterado", lido.getNome());
+        assertEquals(0, new BigDecimal("7000.00").compareTo(lido.getRendaMensal()));
+    }
+
+    @Test
+    void deletar_DeveRemoverClienteDoCacheDeSegundoNivel() {
+        clienteRepository.findById(cliente.getId());
+
+        clienteService.deletar(cliente.getId());
+
+        assertFalse(entityManagerFactory.getCache().contains(Cliente.class, cliente.getId()));
+        assertTrue(clienteRepository.findById(cliente.getId()).isEmpty());
+    }
+
+    @Test
+    void canal_DeveDescartarClienteAlteradoEmOutraInstancia() {
+        assertTrue(entityManagerFactory.getCache().contains(Cliente.class, cliente.getId()));
+
+        canal.publicar(cliente.getId());
+
+        assertFalse(entityManagerFactory.getCache().contains(Cliente.class, cliente.getId()));
+    }
+
+    @Test
+    void findListagemByClienteId_DeveUsarQueryCacheAteNovaProposta() {
+        PropostaCredito primeira = new PropostaCredito();
+        primeira.setValorSolicitado(new BigDecimal("1000.00"));
+        primeira.setNumeroParcelas(12);
+        propostaCreditoService.criarProposta(cliente.getId(), primeira);
+
+        propostaCreditoRepository.findListagemByClienteId(cliente.getId(), PAGINA);
+        long acertosAntes = estatisticas.getQueryCacheHitCount();
+        Slice<PropostaCreditoListDTO> emCache = propostaCreditoRepository.findListagemByClienteId(cliente.getId(), PAGINA);
+        assertEquals(acertosAntes + 1, estatisticas.getQueryCacheHitCount());
+        assertEquals(1, emCache.getNumberOfElements());
+
+        PropostaCredito segunda = new PropostaCredito();
+        segunda.setValorSolicitado(new BigDecimal("2000.00"));
+        segunda.setNumeroParcelas(12);
+        propostaCreditoService.criarProposta(cliente.getId(), segunda);
+
+        // A nova proposta atualiza o timestamp de proposta_credito e o resultado em cache deixa de valer
+        Slice<PropostaCreditoListDTO> atualizada = propostaCreditoRepository.findListagemByClienteId(cliente.getId(), PAGINA);
+        assertEquals(2, atualizada.getNumberOfElements());
+    }
+}
@@ -0,0 +1,106 @@
+package br.com.challenge.fictcred.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class CanalInvalidacaoPostgresTest {
+
+    private DataSource dataSource;
+    private CanalInvalidacaoPostgres canal;
+    private List<Long> recebidos;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = mock(DataSource.class);
+        canal = new CanalInvalidacaoPostgres(dataSource, Duration.ofMillis(10));
+        recebidos = new CopyOnWriteArrayList<>();
+        canal.assinar(recebidos::add);
+    }
+
+    @Test
+    void publicar_DeveAvisarAssinaturasLocaisENotificarAsDemaisInstancias() throws SQLException {
+        Connection conexao = mock(Connection.class);
+        PreparedStatement notificar = mock(PreparedStatement.class);
+        when(dataSource.getConnection()).thenReturn(conexao);
+        when(conexao.prepareStatement("select pg_notify(?, ?)")).thenReturn(notificar);
+
+        canal.publicar(42L);
+
+        assertEquals(List.of(42L), recebidos);
+        verify(notificar).setString(1, CanalInvalidacaoPostgres.CANAL);
+        verify(notificar).setString(2, "42");
+        verify(notificar).execute();
+        verify(conexao).close();
+    }
+
+    @Test
+    void publicar_ComBancoIndisponivelDeveInvalidarAoMenosLocalmente() throws SQLException {
+        when(dataSource.getConnection()).thenThrow(new SQLException("fora do ar"));
+
+        canal.publicar(42L);
+
+        assertEquals(List.of(42L), recebidos);
+    }
+
+    @Test
+    void receber_DeveIgnorarNotificacaoInvalida() {
+        canal.receber("7");
+        canal.receber("nao-e-id");
+
+        assertEquals(List.of(7L), recebidos);
+    }
+
+    @Test
+    void escutar_DeveEntregarNotificacoesEDescartarTudoAoReconectar() throws Exception {
+        AtomicInteger reinicios = new AtomicInteger();
+        canal.assinarReinicio(reinicios::incrementAndGet);
+
+        Connection perdida = conexaoEscutando();
+        when(perdida.unwrap(PGConnection.class).getNotifications(anyInt())).thenThrow(new SQLException("conexão perdida"));
+        Connection nova = conexaoEscutando();
+        PGNotification notificacao = mock(PGNotification.class);
+        when(notificacao.getParameter()).thenReturn("5");
+        when(nova.unwrap(PGConnection.class).getNotifications(anyInt()))
+                .thenReturn(new PGNotification[]{notificacao})
+                .thenReturn(null);
+        when(dataSource.getConnection()).thenReturn(perdida, nova);
+
+        canal.iniciar();
+        try {
+            long limite = System.currentTimeMillis() + 5000;
+            while (recebidos.isEmpty() && System.currentTimeMillis() < limite) {
+                Thread.sleep(10);
+            }
+        } finally {
+            canal.close();
+        }
+
+        assertEquals(List.of(5L), recebidos);
+        // Só a reconexão descarta: na primeira conexão não havia nada a perder
+        assertEquals(1, reinicios.get());
+    }
+
+    private Connection conexaoEscutando() throws SQLException {
+        Connection conexao = mock(Connection.class);
+        when(conexao.createStatement()).thenReturn(mock(Statement.class));
+        PGConnection pg = mock(PGConnection.class);
+        when(conexao.unwrap(PGConnection.class)).thenReturn(pg);
+        return conexao;
+    }
+}
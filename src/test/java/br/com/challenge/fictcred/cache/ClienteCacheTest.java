@@ -0,0 +1,156 @@
+package br.com.challenge.fictcred.cache;
+
+import br.com.challenge.fictcred.model.Cliente;
+import br.com.challenge.fictcred.replica.LeituraNoPrimario;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClienteCacheTest {
+
+    private CanalInvalidacaoLocal canal;
+    private ClienteCache clienteCache;
+    private AtomicInteger carregamentos;
+
+    @BeforeEach
+    void setUp() {
+        canal = new CanalInvalidacaoLocal();
+        clienteCache = new ClienteCache(2, Duration.ofMinutes(5), canal);
+        carregamentos = new AtomicInteger();
+    }
+
+    @Test
+    void buscar_DeveCarregarUmaVezEServirDoCache() {
+        clienteCache.buscar(1L, this::carregar);
+        Optional<Cliente> resultado = clienteCache.buscar(1L, this::carregar);
+
+        assertEquals("Cliente 1", resultado.orElseThrow().getNome());
+        assertEquals(1, carregamentos.get());
+        assertEquals(1, clienteCache.estatisticas().hitCount());
+        assertEquals(1, clienteCache.estatisticas().missCount());
+    }
+
+    @Test
+    void buscar_NaoDeveGuardarClienteInexistente() {
+        assertTrue(clienteCache.buscar(99L, id -> Optional.empty()).isEmpty());
+
+        assertEquals("Cliente 99", clienteCache.buscar(99L, this::carregar).orElseThrow().getNome());
+    }
+
+    @Test
+    void buscar_DeveCarregarDoPrimario() {
+        clienteCache.buscar(1L, id -> {
+            assertTrue(LeituraNoPrimario.ativa());
+            return carregar(id);
+        });
+        clienteCache.buscarTodos(Set.of(2L), faltantes -> {
+            assertTrue(LeituraNoPrimario.ativa());
+            return Map.of(2L, cliente(2L));
+        });
+
+        assertEquals(1, carregamentos.get());
+        assertFalse(LeituraNoPrimario.ativa());
+    }
+
+    @Test
+    void invalidar_DeveForcarNovaCarga() {
+        clienteCache.buscar(1L, this::carregar);
+
+        clienteCache.invalidar(1L);
+        clienteCache.buscar(1L, this::carregar);
+
+        assertEquals(2, carregamentos.get());
+    }
+
+    @Test
+    void invalidar_DevePropagarParaOutrasReplicas() {
+        ClienteCache outraReplica = new ClienteCache(10, Duration.ofMinutes(5), canal);
+        outraReplica.buscar(1L, this::carregar);
+
+        clienteCache.invalidar(1L);
+        outraReplica.buscar(1L, this::carregar);
+
+        assertEquals(2, carregamentos.get());
+    }
+
+    @Test
+    void buscar_DeveEntregarUmaCopiaPorLeitura() {
+        Cliente primeira = clienteCache.buscar(1L, this::carregar).orElseThrow();
+        primeira.setNome("Alterado por quem chamou");
+
+        Cliente segunda = clienteCache.buscar(1L, this::carregar).orElseThrow();
+
+        assertNotSame(primeira, segunda);
+        assertEquals("Cliente 1", segunda.getNome());
+        assertEquals(1, carregamentos.get());
+    }
+
+    @Test
+    void reinicioDoCanal_DeveDescartarTodasAsEntradas() {
+        CanalReiniciavel reiniciavel = new CanalReiniciavel();
+        ClienteCache cache = new ClienteCache(10, Duration.ofMinutes(5), reiniciavel);
+        cache.buscar(1L, this::carregar);
+        cache.buscar(2L, this::carregar);
+
+        reiniciavel.reiniciar.run();
+        cache.buscar(1L, this::carregar);
+        cache.buscar(2L, this::carregar);
+
+        assertEquals(4, carregamentos.get());
+    }
+
+    @Test
+    void buscarTodos_DeveCarregarApenasFaltantes() {
+        clienteCache.buscar(1L, this::carregar);
+
+        var resultado = clienteCache.buscarTodos(Set.of(1L, 2L), faltantes -> {
+            assertEquals(Set.of(2L), faltantes);
+            return Map.of(2L, cliente(2L));
+        });
+
+        assertEquals(2, resultado.size());
+    }
+
+    @Test
+    void registrarMetricas_DeveExporAcertosFalhasEEvicoes() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        clienteCache.registrarMetricas(registry);
+
+        clienteCache.buscar(1L, this::carregar);
+        clienteCache.buscar(1L, this::carregar);
+
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", ClienteCache.NOME).tag("result", "hit").functionCounter().count());
+        assertNotNull(registry.get("cache.evictions").tag("cache", ClienteCache.NOME).functionCounter());
+    }
+
+    private Optional<Cliente> carregar(Long id) {
+        carregamentos.incrementAndGet();
+        return Optional.of(cliente(id));
+    }
+
+    private static class CanalReiniciavel extends CanalInvalidacaoLocal {
+        private Runnable reiniciar;
+
+        @Override
+        public void assinarReinicio(Runnable ouvinte) {
+            reiniciar = ouvinte;
+        }
+    }
+
+    private Cliente cliente(Long id) {
+        Cliente cliente = new Cliente();
+        cliente.setId(id);
+        cliente.setNome("Cliente " + id);
+        cliente.setRendaMensal(new BigDecimal("1000.00"));
+        return cliente;
+    }
+}
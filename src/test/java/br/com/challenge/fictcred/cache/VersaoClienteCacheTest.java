@@ -0,0 +1,92 @@
+package br.com.challenge.fictcred.cache;
+
+import br.com.challenge.fictcred.model.Cliente;
+import br.com.challenge.fictcred.model.PropostaCredito;
+import br.com.challenge.fictcred.repository.ClienteRepository;
+import br.com.challenge.fictcred.service.ClienteService;
+import br.com.challenge.fictcred.service.PropostaCreditoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class VersaoClienteCacheTest {
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private PropostaCreditoService propostaCreditoService;
+
+    private Cliente cliente;
+
+    @BeforeEach
+    void setUp() {
+        cliente = new Cliente();
+        cliente.setNome("Cliente Versão");
+        cliente.setCpf(String.valueOf(System.nanoTime()));
+        cliente.setRendaMensal(new BigDecimal("5000.00"));
+        cliente.setDataCadastro(new Date());
+        cliente = clienteRepository.save(cliente);
+    }
+
+    @Test
+    void buscarVersao_DeveMudarACadaAlteracaoNasPropostas() {
+        VersaoCliente inicial = clienteService.buscarVersao(cliente.getId()).orElseThrow();
+        assertEquals(0L, inicial.versaoPropostas());
+
+        PropostaCredito pendente = propostaCreditoService.registrarPendente(cliente.getId(), proposta());
+        VersaoCliente aposPendente = clienteService.buscarVersao(cliente.getId()).orElseThrow();
+
+        propostaCreditoService.avaliarPendentes(List.of(pendente.getId()));
+        VersaoCliente aposAvaliacao = clienteService.buscarVersao(cliente.getId()).orElseThrow();
+
+        propostaCreditoService.criarProposta(cliente.getId(), proposta());
+        VersaoCliente aposNova = clienteService.buscarVersao(cliente.getId()).orElseThrow();
+
+        assertEquals(1L, aposPendente.versaoPropostas());
+        assertEquals(2L, aposAvaliacao.versaoPropostas());
+        assertEquals(3L, aposNova.versaoPropostas());
+        // O bloqueio do cliente não altera o cadastro, então o ETag do cliente continua o mesmo
+        assertEquals(inicial.etagCliente(), aposNova.etagCliente());
+    }
+
+    @Test
+    void atualizar_DeveAplicarIfMatchContraAVersaoDoBanco() {
+        Long versao = clienteService.buscarVersao(cliente.getId()).orElseThrow().versaoCliente();
+
+        Cliente alterado = new Cliente();
+        alterado.setNome("Primeira Alteração");
+        alterado.setCpf(cliente.getCpf());
+        alterado.setRendaMensal(cliente.getRendaMensal());
+        Cliente salvo = clienteService.atualizar(cliente.getId(), alterado, versao);
+        assertEquals(versao + 1, salvo.getVersao());
+        assertEquals(versao + 1, clienteService.buscarVersao(cliente.getId()).orElseThrow().versaoCliente());
+
+        // Segunda atualização com o ETag antigo: alguém já alterou o cliente
+        alterado.setNome("Alteração Atrasada");
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> clienteService.atualizar(cliente.getId(), alterado, versao));
+        assertEquals(ClienteService.VERSAO_DIVERGENTE, exception.getMessage());
+        assertEquals("Primeira Alteração", clienteRepository.findById(cliente.getId()).orElseThrow().getNome());
+    }
+
+    private PropostaCredito proposta() {
+        PropostaCredito proposta = new PropostaCredito();
+        proposta.setValorSolicitado(new BigDecimal("1000.00"));
+        proposta.setNumeroParcelas(12);
+        return proposta;
+    }
+}
@@ -0,0 +1,178 @@
+package br.com.challenge.fictcred.carga;
+
+import br.com.challenge.fictcred.FictcredApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Carga mista em malha aberta (taxa de chegada constante) contra a aplicação embarcada em H2.
+// Executar com: mvn test -Pcarga
+// Parâmetros: -Dcarga.clientes=10000 -Dcarga.propostasPorCliente=2 -Dcarga.taxa=200
+//             -Dcarga.duracao=PT30S -Dcarga.aquecimento=PT5S -Dcarga.limiteErros=0.01
+//             -Dcarga.mix=criarCliente:10,criarProposta:30,buscarCliente:40,listarPropostas:20
+//             -Dcarga.modoPostgres=true (H2 em modo de compatibilidade PostgreSQL)
+//             -Dcarga.admissao=true (mantém o controle de admissão; as recusas 429/503 são relatadas à parte)
+@Tag("carga")
+class CargaMistaTest {
+
+    private static final int CLIENTES = Integer.getInteger("carga.clientes", 10_000);
+    private static final int PROPOSTAS_POR_CLIENTE = Integer.getInteger("carga.propostasPorCliente", 2);
+    private static final double TAXA = Double.parseDouble(System.getProperty("carga.taxa", "200"));
+    private static final Duration DURACAO = Duration.parse(System.getProperty("carga.duracao", "PT30S"));
+    private static final Duration AQUECIMENTO = Duration.parse(System.getProperty("carga.aquecimento", "PT5S"));
+    private static final double LIMITE_ERROS = Double.parseDouble(System.getProperty("carga.limiteErros", "0.01"));
+    private static final String MIX = System.getProperty("carga.mix",
+            "criarCliente:10,criarProposta:30,buscarCliente:40,listarPropostas:20");
+    private static final boolean MODO_POSTGRES = Boolean.getBoolean("carga.modoPostgres");
+    // Desligado por padrão: a taxa por cliente recusaria boa parte das propostas e a carga mediria o limitador
+    private static final boolean ADMISSAO = Boolean.getBoolean("carga.admissao");
+
+    private static final int TAMANHO_LOTE = 1000;
+
+    // CPFs criados durante a carga começam depois dos usados na massa inicial
+    private final AtomicLong proximoCpf = new AtomicLong(CLIENTES + 1L);
+
+    @Test
+    void executarCargaMista() throws Exception {
+        String url = "jdbc:h2:mem:carga;DB_CLOSE_DELAY=-1" + (MODO_POSTGRES ? ";MODE=PostgreSQL" : "");
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(FictcredApplication.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "logging.level.root=WARN")
+                // Definidas no application.properties: só valem como argumentos de linha de comando
+                .run("--spring.datasource.url=" + url,
+                        "--spring.jpa.show-sql=false",
+                        "--fictcred.admissao.habilitada=" + ADMISSAO)) {
+            popular(contexto.getBean(JdbcTemplate.class));
+
+            String base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port")
+                    + "/fictcred/v1/api";
+            GeradorCarga gerador = criarGerador(base);
+
+            gerador.executar(TAXA, AQUECIMENTO);
+            Map<String, RegistroLatencias.Resumo> resumos = gerador.executar(TAXA, DURACAO);
+
+            System.out.printf("%nCarga mista: %d clientes, %.0f req/s por %s, admissão %s%n", CLIENTES, TAXA, DURACAO,
+                    ADMISSAO ? "ligada" : "desligada");
+            System.out.println(RegistroLatencias.Resumo.cabecalho());
+            resumos.values().forEach(System.out::println);
+
+            for (RegistroLatencias.Resumo resumo : resumos.values()) {
+                assertTrue(resumo.requisicoes() > 0, "Nenhuma requisição para " + resumo.endpoint());
+                assertTrue(resumo.taxaErros() <= LIMITE_ERROS,
+                        "Taxa de erros acima do limite para " + resumo.endpoint() + ": " + resumo.taxaErros());
+            }
+        }
+    }
+
+    private GeradorCarga criarGerador(String base) {
+        GeradorCarga gerador = new GeradorCarga(10_000);
+        for (String item : MIX.split(",")) {
+            String[] partes = item.trim().split(":");
+            String nome = partes[0];
+            int peso = Integer.parseInt(partes[1]);
+            switch (nome) {
+                case "criarCliente" -> gerador.operacao(nome, peso, () -> post(base + "/cliente",
+                        "{\"nome\": \"Cliente Carga\", \"cpf\": \"" + gerarCpf(proximoCpf.getAndIncrement())
+                                + "\", \"rendaMensal\": 5000.00}"));
+                case "criarProposta" -> gerador.operacao(nome, peso, () -> post(
+                        base + "/proposta-cliente/" + clienteAleatorio(),
+                        "{\"valorSolicitado\": 1000.00, \"numeroParcelas\": 12}"));
+                case "buscarCliente" -> gerador.operacao(nome, peso, () -> get(base + "/cliente/" + clienteAleatorio()));
+                case "listarPropostas" -> gerador.operacao(nome, peso,
+                        () -> get(base + "/proposta-cliente/cliente/" + clienteAleatorio()));
+                default -> throw new IllegalArgumentException("Operação desconhecida no mix de carga: " + nome);
+            }
+        }
+        return gerador;
+    }
+
+    private void popular(JdbcTemplate jdbc) {
+        Timestamp agora = new Timestamp(System.currentTimeMillis());
+        List<Object[]> clientes = new ArrayList<>(TAMANHO_LOTE);
+        for (long id = 1; id <= CLIENTES; id++) {
+            clientes.add(new Object[]{id, "Cliente " + id, gerarCpf(id), new BigDecimal("5000.00"), agora});
+            if (clientes.size() == TAMANHO_LOTE || id == CLIENTES) {
+                jdbc.batchUpdate("insert into cliente (id, nome, cpf, renda_mensal, data_cadastro) values (?, ?, ?, ?, ?)",
+                        clientes);
+                clientes.clear();
+            }
+        }
+
+        long totalPropostas = (long) CLIENTES * PROPOSTAS_POR_CLIENTE;
+        List<Object[]> propostas = new ArrayList<>(TAMANHO_LOTE);
+        for (long id = 1; id <= totalPropostas; id++) {
+            long clienteId = (id - 1) / PROPOSTAS_POR_CLIENTE + 1;
+            propostas.add(new Object[]{id, new BigDecimal("1000.00"), 12, 0, agora, clienteId});
+            if (propostas.size() == TAMANHO_LOTE || id == totalPropostas) {
+                jdbc.batchUpdate("insert into proposta_credito (id, valor_solicitado, numero_parcelas, status, "
+                        + "data_criacao, cliente_id) values (?, ?, ?, ?, ?, ?)", propostas);
+                propostas.clear();
+            }
+        }
+
+        // Sequências pooled: reinicia além da massa para que os ids gerados pelo Hibernate não colidam
+        jdbc.execute("alter sequence cliente_seq restart with " + (CLIENTES + 100));
+        jdbc.execute("alter sequence proposta_credito_seq restart with " + (totalPropostas + 100));
+    }
+
+    private static long clienteAleatorio() {
+        return ThreadLocalRandom.current().nextLong(1, CLIENTES + 1L);
+    }
+
+    private static HttpRequest post(String uri, String corpo) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(corpo))
+                .build();
+    }
+
+    private static HttpRequest get(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    static String gerarCpf(long semente) {
+        int[] digitos = new int[11];
+        long base = semente % 1_000_000_000L;
+        for (int i = 8; i >= 0; i--) {
+            digitos[i] = (int) (base % 10);
+            base /= 10;
+        }
+        digitos[9] = digitoVerificador(digitos, 9);
+        digitos[10] = digitoVerificador(digitos, 10);
+        StringBuilder cpf = new StringBuilder(11);
+        for (int digito : digitos) {
+            cpf.append(digito);
+        }
+        return cpf.toString();
+    }
+
+    private static int digitoVerificador(int[] digitos, int posicao) {
+        int soma = 0;
+        for (int i = 0; i < posicao; i++) {
+            soma += digitos[i] * (posicao + 1 - i);
+        }
+        int resto = soma % 11;
+        return resto < 2 ? 0 : 11 - resto;
+    }
+}
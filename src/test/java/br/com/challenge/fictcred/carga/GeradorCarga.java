@@ -0,0 +1,110 @@
+package br.com.challenge.fictcred.carga;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+// Gerador de carga em malha aberta: as requisições partem em instantes fixos, a uma taxa constante,
+// independentemente de as anteriores já terem respondido. A latência é medida a partir do instante
+// planejado, então atrasos do próprio servidor não escondem a fila (coordinated omission).
+public class GeradorCarga {
+
+    private final HttpClient http;
+    private final List<Operacao> operacoes = new ArrayList<>();
+    private final int maximoEmVoo;
+    private int pesoTotal;
+
+    public GeradorCarga(int maximoEmVoo) {
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.maximoEmVoo = maximoEmVoo;
+    }
+
+    public GeradorCarga operacao(String nome, int peso, Supplier<HttpRequest> requisicao) {
+        if (peso > 0) {
+            operacoes.add(new Operacao(nome, peso, requisicao));
+            pesoTotal += peso;
+        }
+        return this;
+    }
+
+    public Map<String, RegistroLatencias.Resumo> executar(double requisicoesPorSegundo, Duration duracao)
+            throws InterruptedException {
+        Map<String, RegistroLatencias> registros = new LinkedHashMap<>();
+        for (Operacao operacao : operacoes) {
+            registros.put(operacao.nome, new RegistroLatencias(operacao.nome));
+        }
+
+        long intervalo = (long) (TimeUnit.SECONDS.toNanos(1) / requisicoesPorSegundo);
+        long inicio = System.nanoTime();
+        long fim = inicio + duracao.toNanos();
+        AtomicInteger emVoo = new AtomicInteger();
+
+        for (long i = 0; ; i++) {
+            long planejado = inicio + i * intervalo;
+            if (planejado >= fim) {
+                break;
+            }
+            long espera = planejado - System.nanoTime();
+            if (espera > 0) {
+                LockSupport.parkNanos(espera);
+            }
+
+            Operacao operacao = sortear();
+            RegistroLatencias registro = registros.get(operacao.nome);
+            if (emVoo.incrementAndGet() > maximoEmVoo) {
+                // Servidor não acompanha a taxa: conta como erro em vez de acumular threads sem limite
+                emVoo.decrementAndGet();
+                registro.registrar(System.nanoTime() - planejado, 0);
+                continue;
+            }
+            HttpRequest requisicao = operacao.requisicao.get();
+            Thread.startVirtualThread(() -> {
+                int status;
+                try {
+                    status = http.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode();
+                } catch (Exception e) {
+                    status = 0;
+                }
+                registro.registrar(System.nanoTime() - planejado, status);
+                emVoo.decrementAndGet();
+            });
+        }
+
+        long limiteEspera = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (emVoo.get() > 0 && System.nanoTime() < limiteEspera) {
+            Thread.sleep(10);
+        }
+        long decorrido = System.nanoTime() - inicio;
+
+        Map<String, RegistroLatencias.Resumo> resumos = new LinkedHashMap<>();
+        registros.forEach((nome, registro) -> resumos.put(nome, registro.resumir(decorrido)));
+        return resumos;
+    }
+
+    private Operacao sortear() {
+        int sorteio = ThreadLocalRandom.current().nextInt(pesoTotal);
+        for (Operacao operacao : operacoes) {
+            sorteio -= operacao.peso;
+            if (sorteio < 0) {
+                return operacao;
+            }
+        }
+        return operacoes.get(operacoes.size() - 1);
+    }
+
+    private record Operacao(String nome, int peso, Supplier<HttpRequest> requisicao) {
+    }
+}
@@ -0,0 +1,68 @@
+package br.com.challenge.fictcred.carga;
+
+import java.util.Arrays;
+
+public class RegistroLatencias {
+
+    private final String endpoint;
+    private long[] latencias = new long[4096];
+    private int total;
+    private long erros;
+    private long rejeitadas;
+
+    public RegistroLatencias(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    // status: código HTTP da resposta, ou 0 quando não houve resposta. 429 e 503 são recusas do controle
+    // de admissão, contadas à parte dos erros
+    public synchronized void registrar(long latenciaNanos, int status) {
+        if (status == 429 || status == 503) {
+            rejeitadas++;
+        } else if (status / 100 != 2) {
+            erros++;
+        }
+        if (total == latencias.length) {
+            latencias = Arrays.copyOf(latencias, total * 2);
+        }
+        latencias[total++] = latenciaNanos;
+    }
+
+    public synchronized Resumo resumir(long duracaoNanos) {
+        long[] ordenadas = Arrays.copyOf(latencias, total);
+        Arrays.sort(ordenadas);
+        return new Resumo(endpoint, total, erros, rejeitadas, total / (duracaoNanos / 1_000_000_000.0),
+                percentil(ordenadas, 0.50), percentil(ordenadas, 0.99), percentil(ordenadas, 0.999));
+    }
+
+    private static double percentil(long[] ordenadas, double p) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        int indice = (int) Math.ceil(p * ordenadas.length) - 1;
+        return ordenadas[Math.max(indice, 0)] / 1_000_000.0;
+    }
+
+    public record Resumo(String endpoint, long requisicoes, long erros, long rejeitadas, double vazao,
+                         double p50, double p99, double p999) {
+
+        public double taxaErros() {
+            return requisicoes == 0 ? 0 : (double) erros / requisicoes;
+        }
+
+        public double taxaRejeicoes() {
+            return requisicoes == 0 ? 0 : (double) rejeitadas / requisicoes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-22s %10d %10.1f %10.2f %10.2f %10.2f %9.2f%% %9.2f%%",
+                    endpoint, requisicoes, vazao, p50, p99, p999, taxaErros() * 100, taxaRejeicoes() * 100);
+        }
+
+        public static String cabecalho() {
+            return String.format("%-22s %10s %10s %10s %10s %10s %10s %10s",
+                    "endpoint", "total", "req/s", "p50 (ms)", "p99 (ms)", "p999 (ms)", "erros", "429/503");
+        }
+    }
+}
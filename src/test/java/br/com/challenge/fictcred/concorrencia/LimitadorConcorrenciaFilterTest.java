@@ -0,0 +1,74 @@
+package br.com.challenge.fictcred.concorrencia;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimitadorConcorrenciaFilterTest {
+
+    @Test
+    void doFilter_DeveRejeitarComServiceUnavailableQuandoLimiteEsgotado() throws Exception {
+        LimitadorConcorrenciaFilter limitador = new LimitadorConcorrenciaFilter(1, Duration.ofMillis(50));
+        CountDownLatch dentro = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+
+        Thread ocupante = Thread.ofVirtual().start(() -> {
+            try {
+                limitador.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), (req, res) -> {
+                    dentro.countDown();
+                    try {
+                        liberar.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(dentro.await(5, TimeUnit.SECONDS));
+        assertEquals(1, limitador.getEmUso());
+
+        MockHttpServletResponse rejeitada = new MockHttpServletResponse();
+        limitador.doFilter(new MockHttpServletRequest(), rejeitada, (req, res) -> fail("Não deveria executar"));
+
+        assertEquals(503, rejeitada.getStatus());
+        assertEquals("1", rejeitada.getHeader("Retry-After"));
+
+        liberar.countDown();
+        ocupante.join();
+        assertEquals(0, limitador.getEmUso());
+    }
+
+    @Test
+    void doFilter_DeveLiberarPermissaoMesmoQuandoCadeiaFalha() {
+        LimitadorConcorrenciaFilter limitador = new LimitadorConcorrenciaFilter(1, Duration.ofMillis(50));
+
+        assertThrows(IllegalStateException.class, () ->
+                limitador.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), (req, res) -> {
+                    throw new IllegalStateException("falha");
+                }));
+
+        assertEquals(0, limitador.getEmUso());
+    }
+
+    @Test
+    void doFilter_DeveManterPermissaoAteARespostaAssincronaTerminar() throws Exception {
+        LimitadorConcorrenciaFilter limitador = new LimitadorConcorrenciaFilter(1, Duration.ofMillis(50));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAsyncSupported(true);
+
+        // Como um StreamingResponseBody: a cadeia retorna e o corpo continua em outra thread
+        limitador.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+        assertEquals(1, limitador.getEmUso());
+        request.getAsyncContext().complete();
+        assertEquals(0, limitador.getEmUso());
+    }
+}
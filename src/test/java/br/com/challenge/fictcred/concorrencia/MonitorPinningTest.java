@@ -0,0 +1,38 @@
+package br.com.challenge.fictcred.concorrencia;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MonitorPinningTest {
+
+    private final Object trava = new Object();
+
+    @Test
+    void deveContarThreadVirtualPresaEmBlocoSynchronized() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        try (MonitorPinning monitor = new MonitorPinning(Duration.ofMillis(10), registry)) {
+            monitor.iniciar();
+
+            Thread.ofVirtual().start(() -> {
+                synchronized (trava) {
+                    try {
+                        Thread.sleep(50);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }).join();
+
+            long limite = System.currentTimeMillis() + 10_000;
+            while (monitor.getOcorrencias() == 0 && System.currentTimeMillis() < limite) {
+                Thread.sleep(100);
+            }
+            assertEquals(1, monitor.getOcorrencias());
+            assertEquals(1, registry.get("fictcred.threads.virtuais.pinning").counter().count());
+        }
+    }
+}
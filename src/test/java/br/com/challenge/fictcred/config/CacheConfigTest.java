@@ -0,0 +1,43 @@
+package br.com.challenge.fictcred.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheConfigTest {
+
+    private final CacheConfig config = new CacheConfig();
+
+    @Test
+    void cacheSegundoNivel_DeveManterLigadoComUmaInstanciaSemReplicas() {
+        Map<String, Object> propriedades = new HashMap<>();
+
+        config.cacheSegundoNivel("local", "").customize(propriedades);
+
+        assertTrue(propriedades.isEmpty());
+    }
+
+    @Test
+    void cacheSegundoNivel_DeveDesligarComVariasInstancias() {
+        Map<String, Object> propriedades = new HashMap<>();
+
+        config.cacheSegundoNivel("postgres", "").customize(propriedades);
+
+        assertEquals(false, propriedades.get(AvailableSettings.USE_SECOND_LEVEL_CACHE));
+        assertEquals(false, propriedades.get(AvailableSettings.USE_QUERY_CACHE));
+    }
+
+    @Test
+    void cacheSegundoNivel_DeveDesligarComReplicas() {
+        Map<String, Object> propriedades = new HashMap<>();
+
+        config.cacheSegundoNivel("local", "jdbc:postgresql://replica/fictcred").customize(propriedades);
+
+        assertEquals(false, propriedades.get(AvailableSettings.USE_SECOND_LEVEL_CACHE));
+        assertEquals(false, propriedades.get(AvailableSettings.USE_QUERY_CACHE));
+    }
+}
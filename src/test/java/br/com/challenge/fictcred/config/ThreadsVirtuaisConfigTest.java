@@ -0,0 +1,33 @@
+package br.com.challenge.fictcred.config;
+
+import br.com.challenge.fictcred.concorrencia.LimitadorConcorrenciaFilter;
+import br.com.challenge.fictcred.concorrencia.MonitorPinning;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.threads.virtual.enabled=true",
+        "spring.datasource.hikari.maximum-pool-size=4"
+})
+@ActiveProfiles("test")
+class ThreadsVirtuaisConfigTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private FilterRegistrationBean<LimitadorConcorrenciaFilter> limitadorConcorrencia;
+
+    @Test
+    void deveLimitarConcorrenciaPeloTamanhoDoPool() {
+        assertEquals(8, limitadorConcorrencia.getFilter().getLimite());
+        assertTrue(limitadorConcorrencia.getUrlPatterns().contains("/fictcred/*"));
+        assertNotNull(context.getBean(MonitorPinning.class));
+    }
+}
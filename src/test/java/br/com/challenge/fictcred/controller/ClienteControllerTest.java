@@ -1,9 +1,16 @@
 package br.com.challenge.fictcred.controller;
 
+import br.com.challenge.fictcred.cache.VersaoCliente;
 import br.com.challenge.fictcred.dto.ClienteInsertDTO;
 import br.com.challenge.fictcred.dto.ClienteListDTO;
 import br.com.challenge.fictcred.dto.ClienteUpdateDTO;
+import br.com.challenge.fictcred.dto.ExclusaoClienteDTO;
+import br.com.challenge.fictcred.dto.FiltroBuscaClienteDTO;
+import br.com.challenge.fictcred.dto.ImportacaoClientesDTO;
+import br.com.challenge.fictcred.dto.ResultadoBuscaDTO;
 import br.com.challenge.fictcred.model.Cliente;
+import br.com.challenge.fictcred.model.ExclusaoCliente;
+import br.com.challenge.fictcred.service.ClienteImportacaoService;
 import br.com.challenge.fictcred.service.ClienteService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,17 +18,27 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.math.BigDecimal;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -31,6 +48,12 @@ class ClienteControllerTest {
     @Mock
     private ClienteService clienteService;
 
+    @Mock
+    private ClienteImportacaoService clienteImportacaoService;
+
+    @Spy
+    private ObjectMapper jsonMapper = new ObjectMapper();
+
     @InjectMocks
     private ClienteController clienteController;
 
@@ -54,6 +77,7 @@ class ClienteControllerTest {
         cliente.setCpf("12345678909");
         cliente.setRendaMensal(new BigDecimal("5000.00"));
         cliente.setDataCadastro(new Date());
+        cliente.setVersao(3L);
 
         clienteInsertDTO = new ClienteInsertDTO();
         clienteInsertDTO.setNome("João Silva");
@@ -84,28 +108,136 @@ class ClienteControllerTest {
 
     @Test
     void atualizarCliente_DeveRetornarClienteAtualizado() throws Exception {
-        when(clienteService.atualizar(eq(1L), any(Cliente.class))).thenReturn(cliente);
+        when(clienteService.atualizar(eq(1L), any(Cliente.class), isNull())).thenReturn(cliente);
 
         mockMvc.perform(put("/fictcred/v1/api/cliente/1")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(clienteUpdateDTO)))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
                 .andExpect(jsonPath("$.id").value(1L))
                 .andExpect(jsonPath("$.nome").value("João Silva"));
 
-        verify(clienteService, times(1)).atualizar(eq(1L), any(Cliente.class));
+        verify(clienteService, times(1)).atualizar(eq(1L), any(Cliente.class), isNull());
+    }
+
+    @Test
+    void atualizarCliente_DeveRepassarVersaoDoIfMatch() throws Exception {
+        when(clienteService.atualizar(eq(1L), any(Cliente.class), eq(3L))).thenReturn(cliente);
+
+        mockMvc.perform(put("/fictcred/v1/api/cliente/1")
+                .header("If-Match", "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(clienteUpdateDTO)))
+                .andExpect(status().isOk());
+
+        verify(clienteService, times(1)).atualizar(eq(1L), any(Cliente.class), eq(3L));
+    }
+
+    @Test
+    void atualizarCliente_DeveRetornarPreconditionFailedQuandoIfMatchDiverge() throws Exception {
+        when(clienteService.atualizar(eq(1L), any(Cliente.class), eq(2L)))
+                .thenThrow(new RuntimeException(ClienteService.VERSAO_DIVERGENTE));
+
+        mockMvc.perform(put("/fictcred/v1/api/cliente/1")
+                .header("If-Match", "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(clienteUpdateDTO)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void atualizarCliente_IfMatchFracoNuncaCorresponde() throws Exception {
+        when(clienteService.atualizar(eq(1L), any(Cliente.class), eq(PreCondicoes.VERSAO_INEXISTENTE)))
+                .thenThrow(new RuntimeException(ClienteService.VERSAO_DIVERGENTE));
+
+        mockMvc.perform(put("/fictcred/v1/api/cliente/1")
+                .header("If-Match", "W/\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(clienteUpdateDTO)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void atualizarCliente_DeveRetornarConflictQuandoAlteradoConcorrentementeSemIfMatch() throws Exception {
+        when(clienteService.atualizar(eq(1L), any(Cliente.class), isNull()))
+                .thenThrow(new RuntimeException(ClienteService.VERSAO_DIVERGENTE));
+
+        mockMvc.perform(put("/fictcred/v1/api/cliente/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(clienteUpdateDTO)))
+                .andExpect(status().isConflict());
     }
 
     @Test
     void atualizarCliente_DeveRetornarNotFoundQuandoClienteNaoEncontrado() throws Exception {
-        when(clienteService.atualizar(eq(1L), any(Cliente.class))).thenThrow(new RuntimeException("Cliente não encontrado"));
+        when(clienteService.atualizar(eq(1L), any(Cliente.class), isNull())).thenThrow(new RuntimeException("Cliente não encontrado"));
 
         mockMvc.perform(put("/fictcred/v1/api/cliente/1")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(clienteUpdateDTO)))
                 .andExpect(status().isNotFound());
 
-        verify(clienteService, times(1)).atualizar(eq(1L), any(Cliente.class));
+        verify(clienteService, times(1)).atualizar(eq(1L), any(Cliente.class), isNull());
+    }
+
+    @Test
+    void atualizarCliente_DeveRetornarConflictQuandoCpfJaCadastrado() throws Exception {
+        when(clienteService.atualizar(eq(1L), any(Cliente.class), isNull()))
+                .thenThrow(new DuplicateKeyException("cpf"));
+
+        mockMvc.perform(put("/fictcred/v1/api/cliente/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(clienteUpdateDTO)))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void alterarCliente_DeveRepassarSoOsCamposInformados() throws Exception {
+        when(clienteService.atualizar(eq(1L), any(Cliente.class), eq(3L))).thenReturn(cliente);
+
+        mockMvc.perform(patch("/fictcred/v1/api/cliente/1")
+                .header("If-Match", "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"rendaMensal\": 7000.00}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""));
+
+        verify(clienteService, times(1)).atualizar(eq(1L), argThat(alteracoes -> alteracoes.getNome() == null
+                && alteracoes.getCpf() == null
+                && new BigDecimal("7000.00").compareTo(alteracoes.getRendaMensal()) == 0), eq(3L));
+    }
+
+    @Test
+    void alterarCliente_DeveRetornarBadRequestComCampoInvalido() throws Exception {
+        mockMvc.perform(patch("/fictcred/v1/api/cliente/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"rendaMensal\": -1}"))
+                .andExpect(status().isBadRequest());
+
+        verify(clienteService, never()).atualizar(any(), any(), any());
+    }
+
+    @Test
+    void alterarCliente_DeveRetornarConflictQuandoAlteradoConcorrentemente() throws Exception {
+        when(clienteService.atualizar(eq(1L), any(Cliente.class), isNull()))
+                .thenThrow(new RuntimeException(ClienteService.VERSAO_DIVERGENTE));
+
+        mockMvc.perform(patch("/fictcred/v1/api/cliente/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nome\": \"Novo Nome\"}"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void alterarCliente_DeveRetornarNotFoundQuandoClienteNaoEncontrado() throws Exception {
+        when(clienteService.atualizar(eq(1L), any(Cliente.class), isNull()))
+                .thenThrow(new RuntimeException("Cliente não encontrado com id: 1"));
+
+        mockMvc.perform(patch("/fictcred/v1/api/cliente/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nome\": \"Novo Nome\"}"))
+                .andExpect(status().isNotFound());
     }
 
     @Test
@@ -114,12 +246,36 @@ class ClienteControllerTest {
 
         mockMvc.perform(get("/fictcred/v1/api/cliente/1"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
                 .andExpect(jsonPath("$.id").value(1L))
                 .andExpect(jsonPath("$.nome").value("João Silva"));
 
         verify(clienteService, times(1)).buscarPorId(1L);
     }
 
+    @Test
+    void buscarClientePorId_DeveRetornarNotModifiedSemCarregarCliente() throws Exception {
+        when(clienteService.buscarVersao(1L)).thenReturn(Optional.of(new VersaoCliente(3L, 7L)));
+
+        mockMvc.perform(get("/fictcred/v1/api/cliente/1").header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(content().string(""));
+
+        verify(clienteService, never()).buscarPorId(any());
+    }
+
+    @Test
+    void buscarClientePorId_DeveRetornarClienteQuandoEtagMudou() throws Exception {
+        when(clienteService.buscarVersao(1L)).thenReturn(Optional.of(new VersaoCliente(3L, 7L)));
+        when(clienteService.buscarPorId(1L)).thenReturn(Optional.of(cliente));
+
+        mockMvc.perform(get("/fictcred/v1/api/cliente/1").header("If-None-Match", "\"2\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(jsonPath("$.id").value(1L));
+    }
+
     @Test
     void buscarClientePorId_DeveRetornarNotFoundQuandoClienteNaoEncontrado() throws Exception {
         when(clienteService.buscarPorId(1L)).thenReturn(Optional.empty());
@@ -131,25 +287,187 @@ class ClienteControllerTest {
     }
 
     @Test
-    void listarClientes_DeveRetornarListaDeClientes() throws Exception {
-        List<Cliente> clientes = Arrays.asList(cliente);
-        when(clienteService.listarTodos()).thenReturn(clientes);
+    @SuppressWarnings("unchecked")
+    void listarClientes_DeveRetornarPaginaDeClientes() throws Exception {
+        when(clienteService.percorrerPagina(isNull(), eq(50), any(Consumer.class))).thenAnswer(invocacao -> {
+            Consumer<ClienteListDTO> consumidor = invocacao.getArgument(2);
+            consumidor.accept(clienteListDTO);
+            return 1L;
+        });
+
+        MvcResult resultado = mockMvc.perform(get("/fictcred/v1/api/cliente"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("Vary", "Accept"))
+                .andExpect(jsonPath("$.itens[0].id").value(1L))
+                .andExpect(jsonPath("$.itens[0].nome").value("João Silva"))
+                .andExpect(jsonPath("$.proximoCursor").value(1L));
+
+        verify(clienteService, times(1)).percorrerPagina(isNull(), eq(50), any(Consumer.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void listarClientes_DeveRepassarCursorETamanho() throws Exception {
+        when(clienteService.percorrerPagina(eq(10L), eq(20), any(Consumer.class))).thenReturn(null);
+
+        MvcResult resultado = mockMvc.perform(get("/fictcred/v1/api/cliente").param("cursor", "10").param("tamanho", "20"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens").isEmpty())
+                .andExpect(jsonPath("$.proximoCursor").doesNotExist());
+
+        verify(clienteService, times(1)).percorrerPagina(eq(10L), eq(20), any(Consumer.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void listarClientes_DeveTransmitirNdjsonAPartirDoCursorQuandoPedido() throws Exception {
+        ClienteListDTO outro = new ClienteListDTO(2L, "Maria Souza", "98765432100", new BigDecimal("3000.00"), null);
+        doAnswer(invocacao -> {
+            Consumer<ClienteListDTO> consumidor = invocacao.getArgument(1);
+            consumidor.accept(clienteListDTO);
+            consumidor.accept(outro);
+            return null;
+        }).when(clienteService).percorrerTodos(eq(10L), any(Consumer.class));
+
+        MvcResult resultado = mockMvc.perform(get("/fictcred/v1/api/cliente")
+                        .param("cursor", "10")
+                        .accept("application/json;q=0.5", MediaType.APPLICATION_NDJSON_VALUE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String corpo = mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] linhas = corpo.split("\n");
+        assertEquals(2, linhas.length);
+        assertEquals(1L, objectMapper.readTree(linhas[0]).get("id").asLong());
+        assertEquals("Maria Souza", objectMapper.readTree(linhas[1]).get("nome").asText());
+        verify(clienteService, never()).percorrerPagina(any(), anyInt(), any(Consumer.class));
+    }
+
+    @Test
+    void buscarClientes_DeveRepassarFiltrosECursor() throws Exception {
+        when(clienteService.buscar(any(FiltroBuscaClienteDTO.class), eq(5L), eq(20)))
+                .thenReturn(new ResultadoBuscaDTO<>(List.of(clienteListDTO), 1L, null, null));
+
+        mockMvc.perform(get("/fictcred/v1/api/cliente/busca")
+                        .param("nome", "joão")
+                        .param("contem", "true")
+                        .param("rendaMinima", "1000.00")
+                        .param("rendaMaxima", "9000.00")
+                        .param("cursor", "5")
+                        .param("tamanho", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens[0].nome").value("João Silva"))
+                .andExpect(jsonPath("$.proximoCursor").value(1L));
+
+        verify(clienteService).buscar(argThat(filtro -> "joão".equals(filtro.getNome()) && filtro.isContem()
+                && filtro.getCpf() == null
+                && new BigDecimal("1000.00").equals(filtro.getRendaMinima())
+                && new BigDecimal("9000.00").equals(filtro.getRendaMaxima())), eq(5L), eq(20));
+    }
+
+    @Test
+    void buscarClientes_DeveRetornarBadRequestQuandoFiltroInvalido() throws Exception {
+        when(clienteService.buscar(any(FiltroBuscaClienteDTO.class), isNull(), eq(50)))
+                .thenThrow(new RuntimeException(ClienteService.BUSCA_INVALIDA + "renda mínima maior que a renda máxima"));
+
+        mockMvc.perform(get("/fictcred/v1/api/cliente/busca")
+                        .param("rendaMinima", "9000")
+                        .param("rendaMaxima", "1000"))
+                .andExpect(status().isBadRequest());
+    }
 
-        mockMvc.perform(get("/fictcred/v1/api/cliente"))
+    @Test
+    @SuppressWarnings("unchecked")
+    void importarClientes_DeveAceitarNdjson() throws Exception {
+        List<String> nomesLidos = new ArrayList<>();
+        when(clienteImportacaoService.importar(any(Iterator.class))).thenAnswer(invocacao -> {
+            Iterator<ClienteInsertDTO> registros = invocacao.getArgument(0);
+            registros.forEachRemaining(dto -> nomesLidos.add(dto.getNome()));
+            ImportacaoClientesDTO resultado = new ImportacaoClientesDTO();
+            resultado.setTotal(nomesLidos.size());
+            resultado.setInseridos(nomesLidos.size());
+            return resultado;
+        });
+        String corpo = objectMapper.writeValueAsString(clienteInsertDTO) + "\n"
+                + objectMapper.writeValueAsString(clienteUpdateDTO) + "\n";
+
+        mockMvc.perform(post("/fictcred/v1/api/cliente/lote")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(corpo))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").value(1L))
-                .andExpect(jsonPath("$[0].nome").value("João Silva"));
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.inseridos").value(2));
 
-        verify(clienteService, times(1)).listarTodos();
+        assertEquals(List.of("João Silva", "João Silva Atualizado"), nomesLidos);
     }
 
     @Test
-    void removerCliente_DeveRetornarNoContent() throws Exception {
-        doNothing().when(clienteService).deletar(1L);
+    @SuppressWarnings("unchecked")
+    void importarClientes_DeveAceitarArrayJson() throws Exception {
+        List<String> nomesLidos = new ArrayList<>();
+        when(clienteImportacaoService.importar(any(Iterator.class))).thenAnswer(invocacao -> {
+            Iterator<ClienteInsertDTO> registros = invocacao.getArgument(0);
+            registros.forEachRemaining(dto -> nomesLidos.add(dto.getNome()));
+            return new ImportacaoClientesDTO();
+        });
+
+        mockMvc.perform(post("/fictcred/v1/api/cliente/lote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(clienteInsertDTO, clienteUpdateDTO))))
+                .andExpect(status().isOk());
+
+        assertEquals(List.of("João Silva", "João Silva Atualizado"), nomesLidos);
+    }
+
+    @Test
+    void removerCliente_DeveRetornarAcceptedComAcompanhamento() throws Exception {
+        when(clienteService.deletar(1L)).thenReturn(new ExclusaoCliente(1L, new Date(), 0L, null));
 
         mockMvc.perform(delete("/fictcred/v1/api/cliente/1"))
-                .andExpect(status().isNoContent());
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "http://localhost/fictcred/v1/api/cliente/1/exclusao"));
 
         verify(clienteService, times(1)).deletar(1L);
     }
+
+    @Test
+    void removerCliente_DeveRetornarNotFoundQuandoClienteNaoExiste() throws Exception {
+        when(clienteService.deletar(1L)).thenThrow(new RuntimeException("Cliente não encontrado com id: 1"));
+
+        mockMvc.perform(delete("/fictcred/v1/api/cliente/1"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void buscarExclusao_DeveRetornarAndamento() throws Exception {
+        when(clienteService.buscarExclusao(1L))
+                .thenReturn(Optional.of(new ExclusaoClienteDTO(1L, new Date(), 500L, 42L, null, false)));
+
+        mockMvc.perform(get("/fictcred/v1/api/cliente/1/exclusao"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.propostasRemovidas").value(500))
+                .andExpect(jsonPath("$.propostasRestantes").value(42))
+                .andExpect(jsonPath("$.concluida").value(false));
+    }
+
+    @Test
+    void buscarExclusao_DeveRetornarNotFoundSemExclusao() throws Exception {
+        when(clienteService.buscarExclusao(1L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/fictcred/v1/api/cliente/1/exclusao"))
+                .andExpect(status().isNotFound());
+    }
 }
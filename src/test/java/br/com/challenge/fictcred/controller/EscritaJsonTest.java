@@ -0,0 +1,53 @@
+package br.com.challenge.fictcred.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EscritaJsonTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void prefereNdjson_DeveSeguirOAcceptComQualidade() {
+        assertTrue(EscritaJson.prefereNdjson("application/x-ndjson"));
+        assertTrue(EscritaJson.prefereNdjson("application/json;q=0.5, application/x-ndjson"));
+        assertFalse(EscritaJson.prefereNdjson("application/json, application/x-ndjson;q=0.5"));
+        assertFalse(EscritaJson.prefereNdjson("*/*"));
+        assertFalse(EscritaJson.prefereNdjson("application/x-ndjson;q=0"));
+        assertFalse(EscritaJson.prefereNdjson("não é um tipo"));
+        assertFalse(EscritaJson.prefereNdjson(null));
+    }
+
+    @Test
+    void pagina_DeveEnviarPrimeiroItemAntesDeTerminarALeitura() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StringBuilder enviadoAntesDoSegundo = new StringBuilder();
+
+        EscritaJson.<Map<String, Integer>>pagina(objectMapper, consumidor -> {
+            consumidor.accept(Map.of("id", 1));
+            enviadoAntesDoSegundo.append(out.toString());
+            consumidor.accept(Map.of("id", 2));
+            return 2L;
+        }).writeTo(out);
+
+        assertEquals("{\"itens\":[{\"id\":1}", enviadoAntesDoSegundo.toString());
+        assertEquals("{\"itens\":[{\"id\":1},{\"id\":2}],\"proximoCursor\":2}", out.toString());
+    }
+
+    @Test
+    void ndjson_DeveEscreverUmValorPorLinha() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        EscritaJson.<Map<String, Integer>>ndjson(objectMapper, consumidor -> {
+            consumidor.accept(Map.of("id", 1));
+            consumidor.accept(Map.of("id", 2));
+        }).writeTo(out);
+
+        assertEquals("{\"id\":1}\n{\"id\":2}\n", out.toString());
+    }
+}
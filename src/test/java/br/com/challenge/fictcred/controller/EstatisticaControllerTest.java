@@ -0,0 +1,76 @@
+package br.com.challenge.fictcred.controller;
+
+import br.com.challenge.fictcred.dto.EstatisticaDiaDTO;
+import br.com.challenge.fictcred.dto.EstatisticasDTO;
+import br.com.challenge.fictcred.service.EstatisticaService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class EstatisticaControllerTest {
+
+    @Mock
+    private EstatisticaService estatisticaService;
+
+    @InjectMocks
+    private EstatisticaController estatisticaController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        mockMvc = MockMvcBuilders.standaloneSetup(estatisticaController)
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper))
+                .build();
+    }
+
+    @Test
+    void consultar_DeveRetornarResumoDoPeriodo() throws Exception {
+        LocalDate hoje = LocalDate.of(2025, 1, 10);
+        EstatisticaDiaDTO dia = new EstatisticaDiaDTO(hoje, 3, 1, new BigDecimal("3000.00"), new BigDecimal("500.00"), 0.75);
+        when(estatisticaService.consultar(7)).thenReturn(
+                new EstatisticasDTO(hoje.minusDays(6), hoje, 3, 1, new BigDecimal("3500.00"), 0.75, List.of(dia)));
+
+        mockMvc.perform(get("/fictcred/v1/api/estatisticas").param("dias", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.aprovadas").value(3))
+                .andExpect(jsonPath("$.taxaAprovacao").value(0.75))
+                .andExpect(jsonPath("$.dias[0].reprovadas").value(1));
+    }
+
+    @Test
+    void consultar_DeveUsarTrintaDiasPorPadrao() throws Exception {
+        when(estatisticaService.consultar(30)).thenReturn(new EstatisticasDTO());
+
+        mockMvc.perform(get("/fictcred/v1/api/estatisticas"))
+                .andExpect(status().isOk());
+
+        verify(estatisticaService).consultar(30);
+    }
+
+    @Test
+    void reconstruir_DeveRetornarNoContent() throws Exception {
+        mockMvc.perform(post("/fictcred/v1/api/estatisticas/reconstruir"))
+                .andExpect(status().isNoContent());
+
+        verify(estatisticaService).reconstruir();
+    }
+}
@@ -0,0 +1,66 @@
+package br.com.challenge.fictcred.controller;
+
+import br.com.challenge.fictcred.dto.EventoDecisaoDTO;
+import br.com.challenge.fictcred.dto.PaginaDTO;
+import br.com.challenge.fictcred.enums.StatusParcela;
+import br.com.challenge.fictcred.service.EventoDecisaoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class EventoDecisaoControllerTest {
+
+    @Mock
+    private EventoDecisaoService eventoDecisaoService;
+
+    @InjectMocks
+    private EventoDecisaoController eventoDecisaoController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(eventoDecisaoController).build();
+    }
+
+    @Test
+    void listarEventos_DeveRetornarEventosECursor() throws Exception {
+        EventoDecisaoDTO evento = new EventoDecisaoDTO(8L, 20L, 1L, StatusParcela.REPROVADA,
+                "parcelas-entre-1-e-24", new BigDecimal("1000.00"), 36, new Date());
+        when(eventoDecisaoService.listarPublicados(7L, 1L, 100)).thenReturn(new PaginaDTO<>(List.of(evento), 8L));
+
+        mockMvc.perform(get("/fictcred/v1/api/eventos-decisao")
+                .param("apos", "7")
+                .param("clienteId", "1")
+                .param("limite", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens[0].sequencia").value(8))
+                .andExpect(jsonPath("$.itens[0].status").value("REPROVADA"))
+                .andExpect(jsonPath("$.proximoCursor").value(8));
+    }
+
+    @Test
+    void listarEventos_DeveUsarPadroesQuandoSemParametros() throws Exception {
+        when(eventoDecisaoService.listarPublicados(null, null, 500)).thenReturn(new PaginaDTO<>(List.of(), 0L));
+
+        mockMvc.perform(get("/fictcred/v1/api/eventos-decisao"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens").isEmpty())
+                .andExpect(jsonPath("$.proximoCursor").value(0));
+
+        verify(eventoDecisaoService).listarPublicados(null, null, 500);
+    }
+}
@@ -1,10 +1,17 @@
 package br.com.challenge.fictcred.controller;
 
+import br.com.challenge.fictcred.cache.VersaoCliente;
+import br.com.challenge.fictcred.dto.FiltroBuscaPropostaDTO;
+import br.com.challenge.fictcred.dto.PaginaDTO;
 import br.com.challenge.fictcred.dto.PropostaCreditoInsertDTO;
 import br.com.challenge.fictcred.dto.PropostaCreditoListDTO;
+import br.com.challenge.fictcred.dto.PropostaCreditoLoteItemDTO;
+import br.com.challenge.fictcred.dto.PropostaCreditoLoteResultadoDTO;
 import br.com.challenge.fictcred.enums.StatusParcela;
 import br.com.challenge.fictcred.model.Cliente;
 import br.com.challenge.fictcred.model.PropostaCredito;
+import br.com.challenge.fictcred.service.ClienteService;
+import br.com.challenge.fictcred.service.PropostaAssincronaService;
 import br.com.challenge.fictcred.service.PropostaCreditoService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,17 +19,29 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.math.BigDecimal;
-import java.util.Arrays;
+import java.time.Instant;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -32,6 +51,15 @@ class PropostaCreditoControllerTest {
     @Mock
     private PropostaCreditoService propostaCreditoService;
 
+    @Mock
+    private PropostaAssincronaService propostaAssincronaService;
+
+    @Mock
+    private ClienteService clienteService;
+
+    @Spy
+    private ObjectMapper jsonMapper = new ObjectMapper();
+
     @InjectMocks
     private PropostaCreditoController propostaCreditoController;
 
@@ -46,7 +74,9 @@ class PropostaCreditoControllerTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        mockMvc = MockMvcBuilders.standaloneSetup(propostaCreditoController).build();
+        mockMvc = MockMvcBuilders.standaloneSetup(propostaCreditoController)
+                .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
+                .build();
         objectMapper = new ObjectMapper();
 
         cliente = new Cliente();
@@ -68,7 +98,9 @@ class PropostaCreditoControllerTest {
         propostaCreditoInsertDTO.setValorSolicitado(new BigDecimal("10000.00"));
         propostaCreditoInsertDTO.setNumeroParcelas(12);
 
-        propostaCreditoListDTO = new PropostaCreditoListDTO(1L, new BigDecimal("10000.00"), 12, StatusParcela.APROVADA, new Date(), 1L, "João Silva");
+        propostaCreditoListDTO = new PropostaCreditoListDTO(1L, new BigDecimal("10000.00"), 12, StatusParcela.APROVADA, new Date(), 1L, "João Silva", null);
+
+        when(clienteService.buscarVersao(1L)).thenReturn(Optional.of(new VersaoCliente(3L, 7L)));
     }
 
     @Test
@@ -91,11 +123,19 @@ class PropostaCreditoControllerTest {
 
     @Test
     void listarPropostasPorCliente_DeveRetornarListaDePropostas() throws Exception {
-        List<PropostaCredito> propostas = Arrays.asList(propostaCredito);
-        when(propostaCreditoService.listarPorCliente(1L)).thenReturn(propostas);
+        Pageable pageable = PageRequest.of(0, 50, Sort.by("id"));
+        when(propostaCreditoService.listarPorCliente(1L, pageable))
+                .thenReturn(new SliceImpl<>(List.of(propostaCreditoListDTO), pageable, false));
 
-        mockMvc.perform(get("/fictcred/v1/api/proposta-cliente/cliente/1"))
+        MvcResult resultado = mockMvc.perform(get("/fictcred/v1/api/proposta-cliente/cliente/1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
                 .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("ETag", "\"3.7\""))
+                .andExpect(header().string("X-Proxima-Pagina", "false"))
                 .andExpect(jsonPath("$[0].id").value(1L))
                 .andExpect(jsonPath("$[0].valorSolicitado").value(10000.00))
                 .andExpect(jsonPath("$[0].numeroParcelas").value(12))
@@ -103,12 +143,64 @@ class PropostaCreditoControllerTest {
                 .andExpect(jsonPath("$[0].clienteId").value(1L))
                 .andExpect(jsonPath("$[0].clienteNome").value("João Silva"));
 
-        verify(propostaCreditoService, times(1)).listarPorCliente(1L);
+        verify(propostaCreditoService, times(1)).listarPorCliente(1L, pageable);
+    }
+
+    @Test
+    void listarPropostasPorCliente_DeveRepassarPaginacaoEOrdenacao() throws Exception {
+        Pageable pageable = PageRequest.of(2, 10, Sort.by(Sort.Direction.DESC, "dataCriacao"));
+        when(propostaCreditoService.listarPorCliente(1L, pageable))
+                .thenReturn(new SliceImpl<>(List.of(propostaCreditoListDTO), pageable, true));
+
+        MvcResult resultado = mockMvc.perform(get("/fictcred/v1/api/proposta-cliente/cliente/1")
+                .param("page", "2")
+                .param("size", "10")
+                .param("sort", "dataCriacao,desc"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Proxima-Pagina", "true"));
+
+        verify(propostaCreditoService, times(1)).listarPorCliente(1L, pageable);
+    }
+
+    @Test
+    void buscarPropostas_DeveConverterFiltros() throws Exception {
+        when(propostaCreditoService.buscar(any(FiltroBuscaPropostaDTO.class), isNull(), eq(50)))
+                .thenReturn(new PaginaDTO<>(List.of(propostaCreditoListDTO), 1L));
+
+        mockMvc.perform(get("/fictcred/v1/api/proposta-cliente/busca")
+                        .param("status", "REPROVADA", "PENDENTE")
+                        .param("dataInicio", "2026-10-12T00:00:00Z")
+                        .param("valorMinimo", "50000")
+                        .param("parcelasMaximo", "24"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens[0].id").value(1L))
+                .andExpect(jsonPath("$.proximoCursor").value(1L));
+
+        verify(propostaCreditoService).buscar(argThat(filtro ->
+                filtro.getStatus().equals(List.of(StatusParcela.REPROVADA, StatusParcela.PENDENTE))
+                        && filtro.getDataInicio().toInstant().equals(Instant.parse("2026-10-12T00:00:00Z"))
+                        && filtro.getDataFim() == null
+                        && new BigDecimal("50000").equals(filtro.getValorMinimo())
+                        && filtro.getParcelasMinimo() == null
+                        && filtro.getParcelasMaximo() == 24), isNull(), eq(50));
+    }
+
+    @Test
+    void buscarPropostas_DeveRetornarBadRequestQuandoFiltroInvalido() throws Exception {
+        when(propostaCreditoService.buscar(any(FiltroBuscaPropostaDTO.class), eq(7L), eq(50)))
+                .thenThrow(new RuntimeException(PropostaCreditoService.BUSCA_INVALIDA + "cursor 7 não encontrado"));
+
+        mockMvc.perform(get("/fictcred/v1/api/proposta-cliente/busca").param("cursor", "7"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
     void buscarPropostaPorId_DeveRetornarProposta() throws Exception {
-        when(propostaCreditoService.buscarPorId(1L)).thenReturn(Optional.of(propostaCredito));
+        when(propostaCreditoService.buscarPorId(1L)).thenReturn(Optional.of(propostaCreditoListDTO));
 
         mockMvc.perform(get("/fictcred/v1/api/proposta-cliente/1"))
                 .andExpect(status().isOk())
@@ -144,14 +236,130 @@ class PropostaCreditoControllerTest {
         verify(propostaCreditoService, times(1)).criarProposta(eq(1L), any(PropostaCredito.class));
     }
 
+    @Test
+    void criarPropostaAssincrona_DeveRetornarAcceptedComLocation() throws Exception {
+        propostaCredito.setStatus(StatusParcela.PENDENTE);
+        when(propostaAssincronaService.criarProposta(eq(1L), any(PropostaCredito.class))).thenReturn(propostaCredito);
+
+        mockMvc.perform(post("/fictcred/v1/api/proposta-cliente/1/assincrona")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(propostaCreditoInsertDTO)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "http://localhost/fictcred/v1/api/proposta-cliente/1"))
+                .andExpect(jsonPath("$.id").value(1L))
+                .andExpect(jsonPath("$.status").value("PENDENTE"));
+
+        verify(propostaCreditoService, never()).criarProposta(any(), any());
+    }
+
+    @Test
+    void criarPropostaAssincrona_DeveRetornarServiceUnavailableQuandoFilaCheia() throws Exception {
+        when(propostaAssincronaService.criarProposta(eq(1L), any(PropostaCredito.class)))
+                .thenThrow(new RuntimeException(PropostaAssincronaService.FILA_CHEIA));
+
+        mockMvc.perform(post("/fictcred/v1/api/proposta-cliente/1/assincrona")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(propostaCreditoInsertDTO)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
     @Test
     void listarPropostasPorCliente_DeveRetornarNotFoundQuandoClienteNaoEncontrado() throws Exception {
-        when(propostaCreditoService.listarPorCliente(1L)).thenThrow(new RuntimeException("Cliente não encontrado"));
+        when(clienteService.buscarVersao(1L)).thenReturn(Optional.empty());
 
         mockMvc.perform(get("/fictcred/v1/api/proposta-cliente/cliente/1"))
                 .andExpect(status().isNotFound());
 
-        verify(propostaCreditoService, times(1)).listarPorCliente(1L);
+        verify(propostaCreditoService, never()).listarPorCliente(any(), any());
+    }
+
+    @Test
+    void listarPropostasPorCliente_DeveRetornarNotModifiedSemConsultarPropostas() throws Exception {
+        mockMvc.perform(get("/fictcred/v1/api/proposta-cliente/cliente/1")
+                .header("If-None-Match", "W/\"3.7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3.7\""));
+
+        verify(propostaCreditoService, never()).listarPorCliente(any(), any());
+    }
+
+    @Test
+    void listarPropostasPorCliente_DeveRetornarListaQuandoPropostasMudaram() throws Exception {
+        Pageable pageable = PageRequest.of(0, 50, Sort.by("id"));
+        when(propostaCreditoService.listarPorCliente(1L, pageable))
+                .thenReturn(new SliceImpl<>(List.of(propostaCreditoListDTO), pageable, false));
+
+        MvcResult resultado = mockMvc.perform(get("/fictcred/v1/api/proposta-cliente/cliente/1")
+                .header("If-None-Match", "\"3.6\""))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3.7\""))
+                .andExpect(jsonPath("$[0].id").value(1L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void listarPropostasPorCliente_DeveTransmitirNdjsonNaOrdemPedida() throws Exception {
+        Sort sort = Sort.by(Sort.Direction.DESC, "dataCriacao");
+        doAnswer(invocacao -> {
+            Consumer<PropostaCreditoListDTO> consumidor = invocacao.getArgument(2);
+            consumidor.accept(propostaCreditoListDTO);
+            return null;
+        }).when(propostaCreditoService).percorrerPorCliente(eq(1L), eq(sort), any(Consumer.class));
+
+        MvcResult resultado = mockMvc.perform(get("/fictcred/v1/api/proposta-cliente/cliente/1")
+                        .param("sort", "dataCriacao,desc")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String corpo = mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().doesNotExist("ETag"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(1L, objectMapper.readTree(corpo.trim()).get("id").asLong());
+        verify(propostaCreditoService, never()).listarPorCliente(any(), any());
     }
 
+    @Test
+    void criarPropostasEmLote_DeveRetornarDecisaoPorItem() throws Exception {
+        PropostaCreditoLoteItemDTO item = new PropostaCreditoLoteItemDTO();
+        item.setClienteId(1L);
+        item.setValorSolicitado(new BigDecimal("10000.00"));
+        item.setNumeroParcelas(12);
+        when(propostaCreditoService.criarPropostasEmLote(any())).thenReturn(List.of(
+                new PropostaCreditoLoteResultadoDTO(0, 1L, 10L, StatusParcela.APROVADA, null, null)));
+
+        mockMvc.perform(post("/fictcred/v1/api/proposta-cliente/lote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(item))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].indice").value(0))
+                .andExpect(jsonPath("$[0].propostaId").value(10L))
+                .andExpect(jsonPath("$[0].status").value("APROVADA"));
+
+        verify(propostaCreditoService, times(1)).criarPropostasEmLote(any());
+    }
+
+    @Test
+    void criarPropostasEmLote_DeveRecusarLoteAcimaDoLimite() throws Exception {
+        PropostaCreditoLoteItemDTO item = new PropostaCreditoLoteItemDTO();
+        item.setClienteId(1L);
+        item.setValorSolicitado(new BigDecimal("10000.00"));
+        item.setNumeroParcelas(12);
+        List<PropostaCreditoLoteItemDTO> itens = Collections.nCopies(PropostaCreditoService.TAMANHO_MAXIMO_LOTE + 1, item);
+
+        mockMvc.perform(post("/fictcred/v1/api/proposta-cliente/lote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(itens)))
+                .andExpect(status().isPayloadTooLarge());
+
+        verify(propostaCreditoService, never()).criarPropostasEmLote(any());
+    }
 }
@@ -0,0 +1,87 @@
+package br.com.challenge.fictcred.estatistica;
+
+import br.com.challenge.fictcred.enums.StatusParcela;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AcumuladorEstatisticasTest {
+
+    private final AcumuladorEstatisticas acumulador = new AcumuladorEstatisticas();
+    private final LocalDate hoje = LocalDate.of(2025, 1, 10);
+
+    @Test
+    void pendentes_DeveRetornarSomenteODeltaNaoConfirmado() {
+        acumulador.registrar(hoje, StatusParcela.APROVADA, 100_00);
+        acumulador.registrar(hoje, StatusParcela.APROVADA, 50_00);
+        acumulador.registrar(hoje, StatusParcela.REPROVADA, 10_00);
+
+        List<AcumuladorEstatisticas.Delta> primeira = acumulador.pendentes();
+        assertEquals(2, primeira.size());
+        acumulador.confirmar(primeira);
+        assertTrue(acumulador.pendentes().isEmpty());
+
+        acumulador.registrar(hoje, StatusParcela.APROVADA, 1_00);
+        List<AcumuladorEstatisticas.Delta> segunda = acumulador.pendentes();
+        assertEquals(List.of(new AcumuladorEstatisticas.Delta(
+                new AcumuladorEstatisticas.Chave(hoje, StatusParcela.APROVADA), 1, 1_00)), segunda);
+    }
+
+    @Test
+    void pendentes_NaoConfirmadosDevemVoltarNaProximaDescarga() {
+        acumulador.registrar(hoje, StatusParcela.APROVADA, 100_00);
+        acumulador.pendentes();
+        acumulador.registrar(hoje, StatusParcela.APROVADA, 100_00);
+
+        AcumuladorEstatisticas.Delta delta = acumulador.pendentes().get(0);
+        assertEquals(2, delta.quantidade());
+        assertEquals(200_00, delta.centavos());
+    }
+
+    @Test
+    void registrar_NaoDevePerderIncrementosConcorrentesComADescarga() throws InterruptedException {
+        int threads = 8;
+        int porThread = 20_000;
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Thread> produtores = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            StatusParcela status = t % 2 == 0 ? StatusParcela.APROVADA : StatusParcela.REPROVADA;
+            Thread produtor = new Thread(() -> {
+                try {
+                    largada.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < porThread; i++) {
+                    acumulador.registrar(hoje, status, 3);
+                }
+            });
+            produtor.start();
+            produtores.add(produtor);
+        }
+
+        long quantidade = 0;
+        long centavos = 0;
+        largada.countDown();
+        while (produtores.stream().anyMatch(Thread::isAlive)) {
+            List<AcumuladorEstatisticas.Delta> deltas = acumulador.pendentes();
+            for (AcumuladorEstatisticas.Delta delta : deltas) {
+                quantidade += delta.quantidade();
+                centavos += delta.centavos();
+            }
+            acumulador.confirmar(deltas);
+        }
+        for (AcumuladorEstatisticas.Delta delta : acumulador.pendentes()) {
+            quantidade += delta.quantidade();
+            centavos += delta.centavos();
+        }
+
+        assertEquals((long) threads * porThread, quantidade);
+        assertEquals(3L * threads * porThread, centavos);
+    }
+}
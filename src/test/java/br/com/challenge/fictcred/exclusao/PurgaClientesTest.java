@@ -0,0 +1,135 @@
+package br.com.challenge.fictcred.exclusao;
+
+import br.com.challenge.fictcred.dto.ExclusaoClienteDTO;
+import br.com.challenge.fictcred.enums.StatusParcela;
+import br.com.challenge.fictcred.model.Cliente;
+import br.com.challenge.fictcred.model.PropostaCredito;
+import br.com.challenge.fictcred.repository.ClienteRepository;
+import br.com.challenge.fictcred.repository.PropostaCreditoArquivadaRepository;
+import br.com.challenge.fictcred.repository.PropostaCreditoRepository;
+import br.com.challenge.fictcred.service.ClienteService;
+import br.com.challenge.fictcred.service.PropostaCreditoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Agendamento praticamente desligado e lotes pequenos: o teste conduz a purga e ela precisa de vários lotes
+@SpringBootTest(properties = {"fictcred.exclusao.intervalo=3600000", "fictcred.exclusao.tamanho-lote=3"})
+@ActiveProfiles("test")
+class PurgaClientesTest {
+
+    @Autowired
+    private PurgaClientes purgaClientes;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private PropostaCreditoService propostaCreditoService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private PropostaCreditoRepository propostaCreditoRepository;
+
+    @Autowired
+    private PropostaCreditoArquivadaRepository propostaCreditoArquivadaRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void deletar_DeveEsconderClienteNaHoraEPurgaRemoverPropostasEmLotes() {
+        Cliente cliente = novoCliente("Cliente Excluído", "11122233344");
+        Long clienteId = cliente.getId();
+        // Cria também o razão de exposição, que tem chave estrangeira para o cliente
+        PropostaCredito decidida = propostaCreditoService.criarProposta(clienteId, proposta(null, "1000.00"));
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(propostaCreditoRepository.save(proposta(cliente, "2000.00")).getId());
+        }
+        // Duas propostas no arquivo
+        List<Long> arquivadas = ids.subList(0, 2);
+        transactionTemplate.executeWithoutResult(status -> {
+            propostaCreditoArquivadaRepository.copiarParaArquivo(arquivadas);
+            propostaCreditoRepository.removerPorIds(arquivadas);
+        });
+        assertTrue(clienteService.buscarPorId(clienteId).isPresent());
+
+        clienteService.deletar(clienteId);
+
+        // Some de todas as leituras antes de qualquer proposta ser removida
+        assertTrue(clienteService.buscarPorId(clienteId).isEmpty());
+        assertTrue(clienteService.buscarVersao(clienteId).isEmpty());
+        assertTrue(propostaCreditoService.buscarPorId(decidida.getId()).isEmpty());
+        assertTrue(propostaCreditoService.buscarPorId(arquivadas.get(0)).isEmpty());
+        RuntimeException listagem = assertThrows(RuntimeException.class,
+                () -> propostaCreditoService.listarPorCliente(clienteId, PageRequest.of(0, 10)));
+        assertEquals("Cliente não encontrado", listagem.getMessage());
+        RuntimeException novaProposta = assertThrows(RuntimeException.class,
+                () -> propostaCreditoService.criarProposta(clienteId, proposta(null, "1000.00")));
+        assertEquals("Cliente não encontrado", novaProposta.getMessage());
+        assertThrows(RuntimeException.class, () -> clienteService.deletar(clienteId));
+        // O CPF fica livre para um novo cadastro
+        assertNotNull(novoCliente("Cliente Novo", "11122233344").getId());
+
+        ExclusaoClienteDTO antes = clienteService.buscarExclusao(clienteId).orElseThrow();
+        assertEquals(6, antes.getPropostasRestantes());
+        assertFalse(antes.isConcluida());
+
+        // Sem tempo disponível a execução não remove nada
+        assertEquals(0, purgaClientes.executar(Duration.ZERO));
+        assertEquals(6, clienteService.buscarExclusao(clienteId).orElseThrow().getPropostasRestantes());
+
+        assertEquals(6, purgaClientes.executar(Duration.ofMinutes(1)));
+
+        ExclusaoClienteDTO depois = clienteService.buscarExclusao(clienteId).orElseThrow();
+        assertTrue(depois.isConcluida());
+        assertNotNull(depois.getDataConclusao());
+        assertEquals(6, depois.getPropostasRemovidas());
+        assertEquals(0, depois.getPropostasRestantes());
+        assertEquals(0, contar("select count(*) from cliente where id = ?", clienteId));
+        assertEquals(0, contar("select count(*) from exposicao_cliente where cliente_id = ?", clienteId));
+        assertEquals(0, contar("select count(*) from proposta_credito where cliente_id = ?", clienteId));
+        assertEquals(0, contar("select count(*) from proposta_credito_arquivo where cliente_id = ?", clienteId));
+    }
+
+    private Cliente novoCliente(String nome, String cpf) {
+        Cliente cliente = new Cliente();
+        cliente.setNome(nome);
+        cliente.setCpf(cpf);
+        cliente.setRendaMensal(new BigDecimal("5000.00"));
+        cliente.setDataCadastro(new Date());
+        return clienteService.salvar(cliente);
+    }
+
+    private PropostaCredito proposta(Cliente cliente, String valor) {
+        PropostaCredito proposta = new PropostaCredito();
+        proposta.setCliente(cliente);
+        proposta.setStatus(StatusParcela.APROVADA);
+        proposta.setValorSolicitado(new BigDecimal(valor));
+        proposta.setNumeroParcelas(12);
+        proposta.setDataCriacao(new Date());
+        return proposta;
+    }
+
+    private long contar(String sql, Long clienteId) {
+        return jdbcTemplate.queryForObject(sql, Long.class, clienteId);
+    }
+}
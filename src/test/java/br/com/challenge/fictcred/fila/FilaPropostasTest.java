@@ -0,0 +1,161 @@
+package br.com.challenge.fictcred.fila;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FilaPropostasTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private FilaPropostas fila;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (fila != null) {
+            fila.close();
+        }
+    }
+
+    @Test
+    void reservar_DeveRecusarQuandoFilaCheia() {
+        fila = new FilaPropostas(2, 1, 10, 1, Duration.ZERO, ids -> { }, registry);
+
+        assertTrue(fila.reservar());
+        assertTrue(fila.reservar());
+        assertFalse(fila.reservar());
+        assertEquals(1.0, registry.get("fictcred.fila.propostas.rejeitadas").counter().count());
+
+        fila.cancelarReserva();
+        assertTrue(fila.reservar());
+    }
+
+    @Test
+    void trabalhadores_DeveProcessarEmMicroLotes() throws InterruptedException {
+        List<List<Long>> lotes = new ArrayList<>();
+        CountDownLatch processadas = new CountDownLatch(5);
+        fila = new FilaPropostas(10, 1, 3, 1, Duration.ZERO, ids -> {
+            synchronized (lotes) {
+                lotes.add(List.copyOf(ids));
+            }
+            ids.forEach(id -> processadas.countDown());
+        }, registry);
+
+        // Enfileira antes de iniciar para que o trabalhador encontre a fila cheia e drene em lotes
+        for (long id = 1; id <= 5; id++) {
+            assertTrue(fila.reservar());
+            fila.enfileirar(id);
+        }
+        assertEquals(5.0, registry.get("fictcred.fila.propostas.tamanho").gauge().value());
+        fila.iniciar();
+
+        assertTrue(processadas.await(5, TimeUnit.SECONDS));
+        fila.close();
+        synchronized (lotes) {
+            assertEquals(List.of(List.of(1L, 2L, 3L), List.of(4L, 5L)), lotes);
+        }
+        assertEquals(5, registry.get("fictcred.fila.propostas.espera").timer().count());
+    }
+
+    @Test
+    void trabalhadores_DeveLiberarVagasAoRetirarDaFila() throws InterruptedException {
+        CountDownLatch processada = new CountDownLatch(1);
+        fila = new FilaPropostas(1, 1, 10, 1, Duration.ZERO, ids -> processada.countDown(), registry);
+        fila.iniciar();
+
+        assertTrue(fila.reservar());
+        fila.enfileirar(1L);
+        assertTrue(processada.await(5, TimeUnit.SECONDS));
+
+        assertTrue(fila.reservar());
+    }
+
+    @Test
+    void trabalhadores_DeveContarFalhasESeguirConsumindo() throws InterruptedException {
+        CountDownLatch segunda = new CountDownLatch(1);
+        fila = new FilaPropostas(10, 1, 1, 1, Duration.ZERO, ids -> {
+            if (ids.contains(1L)) {
+                throw new IllegalStateException("falha simulada");
+            }
+            segunda.countDown();
+        }, registry);
+        fila.iniciar();
+
+        fila.enfileirarAguardando(1L);
+        fila.enfileirarAguardando(2L);
+
+        assertTrue(segunda.await(5, TimeUnit.SECONDS));
+        fila.close();
+        assertEquals(1.0, registry.get("fictcred.fila.propostas.falhas").counter().count());
+        assertEquals(0, fila.getEmProcessamento());
+    }
+
+    @Test
+    void enfileirar_NaoDeveDuplicarPropostaQueJaEstaNaFila() throws InterruptedException {
+        List<Long> processadas = new ArrayList<>();
+        CountDownLatch segunda = new CountDownLatch(1);
+        fila = new FilaPropostas(10, 1, 10, 1, Duration.ZERO, ids -> {
+            synchronized (processadas) {
+                processadas.addAll(ids);
+            }
+            if (ids.contains(2L)) {
+                segunda.countDown();
+            }
+        }, registry);
+
+        assertTrue(fila.reservar());
+        fila.enfileirar(1L);
+        fila.enfileirarAguardando(1L);
+        assertEquals(1, fila.getTamanho());
+        fila.enfileirarAguardando(2L);
+        fila.iniciar();
+
+        assertTrue(segunda.await(5, TimeUnit.SECONDS));
+        synchronized (processadas) {
+            assertEquals(List.of(1L, 2L), processadas);
+        }
+        // A reserva da duplicata foi devolvida: sobram todas as vagas
+        for (int i = 0; i < 10; i++) {
+            assertTrue(fila.reservar());
+        }
+    }
+
+    @Test
+    void trabalhadores_DeveAvaliarUmaAUmaQuandoLoteFalhaEReenfileirarAsQueFalharem() throws InterruptedException {
+        AtomicInteger tentativasDaProblematica = new AtomicInteger();
+        List<List<Long>> chamadas = new ArrayList<>();
+        CountDownLatch recuperada = new CountDownLatch(1);
+        fila = new FilaPropostas(10, 1, 10, 3, Duration.ofMillis(10), ids -> {
+            synchronized (chamadas) {
+                chamadas.add(List.copyOf(ids));
+            }
+            // A proposta 1 falha nas duas primeiras tentativas (ex.: conflito transitório)
+            if (ids.contains(1L) && tentativasDaProblematica.incrementAndGet() <= 2) {
+                throw new IllegalStateException("falha simulada");
+            }
+            if (ids.equals(List.of(1L))) {
+                recuperada.countDown();
+            }
+        }, registry);
+
+        fila.enfileirarAguardando(1L);
+        fila.enfileirarAguardando(2L);
+        fila.iniciar();
+
+        assertTrue(recuperada.await(5, TimeUnit.SECONDS));
+        fila.close();
+        synchronized (chamadas) {
+            assertEquals(List.of(List.of(1L, 2L), List.of(1L), List.of(2L), List.of(1L)), chamadas);
+        }
+        assertEquals(1.0, registry.get("fictcred.fila.propostas.retentativas").counter().count());
+        assertEquals(0.0, registry.get("fictcred.fila.propostas.falhas").counter().count());
+    }
+}
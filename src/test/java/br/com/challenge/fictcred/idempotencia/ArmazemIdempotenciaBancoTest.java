@@ -0,0 +1,95 @@
+package br.com.challenge.fictcred.idempotencia;
+
+import br.com.challenge.fictcred.repository.RespostaIdempotenteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ArmazemIdempotenciaBancoTest {
+
+    @Autowired
+    private RespostaIdempotenteRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void reservar_SegundaReservaDeveVerOriginalEmProcessamentoEDepoisAResposta() {
+        ArmazemIdempotenciaBanco armazem = new ArmazemIdempotenciaBanco(repository, Duration.ofMinutes(5), Duration.ofMinutes(1));
+
+        assertTrue(armazem.reservar("chave-1", "hash", "r1").isEmpty());
+        Optional<RespostaArmazenada> concorrente = armazem.reservar("chave-1", "hash", "r2");
+        assertTrue(concorrente.isPresent());
+        assertTrue(concorrente.get().emProcessamento());
+
+        byte[] corpo = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+        armazem.concluir("chave-1", "r1", new RespostaArmazenada("hash", 200, "application/json", null, corpo));
+        RespostaArmazenada guardada = armazem.reservar("chave-1", "hash", "r3").orElseThrow();
+
+        assertEquals(200, guardada.status());
+        assertEquals("application/json", guardada.contentType());
+        assertArrayEquals(corpo, guardada.corpo());
+    }
+
+    @Test
+    void reservar_DevePermitirNovaExecucaoDepoisDeLiberarOuExpirar() throws InterruptedException {
+        ArmazemIdempotenciaBanco armazem = new ArmazemIdempotenciaBanco(repository, Duration.ofMillis(10), Duration.ofMillis(10));
+
+        assertTrue(armazem.reservar("chave-1", "hash", "r1").isEmpty());
+        armazem.liberar("chave-1", "r1");
+        assertTrue(armazem.reservar("chave-1", "hash", "r2").isEmpty());
+
+        Thread.sleep(20);
+        assertTrue(armazem.reservar("chave-1", "hash", "r3").isEmpty());
+        armazem.reservar("chave-2", "hash", "r4");
+        Thread.sleep(20);
+        armazem.removerExpiradas();
+        assertEquals(0, repository.count());
+    }
+
+    @Test
+    void reservar_DeveAssumirReservaVencidaMasManterRespostaConcluidaAteOTtl() throws InterruptedException {
+        ArmazemIdempotenciaBanco armazem = new ArmazemIdempotenciaBanco(repository, Duration.ofMinutes(5), Duration.ofMillis(10));
+
+        // A instância que reservou caiu sem concluir nem liberar
+        assertTrue(armazem.reservar("chave-1", "hash", "r1").isEmpty());
+        Thread.sleep(20);
+        assertTrue(armazem.reservar("chave-1", "hash", "r2").isEmpty());
+
+        armazem.concluir("chave-1", "r2", new RespostaArmazenada("hash", 201, "application/json", null, new byte[0]));
+        Thread.sleep(20);
+        assertEquals(201, armazem.reservar("chave-1", "hash", "r3").orElseThrow().status());
+    }
+
+    @Test
+    void liberarEConcluir_NaoDevemMexerNaReservaAssumidaPorOutraInstancia() throws InterruptedException {
+        ArmazemIdempotenciaBanco primeira = new ArmazemIdempotenciaBanco(repository, Duration.ofMinutes(5), Duration.ofMillis(10));
+        ArmazemIdempotenciaBanco outra = new ArmazemIdempotenciaBanco(repository, Duration.ofMinutes(5), Duration.ofMinutes(1));
+
+        // A primeira execução passou do prazo e a repetição, em outra instância, assumiu a chave
+        assertTrue(primeira.reservar("chave-1", "hash", "r1").isEmpty());
+        Thread.sleep(20);
+        assertTrue(outra.reservar("chave-1", "hash", "r2").isEmpty());
+
+        primeira.liberar("chave-1", "r1");
+        assertTrue(outra.reservar("chave-1", "hash", "r3").orElseThrow().emProcessamento());
+        primeira.concluir("chave-1", "r1", new RespostaArmazenada("hash", 200, "application/json", null, new byte[0]));
+        assertTrue(outra.reservar("chave-1", "hash", "r3").orElseThrow().emProcessamento());
+
+        outra.concluir("chave-1", "r2", new RespostaArmazenada("hash", 201, "application/json", null, new byte[0]));
+        primeira.liberar("chave-1", "r1");
+        assertEquals(201, outra.reservar("chave-1", "hash", "r3").orElseThrow().status());
+    }
+}
@@ -0,0 +1,142 @@
+package br.com.challenge.fictcred.idempotencia;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotenciaFilterTest {
+
+    private ArmazemIdempotenciaMemoria armazem;
+    private IdempotenciaFilter filtro;
+    private AtomicInteger execucoes;
+
+    @BeforeEach
+    void setUp() {
+        armazem = new ArmazemIdempotenciaMemoria(100, Duration.ofMinutes(5));
+        filtro = new IdempotenciaFilter(armazem, Duration.ofSeconds(5));
+        execucoes = new AtomicInteger();
+    }
+
+    @Test
+    void doFilter_DeveReproduzirPrimeiraRespostaSemExecutarDeNovo() throws Exception {
+        MockHttpServletResponse primeira = executar("chave-1", "{\"valor\":1}", criarProposta());
+        MockHttpServletResponse repetida = executar("chave-1", "{\"valor\":1}", criarProposta());
+
+        assertEquals(1, execucoes.get());
+        assertEquals(200, repetida.getStatus());
+        assertEquals(primeira.getContentAsString(), repetida.getContentAsString());
+        assertEquals("{\"id\":1}", repetida.getContentAsString());
+        assertEquals("application/json", repetida.getContentType());
+        assertEquals("true", repetida.getHeader(IdempotenciaFilter.CABECALHO_REPRODUZIDA));
+        assertNull(primeira.getHeader(IdempotenciaFilter.CABECALHO_REPRODUZIDA));
+    }
+
+    @Test
+    void doFilter_DeveRejeitarMesmaChaveComOutroCorpo() throws Exception {
+        executar("chave-1", "{\"valor\":1}", criarProposta());
+        MockHttpServletResponse outra = executar("chave-1", "{\"valor\":2}", criarProposta());
+
+        assertEquals(1, execucoes.get());
+        assertEquals(422, outra.getStatus());
+    }
+
+    @Test
+    void doFilter_NaoDeveGuardarErroDoServidor() throws Exception {
+        FilterChain falha = (req, res) -> {
+            execucoes.incrementAndGet();
+            ((HttpServletResponse) res).setStatus(500);
+        };
+
+        executar("chave-1", "{}", falha);
+        MockHttpServletResponse segunda = executar("chave-1", "{}", criarProposta());
+
+        assertEquals(2, execucoes.get());
+        assertEquals(200, segunda.getStatus());
+    }
+
+    @Test
+    void doFilter_DuplicataSimultaneaDeveEsperarOriginal() throws Exception {
+        CountDownLatch dentro = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        FilterChain lenta = (req, res) -> {
+            dentro.countDown();
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            criarProposta().doFilter(req, res);
+        };
+
+        Thread original = Thread.ofVirtual().start(() -> {
+            try {
+                executar("chave-1", "{}", lenta);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(dentro.await(5, TimeUnit.SECONDS));
+
+        MockHttpServletResponse[] duplicata = new MockHttpServletResponse[1];
+        Thread repetida = Thread.ofVirtual().start(() -> {
+            try {
+                duplicata[0] = executar("chave-1", "{}", criarProposta());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        // A duplicata fica parada enquanto a original não termina
+        repetida.join(200);
+        assertTrue(repetida.isAlive());
+
+        liberar.countDown();
+        original.join();
+        repetida.join();
+
+        assertEquals(1, execucoes.get());
+        assertEquals("{\"id\":1}", duplicata[0].getContentAsString());
+        assertEquals(0, filtro.getEmAndamento());
+    }
+
+    @Test
+    void doFilter_DeveIgnorarRequisicaoSemChave() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", "/fictcred/v1/api/cliente");
+            request.setContent("{}".getBytes(StandardCharsets.UTF_8));
+            filtro.doFilter(request, new MockHttpServletResponse(), criarProposta());
+        }
+
+        assertEquals(2, execucoes.get());
+        assertEquals(0, armazem.getTamanho());
+    }
+
+    private MockHttpServletResponse executar(String chave, String corpo, FilterChain cadeia) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/fictcred/v1/api/proposta-cliente/1");
+        request.addHeader(IdempotenciaFilter.CABECALHO, chave);
+        request.setContent(corpo.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filtro.doFilter(request, response, cadeia);
+        return response;
+    }
+
+    // Simula o controller: lê o corpo inteiro e responde com o id criado
+    private FilterChain criarProposta() {
+        return (req, res) -> {
+            req.getInputStream().readAllBytes();
+            int id = execucoes.incrementAndGet();
+            res.setContentType("application/json");
+            res.getOutputStream().write(("{\"id\":" + id + "}").getBytes(StandardCharsets.UTF_8));
+        };
+    }
+}
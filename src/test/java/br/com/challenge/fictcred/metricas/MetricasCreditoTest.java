@@ -0,0 +1,73 @@
+package br.com.challenge.fictcred.metricas;
+
+import br.com.challenge.fictcred.regra.AvaliadorCredito;
+import br.com.challenge.fictcred.regra.ResultadoAvaliacao;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricasCreditoTest {
+
+    private SimpleMeterRegistry registry;
+    private MetricasCredito metricas;
+    private final AvaliadorCredito avaliador = AvaliadorCredito.padrao();
+    private final BigDecimal renda = new BigDecimal("5000.00");
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metricas = new MetricasCredito(registry);
+    }
+
+    @Test
+    void construtor_DeveRegistrarTimerEContadorDeAprovadasAntesDoPrimeiroUso() {
+        assertNotNull(registry.find(MetricasCredito.AVALIACAO).timer());
+        assertNotNull(registry.find(MetricasCredito.DECISOES).tags("status", "aprovada").counter());
+    }
+
+    @Test
+    void registrarRegras_DeveCriarContadoresZeradosAntesDaPrimeiraReprovacao() {
+        metricas.registrarRegras(avaliador.getNomesRegras());
+
+        for (String regra : List.of("valor-maximo-5x-renda", "parcelas-entre-1-e-24")) {
+            assertEquals(0.0, contador("reprovada", regra).count());
+        }
+
+        metricas.registrarAvaliacao(1_000, avaliador.avaliar(new BigDecimal("30000.00"), 12, renda));
+        assertEquals(1.0, contador("reprovada", "valor-maximo-5x-renda").count());
+    }
+
+    @Test
+    void registrarAvaliacao_DeveContarPorDecisaoERegra() {
+        metricas.registrarAvaliacao(1_000, avaliador.avaliar(new BigDecimal("1000.00"), 12, renda));
+        metricas.registrarAvaliacao(1_000, avaliador.avaliar(new BigDecimal("30000.00"), 12, renda));
+        metricas.registrarAvaliacao(1_000, avaliador.avaliar(new BigDecimal("40000.00"), 12, renda));
+        metricas.registrarAvaliacao(1_000, avaliador.avaliar(new BigDecimal("1000.00"), 36, renda));
+
+        assertEquals(1.0, contador("aprovada", "nenhuma").count());
+        assertEquals(2.0, contador("reprovada", "valor-maximo-5x-renda").count());
+        assertEquals(1.0, contador("reprovada", "parcelas-entre-1-e-24").count());
+        assertEquals(4, registry.get(MetricasCredito.AVALIACAO).timer().count());
+    }
+
+    @Test
+    void registrarAvaliacao_DeveReaproveitarContadorDaRegra() {
+        ResultadoAvaliacao reprovada = avaliador.avaliar(new BigDecimal("30000.00"), 12, renda);
+        metricas.registrarAvaliacao(1_000, reprovada);
+        Counter primeiro = contador("reprovada", "valor-maximo-5x-renda");
+        metricas.registrarAvaliacao(1_000, reprovada);
+
+        assertSame(primeiro, contador("reprovada", "valor-maximo-5x-renda"));
+        assertEquals(3, registry.getMeters().size());
+    }
+
+    private Counter contador(String status, String regra) {
+        return registry.get(MetricasCredito.DECISOES).tags("status", status, "regra", regra).counter();
+    }
+}
@@ -0,0 +1,55 @@
+package br.com.challenge.fictcred.outbox;
+
+import br.com.challenge.fictcred.dto.EventoDecisaoDTO;
+import br.com.challenge.fictcred.enums.StatusParcela;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PublicadorEventosArquivoTest {
+
+    @TempDir
+    Path diretorio;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void publicar_DeveAcrescentarUmEventoPorLinhaEmOrdem() throws IOException {
+        Path arquivo = diretorio.resolve("eventos/decisoes.ndjson");
+        PublicadorEventosArquivo publicador = new PublicadorEventosArquivo(arquivo, objectMapper);
+
+        publicador.publicar(List.of(evento(1L, StatusParcela.APROVADA, null), evento(2L, StatusParcela.REPROVADA, "parcelas-entre-1-e-24")));
+        publicador.publicar(List.of(evento(3L, StatusParcela.APROVADA, null)));
+
+        List<String> linhas = Files.readAllLines(arquivo);
+        assertEquals(3, linhas.size());
+        for (int i = 0; i < linhas.size(); i++) {
+            EventoDecisaoDTO lido = objectMapper.readValue(linhas.get(i), EventoDecisaoDTO.class);
+            assertEquals(i + 1L, lido.getSequencia());
+        }
+        assertEquals("parcelas-entre-1-e-24", objectMapper.readValue(linhas.get(1), EventoDecisaoDTO.class).getRegraReprovacao());
+    }
+
+    @Test
+    void publicadorMemoria_DeveDescartarOsMaisAntigosAoAtingirCapacidade() {
+        PublicadorEventosMemoria publicador = new PublicadorEventosMemoria(2);
+
+        publicador.publicar(List.of(evento(1L, StatusParcela.APROVADA, null), evento(2L, StatusParcela.APROVADA, null)));
+        publicador.publicar(List.of(evento(3L, StatusParcela.APROVADA, null)));
+
+        assertEquals(List.of(2L, 3L), publicador.getEventos().stream().map(EventoDecisaoDTO::getSequencia).toList());
+    }
+
+    private EventoDecisaoDTO evento(Long sequencia, StatusParcela status, String regra) {
+        return new EventoDecisaoDTO(sequencia, sequencia * 10, 1L, status, regra, new BigDecimal("1000.00"), 12, new Date());
+    }
+}
@@ -0,0 +1,221 @@
+package br.com.challenge.fictcred.outbox;
+
+import br.com.challenge.fictcred.dto.EventoDecisaoDTO;
+import br.com.challenge.fictcred.dto.PaginaDTO;
+import br.com.challenge.fictcred.dto.PropostaCreditoLoteItemDTO;
+import br.com.challenge.fictcred.enums.StatusParcela;
+import br.com.challenge.fictcred.model.Cliente;
+import br.com.challenge.fictcred.model.EventoDecisao;
+import br.com.challenge.fictcred.model.PropostaCredito;
+import br.com.challenge.fictcred.repository.ClienteRepository;
+import br.com.challenge.fictcred.repository.EventoDecisaoRepository;
+import br.com.challenge.fictcred.service.EventoDecisaoService;
+import br.com.challenge.fictcred.service.PropostaCreditoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+
+// Intervalo alto para que o agendamento não concorra com as chamadas manuais ao relay
+@SpringBootTest(properties = "fictcred.outbox.intervalo=3600000")
+@ActiveProfiles("test")
+class RelayEventosDecisaoTest {
+
+    @Autowired
+    private PropostaCreditoService propostaCreditoService;
+
+    @Autowired
+    private EventoDecisaoService eventoDecisaoService;
+
+    @Autowired
+    private RelayEventosDecisao relay;
+
+    @Autowired
+    private EventoDecisaoRepository eventoDecisaoRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @MockitoSpyBean
+    private PublicadorEventos publicadorEventos;
+
+    private Cliente cliente;
+
+    @BeforeEach
+    void setUp() {
+        relay.publicarPendentes();
+        eventoDecisaoRepository.deleteAll();
+        ((PublicadorEventosMemoria) publicadorEventos).limpar();
+        reset(publicadorEventos);
+
+        cliente = new Cliente();
+        cliente.setNome("Cliente Outbox");
+        cliente.setCpf(String.valueOf(System.nanoTime()));
+        cliente.setRendaMensal(new BigDecimal("5000.00"));
+        cliente.setDataCadastro(new Date());
+        cliente = clienteRepository.save(cliente);
+    }
+
+    @Test
+    void criarProposta_DeveGravarEventoNaMesmaTransacao() {
+        PropostaCredito proposta = propostaCreditoService.criarProposta(cliente.getId(), novaProposta(36));
+
+        assertEquals(1, eventoDecisaoRepository.count());
+        assertEquals(1, relay.publicarLote());
+
+        EventoDecisaoDTO publicado = ((PublicadorEventosMemoria) publicadorEventos).getEventos().get(0);
+        assertEquals(proposta.getId(), publicado.getPropostaId());
+        assertEquals(StatusParcela.REPROVADA, publicado.getStatus());
+        assertEquals("parcelas-entre-1-e-24", publicado.getRegraReprovacao());
+    }
+
+    @Test
+    void criarProposta_NaoDeveGravarEventoQuandoClienteNaoExiste() {
+        assertThrows(RuntimeException.class, () -> propostaCreditoService.criarProposta(-1L, novaProposta(12)));
+
+        assertEquals(0, eventoDecisaoRepository.count());
+    }
+
+    @Test
+    void publicarLote_DevePublicarEmOrdemEAvancarCheckpoint() {
+        List<PropostaCreditoLoteItemDTO> itens = List.of(item(12), item(36), item(6));
+        propostaCreditoService.criarPropostasEmLote(itens);
+
+        assertEquals(3, relay.publicarLote());
+        assertEquals(0, relay.publicarLote());
+
+        // A sequência continua de onde os testes anteriores pararam
+        List<EventoDecisaoDTO> publicados = ((PublicadorEventosMemoria) publicadorEventos).getEventos();
+        long primeira = publicados.get(0).getSequencia();
+        assertEquals(List.of(primeira, primeira + 1, primeira + 2),
+                publicados.stream().map(EventoDecisaoDTO::getSequencia).toList());
+        assertEquals(List.of(StatusParcela.APROVADA, StatusParcela.REPROVADA, StatusParcela.APROVADA),
+                publicados.stream().map(EventoDecisaoDTO::getStatus).toList());
+
+        PaginaDTO<EventoDecisaoDTO> pagina = eventoDecisaoService.listarPublicados(primeira, cliente.getId(), 10);
+        assertEquals(List.of(primeira + 1, primeira + 2),
+                pagina.getItens().stream().map(EventoDecisaoDTO::getSequencia).toList());
+        assertEquals(primeira + 2, pagina.getProximoCursor());
+        assertEquals(primeira + 2, eventoDecisaoService.listarPublicados(primeira + 2, null, 10).getProximoCursor());
+    }
+
+    @Test
+    void publicarLote_DeveReenviarComAMesmaSequenciaQuandoPublicacaoFalha() {
+        propostaCreditoService.criarProposta(cliente.getId(), novaProposta(12));
+        doThrow(new IllegalStateException("destino indisponível")).when(publicadorEventos).publicar(any());
+
+        relay.publicarPendentes();
+
+        // Numerado e confirmado antes do envio; só não foi marcado como publicado
+        EventoDecisao evento = eventoDecisaoRepository.findAll().get(0);
+        assertNotNull(evento.getSequencia());
+        assertFalse(evento.isPublicado());
+        assertTrue(((PublicadorEventosMemoria) publicadorEventos).getEventos().isEmpty());
+        // Quem lê o stream só vê o evento depois que o destino o recebeu
+        assertTrue(eventoDecisaoService.listarPublicados(evento.getSequencia() - 1, null, 10).getItens().isEmpty());
+        assertTrue(eventoDecisaoService.listarPublicados(evento.getSequencia() - 1, cliente.getId(), 10).getItens().isEmpty());
+
+        reset(publicadorEventos);
+        assertEquals(1, relay.publicarLote());
+        assertEquals(List.of(evento.getSequencia()), ((PublicadorEventosMemoria) publicadorEventos).getEventos()
+                .stream().map(EventoDecisaoDTO::getSequencia).toList());
+        assertTrue(eventoDecisaoRepository.findById(evento.getId()).orElseThrow().isPublicado());
+        assertEquals(List.of(evento.getSequencia()), eventoDecisaoService.listarPublicados(evento.getSequencia() - 1,
+                cliente.getId(), 10).getItens().stream().map(EventoDecisaoDTO::getSequencia).toList());
+        assertEquals(0, relay.publicarLote());
+    }
+
+    @Test
+    void publicarLote_DeveNumerarSemRepetirQuandoInstanciasConcorrem() throws Exception {
+        List<PropostaCreditoLoteItemDTO> itens = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            itens.add(item(12));
+        }
+        propostaCreditoService.criarPropostasEmLote(itens);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            CountDownLatch largada = new CountDownLatch(1);
+            List<Future<?>> relays = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                relays.add(executor.submit(() -> {
+                    largada.await();
+                    for (int j = 0; j < 5; j++) {
+                        relay.publicarLote();
+                    }
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> r : relays) {
+                r.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<Long> sequencias = ((PublicadorEventosMemoria) publicadorEventos).getEventos().stream()
+                .map(EventoDecisaoDTO::getSequencia).toList();
+        assertEquals(40, sequencias.size());
+        long primeira = sequencias.get(0);
+        assertEquals(LongStream.range(primeira, primeira + 40).boxed().toList(), sequencias);
+    }
+
+    @Test
+    void publicarLote_DeveNumerarDecisoesDoClienteNaOrdemEmQueForamTomadas() {
+        // Id menor com versão maior: decisão posterior com id de um bloco alocado antes por outra instância
+        EventoDecisao posterior = eventoDecisaoRepository.save(evento(2));
+        EventoDecisao anterior = eventoDecisaoRepository.save(evento(1));
+        assertTrue(posterior.getId() < anterior.getId());
+
+        assertEquals(2, relay.publicarLote());
+
+        long sequenciaAnterior = eventoDecisaoRepository.findById(anterior.getId()).orElseThrow().getSequencia();
+        long sequenciaPosterior = eventoDecisaoRepository.findById(posterior.getId()).orElseThrow().getSequencia();
+        assertEquals(sequenciaAnterior + 1, sequenciaPosterior);
+    }
+
+    private EventoDecisao evento(long versaoCliente) {
+        EventoDecisao evento = new EventoDecisao();
+        evento.setClienteId(cliente.getId());
+        evento.setVersaoCliente(versaoCliente);
+        evento.setStatus(StatusParcela.APROVADA);
+        evento.setValorSolicitado(new BigDecimal("1000.00"));
+        evento.setNumeroParcelas(12);
+        evento.setDataDecisao(new Date());
+        return evento;
+    }
+
+    private PropostaCredito novaProposta(int parcelas) {
+        PropostaCredito proposta = new PropostaCredito();
+        proposta.setValorSolicitado(new BigDecimal("1000.00"));
+        proposta.setNumeroParcelas(parcelas);
+        return proposta;
+    }
+
+    private PropostaCreditoLoteItemDTO item(int parcelas) {
+        PropostaCreditoLoteItemDTO item = new PropostaCreditoLoteItemDTO();
+        item.setClienteId(cliente.getId());
+        item.setValorSolicitado(new BigDecimal("1000.00"));
+        item.setNumeroParcelas(parcelas);
+        return item;
+    }
+}
@@ -0,0 +1,86 @@
+package br.com.challenge.fictcred.replica;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class ReplicasDataSourceTest {
+
+    private DataSource primario;
+    private DataSource replicaA;
+    private DataSource replicaB;
+    private Connection conexaoPrimario;
+    private Connection conexaoA;
+    private Connection conexaoB;
+    private ReplicasDataSource replicas;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primario = mock(DataSource.class);
+        replicaA = mock(DataSource.class);
+        replicaB = mock(DataSource.class);
+        conexaoPrimario = mock(Connection.class);
+        conexaoA = mock(Connection.class);
+        conexaoB = mock(Connection.class);
+        when(primario.getConnection()).thenReturn(conexaoPrimario);
+        when(replicaA.getConnection()).thenReturn(conexaoA);
+        when(replicaB.getConnection()).thenReturn(conexaoB);
+        when(conexaoA.isValid(anyInt())).thenReturn(true);
+        when(conexaoB.isValid(anyInt())).thenReturn(true);
+        replicas = new ReplicasDataSource(primario, List.of(replicaA, replicaB), Duration.ofMinutes(1));
+    }
+
+    @Test
+    void getConnection_DeveAlternarEntreReplicas() throws SQLException {
+        assertSame(conexaoA, replicas.getConnection());
+        assertSame(conexaoB, replicas.getConnection());
+        assertSame(conexaoA, replicas.getConnection());
+    }
+
+    @Test
+    void getConnection_ReplicaComFalhaDeveSairDoRodizioAteAVerificacao() throws SQLException {
+        when(replicaA.getConnection()).thenThrow(new SQLException("fora do ar"));
+
+        assertSame(conexaoB, replicas.getConnection());
+        assertSame(conexaoB, replicas.getConnection());
+        assertEquals(1, replicas.getDisponiveis());
+        verify(replicaA, times(1)).getConnection();
+
+        doReturn(conexaoA).when(replicaA).getConnection();
+        replicas.verificar();
+
+        assertEquals(2, replicas.getDisponiveis());
+    }
+
+    @Test
+    void getConnection_SemReplicasDisponiveisDeveUsarPrimario() throws SQLException {
+        when(conexaoA.isValid(anyInt())).thenReturn(false);
+        when(conexaoB.isValid(anyInt())).thenReturn(false);
+        replicas.verificar();
+
+        assertSame(conexaoPrimario, replicas.getConnection());
+    }
+
+    @Test
+    void getConnection_LeituraFixadaDeveUsarPrimario() throws SQLException {
+        Connection conexao = LeituraNoPrimario.executar(() -> {
+            try {
+                return replicas.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertSame(conexaoPrimario, conexao);
+        assertFalse(LeituraNoPrimario.ativa());
+    }
+}
@@ -0,0 +1,152 @@
+package br.com.challenge.fictcred.replica;
+
+import br.com.challenge.fictcred.model.Cliente;
+import br.com.challenge.fictcred.repository.ClienteRepository;
+import br.com.challenge.fictcred.service.ClienteService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+// Um segundo H2 em memória faz o papel de réplica: os dados gravados só no primário
+// ou só na réplica mostram para onde cada leitura foi
+@SpringBootTest(properties = "fictcred.datasource.replicas.urls=" + RoteamentoReplicasTest.URL_REPLICA)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RoteamentoReplicasTest {
+
+    static final String URL_REPLICA = "jdbc:h2:mem:replica-roteamento;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        assertInstanceOf(LazyConnectionDataSourceProxy.class, dataSource);
+        replica = new JdbcTemplate(new DriverManagerDataSource(URL_REPLICA, "sa", ""));
+        // Recria na réplica o esquema do primário, sem os dados
+        replica.execute("DROP ALL OBJECTS");
+        for (String comando : new JdbcTemplate(dataSource).queryForList("SCRIPT NODATA", String.class)) {
+            if (!comando.startsWith("CREATE USER")) {
+                replica.execute(comando);
+            }
+        }
+        replica.update("insert into cliente (id, nome, cpf, renda_mensal, data_cadastro) values (?, ?, ?, ?, ?)",
+                900_000_001L, "Só na réplica", "99999999999", new BigDecimal("1000.00"), new Date());
+    }
+
+    @Test
+    void leituraSomenteLeitura_DeveIrParaReplicaEEscritaParaPrimario() {
+        Cliente salvo = clienteRepository.save(cliente("Só no primário"));
+
+        assertEquals(List.of("Só na réplica"), nomes());
+        assertTrue(LeituraNoPrimario.executar(() -> nomes()).contains(salvo.getNome()));
+    }
+
+    @Test
+    void cookieDeEscrita_DeveFixarLeiturasSeguintesNoPrimario() throws Exception {
+        LeituraPrimarioFilter filtro = new LeituraPrimarioFilter(Duration.ofSeconds(5));
+        AtomicReference<List<String>> lidos = new AtomicReference<>();
+
+        MockHttpServletResponse escrita = new MockHttpServletResponse();
+        filtro.doFilter(new MockHttpServletRequest("POST", "/fictcred/v1/api/cliente"), escrita,
+                (req, res) -> clienteRepository.save(cliente("Recém-criado")));
+        Cookie cookie = escrita.getCookie(LeituraPrimarioFilter.COOKIE);
+        assertNotNull(cookie);
+
+        MockHttpServletRequest leitura = new MockHttpServletRequest("GET", "/fictcred/v1/api/cliente");
+        leitura.setCookies(cookie);
+        filtro.doFilter(leitura, new MockHttpServletResponse(),
+                (req, res) -> lidos.set(nomes()));
+        assertTrue(lidos.get().contains("Recém-criado"));
+
+        // Sem o cookie a mesma leitura vai para a réplica
+        filtro.doFilter(new MockHttpServletRequest("GET", "/fictcred/v1/api/cliente"), new MockHttpServletResponse(),
+                (req, res) -> lidos.set(nomes()));
+        assertEquals(List.of("Só na réplica"), lidos.get());
+    }
+
+    // A listagem é escrita por StreamingResponseBody em outra thread, depois que os filtros já retornaram
+    @Test
+    void listagemTransmitida_DeveManterLeituraNoPrimarioNaThreadDoCorpo() throws Exception {
+        clienteRepository.save(cliente("Recém-criado"));
+        Cookie janela = new Cookie(LeituraPrimarioFilter.COOKIE, String.valueOf(System.currentTimeMillis() + 2_000));
+
+        assertEquals(List.of("Só na réplica"), nomesTransmitidos(null));
+        List<String> comJanela = nomesTransmitidos(janela);
+        assertTrue(comJanela.contains("Recém-criado"));
+        assertFalse(comJanela.contains("Só na réplica"));
+    }
+
+    private List<String> nomesTransmitidos(Cookie cookie) throws Exception {
+        var requisicao = get("/fictcred/v1/api/cliente").accept(MediaType.APPLICATION_NDJSON);
+        if (cookie != null) {
+            requisicao.cookie(cookie);
+        }
+        MvcResult resultado = mockMvc.perform(requisicao)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String corpo = mockMvc.perform(asyncDispatch(resultado)).andReturn().getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+        List<String> nomes = new ArrayList<>();
+        for (String linha : corpo.split("\n")) {
+            nomes.add(objectMapper.readTree(linha).get("nome").asText());
+        }
+        return nomes;
+    }
+
+    private Cliente cliente(String nome) {
+        Cliente cliente = new Cliente();
+        cliente.setNome(nome);
+        cliente.setCpf(String.valueOf(System.nanoTime()));
+        cliente.setRendaMensal(new BigDecimal("5000.00"));
+        cliente.setDataCadastro(new Date());
+        return cliente;
+    }
+
+    private List<String> nomes() {
+        List<String> nomes = new ArrayList<>();
+        clienteService.percorrerPagina(null, 500, cliente -> nomes.add(cliente.getNome()));
+        return nomes;
+    }
+}
@@ -0,0 +1,27 @@
+package br.com.challenge.fictcred.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Guarda o SQL gerado pelo Hibernate para que os testes possam pedir o plano de execução da consulta real
+public class CapturaSql implements StatementInspector {
+
+    static final List<String> COMANDOS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        COMANDOS.add(sql);
+        return sql;
+    }
+
+    static String ultimoContendo(String trecho) {
+        for (int i = COMANDOS.size() - 1; i >= 0; i--) {
+            if (COMANDOS.get(i).contains(trecho)) {
+                return COMANDOS.get(i);
+            }
+        }
+        throw new AssertionError("Nenhum comando com " + trecho);
+    }
+}
@@ -0,0 +1,138 @@
+package br.com.challenge.fictcred.repository;
+
+import br.com.challenge.fictcred.dto.ClienteListDTO;
+import br.com.challenge.fictcred.dto.FiltroBuscaClienteDTO;
+import br.com.challenge.fictcred.model.Cliente;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "br.com.challenge.fictcred.repository.CapturaSql")
+class ClienteRepositoryTest {
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        persistir("João Silva", "00000000001", "3000.00");
+        persistir("Joana  Souza", "00000000002", "8000.00");
+        persistir("JOSÉ Santos", "00000000003", "5000.00");
+        persistir("Maria José", "00000000004", "5000.00");
+        persistir("Mário 100% Lima", "00000000005", "12000.00");
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void salvar_DeveNormalizarNomeDeBusca() {
+        Cliente cliente = persistir("  Ângela   Maria ", "00000000006", "1000.00");
+        entityManager.flush();
+        assertEquals("angela maria", cliente.getNomeBusca());
+
+        cliente.setNome("Ângela Márcia");
+        entityManager.flush();
+        entityManager.clear();
+        assertEquals("angela marcia", clienteRepository.findNomeBuscaById(cliente.getId()).orElseThrow());
+    }
+
+    @Test
+    void buscar_DeveFiltrarPorPrefixoSemAcentoEMaiusculas() {
+        assertEquals(List.of("Joana  Souza", "João Silva", "JOSÉ Santos"), nomes(filtro("jo", false), 10));
+        assertEquals(List.of("JOSÉ Santos"), nomes(filtro("Jose", false), 10));
+    }
+
+    @Test
+    void buscar_DeveFiltrarPorTrechoEscapandoCuringas() {
+        assertEquals(List.of("JOSÉ Santos", "Maria José"), nomes(filtro("josé", true), 10));
+        assertEquals(List.of("Mário 100% Lima"), nomes(filtro("0% l", true), 10));
+        assertTrue(nomes(filtro("a_a", true), 10).isEmpty());
+    }
+
+    @Test
+    void buscar_DeveCombinarCpfEFaixaDeRenda() {
+        FiltroBuscaClienteDTO faixa = new FiltroBuscaClienteDTO(null, false, null,
+                new BigDecimal("4000"), new BigDecimal("9000"));
+        assertEquals(List.of("Joana  Souza", "JOSÉ Santos", "Maria José"), nomes(faixa, 10));
+
+        FiltroBuscaClienteDTO cpf = new FiltroBuscaClienteDTO("jo", false, "00000000003", null, null);
+        assertEquals(List.of("JOSÉ Santos"), nomes(cpf, 10));
+    }
+
+    @Test
+    void buscar_DeveContinuarDepoisDoCursor() {
+        List<ClienteListDTO> primeira = clienteRepository.buscar(filtro("jo", false), null, null, 2);
+        ClienteListDTO ultimo = primeira.get(1);
+        String cursorNome = clienteRepository.findNomeBuscaById(ultimo.getId()).orElseThrow();
+
+        List<ClienteListDTO> segunda = clienteRepository.buscar(filtro("jo", false), cursorNome, ultimo.getId(), 2);
+
+        assertEquals(List.of("JOSÉ Santos"), segunda.stream().map(ClienteListDTO::getNome).toList());
+    }
+
+    @Test
+    void contarAte_DevePararNoLimite() {
+        FiltroBuscaClienteDTO todos = new FiltroBuscaClienteDTO(null, false, null, null, null);
+        assertEquals(5, clienteRepository.contarAte(todos, 100));
+        assertEquals(3, clienteRepository.contarAte(todos, 3));
+        assertEquals(3, clienteRepository.contarAte(filtro("jo", false), 100));
+    }
+
+    // Guarda contra regressões no SQL gerado: se a consulta deixar de usar os índices, vira varredura da tabela
+    @Test
+    void buscar_DeveUsarIndicesNoPlanoDeExecucao() {
+        clienteRepository.buscar(filtro("jo", false), "joana souza", 1L, 10);
+        String planoPrefixo = plano(CapturaSql.ultimoContendo("nome_busca>="), "jo", "jp", "joana souza", 1L, 10);
+        assertTrue(planoPrefixo.contains("IDX_CLIENTE_NOME_BUSCA"), planoPrefixo);
+
+        clienteRepository.buscar(new FiltroBuscaClienteDTO(null, false, "00000000003", null, null), null, null, 10);
+        String planoCpf = plano(CapturaSql.ultimoContendo("cpf=?"), "00000000003", 10);
+        // Índice da restrição unique do CPF, com nome gerado pelo H2
+        assertTrue(planoCpf.contains(": CPF = ?1 */"), planoCpf);
+
+        clienteRepository.buscar(new FiltroBuscaClienteDTO(null, false, null,
+                new BigDecimal("4000"), new BigDecimal("9000")), null, null, 10);
+        String planoRenda = plano(CapturaSql.ultimoContendo("renda_mensal>=?"),
+                new BigDecimal("4000"), new BigDecimal("9000"), 10);
+        assertTrue(planoRenda.contains("IDX_CLIENTE_RENDA_MENSAL"), planoRenda);
+    }
+
+    private String plano(String sql, Object... parametros) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, parametros));
+    }
+
+    private List<String> nomes(FiltroBuscaClienteDTO filtro, int limite) {
+        return clienteRepository.buscar(filtro, null, null, limite).stream().map(ClienteListDTO::getNome).toList();
+    }
+
+    private FiltroBuscaClienteDTO filtro(String nome, boolean contem) {
+        return new FiltroBuscaClienteDTO(nome, contem, null, null, null);
+    }
+
+    private Cliente persistir(String nome, String cpf, String renda) {
+        Cliente cliente = new Cliente();
+        cliente.setNome(nome);
+        cliente.setCpf(cpf);
+        cliente.setRendaMensal(new BigDecimal(renda));
+        cliente.setDataCadastro(new Date());
+        return entityManager.persist(cliente);
+    }
+}
@@ -0,0 +1,227 @@
+package br.com.challenge.fictcred.repository;
+
+import br.com.challenge.fictcred.dto.FiltroBuscaPropostaDTO;
+import br.com.challenge.fictcred.dto.PropostaCreditoListDTO;
+import br.com.challenge.fictcred.enums.StatusParcela;
+import br.com.challenge.fictcred.model.Cliente;
+import br.com.challenge.fictcred.model.PropostaCredito;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=br.com.challenge.fictcred.repository.CapturaSql"
+})
+class PropostaCreditoRepositoryTest {
+
+    @Autowired
+    private PropostaCreditoRepository propostaCreditoRepository;
+
+    @Autowired
+    private PropostaCreditoArquivadaRepository propostaCreditoArquivadaRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+    private Cliente cliente;
+
+    @BeforeEach
+    void setUp() {
+        cliente = new Cliente();
+        cliente.setNome("João Silva");
+        cliente.setCpf("30446563030");
+        cliente.setRendaMensal(new BigDecimal("5000.00"));
+        cliente.setDataCadastro(new Date());
+        entityManager.persist(cliente);
+        for (int i = 1; i <= 5; i++) {
+            PropostaCredito proposta = new PropostaCredito();
+            proposta.setValorSolicitado(new BigDecimal(i * 1000));
+            proposta.setNumeroParcelas(12);
+            proposta.setStatus(StatusParcela.APROVADA);
+            proposta.setDataCriacao(new Date());
+            proposta.setCliente(cliente);
+            entityManager.persist(proposta);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findListagemByClienteId_DeveUsarUmaUnicaConsulta() {
+        Slice<PropostaCreditoListDTO> pagina = propostaCreditoRepository.findListagemByClienteId(
+                cliente.getId(), PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "valorSolicitado")));
+
+        assertEquals(3, pagina.getNumberOfElements());
+        assertTrue(pagina.hasNext());
+        assertEquals(0, new BigDecimal("5000").compareTo(pagina.getContent().get(0).getValorSolicitado()));
+        assertEquals("João Silva", pagina.getContent().get(0).getClienteNome());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void findListagemById_DeveUsarUmaUnicaConsulta() {
+        Long id = propostaCreditoRepository.findListagemByClienteId(cliente.getId(), PageRequest.of(0, 1))
+                .getContent().get(0).getId();
+        statistics.clear();
+
+        Optional<PropostaCreditoListDTO> proposta = propostaCreditoRepository.findListagemById(id);
+
+        assertTrue(proposta.isPresent());
+        assertEquals(cliente.getId(), proposta.get().getClienteId());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void buscar_DeveCombinarFiltrosEOrdenarDasMaisRecentes() {
+        Date semanaPassada = dias(-7);
+        PropostaCredito antiga = persistir(StatusParcela.REPROVADA, "80000", 24, dias(-10));
+        PropostaCredito recente = persistir(StatusParcela.REPROVADA, "60000", 12, dias(-1));
+        PropostaCredito maisRecente = persistir(StatusParcela.REPROVADA, "90000", 18, dias(0));
+        persistir(StatusParcela.REPROVADA, "40000", 12, dias(-2));
+        entityManager.flush();
+
+        FiltroBuscaPropostaDTO filtro = new FiltroBuscaPropostaDTO(List.of(StatusParcela.REPROVADA), semanaPassada, null,
+                new BigDecimal("50000"), null, null, null);
+        assertEquals(List.of(maisRecente.getId(), recente.getId()), ids(filtro, null, null, 10));
+
+        FiltroBuscaPropostaDTO parcelas = new FiltroBuscaPropostaDTO(null, null, null, null, null, 18, 24);
+        assertEquals(List.of(maisRecente.getId(), antiga.getId()), ids(parcelas, null, null, 10));
+
+        FiltroBuscaPropostaDTO aprovadasAteTresMil = new FiltroBuscaPropostaDTO(List.of(StatusParcela.APROVADA), null,
+                null, null, new BigDecimal("3000"), null, null);
+        assertEquals(3, ids(aprovadasAteTresMil, null, null, 10).size());
+    }
+
+    @Test
+    void buscar_DeveContinuarDepoisDoCursor() {
+        FiltroBuscaPropostaDTO todas = new FiltroBuscaPropostaDTO(null, null, null, null, null, null, null);
+        List<Long> completa = ids(todas, null, null, 10);
+
+        Long cursor = completa.get(1);
+        Date cursorData = propostaCreditoRepository.findDataCriacaoById(cursor).orElseThrow();
+        List<Long> seguinte = ids(todas, cursorData, cursor, 2);
+
+        assertEquals(completa.subList(2, 4), seguinte);
+    }
+
+    // Guarda contra regressões no SQL gerado: cada combinação de filtros deve usar o índice desenhado para ela
+    @Test
+    void buscar_DeveUsarIndicesNoPlanoDeExecucao() {
+        Date inicio = dias(-7);
+        propostaCreditoRepository.buscar(new FiltroBuscaPropostaDTO(List.of(StatusParcela.REPROVADA), inicio, null,
+                null, null, null, null), null, null, 10);
+        String planoStatusData = plano(CapturaSql.ultimoContendo("data_criacao>=?"),
+                StatusParcela.REPROVADA.ordinal(), inicio, 10);
+        assertTrue(planoStatusData.contains("IDX_PROPOSTA_CREDITO_STATUS_DATA"), planoStatusData);
+
+        propostaCreditoRepository.buscar(new FiltroBuscaPropostaDTO(null, inicio, null,
+                null, null, null, null), null, null, 10);
+        String planoData = plano(CapturaSql.ultimoContendo("data_criacao>=?"), inicio, 10);
+        assertTrue(planoData.contains("IDX_PROPOSTA_CREDITO_DATA"), planoData);
+
+        propostaCreditoRepository.buscar(new FiltroBuscaPropostaDTO(List.of(StatusParcela.REPROVADA), null, null,
+                new BigDecimal("50000"), null, null, null), null, null, 10);
+        String planoValor = plano(CapturaSql.ultimoContendo("valor_solicitado>=?"),
+                StatusParcela.REPROVADA.ordinal(), new BigDecimal("50000"), 10);
+        assertTrue(planoValor.contains("IDX_PROPOSTA_CREDITO_STATUS_VALOR"), planoValor);
+    }
+
+    @Test
+    void copiarParaArquivo_DeveManterUmaUnicaListagemComAsDuasTabelas() {
+        PropostaCredito antiga = persistir(StatusParcela.REPROVADA, "7000", 24, dias(-400));
+        PropostaCredito maisAntiga = persistir(StatusParcela.APROVADA, "500", 6, dias(-500));
+        entityManager.flush();
+        List<Long> arquivadas = List.of(antiga.getId(), maisAntiga.getId());
+        assertFalse(propostaCreditoArquivadaRepository.existsByClienteId(cliente.getId()));
+
+        assertEquals(2, propostaCreditoArquivadaRepository.copiarParaArquivo(arquivadas));
+        propostaCreditoRepository.deleteAllByIdInBatch(arquivadas);
+        entityManager.clear();
+
+        assertTrue(propostaCreditoArquivadaRepository.existsByClienteId(cliente.getId()));
+        assertTrue(propostaCreditoRepository.findListagemById(antiga.getId()).isEmpty());
+        PropostaCreditoListDTO arquivada = propostaCreditoArquivadaRepository.findListagemById(antiga.getId()).orElseThrow();
+        assertEquals(StatusParcela.REPROVADA, arquivada.getStatus());
+        assertEquals("João Silva", arquivada.getClienteNome());
+        assertNotNull(propostaCreditoArquivadaRepository.findById(antiga.getId()).orElseThrow().getDataArquivamento());
+
+        // A ordenação pedida vale para as duas tabelas juntas, inclusive na paginação
+        Sort porValor = Sort.by(Sort.Direction.DESC, "valorSolicitado");
+        List<PropostaCreditoListDTO> todas = propostaCreditoRepository.listarComArquivadas(cliente.getId(), porValor, 0, 10);
+        assertEquals(List.of("7000", "5000", "4000", "3000", "2000", "1000", "500"),
+                todas.stream().map(p -> p.getValorSolicitado().stripTrailingZeros().toPlainString()).toList());
+        assertEquals(todas.subList(5, 7), propostaCreditoRepository.listarComArquivadas(cliente.getId(), porValor, 5, 10));
+        try (var propostas = propostaCreditoRepository.percorrerComArquivadas(cliente.getId(), Sort.by("dataCriacao"))) {
+            assertEquals(maisAntiga.getId(), propostas.findFirst().orElseThrow().getId());
+        }
+        assertThrows(InvalidDataAccessApiUsageException.class,
+                () -> propostaCreditoRepository.listarComArquivadas(cliente.getId(), Sort.by("cliente.cpf"), 0, 10));
+
+        // Uma pendente antiga continua na tabela principal: a busca intercala as duas tabelas pela data
+        PropostaCredito pendente = persistir(StatusParcela.PENDENTE, "300", 3, dias(-600));
+        entityManager.flush();
+        FiltroBuscaPropostaDTO antigas = new FiltroBuscaPropostaDTO(null, null, dias(-300), null, null, null, null);
+        assertEquals(List.of(antiga.getId(), maisAntiga.getId(), pendente.getId()), propostaCreditoRepository
+                .buscarComArquivadas(antigas, null, null, 10).stream().map(PropostaCreditoListDTO::getId).toList());
+        Date cursorData = propostaCreditoArquivadaRepository.findDataCriacaoById(antiga.getId()).orElseThrow();
+        assertEquals(List.of(maisAntiga.getId(), pendente.getId()), propostaCreditoRepository
+                .buscarComArquivadas(antigas, cursorData, antiga.getId(), 2).stream().map(PropostaCreditoListDTO::getId).toList());
+    }
+
+    private String plano(String sql, Object... parametros) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, parametros));
+    }
+
+    private List<Long> ids(FiltroBuscaPropostaDTO filtro, Date cursorData, Long cursorId, int limite) {
+        return propostaCreditoRepository.buscar(filtro, cursorData, cursorId, limite).stream()
+                .map(PropostaCreditoListDTO::getId).toList();
+    }
+
+    private PropostaCredito persistir(StatusParcela status, String valor, int parcelas, Date dataCriacao) {
+        PropostaCredito proposta = new PropostaCredito();
+        proposta.setValorSolicitado(new BigDecimal(valor));
+        proposta.setNumeroParcelas(parcelas);
+        proposta.setStatus(status);
+        proposta.setDataCriacao(dataCriacao);
+        proposta.setCliente(entityManager.find(Cliente.class, cliente.getId()));
+        return entityManager.persist(proposta);
+    }
+
+    private Date dias(int dias) {
+        return Date.from(Instant.now().plus(dias, ChronoUnit.DAYS));
+    }
+}
@@ -0,0 +1,132 @@
+package br.com.challenge.fictcred.service;
+
+import br.com.challenge.fictcred.model.Cliente;
+import br.com.challenge.fictcred.repository.ClienteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ClienteAtualizacaoConcorrenteTest {
+
+    private static final int THREADS = 8;
+    private static final int INCREMENTOS_POR_THREAD = 10;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Cliente cliente;
+
+    @BeforeEach
+    void setUp() {
+        cliente = new Cliente();
+        cliente.setNome("Cliente Concorrente");
+        cliente.setCpf(String.valueOf(System.nanoTime()));
+        cliente.setRendaMensal(new BigDecimal("1000.00"));
+        cliente.setDataCadastro(new Date());
+        cliente = clienteRepository.save(cliente);
+    }
+
+    // Ler, somar e gravar com If-Match: quem perde a corrida recebe versão divergente e tenta de novo,
+    // então nenhum incremento se perde
+    @Test
+    void atualizar_ConcorrenteComVersaoNaoDevePerderAtualizacoes() throws Exception {
+        Long id = cliente.getId();
+        AtomicInteger conflitos = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> tarefas = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int t = 0; t < THREADS; t++) {
+                tarefas.add(executor.submit(() -> {
+                    largada.await();
+                    for (int i = 0; i < INCREMENTOS_POR_THREAD; ) {
+                        Cliente atual = clienteService.buscarPorId(id).orElseThrow();
+                        Cliente alteracoes = new Cliente();
+                        alteracoes.setRendaMensal(atual.getRendaMensal().add(BigDecimal.ONE));
+                        try {
+                            clienteService.atualizar(id, alteracoes, atual.getVersao());
+                            i++;
+                        } catch (RuntimeException e) {
+                            assertEquals(ClienteService.VERSAO_DIVERGENTE, e.getMessage());
+                            conflitos.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+        }
+
+        int total = THREADS * INCREMENTOS_POR_THREAD;
+        Map<String, Object> linha = jdbcTemplate.queryForMap("select renda_mensal, versao from cliente where id = ?", id);
+        assertEquals(0, new BigDecimal("1000.00").add(BigDecimal.valueOf(total)).compareTo((BigDecimal) linha.get("renda_mensal")));
+        assertEquals(cliente.getVersao() + total, ((Number) linha.get("versao")).longValue());
+        assertTrue(conflitos.get() > 0, "as threads deveriam ter disputado a mesma versão");
+        // As leituras seguintes veem o valor gravado, não uma cópia antiga do cache
+        assertEquals(0, new BigDecimal("1000.00").add(BigDecimal.valueOf(total))
+                .compareTo(clienteService.buscarPorId(id).orElseThrow().getRendaMensal()));
+    }
+
+    @Test
+    void atualizar_DeveGravarSoAsColunasInformadas() {
+        Long id = cliente.getId();
+        Cliente nome = new Cliente();
+        nome.setNome("Cliente Renomeado");
+        Cliente renda = new Cliente();
+        renda.setRendaMensal(new BigDecimal("2500.00"));
+
+        // Duas alterações parciais sem If-Match, cada uma sobre um campo: as duas ficam
+        clienteService.atualizar(id, nome, null);
+        Cliente resultado = clienteService.atualizar(id, renda, null);
+
+        assertEquals("Cliente Renomeado", resultado.getNome());
+        assertEquals(cliente.getVersao() + 2, resultado.getVersao());
+        Cliente gravado = clienteRepository.findById(id).orElseThrow();
+        assertEquals("Cliente Renomeado", gravado.getNome());
+        assertEquals("cliente renomeado", gravado.getNomeBusca());
+        assertEquals(cliente.getCpf(), gravado.getCpf());
+        assertEquals(0, new BigDecimal("2500.00").compareTo(gravado.getRendaMensal()));
+        assertEquals(resultado.getVersao(), gravado.getVersao());
+    }
+
+    @Test
+    void atualizar_ClienteExcluidoDeveSerNaoEncontrado() {
+        Long id = cliente.getId();
+        Cliente alteracoes = new Cliente();
+        alteracoes.setRendaMensal(new BigDecimal("2500.00"));
+        // Exclusão entre a leitura (em cache) e a gravação: o UPDATE não encontra a linha
+        clienteService.buscarPorId(id);
+        jdbcTemplate.update("update cliente set data_exclusao = current_timestamp where id = ?", id);
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> clienteService.atualizar(id, alteracoes, null));
+
+        assertEquals("Cliente não encontrado com id: " + id, exception.getMessage());
+    }
+}
@@ -0,0 +1,166 @@
+package br.com.challenge.fictcred.service;
+
+import br.com.challenge.fictcred.dto.ClienteInsertDTO;
+import br.com.challenge.fictcred.dto.ImportacaoClientesDTO;
+import br.com.challenge.fictcred.model.Cliente;
+import br.com.challenge.fictcred.repository.ClienteRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class ClienteImportacaoServiceTest {
+
+    @Mock
+    private ClienteRepository clienteRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @InjectMocks
+    private ClienteImportacaoService clienteImportacaoService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void importar_DeveInserirRegistrosValidosEmBlocos() {
+        List<ClienteInsertDTO> registros = new ArrayList<>();
+        for (int i = 0; i < ClienteImportacaoService.TAMANHO_LOTE + 10; i++) {
+            registros.add(dto("Cliente " + i, gerarCpf(i)));
+        }
+        when(clienteRepository.findCpfsExistentes(anyCollection())).thenReturn(List.of());
+
+        ImportacaoClientesDTO resultado = clienteImportacaoService.importar(registros.iterator());
+
+        assertEquals(ClienteImportacaoService.TAMANHO_LOTE + 10, resultado.getTotal());
+        assertEquals(ClienteImportacaoService.TAMANHO_LOTE + 10, resultado.getInseridos());
+        assertTrue(resultado.getFalhas().isEmpty());
+        verify(clienteRepository, times(2)).findCpfsExistentes(anyCollection());
+        verify(entityManager, times(ClienteImportacaoService.TAMANHO_LOTE + 10)).persist(any(Cliente.class));
+        verify(entityManager, times(2)).flush();
+    }
+
+    @Test
+    void importar_DeveReportarInvalidosDuplicadosEJaCadastrados() {
+        List<ClienteInsertDTO> registros = List.of(
+                dto("Cliente Novo", gerarCpf(1)),
+                dto("Cliente Inválido", "123"),
+                dto("Cliente Repetido", gerarCpf(1)),
+                dto("Cliente Existente", gerarCpf(2)));
+        when(clienteRepository.findCpfsExistentes(anyCollection())).thenReturn(List.of(gerarCpf(2)));
+
+        ImportacaoClientesDTO resultado = clienteImportacaoService.importar(registros.iterator());
+
+        assertEquals(4, resultado.getTotal());
+        assertEquals(1, resultado.getInseridos());
+        assertEquals(3, resultado.getFalhas().size());
+        assertEquals(1, resultado.getFalhas().get(0).getIndice());
+        assertEquals("CPF inválido", resultado.getFalhas().get(0).getMotivo());
+        assertEquals(2, resultado.getFalhas().get(1).getIndice());
+        assertEquals("CPF duplicado no arquivo", resultado.getFalhas().get(1).getMotivo());
+        assertEquals(3, resultado.getFalhas().get(2).getIndice());
+        verify(entityManager, times(1)).persist(any(Cliente.class));
+    }
+
+    @Test
+    void importar_DeveRefazerRegistroARegistroQuandoLoteViolaUnicidade() {
+        List<ClienteInsertDTO> registros = List.of(dto("Cliente A", gerarCpf(1)), dto("Cliente B", gerarCpf(2)));
+        when(clienteRepository.findCpfsExistentes(anyCollection())).thenReturn(List.of());
+        // Falha no flush do lote e no flush do segundo registro isolado
+        doThrow(new DataIntegrityViolationException("cpf"))
+                .doNothing()
+                .doThrow(new DataIntegrityViolationException("cpf"))
+                .when(entityManager).flush();
+
+        ImportacaoClientesDTO resultado = clienteImportacaoService.importar(registros.iterator());
+
+        assertEquals(1, resultado.getInseridos());
+        assertEquals(1, resultado.getFalhas().size());
+        assertEquals(1, resultado.getFalhas().get(0).getIndice());
+    }
+
+    @Test
+    void importar_DeveInterromperQuandoRegistroMalformado() {
+        ClienteInsertDTO valido = dto("Cliente A", gerarCpf(1));
+        Iterator<ClienteInsertDTO> registros = new Iterator<>() {
+            private int lidos = 0;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public ClienteInsertDTO next() {
+                if (lidos++ == 0) {
+                    return valido;
+                }
+                throw new IllegalStateException("token inesperado");
+            }
+        };
+        when(clienteRepository.findCpfsExistentes(anyCollection())).thenReturn(List.of());
+
+        ImportacaoClientesDTO resultado = clienteImportacaoService.importar(registros);
+
+        assertEquals(2, resultado.getTotal());
+        assertEquals(1, resultado.getInseridos());
+        assertEquals(1, resultado.getFalhas().size());
+        assertTrue(resultado.getFalhas().get(0).getMotivo().startsWith("Registro malformado"));
+    }
+
+    private ClienteInsertDTO dto(String nome, String cpf) {
+        ClienteInsertDTO dto = new ClienteInsertDTO();
+        dto.setNome(nome);
+        dto.setCpf(cpf);
+        dto.setRendaMensal(new BigDecimal("3000.00"));
+        return dto;
+    }
+
+    static String gerarCpf(int semente) {
+        int[] digitos = new int[11];
+        String base = String.format("%09d", 100_000_000 + semente);
+        for (int i = 0; i < 9; i++) {
+            digitos[i] = base.charAt(i) - '0';
+        }
+        for (int d = 9; d < 11; d++) {
+            int soma = 0;
+            for (int i = 0; i < d; i++) {
+                soma += digitos[i] * (d + 1 - i);
+            }
+            int resto = (soma * 10) % 11;
+            digitos[d] = resto == 10 ? 0 : resto;
+        }
+        StringBuilder cpf = new StringBuilder();
+        for (int digito : digitos) {
+            cpf.append(digito);
+        }
+        return cpf.toString();
+    }
+}
@@ -1,21 +1,42 @@
 package br.com.challenge.fictcred.service;
 
+import br.com.challenge.fictcred.cache.CanalInvalidacaoLocal;
+import br.com.challenge.fictcred.cache.ClienteCache;
+import br.com.challenge.fictcred.cache.VersaoCliente;
+import br.com.challenge.fictcred.cache.VersaoClienteCache;
+import br.com.challenge.fictcred.dto.ClienteListDTO;
+import br.com.challenge.fictcred.dto.ExclusaoClienteDTO;
+import br.com.challenge.fictcred.dto.FiltroBuscaClienteDTO;
+import br.com.challenge.fictcred.dto.ResultadoBuscaDTO;
 import br.com.challenge.fictcred.model.Cliente;
+import br.com.challenge.fictcred.model.ExclusaoCliente;
+import br.com.challenge.fictcred.replica.LeituraNoPrimario;
 import br.com.challenge.fictcred.repository.ClienteRepository;
+import br.com.challenge.fictcred.repository.ExclusaoClienteRepository;
+import br.com.challenge.fictcred.repository.PropostaCreditoArquivadaRepository;
+import br.com.challenge.fictcred.repository.PropostaCreditoRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.Limit;
 
 import java.math.BigDecimal;
-import java.util.Arrays;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class ClienteServiceTest {
@@ -23,6 +44,23 @@ class ClienteServiceTest {
     @Mock
     private ClienteRepository clienteRepository;
 
+    private final CanalInvalidacaoLocal canal = new CanalInvalidacaoLocal();
+
+    @Spy
+    private ClienteCache clienteCache = new ClienteCache(100, Duration.ofMinutes(5), canal);
+
+    @Spy
+    private VersaoClienteCache versaoClienteCache = new VersaoClienteCache(100, Duration.ofMinutes(5), canal);
+
+    @Mock
+    private ExclusaoClienteRepository exclusaoClienteRepository;
+
+    @Mock
+    private PropostaCreditoRepository propostaCreditoRepository;
+
+    @Mock
+    private PropostaCreditoArquivadaRepository propostaCreditoArquivadaRepository;
+
     @InjectMocks
     private ClienteService clienteService;
 
@@ -37,6 +75,7 @@ class ClienteServiceTest {
         cliente.setCpf("30446563030");
         cliente.setRendaMensal(new BigDecimal("5000.00"));
         cliente.setDataCadastro(new Date());
+        cliente.setVersao(3L);
     }
 
     @Test
@@ -62,6 +101,18 @@ class ClienteServiceTest {
         verify(clienteRepository, times(1)).findById(1L);
     }
 
+    @Test
+    void buscarPorId_DeveUsarCacheNaSegundaConsulta() {
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+
+        clienteService.buscarPorId(1L);
+        Optional<Cliente> resultado = clienteService.buscarPorId(1L);
+
+        assertTrue(resultado.isPresent());
+        verify(clienteRepository, times(1)).findById(1L);
+        assertEquals(1, clienteCache.estatisticas().hitCount());
+    }
+
     @Test
     void buscarPorId_DeveRetornarVazioQuandoNaoEncontrado() {
         when(clienteRepository.findById(1L)).thenReturn(Optional.empty());
@@ -73,54 +124,317 @@ class ClienteServiceTest {
     }
 
     @Test
-    void listarTodos_DeveRetornarListaDeClientes() {
-        List<Cliente> clientes = Arrays.asList(cliente);
-        when(clienteRepository.findAll()).thenReturn(clientes);
+    void percorrerPagina_DeveRetornarCursorQuandoExistemMaisRegistros() {
+        when(clienteRepository.streamListagemAPartirDe(0L, Limit.of(2)))
+                .thenReturn(Stream.of(listagem(1L), listagem(2L)));
+        List<ClienteListDTO> recebidos = new ArrayList<>();
 
-        List<Cliente> resultado = clienteService.listarTodos();
+        Long proximoCursor = clienteService.percorrerPagina(null, 1, recebidos::add);
 
-        assertNotNull(resultado);
-        assertEquals(1, resultado.size());
-        assertEquals(1L, resultado.get(0).getId());
-        verify(clienteRepository, times(1)).findAll();
+        assertEquals(1, recebidos.size());
+        assertEquals(1L, recebidos.get(0).getId());
+        assertEquals(1L, proximoCursor);
+    }
+
+    @Test
+    void percorrerPagina_DeveRetornarCursorNuloNaUltimaPagina() {
+        when(clienteRepository.streamListagemAPartirDe(1L, Limit.of(11))).thenReturn(Stream.of(listagem(2L)));
+        List<ClienteListDTO> recebidos = new ArrayList<>();
+
+        Long proximoCursor = clienteService.percorrerPagina(1L, 10, recebidos::add);
+
+        assertEquals(1, recebidos.size());
+        assertNull(proximoCursor);
     }
 
     @Test
-    void atualizar_DeveAtualizarClienteQuandoEncontrado() {
+    void percorrerPagina_DeveLimitarTamanhoMaximo() {
+        when(clienteRepository.streamListagemAPartirDe(0L, Limit.of(ClienteService.TAMANHO_PAGINA_MAXIMO + 1)))
+                .thenReturn(Stream.empty());
+
+        Long proximoCursor = clienteService.percorrerPagina(null, 1_000_000, cliente -> fail());
+
+        assertNull(proximoCursor);
+        verify(clienteRepository, times(1))
+                .streamListagemAPartirDe(0L, Limit.of(ClienteService.TAMANHO_PAGINA_MAXIMO + 1));
+    }
+
+    @Test
+    void percorrerTodos_DeveEntregarCadaClienteEFecharOStream() {
+        AtomicBoolean fechado = new AtomicBoolean();
+        when(clienteRepository.streamListagemAPartirDe(5L, Limit.unlimited()))
+                .thenReturn(Stream.of(listagem(6L), listagem(7L)).onClose(() -> fechado.set(true)));
+        List<ClienteListDTO> recebidos = new ArrayList<>();
+
+        clienteService.percorrerTodos(5L, recebidos::add);
+
+        assertEquals(List.of(6L, 7L), recebidos.stream().map(ClienteListDTO::getId).toList());
+        assertTrue(fechado.get());
+    }
+
+    @Test
+    void buscar_DeveContarTotalNaPrimeiraPaginaAteOLimite() {
+        FiltroBuscaClienteDTO filtro = new FiltroBuscaClienteDTO("jo", false, null, null, null);
+        when(clienteRepository.buscar(filtro, null, null, 3)).thenReturn(List.of(listagem(1L), listagem(2L), listagem(3L)));
+        when(clienteRepository.contarAte(filtro, ClienteService.LIMITE_CONTAGEM_BUSCA + 1))
+                .thenReturn((long) ClienteService.LIMITE_CONTAGEM_BUSCA + 1);
+
+        ResultadoBuscaDTO<ClienteListDTO> resultado = clienteService.buscar(filtro, null, 2);
+
+        assertEquals(2, resultado.getItens().size());
+        assertEquals(2L, resultado.getProximoCursor());
+        assertEquals(ClienteService.LIMITE_CONTAGEM_BUSCA, resultado.getTotal());
+        assertFalse(resultado.getTotalExato());
+    }
+
+    @Test
+    void buscar_DeveContinuarDoNomeDoClienteDoCursorSemContar() {
+        FiltroBuscaClienteDTO filtro = new FiltroBuscaClienteDTO("jo", false, null, null, null);
+        when(clienteRepository.findNomeBuscaById(2L)).thenReturn(Optional.of("joana"));
+        when(clienteRepository.buscar(filtro, "joana", 2L, 3)).thenReturn(List.of(listagem(3L)));
+
+        ResultadoBuscaDTO<ClienteListDTO> resultado = clienteService.buscar(filtro, 2L, 2);
+
+        assertEquals(1, resultado.getItens().size());
+        assertNull(resultado.getProximoCursor());
+        assertNull(resultado.getTotal());
+        verify(clienteRepository, never()).contarAte(any(), anyInt());
+    }
+
+    @Test
+    void buscar_DeveRejeitarFiltrosInvalidos() {
+        FiltroBuscaClienteDTO trechoCurto = new FiltroBuscaClienteDTO(" é ", true, null, null, null);
+        FiltroBuscaClienteDTO faixaInvertida = new FiltroBuscaClienteDTO(null, false, null,
+                new BigDecimal("5000"), new BigDecimal("1000"));
+        when(clienteRepository.findNomeBuscaById(99L)).thenReturn(Optional.empty());
+
+        for (Runnable busca : List.<Runnable>of(
+                () -> clienteService.buscar(trechoCurto, null, 10),
+                () -> clienteService.buscar(faixaInvertida, null, 10),
+                () -> clienteService.buscar(new FiltroBuscaClienteDTO(null, false, null, null, null), 99L, 10))) {
+            RuntimeException exception = assertThrows(RuntimeException.class, busca::run);
+            assertTrue(exception.getMessage().startsWith(ClienteService.BUSCA_INVALIDA));
+        }
+        verify(clienteRepository, never()).buscar(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void atualizar_DeveGravarNumaUnicaInstrucaoCondicionadaAVersao() {
         Cliente clienteAtualizado = new Cliente();
         clienteAtualizado.setNome("João Silva Atualizado");
         clienteAtualizado.setCpf("30446563030");
         clienteAtualizado.setRendaMensal(new BigDecimal("6000.00"));
-        clienteAtualizado.setDataCadastro(new Date());
 
         when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
-        when(clienteRepository.save(any(Cliente.class))).thenReturn(clienteAtualizado);
+        when(clienteRepository.atualizarNaVersao(1L, 3L, "João Silva Atualizado", null, new BigDecimal("6000.00")))
+                .thenReturn(1);
 
         Cliente resultado = clienteService.atualizar(1L, clienteAtualizado);
 
-        assertNotNull(resultado);
         assertEquals("João Silva Atualizado", resultado.getNome());
-        verify(clienteRepository, times(1)).findById(1L);
-        verify(clienteRepository, times(1)).save(any(Cliente.class));
+        assertEquals("joao silva atualizado", resultado.getNomeBusca());
+        assertEquals("30446563030", resultado.getCpf());
+        assertEquals(cliente.getDataCadastro(), resultado.getDataCadastro());
+        assertEquals(4L, resultado.getVersao());
+        verify(clienteRepository, never()).save(any(Cliente.class));
+        verify(clienteCache, times(1)).invalidar(1L);
+        // O cliente do cache não é alterado
+        assertEquals("João Silva", cliente.getNome());
+    }
+
+    @Test
+    void atualizar_DeveGravarSoAsColunasAlteradas() {
+        Cliente alteracoes = new Cliente();
+        alteracoes.setRendaMensal(new BigDecimal("7000.00"));
+
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        when(clienteRepository.atualizarNaVersao(1L, 3L, null, null, new BigDecimal("7000.00"))).thenReturn(1);
+
+        Cliente resultado = clienteService.atualizar(1L, alteracoes, 3L);
+
+        assertEquals("João Silva", resultado.getNome());
+        assertEquals(new BigDecimal("7000.00"), resultado.getRendaMensal());
+        verify(clienteRepository, times(1)).atualizarNaVersao(1L, 3L, null, null, new BigDecimal("7000.00"));
+    }
+
+    @Test
+    void atualizar_SemAlteracaoNaoDeveGravar() {
+        Cliente alteracoes = new Cliente();
+        alteracoes.setNome("João Silva");
+        alteracoes.setRendaMensal(new BigDecimal("5000"));
+
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+
+        Cliente resultado = clienteService.atualizar(1L, alteracoes, 3L);
+
+        assertEquals(3L, resultado.getVersao());
+        verify(clienteRepository, never()).atualizarNaVersao(any(), anyLong(), any(), any(), any());
     }
 
     @Test
     void atualizar_DeveLancarExcecaoQuandoClienteNaoEncontrado() {
-        when(clienteRepository.findById(1L)).thenReturn(Optional.empty());
+        AtomicBoolean lidoNoPrimario = new AtomicBoolean();
+        when(clienteRepository.findById(1L)).thenAnswer(inv -> {
+            lidoNoPrimario.set(LeituraNoPrimario.ativa());
+            return Optional.empty();
+        });
 
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
             clienteService.atualizar(1L, cliente);
         });
 
         assertEquals("Cliente não encontrado com id: 1", exception.getMessage());
+        assertTrue(lidoNoPrimario.get());
         verify(clienteRepository, times(1)).findById(1L);
-        verify(clienteRepository, never()).save(any(Cliente.class));
+        verify(clienteRepository, never()).atualizarNaVersao(any(), anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void atualizar_DeveLancarVersaoDivergenteQuandoIfMatchNaoCorresponde() {
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> clienteService.atualizar(1L, new Cliente(), 2L));
+
+        assertEquals(ClienteService.VERSAO_DIVERGENTE, exception.getMessage());
+        // Confirma no banco antes de recusar, já que o cache pode estar atrasado
+        verify(clienteRepository, times(2)).findById(1L);
+        verify(clienteRepository, never()).atualizarNaVersao(any(), anyLong(), any(), any(), any());
     }
 
     @Test
-    void deletar_DeveDeletarCliente() {
-        assertDoesNotThrow(() -> clienteService.deletar(1L));
+    void atualizar_DeveLancarVersaoDivergenteQuandoNenhumaLinhaMudaComIfMatch() {
+        Cliente alteracoes = new Cliente();
+        alteracoes.setRendaMensal(new BigDecimal("6000.00"));
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        when(clienteRepository.atualizarNaVersao(eq(1L), eq(3L), any(), any(), any())).thenReturn(0);
+        when(clienteRepository.findVersaoById(1L)).thenReturn(Optional.of(new VersaoCliente(4L, 0L)));
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> clienteService.atualizar(1L, alteracoes, 3L));
+
+        assertEquals(ClienteService.VERSAO_DIVERGENTE, exception.getMessage());
+        // O cliente em cache ficou para trás: é descartado para a próxima tentativa
+        verify(clienteCache, times(1)).invalidar(1L);
+        verify(clienteRepository, times(1)).atualizarNaVersao(any(), anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void atualizar_SemIfMatchDeveRelerOClienteETentarDeNovoQuandoCacheEstaAtrasado() {
+        Cliente alteracoes = new Cliente();
+        alteracoes.setRendaMensal(new BigDecimal("6000.00"));
+        Cliente noBanco = new Cliente();
+        noBanco.setId(1L);
+        noBanco.setNome("João Silva");
+        noBanco.setCpf("30446563030");
+        noBanco.setRendaMensal(new BigDecimal("5500.00"));
+        noBanco.setVersao(4L);
+        AtomicBoolean lidoNoPrimario = new AtomicBoolean();
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente)).thenAnswer(inv -> {
+            lidoNoPrimario.set(LeituraNoPrimario.ativa());
+            return Optional.of(noBanco);
+        });
+        when(clienteRepository.atualizarNaVersao(eq(1L), eq(3L), any(), any(), any())).thenReturn(0);
+        when(clienteRepository.findVersaoById(1L)).thenReturn(Optional.of(new VersaoCliente(4L, 0L)));
+        when(clienteRepository.atualizarNaVersao(1L, 4L, null, null, new BigDecimal("6000.00"))).thenReturn(1);
+
+        Cliente resultado = clienteService.atualizar(1L, alteracoes);
+
+        assertEquals(5L, resultado.getVersao());
+        assertEquals(new BigDecimal("6000.00"), resultado.getRendaMensal());
+        assertTrue(lidoNoPrimario.get());
+    }
+
+    @Test
+    void atualizar_SemIfMatchDeveTentarSoMaisUmaVez() {
+        Cliente alteracoes = new Cliente();
+        alteracoes.setRendaMensal(new BigDecimal("6000.00"));
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        when(clienteRepository.atualizarNaVersao(eq(1L), eq(3L), any(), any(), any())).thenReturn(0);
+        when(clienteRepository.findVersaoById(1L)).thenReturn(Optional.of(new VersaoCliente(4L, 0L)));
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> clienteService.atualizar(1L, alteracoes));
+
+        assertEquals(ClienteService.VERSAO_DIVERGENTE, exception.getMessage());
+        verify(clienteRepository, times(2)).atualizarNaVersao(any(), anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void atualizar_DeveLancarNaoEncontradoQuandoNenhumaLinhaMudaEClienteFoiExcluido() {
+        Cliente alteracoes = new Cliente();
+        alteracoes.setRendaMensal(new BigDecimal("6000.00"));
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        when(clienteRepository.atualizarNaVersao(eq(1L), eq(3L), any(), any(), any())).thenReturn(0);
+        AtomicBoolean lidoNoPrimario = new AtomicBoolean();
+        when(clienteRepository.findVersaoById(1L)).thenAnswer(inv -> {
+            lidoNoPrimario.set(LeituraNoPrimario.ativa());
+            return Optional.empty();
+        });
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> clienteService.atualizar(1L, alteracoes, null));
+
+        assertEquals("Cliente não encontrado com id: 1", exception.getMessage());
+        // Uma réplica atrasada poderia não ter o cliente ainda: só o primário decide entre 404 e 409
+        assertTrue(lidoNoPrimario.get());
+    }
+
+    @Test
+    void buscarVersao_DeveUsarCacheAteClienteSerAtualizado() {
+        when(clienteRepository.findVersaoById(1L)).thenReturn(Optional.of(new VersaoCliente(3L, 0L)));
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+
+        clienteService.buscarVersao(1L);
+        clienteService.buscarVersao(1L);
+        verify(clienteRepository, times(1)).findVersaoById(1L);
+
+        when(clienteRepository.atualizarNaVersao(1L, 3L, null, null, new BigDecimal("6000.00"))).thenReturn(1);
+        Cliente alteracoes = new Cliente();
+        alteracoes.setRendaMensal(new BigDecimal("6000.00"));
+        clienteService.atualizar(1L, alteracoes);
+        clienteService.buscarVersao(1L);
+        verify(clienteRepository, times(2)).findVersaoById(1L);
+    }
+
+    @Test
+    void deletar_DeveMarcarClienteComoExcluidoERegistrarExclusao() {
+        when(clienteRepository.marcarExcluido(eq(1L), any(Date.class))).thenReturn(1);
+        when(exclusaoClienteRepository.save(any(ExclusaoCliente.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        ExclusaoCliente exclusao = clienteService.deletar(1L);
+
+        assertEquals(1L, exclusao.getClienteId());
+        assertNull(exclusao.getDataConclusao());
+        verify(clienteRepository, never()).deleteById(any());
+        verify(clienteCache, times(1)).invalidar(1L);
+        verify(versaoClienteCache, times(1)).invalidar(1L);
+    }
+
+    @Test
+    void deletar_DeveLancarExcecaoQuandoClienteNaoEncontrado() {
+        when(clienteRepository.marcarExcluido(eq(1L), any(Date.class))).thenReturn(0);
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> clienteService.deletar(1L));
+
+        assertTrue(exception.getMessage().startsWith("Cliente não encontrado"));
+        verify(exclusaoClienteRepository, never()).save(any());
+    }
+
+    @Test
+    void buscarExclusao_DeveContarPropostasRestantesNasDuasTabelas() {
+        when(exclusaoClienteRepository.findById(1L)).thenReturn(Optional.of(new ExclusaoCliente(1L, new Date(), 500L, null)));
+        when(propostaCreditoRepository.contarPorCliente(1L)).thenReturn(30L);
+        when(propostaCreditoArquivadaRepository.contarPorCliente(1L)).thenReturn(12L);
+
+        ExclusaoClienteDTO exclusao = clienteService.buscarExclusao(1L).orElseThrow();
+
+        assertEquals(500L, exclusao.getPropostasRemovidas());
+        assertEquals(42L, exclusao.getPropostasRestantes());
+        assertFalse(exclusao.isConcluida());
+    }
 
-        verify(clienteRepository, times(1)).deleteById(1L);
+    private ClienteListDTO listagem(Long id) {
+        return new ClienteListDTO(id, "Cliente " + id, "30446563030", new BigDecimal("5000.00"), new Date());
     }
 }
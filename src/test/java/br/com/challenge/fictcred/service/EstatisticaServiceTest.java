@@ -0,0 +1,144 @@
+package br.com.challenge.fictcred.service;
+
+import br.com.challenge.fictcred.dto.EstatisticaDiaDTO;
+import br.com.challenge.fictcred.dto.EstatisticasDTO;
+import br.com.challenge.fictcred.enums.StatusParcela;
+import br.com.challenge.fictcred.model.Cliente;
+import br.com.challenge.fictcred.model.PropostaCredito;
+import br.com.challenge.fictcred.repository.ClienteRepository;
+import br.com.challenge.fictcred.repository.EstatisticaDiariaRepository;
+import br.com.challenge.fictcred.repository.PropostaCreditoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Intervalo alto para que a descarga agendada não concorra com as chamadas do teste
+@SpringBootTest(properties = "fictcred.estatisticas.intervalo-descarga=3600000")
+@ActiveProfiles("test")
+class EstatisticaServiceTest {
+
+    @Autowired
+    private EstatisticaService estatisticaService;
+
+    @Autowired
+    private PropostaCreditoService propostaCreditoService;
+
+    @Autowired
+    private PropostaCreditoRepository propostaCreditoRepository;
+
+    @Autowired
+    private EstatisticaDiariaRepository estatisticaDiariaRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Cliente cliente;
+
+    @BeforeEach
+    void setUp() {
+        estatisticaService.descarregar();
+        propostaCreditoRepository.deleteAll();
+        estatisticaService.reconstruir();
+
+        cliente = new Cliente();
+        cliente.setNome("Cliente Estatística");
+        cliente.setCpf(String.valueOf(System.nanoTime()));
+        cliente.setRendaMensal(new BigDecimal("5000.00"));
+        cliente.setDataCadastro(new Date());
+        cliente = clienteRepository.save(cliente);
+    }
+
+    @Test
+    void consultar_DeveRefletirDecisoesDepoisDaDescarga() {
+        criar("1000.00", 12);
+        criar("2000.50", 12);
+        criar("1000.00", 36);
+
+        assertEquals(0, estatisticaService.consultar(30).getAprovadas());
+        estatisticaService.descarregar();
+
+        EstatisticasDTO estatisticas = estatisticaService.consultar(30);
+        assertEquals(2, estatisticas.getAprovadas());
+        assertEquals(1, estatisticas.getReprovadas());
+        assertEquals(0, new BigDecimal("4000.50").compareTo(estatisticas.getValorTotalSolicitado()));
+        assertEquals(2.0 / 3, estatisticas.getTaxaAprovacao(), 1e-9);
+
+        EstatisticaDiaDTO hoje = estatisticas.getDias().get(0);
+        assertEquals(LocalDate.now(ZoneId.systemDefault()), hoje.getDia());
+        assertEquals(0, new BigDecimal("3000.50").compareTo(hoje.getValorAprovado()));
+    }
+
+    @Test
+    void descarregar_DeveSomarAoResumoExistente() {
+        criar("1000.00", 12);
+        estatisticaService.descarregar();
+        criar("1000.00", 12);
+        estatisticaService.descarregar();
+
+        assertEquals(2, estatisticaService.consultar(1).getAprovadas());
+        assertEquals(1, estatisticaDiariaRepository.count());
+    }
+
+    @Test
+    void registrar_NaoDeveContarDecisaoDesfeita() {
+        transactionTemplate.executeWithoutResult(status -> {
+            criar("1000.00", 12);
+            status.setRollbackOnly();
+        });
+        estatisticaService.descarregar();
+
+        assertEquals(0, estatisticaService.consultar(30).getAprovadas());
+    }
+
+    @Test
+    void reconstruir_DeveChegarAoMesmoResultadoQueOIncremental() {
+        criar("1000.00", 12);
+        criar("1500.00", 12);
+        criar("1000.00", 48);
+        estatisticaService.descarregar();
+        EstatisticasDTO incremental = estatisticaService.consultar(30);
+
+        estatisticaDiariaRepository.deleteAll();
+        estatisticaService.reconstruir();
+        EstatisticasDTO reconstruido = estatisticaService.consultar(30);
+
+        assertEquals(incremental.getAprovadas(), reconstruido.getAprovadas());
+        assertEquals(incremental.getReprovadas(), reconstruido.getReprovadas());
+        assertEquals(0, incremental.getValorTotalSolicitado().compareTo(reconstruido.getValorTotalSolicitado()));
+    }
+
+    @Test
+    void consultar_DeveIgnorarDiasForaDoPeriodo() {
+        PropostaCredito antiga = new PropostaCredito();
+        antiga.setValorSolicitado(new BigDecimal("1000.00"));
+        antiga.setNumeroParcelas(12);
+        antiga.setStatus(StatusParcela.APROVADA);
+        antiga.setDataCriacao(Date.from(LocalDate.now().minusDays(40).atStartOfDay(ZoneId.systemDefault()).toInstant()));
+        antiga.setCliente(cliente);
+        propostaCreditoRepository.save(antiga);
+        estatisticaService.reconstruir();
+
+        assertEquals(0, estatisticaService.consultar(30).getAprovadas());
+        assertEquals(1, estatisticaService.consultar(60).getAprovadas());
+    }
+
+    private void criar(String valor, int parcelas) {
+        PropostaCredito proposta = new PropostaCredito();
+        proposta.setValorSolicitado(new BigDecimal(valor));
+        proposta.setNumeroParcelas(parcelas);
+        propostaCreditoService.criarProposta(cliente.getId(), proposta);
+    }
+}
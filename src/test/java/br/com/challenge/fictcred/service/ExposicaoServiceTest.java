@@ -0,0 +1,161 @@
+package br.com.challenge.fictcred.service;
+
+import br.com.challenge.fictcred.arquivamento.ArquivamentoPropostas;
+import br.com.challenge.fictcred.dto.PropostaCreditoLoteItemDTO;
+import br.com.challenge.fictcred.enums.StatusParcela;
+import br.com.challenge.fictcred.model.Cliente;
+import br.com.challenge.fictcred.model.ExposicaoCliente;
+import br.com.challenge.fictcred.model.PropostaCredito;
+import br.com.challenge.fictcred.repository.ClienteRepository;
+import br.com.challenge.fictcred.repository.ExposicaoClienteRepository;
+import br.com.challenge.fictcred.repository.PropostaCreditoArquivadaRepository;
+import br.com.challenge.fictcred.repository.PropostaCreditoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ExposicaoServiceTest {
+
+    private static final int THREADS = 8;
+    private static final int PROPOSTAS_POR_THREAD = 5;
+
+    @Autowired
+    private PropostaCreditoService propostaCreditoService;
+
+    @Autowired
+    private PropostaCreditoRepository propostaCreditoRepository;
+
+    @Autowired
+    private ExposicaoClienteRepository exposicaoClienteRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private PropostaCreditoArquivadaRepository propostaCreditoArquivadaRepository;
+
+    @Autowired
+    private ArquivamentoPropostas arquivamentoPropostas;
+
+    private Cliente cliente;
+
+    @BeforeEach
+    void setUp() {
+        cliente = new Cliente();
+        cliente.setNome("Cliente Exposição");
+        cliente.setCpf(String.valueOf(System.nanoTime()));
+        cliente.setRendaMensal(new BigDecimal("1000.00"));
+        cliente.setDataCadastro(new Date());
+        cliente = clienteRepository.save(cliente);
+    }
+
+    @Test
+    void criarProposta_ConcorrenteNaoDeveUltrapassarLimiteDeExposicao() throws Exception {
+        // 40 propostas de 1000 disputando um limite de 10000 (10x a renda)
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> tarefas = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int t = 0; t < THREADS; t++) {
+                tarefas.add(executor.submit(() -> {
+                    largada.await();
+                    for (int i = 0; i < PROPOSTAS_POR_THREAD; i++) {
+                        PropostaCredito proposta = new PropostaCredito();
+                        proposta.setValorSolicitado(new BigDecimal("1000.00"));
+                        proposta.setNumeroParcelas(12);
+                        propostaCreditoService.criarProposta(cliente.getId(), proposta);
+                    }
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+        }
+
+        assertRazaoConsistente(10, new BigDecimal("10000.00"));
+        assertEquals(THREADS * PROPOSTAS_POR_THREAD - 10, contar(StatusParcela.REPROVADA));
+    }
+
+    @Test
+    void criarPropostasEmLote_DeveContarExposicaoJaAprovada() {
+        PropostaCredito anterior = new PropostaCredito();
+        anterior.setValorSolicitado(new BigDecimal("4000.00"));
+        anterior.setNumeroParcelas(12);
+        propostaCreditoService.criarProposta(cliente.getId(), anterior);
+
+        List<PropostaCreditoLoteItemDTO> itens = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            PropostaCreditoLoteItemDTO item = new PropostaCreditoLoteItemDTO();
+            item.setClienteId(cliente.getId());
+            item.setValorSolicitado(new BigDecimal("2000.00"));
+            item.setNumeroParcelas(12);
+            itens.add(item);
+        }
+        propostaCreditoService.criarPropostasEmLote(itens);
+
+        assertRazaoConsistente(4, new BigDecimal("10000.00"));
+    }
+
+    @Test
+    void criarProposta_RazaoNovoDeveContarAprovadasJaArquivadas() {
+        PropostaCredito antiga = new PropostaCredito();
+        antiga.setCliente(cliente);
+        antiga.setValorSolicitado(new BigDecimal("9000.00"));
+        antiga.setNumeroParcelas(12);
+        antiga.setStatus(StatusParcela.APROVADA);
+        antiga.setDataCriacao(Date.from(Instant.now().minus(500, ChronoUnit.DAYS)));
+        antiga = propostaCreditoRepository.save(antiga);
+        arquivamentoPropostas.executar(Instant.now());
+        assertTrue(propostaCreditoArquivadaRepository.existsById(antiga.getId()));
+        assertTrue(exposicaoClienteRepository.findById(cliente.getId()).isEmpty());
+
+        // O razão é criado agora: com os 9000 arquivados, mais 2000 passam do limite de 10000 (10x a renda)
+        PropostaCredito proposta = new PropostaCredito();
+        proposta.setValorSolicitado(new BigDecimal("2000.00"));
+        proposta.setNumeroParcelas(12);
+        PropostaCredito resultado = propostaCreditoService.criarProposta(cliente.getId(), proposta);
+
+        assertEquals(StatusParcela.REPROVADA, resultado.getStatus());
+        assertEquals("exposicao-maxima-10x-renda", resultado.getRegraReprovacao());
+        assertEquals(0, new BigDecimal("9000.00").compareTo(
+                exposicaoClienteRepository.findById(cliente.getId()).orElseThrow().getTotalAprovado()));
+    }
+
+    // O razão precisa bater exatamente com as propostas aprovadas: nenhuma atualização perdida
+    private void assertRazaoConsistente(int aprovadas, BigDecimal total) {
+        ExposicaoCliente exposicao = exposicaoClienteRepository.findById(cliente.getId()).orElseThrow();
+        BigDecimal soma = propostaCreditoRepository.findAll().stream()
+                .filter(p -> p.getCliente().getId().equals(cliente.getId()) && p.getStatus() == StatusParcela.APROVADA)
+                .map(PropostaCredito::getValorSolicitado)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        assertEquals(aprovadas, contar(StatusParcela.APROVADA));
+        assertEquals(aprovadas, exposicao.getPropostasAbertas());
+        assertEquals(0, total.compareTo(soma));
+        assertEquals(0, total.compareTo(exposicao.getTotalAprovado()));
+    }
+
+    private long contar(StatusParcela status) {
+        return propostaCreditoRepository.findAll().stream()
+                .filter(p -> p.getCliente().getId().equals(cliente.getId()) && p.getStatus() == status)
+                .count();
+    }
+}
@@ -0,0 +1,91 @@
+package br.com.challenge.fictcred.service;
+
+import br.com.challenge.fictcred.fila.FilaPropostas;
+import br.com.challenge.fictcred.model.PropostaCredito;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class PropostaAssincronaServiceTest {
+
+    @Mock
+    private PropostaCreditoService propostaCreditoService;
+
+    @Mock
+    private FilaPropostas filaPropostas;
+
+    @InjectMocks
+    private PropostaAssincronaService propostaAssincronaService;
+
+    private PropostaCredito proposta;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        proposta = new PropostaCredito();
+        proposta.setValorSolicitado(new BigDecimal("1000.00"));
+        proposta.setNumeroParcelas(12);
+    }
+
+    @Test
+    void criarProposta_DeveGravarPendenteEEnfileirar() {
+        when(filaPropostas.reservar()).thenReturn(true);
+        when(propostaCreditoService.registrarPendente(1L, proposta)).thenAnswer(invocacao -> {
+            proposta.setId(10L);
+            return proposta;
+        });
+
+        PropostaCredito resultado = propostaAssincronaService.criarProposta(1L, proposta);
+
+        assertEquals(10L, resultado.getId());
+        verify(filaPropostas).enfileirar(10L);
+        verify(filaPropostas, never()).cancelarReserva();
+    }
+
+    @Test
+    void criarProposta_DeveLancarExcecaoSemGravarQuandoFilaCheia() {
+        when(filaPropostas.reservar()).thenReturn(false);
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> propostaAssincronaService.criarProposta(1L, proposta));
+
+        assertEquals(PropostaAssincronaService.FILA_CHEIA, exception.getMessage());
+        verify(propostaCreditoService, never()).registrarPendente(anyLong(), any());
+    }
+
+    @Test
+    void criarProposta_DeveDevolverVagaQuandoClienteNaoEncontrado() {
+        when(filaPropostas.reservar()).thenReturn(true);
+        when(propostaCreditoService.registrarPendente(1L, proposta)).thenThrow(new RuntimeException("Cliente não encontrado"));
+
+        assertThrows(RuntimeException.class, () -> propostaAssincronaService.criarProposta(1L, proposta));
+
+        verify(filaPropostas).cancelarReserva();
+        verify(filaPropostas, never()).enfileirar(any());
+    }
+
+    @Test
+    void recuperarPendentes_DeveReenfileirarTodasAsPaginas() throws InterruptedException {
+        List<Long> primeiraPagina = LongStream.rangeClosed(1, 500).boxed().toList();
+        when(propostaCreditoService.listarIdsPendentes(0L, 500)).thenReturn(primeiraPagina);
+        when(propostaCreditoService.listarIdsPendentes(500L, 500)).thenReturn(List.of(501L));
+
+        propostaAssincronaService.recuperarPendentes();
+
+        verify(filaPropostas, timeout(5000)).enfileirarAguardando(501L);
+        verify(filaPropostas, times(501)).enfileirarAguardando(anyLong());
+        verify(propostaCreditoService, times(2)).listarIdsPendentes(anyLong(), anyInt());
+    }
+}
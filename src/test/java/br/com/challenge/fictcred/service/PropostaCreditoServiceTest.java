@@ -1,24 +1,55 @@
 package br.com.challenge.fictcred.service;
 
+import br.com.challenge.fictcred.cache.CanalInvalidacaoLocal;
+import br.com.challenge.fictcred.cache.VersaoClienteCache;
+import br.com.challenge.fictcred.dto.FiltroBuscaPropostaDTO;
+import br.com.challenge.fictcred.dto.PaginaDTO;
+import br.com.challenge.fictcred.dto.PropostaCreditoListDTO;
+import br.com.challenge.fictcred.dto.PropostaCreditoLoteItemDTO;
+import br.com.challenge.fictcred.dto.PropostaCreditoLoteResultadoDTO;
 import br.com.challenge.fictcred.enums.StatusParcela;
+import br.com.challenge.fictcred.metricas.MetricasCredito;
 import br.com.challenge.fictcred.model.Cliente;
+import br.com.challenge.fictcred.model.EventoDecisao;
+import br.com.challenge.fictcred.model.ExposicaoCliente;
 import br.com.challenge.fictcred.model.PropostaCredito;
 import br.com.challenge.fictcred.repository.ClienteRepository;
+import br.com.challenge.fictcred.repository.EventoDecisaoRepository;
+import br.com.challenge.fictcred.repository.PropostaCreditoArquivadaRepository;
 import br.com.challenge.fictcred.repository.PropostaCreditoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
-import java.util.Arrays;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.*;
 
 class PropostaCreditoServiceTest {
@@ -26,9 +57,41 @@ class PropostaCreditoServiceTest {
     @Mock
     private PropostaCreditoRepository propostaCreditoRepository;
 
+    @Mock
+    private PropostaCreditoArquivadaRepository propostaCreditoArquivadaRepository;
+
     @Mock
     private ClienteRepository clienteRepository;
 
+    @Mock
+    private EventoDecisaoRepository eventoDecisaoRepository;
+
+    @Mock
+    private EstatisticaService estatisticaService;
+
+    @Mock
+    private ExposicaoService exposicaoService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private VersaoClienteCache versaoClienteCache = new VersaoClienteCache(100, Duration.ofSeconds(5), new CanalInvalidacaoLocal());
+
+    @Spy
+    private RegraCreditoService regraCreditoService = new RegraCreditoService();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private MetricasCredito metricasCredito = new MetricasCredito(meterRegistry);
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
     @InjectMocks
     private PropostaCreditoService propostaCreditoService;
 
@@ -53,16 +116,35 @@ class PropostaCreditoServiceTest {
         proposta.setDataCriacao(new Date());
     }
 
+    // Simula o bloqueio devolvendo um razão em memória para cada cliente conhecido
+    private Map<Long, ExposicaoCliente> razoes(Cliente... clientes) {
+        Map<Long, ExposicaoCliente> razoes = new HashMap<>();
+        for (Cliente c : clientes) {
+            razoes.put(c.getId(), new ExposicaoCliente(c.getId(), c, BigDecimal.ZERO, 0, 0L));
+        }
+        when(exposicaoService.travar(anyCollection())).thenAnswer(invocacao -> {
+            Map<Long, ExposicaoCliente> travados = new HashMap<>();
+            for (Long id : invocacao.<Collection<Long>>getArgument(0)) {
+                if (razoes.containsKey(id)) {
+                    travados.put(id, razoes.get(id));
+                }
+            }
+            return travados;
+        });
+        return razoes;
+    }
+
     @Test
     void criarProposta_DeveCriarPropostaAprovadaQuandoAtendeRegras() {
-        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        razoes(cliente);
         when(propostaCreditoRepository.save(any(PropostaCredito.class))).thenReturn(proposta);
 
         PropostaCredito resultado = propostaCreditoService.criarProposta(1L, proposta);
 
         assertNotNull(resultado);
         assertEquals(StatusParcela.APROVADA, resultado.getStatus());
-        verify(clienteRepository, times(1)).findById(1L);
+        verify(clienteRepository, never()).findById(any());
+        verify(exposicaoService, times(1)).travar(List.of(1L));
         verify(propostaCreditoRepository, times(1)).save(any(PropostaCredito.class));
     }
 
@@ -70,14 +152,22 @@ class PropostaCreditoServiceTest {
     void criarProposta_DeveCriarPropostaReprovadaQuandoValorExcedeLimite() {
         proposta.setValorSolicitado(new BigDecimal("30000.00")); // 6x renda mensal
 
-        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        razoes(cliente);
         when(propostaCreditoRepository.save(any(PropostaCredito.class))).thenReturn(proposta);
 
         PropostaCredito resultado = propostaCreditoService.criarProposta(1L, proposta);
 
         assertNotNull(resultado);
         assertEquals(StatusParcela.REPROVADA, resultado.getStatus());
-        verify(clienteRepository, times(1)).findById(1L);
+        assertEquals("valor-maximo-5x-renda", resultado.getRegraReprovacao());
+        assertEquals(1.0, meterRegistry.get(MetricasCredito.DECISOES)
+                .tags("status", "reprovada", "regra", "valor-maximo-5x-renda").counter().count());
+        assertEquals(1, meterRegistry.get(MetricasCredito.AVALIACAO).timer().count());
+        verify(eventoDecisaoRepository).save(argThat(evento -> evento.getStatus() == StatusParcela.REPROVADA
+                && "valor-maximo-5x-renda".equals(evento.getRegraReprovacao())
+                && evento.getClienteId().equals(1L)));
+        verify(estatisticaService).registrar(List.of(proposta));
+        verify(exposicaoService, times(1)).travar(List.of(1L));
         verify(propostaCreditoRepository, times(1)).save(any(PropostaCredito.class));
     }
 
@@ -85,76 +175,374 @@ class PropostaCreditoServiceTest {
     void criarProposta_DeveCriarPropostaReprovadaQuandoParcelasForaDoLimite() {
         proposta.setNumeroParcelas(30); // Mais de 24 parcelas
 
-        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        razoes(cliente);
         when(propostaCreditoRepository.save(any(PropostaCredito.class))).thenReturn(proposta);
 
         PropostaCredito resultado = propostaCreditoService.criarProposta(1L, proposta);
 
         assertNotNull(resultado);
         assertEquals(StatusParcela.REPROVADA, resultado.getStatus());
-        verify(clienteRepository, times(1)).findById(1L);
+        verify(exposicaoService, times(1)).travar(List.of(1L));
         verify(propostaCreditoRepository, times(1)).save(any(PropostaCredito.class));
     }
 
     @Test
     void criarProposta_DeveLancarExcecaoQuandoClienteNaoEncontrado() {
-        when(clienteRepository.findById(1L)).thenReturn(Optional.empty());
+        razoes();
 
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
             propostaCreditoService.criarProposta(1L, proposta);
         });
 
         assertEquals("Cliente não encontrado", exception.getMessage());
-        verify(clienteRepository, times(1)).findById(1L);
+        verify(exposicaoService, times(1)).travar(List.of(1L));
         verify(propostaCreditoRepository, never()).save(any(PropostaCredito.class));
     }
 
+    @Test
+    void criarProposta_DeveAtualizarRazaoSomenteQuandoAprovada() {
+        Map<Long, ExposicaoCliente> razoes = razoes(cliente);
+        when(propostaCreditoRepository.save(any(PropostaCredito.class))).thenAnswer(invocacao -> invocacao.getArgument(0));
+
+        propostaCreditoService.criarProposta(1L, proposta);
+        PropostaCredito reprovada = new PropostaCredito();
+        reprovada.setValorSolicitado(new BigDecimal("1000.00"));
+        reprovada.setNumeroParcelas(36);
+        propostaCreditoService.criarProposta(1L, reprovada);
+
+        assertEquals(0, new BigDecimal("20000.00").compareTo(razoes.get(1L).getTotalAprovado()));
+        assertEquals(1, razoes.get(1L).getPropostasAbertas());
+    }
+
+    @Test
+    void criarProposta_DeveReprovarQuandoExposicaoExcedeLimite() {
+        Map<Long, ExposicaoCliente> razoes = razoes(cliente);
+        razoes.get(1L).setTotalAprovado(new BigDecimal("40000.00"));
+        when(propostaCreditoRepository.save(any(PropostaCredito.class))).thenAnswer(invocacao -> invocacao.getArgument(0));
+
+        PropostaCredito resultado = propostaCreditoService.criarProposta(1L, proposta);
+
+        assertEquals(StatusParcela.REPROVADA, resultado.getStatus());
+        assertEquals("exposicao-maxima-10x-renda", resultado.getRegraReprovacao());
+        assertEquals(0, new BigDecimal("40000.00").compareTo(razoes.get(1L).getTotalAprovado()));
+    }
+
     @Test
     void buscarPorId_DeveRetornarPropostaQuandoEncontrada() {
-        when(propostaCreditoRepository.findById(1L)).thenReturn(Optional.of(proposta));
+        PropostaCreditoListDTO dto = listagem();
+        when(propostaCreditoRepository.findListagemById(1L)).thenReturn(Optional.of(dto));
 
-        Optional<PropostaCredito> resultado = propostaCreditoService.buscarPorId(1L);
+        Optional<PropostaCreditoListDTO> resultado = propostaCreditoService.buscarPorId(1L);
 
         assertTrue(resultado.isPresent());
         assertEquals(1L, resultado.get().getId());
-        verify(propostaCreditoRepository, times(1)).findById(1L);
+        verify(propostaCreditoRepository, times(1)).findListagemById(1L);
+        verify(propostaCreditoRepository, never()).findById(any());
     }
 
     @Test
     void buscarPorId_DeveRetornarVazioQuandoNaoEncontrada() {
-        when(propostaCreditoRepository.findById(1L)).thenReturn(Optional.empty());
+        when(propostaCreditoRepository.findListagemById(1L)).thenReturn(Optional.empty());
 
-        Optional<PropostaCredito> resultado = propostaCreditoService.buscarPorId(1L);
+        Optional<PropostaCreditoListDTO> resultado = propostaCreditoService.buscarPorId(1L);
 
         assertFalse(resultado.isPresent());
-        verify(propostaCreditoRepository, times(1)).findById(1L);
+        verify(propostaCreditoRepository, times(1)).findListagemById(1L);
+    }
+
+    @Test
+    void buscarPorId_DeveConsultarArquivoQuandoNaoEstaNaTabelaPrincipal() {
+        when(propostaCreditoRepository.findListagemById(1L)).thenReturn(Optional.empty());
+        when(propostaCreditoArquivadaRepository.findListagemById(1L)).thenReturn(Optional.of(listagem()));
+
+        assertTrue(propostaCreditoService.buscarPorId(1L).isPresent());
+    }
+
+    @Test
+    void buscar_DeveConsultarAsDuasTabelasJuntas() {
+        FiltroBuscaPropostaDTO filtro = new FiltroBuscaPropostaDTO(null, null, null, null, null, null, null);
+        PropostaCreditoListDTO arquivada = listagem();
+        arquivada.setId(2L);
+        when(propostaCreditoRepository.buscarComArquivadas(filtro, null, null, 3))
+                .thenReturn(List.of(listagem(), arquivada, listagem()));
+
+        PaginaDTO<PropostaCreditoListDTO> resultado = propostaCreditoService.buscar(filtro, null, 2);
+
+        assertEquals(List.of(1L, 2L), resultado.getItens().stream().map(PropostaCreditoListDTO::getId).toList());
+        assertEquals(2L, resultado.getProximoCursor());
+    }
+
+    @Test
+    void buscar_DeveRetornarCursorQuandoExistemMaisPropostas() {
+        FiltroBuscaPropostaDTO filtro = new FiltroBuscaPropostaDTO(List.of(StatusParcela.REPROVADA), null, null,
+                new BigDecimal("50000"), null, null, null);
+        Date dataCursor = new Date();
+        when(propostaCreditoRepository.findDataCriacaoById(9L)).thenReturn(Optional.of(dataCursor));
+        when(propostaCreditoRepository.buscarComArquivadas(filtro, dataCursor, 9L, 2)).thenReturn(List.of(listagem(), listagem()));
+
+        PaginaDTO<PropostaCreditoListDTO> resultado = propostaCreditoService.buscar(filtro, 9L, 1);
+
+        assertEquals(1, resultado.getItens().size());
+        assertEquals(1L, resultado.getProximoCursor());
+    }
+
+    @Test
+    void buscar_DeveLimitarTamanhoERejeitarFiltrosInvalidos() {
+        FiltroBuscaPropostaDTO semFiltro = new FiltroBuscaPropostaDTO(null, null, null, null, null, null, null);
+        when(propostaCreditoRepository.buscarComArquivadas(semFiltro, null, null, PropostaCreditoService.TAMANHO_PAGINA_MAXIMO + 1))
+                .thenReturn(List.of(listagem()));
+        assertNull(propostaCreditoService.buscar(semFiltro, null, 1_000_000).getProximoCursor());
+
+        Date agora = new Date();
+        List<FiltroBuscaPropostaDTO> invalidos = List.of(
+                new FiltroBuscaPropostaDTO(null, agora, agora, null, null, null, null),
+                new FiltroBuscaPropostaDTO(null, null, null, new BigDecimal("10"), new BigDecimal("1"), null, null),
+                new FiltroBuscaPropostaDTO(null, null, null, null, null, 24, 12));
+        for (FiltroBuscaPropostaDTO filtro : invalidos) {
+            RuntimeException exception = assertThrows(RuntimeException.class,
+                    () -> propostaCreditoService.buscar(filtro, null, 10));
+            assertTrue(exception.getMessage().startsWith(PropostaCreditoService.BUSCA_INVALIDA));
+        }
+        when(propostaCreditoRepository.findDataCriacaoById(99L)).thenReturn(Optional.empty());
+        assertThrows(RuntimeException.class, () -> propostaCreditoService.buscar(semFiltro, 99L, 10));
     }
 
     @Test
     void listarPorCliente_DeveRetornarListaDePropostas() {
-        List<PropostaCredito> propostas = Arrays.asList(proposta);
-        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
-        when(propostaCreditoRepository.findByCliente(cliente)).thenReturn(propostas);
+        Pageable pageable = PageRequest.of(0, 50);
+        when(propostaCreditoRepository.findListagemByClienteId(1L, pageable))
+                .thenReturn(new SliceImpl<>(List.of(listagem()), pageable, false));
 
-        List<PropostaCredito> resultado = propostaCreditoService.listarPorCliente(1L);
+        Slice<PropostaCreditoListDTO> resultado = propostaCreditoService.listarPorCliente(1L, pageable);
 
         assertNotNull(resultado);
-        assertEquals(1, resultado.size());
-        assertEquals(1L, resultado.get(0).getId());
-        verify(clienteRepository, times(1)).findById(1L);
-        verify(propostaCreditoRepository, times(1)).findByCliente(cliente);
+        assertEquals(1, resultado.getContent().size());
+        assertEquals(1L, resultado.getContent().get(0).getId());
+        // Com propostas encontradas, o cliente não precisa ser consultado
+        verify(clienteRepository, never()).existsById(any());
+        verify(propostaCreditoRepository, times(1)).findListagemByClienteId(1L, pageable);
+    }
+
+    @Test
+    void listarPorCliente_DeveIncluirArquivadasQuandoClienteTemPropostasNoArquivo() {
+        Pageable pageable = PageRequest.of(2, 1, Sort.by("dataCriacao"));
+        when(propostaCreditoArquivadaRepository.existsByClienteId(1L)).thenReturn(true);
+        when(propostaCreditoRepository.listarComArquivadas(1L, pageable.getSort(), 2, 2))
+                .thenReturn(List.of(listagem(), listagem()));
+
+        Slice<PropostaCreditoListDTO> resultado = propostaCreditoService.listarPorCliente(1L, pageable);
+
+        assertEquals(1, resultado.getContent().size());
+        assertTrue(resultado.hasNext());
+        verify(propostaCreditoRepository, never()).findListagemByClienteId(any(), any());
+    }
+
+    @Test
+    void listarPorCliente_DeveRetornarVazioQuandoClienteSemPropostas() {
+        Pageable pageable = PageRequest.of(0, 50);
+        when(propostaCreditoRepository.findListagemByClienteId(1L, pageable))
+                .thenReturn(new SliceImpl<>(List.of(), pageable, false));
+        when(clienteRepository.existsById(1L)).thenReturn(true);
+
+        Slice<PropostaCreditoListDTO> resultado = propostaCreditoService.listarPorCliente(1L, pageable);
+
+        assertFalse(resultado.hasContent());
+        verify(clienteRepository, times(1)).existsById(1L);
     }
 
     @Test
     void listarPorCliente_DeveLancarExcecaoQuandoClienteNaoEncontrado() {
-        when(clienteRepository.findById(1L)).thenReturn(Optional.empty());
+        Pageable pageable = PageRequest.of(0, 50);
+        when(propostaCreditoRepository.findListagemByClienteId(1L, pageable))
+                .thenReturn(new SliceImpl<>(List.of(), pageable, false));
+        when(clienteRepository.existsById(1L)).thenReturn(false);
 
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            propostaCreditoService.listarPorCliente(1L);
+            propostaCreditoService.listarPorCliente(1L, pageable);
         });
 
         assertEquals("Cliente não encontrado", exception.getMessage());
-        verify(clienteRepository, times(1)).findById(1L);
-        verify(propostaCreditoRepository, never()).findByCliente(any(Cliente.class));
+        verify(clienteRepository, times(1)).existsById(1L);
+    }
+
+    @Test
+    void registrarPendente_DeveGravarSemAvaliar() {
+        proposta.setValorSolicitado(new BigDecimal("30000.00"));
+        Map<Long, ExposicaoCliente> razoes = razoes(cliente);
+        when(propostaCreditoRepository.save(any(PropostaCredito.class))).thenAnswer(invocacao -> invocacao.getArgument(0));
+
+        PropostaCredito resultado = propostaCreditoService.registrarPendente(1L, proposta);
+
+        assertEquals(StatusParcela.PENDENTE, resultado.getStatus());
+        assertNull(resultado.getRegraReprovacao());
+        assertNotNull(resultado.getDataCriacao());
+        assertEquals(1L, razoes.get(1L).getVersaoPropostas());
+        assertEquals(0, razoes.get(1L).getPropostasAbertas());
+        verify(regraCreditoService, never()).getAvaliador();
+    }
+
+    @Test
+    void registrarPendente_DeveLancarExcecaoQuandoClienteNaoEncontrado() {
+        razoes();
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> propostaCreditoService.registrarPendente(1L, proposta));
+
+        assertEquals("Cliente não encontrado", exception.getMessage());
+        verify(propostaCreditoRepository, never()).save(any());
+    }
+
+    @Test
+    void criarProposta_DeveIncrementarVersaoDasPropostasEInvalidarCache() {
+        proposta.setValorSolicitado(new BigDecimal("60000.00"));
+        Map<Long, ExposicaoCliente> razoes = razoes(cliente);
+        when(propostaCreditoRepository.save(any(PropostaCredito.class))).thenReturn(proposta);
+
+        propostaCreditoService.criarProposta(1L, proposta);
+
+        // Reprovada também muda a lista do cliente
+        assertEquals(StatusParcela.REPROVADA, proposta.getStatus());
+        assertEquals(1L, razoes.get(1L).getVersaoPropostas());
+        verify(versaoClienteCache).invalidar(1L);
+    }
+
+    @Test
+    void avaliarPendentes_DeveAvaliarSomenteAsAindaPendentes() {
+        PropostaCredito aprovada = new PropostaCredito();
+        aprovada.setId(1L);
+        aprovada.setValorSolicitado(new BigDecimal("1000.00"));
+        aprovada.setNumeroParcelas(12);
+        aprovada.setStatus(StatusParcela.PENDENTE);
+        aprovada.setCliente(cliente);
+        PropostaCredito reprovada = new PropostaCredito();
+        reprovada.setId(2L);
+        reprovada.setValorSolicitado(new BigDecimal("1000.00"));
+        reprovada.setNumeroParcelas(36);
+        reprovada.setStatus(StatusParcela.PENDENTE);
+        reprovada.setCliente(cliente);
+        when(propostaCreditoRepository.findClienteIdsByIdInAndStatus(List.of(1L, 2L, 3L), StatusParcela.PENDENTE))
+                .thenReturn(List.of(1L));
+        when(propostaCreditoRepository.findByIdInAndStatusComCliente(List.of(1L, 2L, 3L), StatusParcela.PENDENTE))
+                .thenReturn(List.of(aprovada, reprovada));
+        Map<Long, ExposicaoCliente> razoes = razoes(cliente);
+
+        int avaliadas = propostaCreditoService.avaliarPendentes(List.of(1L, 2L, 3L));
+
+        assertEquals(2, avaliadas);
+        assertEquals(StatusParcela.APROVADA, aprovada.getStatus());
+        assertEquals(StatusParcela.REPROVADA, reprovada.getStatus());
+        assertEquals("parcelas-entre-1-e-24", reprovada.getRegraReprovacao());
+        verify(entityManager, times(2)).persist(any(EventoDecisao.class));
+        verify(exposicaoService).travar(List.of(1L));
+        assertEquals(1, razoes.get(1L).getPropostasAbertas());
+    }
+
+    @Test
+    void avaliarPendentes_DeveLerAsPropostasSoDepoisDeTravarOsClientes() {
+        when(propostaCreditoRepository.findClienteIdsByIdInAndStatus(List.of(1L), StatusParcela.PENDENTE))
+                .thenReturn(List.of(1L));
+        // Outra avaliação da mesma proposta terminou enquanto esta esperava pela trava
+        when(propostaCreditoRepository.findByIdInAndStatusComCliente(List.of(1L), StatusParcela.PENDENTE))
+                .thenReturn(List.of());
+        razoes(cliente);
+
+        int avaliadas = propostaCreditoService.avaliarPendentes(List.of(1L));
+
+        assertEquals(0, avaliadas);
+        InOrder ordem = inOrder(exposicaoService, propostaCreditoRepository);
+        ordem.verify(exposicaoService).travar(List.of(1L));
+        ordem.verify(propostaCreditoRepository).findByIdInAndStatusComCliente(List.of(1L), StatusParcela.PENDENTE);
+        verify(entityManager, never()).persist(any(EventoDecisao.class));
+    }
+
+    @Test
+    void criarPropostasEmLote_DeveTravarClientesUmaVezEAvaliarCadaItem() {
+        Cliente outroCliente = new Cliente();
+        outroCliente.setId(2L);
+        outroCliente.setRendaMensal(new BigDecimal("1000.00"));
+        razoes(cliente, outroCliente);
+
+        List<PropostaCreditoLoteResultadoDTO> resultados = propostaCreditoService.criarPropostasEmLote(List.of(
+                item(1L, "20000.00", 12),
+                item(2L, "20000.00", 12),
+                item(3L, "1000.00", 12),
+                item(1L, "1000.00", 0)));
+
+        assertEquals(4, resultados.size());
+        assertEquals(StatusParcela.APROVADA, resultados.get(0).getStatus());
+        assertEquals(StatusParcela.REPROVADA, resultados.get(1).getStatus());
+        assertEquals("Cliente não encontrado", resultados.get(2).getErro());
+        assertNull(resultados.get(2).getStatus());
+        assertNotNull(resultados.get(3).getErro());
+        verify(exposicaoService, times(1)).travar(Set.of(1L, 2L, 3L));
+        verify(entityManager, times(2)).persist(any(PropostaCredito.class));
+        verify(entityManager, times(1)).flush();
+    }
+
+    @Test
+    void criarPropostasEmLote_DeveDividirEmBlocos() {
+        razoes(cliente);
+        List<PropostaCreditoLoteItemDTO> itens = new ArrayList<>();
+        for (int i = 0; i < PropostaCreditoService.TAMANHO_LOTE + 1; i++) {
+            itens.add(item(1L, "1000.00", 12));
+        }
+
+        List<PropostaCreditoLoteResultadoDTO> resultados = propostaCreditoService.criarPropostasEmLote(itens);
+
+        assertEquals(PropostaCreditoService.TAMANHO_LOTE + 1, resultados.size());
+        assertEquals(PropostaCreditoService.TAMANHO_LOTE, resultados.get(PropostaCreditoService.TAMANHO_LOTE).getIndice());
+        verify(exposicaoService, times(2)).travar(Set.of(1L));
+        verify(entityManager, times(2)).flush();
+    }
+
+    @Test
+    void criarPropostasEmLote_FalhaNumBlocoNaoDeveDescartarOsBlocosJaGravados() {
+        razoes(cliente);
+        List<PropostaCreditoLoteItemDTO> itens = new ArrayList<>();
+        for (int i = 0; i < PropostaCreditoService.TAMANHO_LOTE + 1; i++) {
+            itens.add(item(1L, "1000.00", 12));
+        }
+        itens.add(item(1L, "1000.00", 0));
+        doNothing().doThrow(new IllegalStateException("banco indisponível")).when(entityManager).flush();
+
+        List<PropostaCreditoLoteResultadoDTO> resultados = propostaCreditoService.criarPropostasEmLote(itens);
+
+        assertEquals(PropostaCreditoService.TAMANHO_LOTE + 2, resultados.size());
+        assertEquals(StatusParcela.APROVADA, resultados.get(0).getStatus());
+        assertNull(resultados.get(0).getErro());
+        PropostaCreditoLoteResultadoDTO descartado = resultados.get(PropostaCreditoService.TAMANHO_LOTE);
+        assertNull(descartado.getStatus());
+        assertEquals(PropostaCreditoService.FALHA_BLOCO, descartado.getErro());
+        // O erro de validação do item continua sendo o motivo informado
+        assertNotEquals(PropostaCreditoService.FALHA_BLOCO, resultados.get(PropostaCreditoService.TAMANHO_LOTE + 1).getErro());
+    }
+
+    @Test
+    void criarPropostasEmLote_ItensDoMesmoClienteDevemSomarExposicao() {
+        razoes(cliente);
+
+        // Renda de 5000: limite de exposição de 50000, cada item isolado cabe no limite de 5x
+        List<PropostaCreditoLoteResultadoDTO> resultados = propostaCreditoService.criarPropostasEmLote(List.of(
+                item(1L, "25000.00", 12),
+                item(1L, "25000.00", 12),
+                item(1L, "1000.00", 12)));
+
+        assertEquals(StatusParcela.APROVADA, resultados.get(0).getStatus());
+        assertEquals(StatusParcela.APROVADA, resultados.get(1).getStatus());
+        assertEquals(StatusParcela.REPROVADA, resultados.get(2).getStatus());
+        assertEquals("exposicao-maxima-10x-renda", resultados.get(2).getRegraReprovacao());
+    }
+
+    private PropostaCreditoListDTO listagem() {
+        return new PropostaCreditoListDTO(1L, proposta.getValorSolicitado(), proposta.getNumeroParcelas(),
+                StatusParcela.APROVADA, proposta.getDataCriacao(), 1L, cliente.getNome(), null);
+    }
+
+    private PropostaCreditoLoteItemDTO item(Long clienteId, String valor, int parcelas) {
+        PropostaCreditoLoteItemDTO item = new PropostaCreditoLoteItemDTO();
+        item.setClienteId(clienteId);
+        item.setValorSolicitado(new BigDecimal(valor));
+        item.setNumeroParcelas(parcelas);
+        return item;
     }
 }
@@ -0,0 +1,188 @@
+package br.com.challenge.fictcred.service;
+
+import br.com.challenge.fictcred.enums.StatusParcela;
+import br.com.challenge.fictcred.metricas.MetricasCredito;
+import br.com.challenge.fictcred.regra.AvaliadorCredito;
+import br.com.challenge.fictcred.regra.ResultadoAvaliacao;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegraCreditoServiceTest {
+
+    private static final BigDecimal RENDA = new BigDecimal("5000.00");
+
+    @TempDir
+    Path diretorio;
+
+    private Path arquivo;
+    private SimpleMeterRegistry registry;
+    private RegraCreditoService regraCreditoService;
+
+    @BeforeEach
+    void setUp() {
+        arquivo = diretorio.resolve("regras.json");
+        registry = new SimpleMeterRegistry();
+        regraCreditoService = new RegraCreditoService();
+        ReflectionTestUtils.setField(regraCreditoService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(regraCreditoService, "metricasCredito", new MetricasCredito(registry));
+        ReflectionTestUtils.setField(regraCreditoService, "localizacao", new FileSystemResource(arquivo));
+    }
+
+    @Test
+    void padrao_DeveAplicarRegrasOriginais() {
+        AvaliadorCredito avaliador = AvaliadorCredito.padrao();
+
+        assertTrue(avaliador.avaliar(new BigDecimal("25000.00"), 24, RENDA).isAprovada());
+        assertEquals("valor-maximo-5x-renda", avaliador.avaliar(new BigDecimal("25000.01"), 12, RENDA).getRegra());
+        assertEquals("parcelas-entre-1-e-24", avaliador.avaliar(new BigDecimal("100.00"), 0, RENDA).getRegra());
+        assertEquals("parcelas-entre-1-e-24", avaliador.avaliar(new BigDecimal("100.00"), 25, RENDA).getRegra());
+    }
+
+    @Test
+    void carregar_DeveUsarDefinicaoDoClasspathEquivalenteAoPadrao() throws IOException {
+        ReflectionTestUtils.setField(regraCreditoService, "localizacao", new ClassPathResource("regras-credito.json"));
+
+        regraCreditoService.carregar();
+
+        assertEquals(AvaliadorCredito.padrao().getNomesRegras(), regraCreditoService.getAvaliador().getNomesRegras());
+    }
+
+    @Test
+    void carregar_DeveOrdenarRegrasPorCustoEInformarRegraQueReprovou() throws IOException {
+        escrever("""
+                [
+                  {"nome": "multiplo-renda", "tipo": "VALOR_MAXIMO_MULTIPLO_RENDA", "fator": 2},
+                  {"nome": "valor-teto", "tipo": "VALOR_MAXIMO", "valor": 50000},
+                  {"nome": "parcelas", "tipo": "PARCELAS_ENTRE", "minimo": 1, "maximo": 12},
+                  {"nome": "desligada", "tipo": "RENDA_MINIMA", "valor": 999999, "ativa": false}
+                ]
+                """);
+
+        regraCreditoService.carregar();
+        AvaliadorCredito avaliador = regraCreditoService.getAvaliador();
+
+        assertEquals(List.of("parcelas", "valor-teto", "multiplo-renda"), avaliador.getNomesRegras());
+        ResultadoAvaliacao resultado = avaliador.avaliar(new BigDecimal("60000.00"), 36, RENDA);
+        assertEquals(StatusParcela.REPROVADA, resultado.getStatus());
+        assertEquals("parcelas", resultado.getRegra());
+        assertEquals("valor-teto", avaliador.avaliar(new BigDecimal("60000.00"), 12, RENDA).getRegra());
+        assertEquals("multiplo-renda", avaliador.avaliar(new BigDecimal("10000.01"), 12, RENDA).getRegra());
+        assertSame(ResultadoAvaliacao.APROVADA, avaliador.avaliar(new BigDecimal("10000.00"), 12, RENDA));
+    }
+
+    @Test
+    void carregar_DeveAplicarRegrasDeExposicao() throws IOException {
+        escrever("""
+                [
+                  {"nome": "abertas", "tipo": "PROPOSTAS_ABERTAS_MAXIMO", "maximo": 3},
+                  {"nome": "exposicao", "tipo": "EXPOSICAO_MAXIMA_MULTIPLO_RENDA", "fator": 4}
+                ]
+                """);
+
+        regraCreditoService.carregar();
+        AvaliadorCredito avaliador = regraCreditoService.getAvaliador();
+
+        assertTrue(avaliador.avaliar(new BigDecimal("5000.00"), 12, RENDA, new BigDecimal("15000.00"), 2).isAprovada());
+        assertEquals("exposicao", avaliador.avaliar(new BigDecimal("5000.01"), 12, RENDA, new BigDecimal("15000.00"), 2).getRegra());
+        assertEquals("abertas", avaliador.avaliar(BigDecimal.TEN, 12, RENDA, BigDecimal.ZERO, 3).getRegra());
+    }
+
+    @Test
+    void carregar_DeveUsarSeletividadeComoDesempate() throws IOException {
+        escrever("""
+                [
+                  {"nome": "minimo", "tipo": "VALOR_MINIMO", "valor": 100, "seletividade": 0.01},
+                  {"nome": "teto", "tipo": "VALOR_MAXIMO", "valor": 1000, "seletividade": 0.4}
+                ]
+                """);
+
+        regraCreditoService.carregar();
+
+        assertEquals(List.of("teto", "minimo"), regraCreditoService.getAvaliador().getNomesRegras());
+    }
+
+    @Test
+    void recarregarSeAlterado_DeveTrocarRegrasQuandoArquivoMuda() throws IOException {
+        escrever("""
+                [{"nome": "parcelas", "tipo": "PARCELAS_ENTRE", "minimo": 1, "maximo": 12}]
+                """);
+        regraCreditoService.carregar();
+        assertFalse(regraCreditoService.getAvaliador().avaliar(BigDecimal.TEN, 18, RENDA).isAprovada());
+
+        escrever("""
+                [{"nome": "parcelas", "tipo": "PARCELAS_ENTRE", "minimo": 1, "maximo": 48}]
+                """);
+        Files.setLastModifiedTime(arquivo, FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+        regraCreditoService.recarregarSeAlterado();
+
+        assertTrue(regraCreditoService.getAvaliador().avaliar(BigDecimal.TEN, 18, RENDA).isAprovada());
+    }
+
+    @Test
+    void recarregarSeAlterado_DeveRegistrarContadorDeReprovacaoDasRegrasNovas() throws IOException {
+        escrever("""
+                [{"nome": "parcelas", "tipo": "PARCELAS_ENTRE", "minimo": 1, "maximo": 12}]
+                """);
+        regraCreditoService.carregar();
+        assertEquals(0.0, registry.get(MetricasCredito.DECISOES).tags("status", "reprovada", "regra", "parcelas").counter().count());
+
+        escrever("""
+                [
+                  {"nome": "parcelas", "tipo": "PARCELAS_ENTRE", "minimo": 1, "maximo": 12},
+                  {"nome": "teto", "tipo": "VALOR_MAXIMO", "valor": 1000}
+                ]
+                """);
+        Files.setLastModifiedTime(arquivo, FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+        regraCreditoService.recarregarSeAlterado();
+
+        assertNotNull(registry.find(MetricasCredito.DECISOES).tags("status", "reprovada", "regra", "teto").counter());
+    }
+
+    @Test
+    void recarregarSeAlterado_DeveManterRegrasAtuaisQuandoDefinicaoInvalida() throws IOException {
+        escrever("""
+                [{"nome": "parcelas", "tipo": "PARCELAS_ENTRE", "minimo": 1, "maximo": 12}]
+                """);
+        regraCreditoService.carregar();
+        AvaliadorCredito anterior = regraCreditoService.getAvaliador();
+
+        escrever("""
+                [{"nome": "parcelas", "tipo": "PARCELAS_ENTRE"}]
+                """);
+        Files.setLastModifiedTime(arquivo, FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+        regraCreditoService.recarregarSeAlterado();
+
+        assertSame(anterior, regraCreditoService.getAvaliador());
+    }
+
+    @Test
+    void compilar_DeveRejeitarRegrasComNomeDuplicado() throws IOException {
+        escrever("""
+                [
+                  {"nome": "x", "tipo": "VALOR_MAXIMO", "valor": 1},
+                  {"nome": "x", "tipo": "VALOR_MINIMO", "valor": 1}
+                ]
+                """);
+
+        assertThrows(IllegalArgumentException.class, () -> regraCreditoService.carregar());
+    }
+
+    private void escrever(String conteudo) throws IOException {
+        Files.writeString(arquivo, conteudo);
+    }
+}